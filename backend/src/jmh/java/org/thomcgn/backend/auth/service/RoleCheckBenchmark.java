@@ -0,0 +1,123 @@
+package org.thomcgn.backend.auth.service;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thomcgn.backend.auth.model.Role;
+import org.thomcgn.backend.common.security.JwtPrincipal;
+import org.thomcgn.backend.common.security.JwtProperties;
+import org.thomcgn.backend.common.security.JwtService;
+import org.thomcgn.backend.orgunits.model.OrgUnit;
+import org.thomcgn.backend.orgunits.model.OrgUnitType;
+import org.thomcgn.backend.orgunits.repo.OrgUnitRepository;
+import org.thomcgn.backend.orgunits.service.OrgUnitHierarchyIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Berechtigungsprüfung aus FalleroeffnungService.get():
+ * requireAccessToEinrichtungObject(...) mit fünf Rollen, Bit-Test vs. alter Authority-Stream,
+ * sowie die Scope-Prüfungen requireTeamUnderEinrichtung / activeEinrichtungId.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleCheckBenchmark {
+
+    private static final long TRAEGER_ID = 1L;
+    private static final long EINRICHTUNG_ID = 10L;
+    private static final long TEAM_ID = 11L;
+
+    private static final Role[] GET_ROLES = {
+            Role.LESEN, Role.FACHKRAFT, Role.TEAMLEITUNG, Role.EINRICHTUNG_ADMIN, Role.TRAEGER_ADMIN
+    };
+
+    private AccessControlService access;
+
+    @Setup
+    public void setup() {
+        JwtProperties props = new JwtProperties();
+        props.setSecret("bench-bench-bench-bench-bench-bench-bench-bench");
+        props.setIssuer("kidoc");
+        JwtService jwtService = new JwtService(props);
+
+        // Kontext = Team unter der Einrichtung, Rolle LESEN (vierter Treffer bei der alten Reihenfolge)
+        String token = jwtService.issueContextToken(7L, TRAEGER_ID, TEAM_ID, List.of("SCHREIBEN", "LESEN"), "bench@kidoc.local");
+        var claims = jwtService.parse(token).getBody();
+        JwtPrincipal principal = new JwtPrincipal(7L, "bench@kidoc.local", claims);
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_SCHREIBEN"));
+        authorities.add(new SimpleGrantedAuthority("ROLE_LESEN"));
+        authorities.add(new SimpleGrantedAuthority("ROLE_AUTHENTICATED"));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, authorities));
+
+        OrgUnit root = orgUnit(1L, OrgUnitType.TRAEGER, null);
+        OrgUnit einrichtung = orgUnit(EINRICHTUNG_ID, OrgUnitType.EINRICHTUNG, root);
+        OrgUnit team = orgUnit(TEAM_ID, OrgUnitType.TEAM, einrichtung);
+
+        OrgUnitRepository repo = Mockito.mock(OrgUnitRepository.class);
+        when(repo.findAllEnabledByTraegerId(TRAEGER_ID)).thenReturn(List.of(root, einrichtung, team));
+
+        access = new AccessControlService(repo, new OrgUnitHierarchyIndex(repo));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void requireAccessToEinrichtungObject() {
+        access.requireAccessToEinrichtungObject(TRAEGER_ID, EINRICHTUNG_ID, GET_ROLES);
+    }
+
+    @Benchmark
+    public boolean hasAnyBits() {
+        return access.hasAny(GET_ROLES);
+    }
+
+    /** Scope: Team liegt unter der Einrichtung (Hierarchie-Index). */
+    @Benchmark
+    public void requireTeamUnderEinrichtung() {
+        access.requireTeamUnderEinrichtung(TEAM_ID, EINRICHTUNG_ID);
+    }
+
+    /** Scope: Einrichtung zum aktiven Kontext (Team) auflösen. */
+    @Benchmark
+    public Long activeEinrichtungId() {
+        return access.activeEinrichtungId();
+    }
+
+    /** Vorherige Implementierung: pro Rolle String-Konkatenation + Stream über die Authorities. */
+    @Benchmark
+    public boolean hasAnyAuthorityStream() {
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        for (Role r : GET_ROLES) {
+            String required = "ROLE_" + r.name();
+            if (auth.getAuthorities().stream().anyMatch(a -> required.equals(a.getAuthority()))) return true;
+        }
+        return false;
+    }
+
+    private static OrgUnit orgUnit(Long id, OrgUnitType type, OrgUnit parent) {
+        OrgUnit ou = new OrgUnit();
+        ReflectionTestUtils.setField(ou, "id", id);
+        ou.setType(type);
+        ou.setParent(parent);
+        ou.setEnabled(true);
+        return ou;
+    }
+}
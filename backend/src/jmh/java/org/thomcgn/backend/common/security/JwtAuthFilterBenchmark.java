@@ -0,0 +1,70 @@
+package org.thomcgn.backend.common.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kosten von JwtAuthFilter pro Request: volle Verifikation vs. Cache-Treffer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    private JwtAuthFilter uncachedFilter;
+    private JwtAuthFilter cachedFilter;
+    private String token;
+
+    private final FilterChain noopChain = (req, res) -> { };
+
+    @Setup
+    public void setup() {
+        JwtProperties props = new JwtProperties();
+        props.setSecret("bench-bench-bench-bench-bench-bench-bench-bench");
+        props.setIssuer("kidoc");
+
+        JwtService jwtService = new JwtService(props);
+        ObjectMapper om = new ObjectMapper();
+
+        JwtProperties noCache = new JwtProperties();
+        noCache.setVerifyCacheEnabled(false);
+
+        uncachedFilter = new JwtAuthFilter(jwtService, new JwtVerificationCache(noCache, new SimpleMeterRegistry()), om);
+        cachedFilter = new JwtAuthFilter(jwtService, new JwtVerificationCache(props, new SimpleMeterRegistry()), om);
+
+        token = jwtService.issueContextToken(
+                7L, 1L, 10L,
+                List.of("FACHKRAFT", "LESEN", "SCHREIBEN", "TEAMLEITUNG"),
+                "bench@kidoc.local"
+        );
+    }
+
+    @Benchmark
+    public MockHttpServletResponse uncached() throws Exception {
+        return run(uncachedFilter);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse cached() throws Exception {
+        return run(cachedFilter);
+    }
+
+    private MockHttpServletResponse run(JwtAuthFilter filter) throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/falloeffnungen");
+        req.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        filter.doFilter(req, res, noopChain);
+        return res;
+    }
+}
@@ -0,0 +1,57 @@
+package org.thomcgn.backend.common.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Einzelschritte der Token-Verarbeitung aus JwtAuthFilter:
+ * JwtService.parse (Signatur + Claims) und toAuthorities (Rollen-Claim -> Authorities).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private String contextToken;
+    private Claims contextClaims;
+    private Claims baseClaims;
+
+    @Setup
+    public void setup() {
+        JwtProperties props = new JwtProperties();
+        props.setSecret("bench-bench-bench-bench-bench-bench-bench-bench");
+        props.setIssuer("kidoc");
+        jwtService = new JwtService(props);
+
+        contextToken = jwtService.issueContextToken(
+                7L, 1L, 10L,
+                List.of("FACHKRAFT", "LESEN", "SCHREIBEN", "TEAMLEITUNG"),
+                "bench@kidoc.local"
+        );
+        contextClaims = jwtService.parse(contextToken).getBody();
+        baseClaims = jwtService.parse(jwtService.issueBaseToken(7L, "bench@kidoc.local")).getBody();
+    }
+
+    @Benchmark
+    public Claims parseContextToken() {
+        return jwtService.parse(contextToken).getBody();
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> toAuthoritiesContext() {
+        return JwtAuthFilter.toAuthorities(contextClaims);
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> toAuthoritiesBase() {
+        return JwtAuthFilter.toAuthorities(baseClaims);
+    }
+}
@@ -0,0 +1,98 @@
+package org.thomcgn.backend.falloeffnungen.meldung.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.thomcgn.backend.config.JacksonConfig;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson-Serialisierung einer vollständigen MeldungResponse (GET /falloeffnungen/{id}/meldungen/...),
+ * mit dem ObjectMapper aus JacksonConfig. observations = Anzahl Beobachtungen (je 3 Tags),
+ * dazu 5 Kontakte, 3 externe Stellen, 4 Anhänge; der Change-Log ist nur noch als Anzahl enthalten
+ * (10 Änderungen pro Beobachtung, Einträge über GET .../changes).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeldungResponseJsonBenchmark {
+
+    @Param({"5", "50"})
+    public int observations;
+
+    private ObjectMapper objectMapper;
+    private MeldungResponse response;
+
+    @Setup
+    public void setup() {
+        objectMapper = new JacksonConfig().objectMapper();
+        response = build(observations);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public String writeValueAsString() throws Exception {
+        return objectMapper.writeValueAsString(response);
+    }
+
+    private static MeldungResponse build(int observationCount) {
+        Instant t = Instant.parse("2025-03-01T10:15:30Z");
+        String text = "Kind berichtet von lautem Streit zu Hause, wirkt müde und zurückgezogen. ".repeat(6);
+
+        List<MeldungResponse.ObservationResponse> obs = new ArrayList<>();
+        for (int i = 0; i < observationCount; i++) {
+            List<MeldungResponse.ObservationTagResponse> tags = List.of(
+                    new MeldungResponse.ObservationTagResponse((long) i * 3, "A01", "injury_unexplained", 2, "sichtbar am Arm"),
+                    new MeldungResponse.ObservationTagResponse((long) i * 3 + 1, "A02", "fear_of_home", 1, null),
+                    new MeldungResponse.ObservationTagResponse((long) i * 3 + 2, "A07", "neglect_basic", 3, "Hunger")
+            );
+            obs.add(new MeldungResponse.ObservationResponse(
+                    (long) i, t.plusSeconds(i * 3600L), "VORMITTAG", "SCHULE", null, "KIND_SELBST",
+                    text, "\"Ich will nicht nach Hause.\"", "Hämatom am linken Unterarm", "zurückgezogen",
+                    "meidet Blickkontakt", "INTERN", t, "Erika Musterfrau", tags));
+        }
+
+        List<MeldungResponse.ContactResponse> contacts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            contacts.add(new MeldungResponse.ContactResponse((long) i, "ELTERN", t, "ERREICHT", text, "Termin vereinbart"));
+        }
+        List<MeldungResponse.ExternResponse> extern = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            extern.add(new MeldungResponse.ExternResponse((long) i, "SCHULE", null, t, "Rückfrage", "Bestätigt"));
+        }
+        List<MeldungResponse.AttachmentResponse> attachments = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            attachments.add(new MeldungResponse.AttachmentResponse((long) i, 100L + i, "FOTO", "Foto " + i,
+                    "Dokumentation", "INTERN", "§ 4 KKG"));
+        }
+
+        return new MeldungResponse(
+                42L, 7L, 3, true, "ENTWURF", "ERSTMELDUNG",
+                t, t, 5L, "Erika Musterfrau",
+                41L, null,
+                "NEUE_INFORMATION", t, "Neue Hinweise der Schule",
+                "FACHKRAFT", "TELEFON", null, "Schule, Frau Beispiel", "HOCH", "EIGENE_BEOBACHTUNG", true, false,
+                text,
+                "GELB", text, "HOEHER", "Mehrere Hinweise aus unterschiedlichen Quellen",
+                false, null, false, "JA",
+                7L, LocalDate.of(2025, 3, 15), text,
+                List.of("A01", "A02", "A07"),
+                new MeldungResponse.JugendamtResponse("NEIN", null, null, null, "Noch keine Gefährdung festgestellt"),
+                contacts, extern, attachments,
+                obs,
+                null, null, null, null,
+                observationCount * 10L, t.plusSeconds(9)
+        );
+    }
+}
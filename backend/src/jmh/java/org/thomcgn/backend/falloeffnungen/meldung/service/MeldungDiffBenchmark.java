@@ -0,0 +1,143 @@
+package org.thomcgn.backend.falloeffnungen.meldung.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.thomcgn.backend.auth.service.AccessControlService;
+import org.thomcgn.backend.common.security.JwtPrincipal;
+import org.thomcgn.backend.falloeffnungen.meldung.model.*;
+import org.thomcgn.backend.falloeffnungen.meldung.repo.*;
+import org.thomcgn.backend.falloeffnungen.repo.FallListEntryRepository;
+import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungNotizRepository;
+import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungRepository;
+import org.thomcgn.backend.users.model.User;
+import org.thomcgn.backend.users.repo.UserRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Diff beim Speichern eines Meldungs-Entwurfs (MeldungService.saveDraft):
+ * copyForDiff + entityDiffs über alle Felder, ohne Änderung bzw. mit geänderten Feldern
+ * (ohne das gesammelte changeRepo.saveAll).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeldungDiffBenchmark {
+
+    private static final Map<String, String> REASONS = Map.of(
+            "FACH", "Neue Einschätzung nach Hausbesuch",
+            "kurzbeschreibung", "Ergänzt"
+    );
+
+    private MeldungService service;
+    private User user;
+    private Meldung meldung;
+    private Meldung unchanged;
+    private Meldung changed;
+
+    @Setup
+    public void setup() {
+        user = new User();
+        ReflectionTestUtils.setField(user, "id", 7L);
+        user.setEmail("bench@kidoc.local");
+
+        UserRepository userRepo = mock(UserRepository.class);
+        when(userRepo.findById(7L)).thenReturn(Optional.of(user));
+
+        service = new MeldungService(
+                mock(FalleroeffnungRepository.class),
+                mock(MeldungRepository.class),
+                mock(MeldungObservationRepository.class),
+                mock(MeldungObservationTagRepository.class),
+                mock(MeldungAnlassCodeRepository.class),
+                mock(MeldungJugendamtRepository.class),
+                mock(MeldungContactRepository.class),
+                mock(MeldungExternRepository.class),
+                mock(MeldungAttachmentRepository.class),
+                mock(MeldungChangeRepository.class),
+                mock(FalleroeffnungNotizRepository.class),
+                userRepo,
+                mock(AccessControlService.class),
+                mock(FallListEntryRepository.class),
+                mock(MeldungResponseCache.class),
+                mock(MeldungDiffCache.class),
+                mock(MeldungSectionCopyRepository.class),
+                new ObjectMapper(),
+                mock(PlatformTransactionManager.class)
+        );
+
+        JwtPrincipal principal = new JwtPrincipal(7L, "bench@kidoc.local", null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+
+        meldung = filled(user, 0, "Kind berichtet von lautem Streit zu Hause. ".repeat(20));
+        unchanged = service.copyForDiff(meldung);
+        changed = filled(user, 1, "Kind berichtet von Gewalt im Haushalt. ".repeat(25));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Meldung copyForDiff() {
+        return service.copyForDiff(meldung);
+    }
+
+    /** Keine Änderung: nur Normalisierung + Vergleich aller Felder. */
+    @Benchmark
+    public List<MeldungChange> writeEntityDiffsNoChange() {
+        return service.entityDiffs(unchanged, meldung, REASONS, user);
+    }
+
+    /** Alle Felder geändert: pro Feld ein MeldungChange. */
+    @Benchmark
+    public List<MeldungChange> writeEntityDiffsAllChanged() {
+        return service.entityDiffs(changed, meldung, REASONS, user);
+    }
+
+    // variant 0/1 -> unterschiedliche Enum-Werte und Texte
+    private static Meldung filled(User user, int variant, String text) {
+        Meldung m = new Meldung();
+        m.setErfasstVonRolle(variant == 0 ? "FACHKRAFT" : "TEAMLEITUNG");
+        m.setMeldeweg(pick(Meldeweg.values(), variant));
+        m.setMeldewegSonstiges("Telefonat " + variant);
+        m.setMeldendeStelleKontakt("Schule, Frau Beispiel " + variant);
+        m.setDringlichkeit(pick(Dringlichkeit.values(), variant));
+        m.setDatenbasis(pick(Datenbasis.values(), variant));
+        m.setEinwilligungVorhanden(variant == 0);
+        m.setSchweigepflichtentbindungVorhanden(variant != 0);
+        m.setKurzbeschreibung(text);
+        m.setFachAmpel(pick(AmpelStatus.values(), variant));
+        m.setFachText(text);
+        m.setAbweichungZurAuto(pick(AbweichungZurAutoAmpel.values(), variant));
+        m.setAbweichungsBegruendung("Begründung " + variant);
+        m.setAkutGefahrImVerzug(variant != 0);
+        m.setAkutBegruendung("Akut " + variant);
+        m.setAkutNotrufErforderlich(variant != 0);
+        m.setAkutKindSicherUntergebracht(pick(JaNeinUnklar.values(), variant));
+        m.setVerantwortlicheFachkraft(variant == 0 ? user : null);
+        m.setNaechsteUeberpruefungAm(LocalDate.of(2026, 1, 10 + variant));
+        m.setZusammenfassung(text);
+        return m;
+    }
+
+    private static <E> E pick(E[] values, int variant) {
+        return values[variant % values.length];
+    }
+}
@@ -0,0 +1,147 @@
+package org.thomcgn.backend.falloeffnungen.repo;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fall-Suche gegen echtes Postgres (Testcontainers) mit 100k Fällen.
+ * SampleTime liefert die Perzentile (p0.95) direkt im JMH-Report.
+ *
+ * Vergleich: index-gestützte Suche (FalleroeffnungSearchRepository) vs. das frühere
+ * OR über vier Leading-Wildcard-LIKEs aus searchScoped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class FallSearchBenchmark {
+
+    private static final int KINDER = 20_000;
+    private static final int FAELLE_PRO_KIND = 5;
+
+    @Param({"bench-000123", "müller", "verdacht"})
+    public String q;
+
+    private PostgreSQLContainer<?> postgres;
+    private SingleConnectionDataSource dataSource;
+    private FalleroeffnungSearchRepository searchRepo;
+    private NamedParameterJdbcTemplate named;
+
+    private long traegerId;
+    private long einrichtungId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+
+        dataSource = new SingleConnectionDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword(), true);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        named = new NamedParameterJdbcTemplate(jdbc);
+        searchRepo = new FalleroeffnungSearchRepository(named);
+
+        traegerId = jdbc.queryForObject("SELECT id FROM traeger WHERE slug = 'demo-traeger'", Long.class);
+        einrichtungId = jdbc.queryForObject(
+                "SELECT id FROM org_units WHERE traeger_id = ? AND type = 'EINRICHTUNG' ORDER BY id LIMIT 1",
+                Long.class, traegerId);
+        long userId = jdbc.queryForObject("SELECT id FROM users WHERE email = 'demo@kidoc.local'", Long.class);
+
+        seed(jdbc, userId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (dataSource != null) dataSource.destroy();
+        if (postgres != null) postgres.stop();
+    }
+
+    @Benchmark
+    public List<Long> indexedSearchPage() {
+        return searchRepo.searchIds(traegerId, einrichtungId, null, q, 20, 0);
+    }
+
+    @Benchmark
+    public long indexedSearchCount() {
+        return searchRepo.count(traegerId, einrichtungId, null, q);
+    }
+
+    /** Prädikat wie im bisherigen searchScoped (ohne Closure-Join, scoped per Einrichtung). */
+    @Benchmark
+    public List<Long> legacyLikePage() {
+        return named.queryForList("""
+            SELECT f.id
+              FROM falloeffnungen f
+              JOIN kind_dossiers d ON d.id = f.dossier_id
+              JOIN kinder k ON k.id = d.kind_id
+             WHERE f.traeger_id = :traegerId
+               AND f.einrichtung_org_unit_id = :einrichtungId
+               AND (lower(f.aktenzeichen) LIKE lower(concat('%', :q, '%'))
+                    OR lower(f.titel)     LIKE lower(concat('%', :q, '%'))
+                    OR lower(k.vorname)   LIKE lower(concat('%', :q, '%'))
+                    OR lower(k.nachname)  LIKE lower(concat('%', :q, '%')))
+             ORDER BY f.created_at DESC, f.id DESC
+             LIMIT 20
+        """, Map.of("traegerId", traegerId, "einrichtungId", einrichtungId, "q", q), Long.class);
+    }
+
+    // ---------------------------------------------------------
+
+    private void seed(JdbcTemplate jdbc, long userId) {
+        jdbc.update("""
+            INSERT INTO kinder (traeger_id, owner_einrichtung_org_unit_id, vorname, nachname, foerderbedarf, created_at, updated_at)
+            SELECT ?, ?,
+                   (ARRAY['Lena','Max','Sofia','Noah','Emilia','Paul','Mia','Ben','Hannah','Leon'])[1 + g % 10],
+                   (ARRAY['Müller','Schmidt','Weber','Fischer','Bauer','Wagner','Becker','Hoffmann','Schulz','Koch',
+                          'Richter','Klein','Wolf','Neumann','Schwarz','Zimmermann','Braun','Krüger','Hartmann','Lange'])[1 + (g / 10) % 20]
+                          || '-' || g,
+                   false, now(), now()
+              FROM generate_series(1, ?) g
+        """, traegerId, einrichtungId, KINDER);
+
+        jdbc.update("""
+            INSERT INTO kind_dossiers (traeger_id, einrichtung_org_unit_id, kind_id, enabled, created_at, updated_at)
+            SELECT ?, ?, k.id, true, now(), now()
+              FROM kinder k
+             WHERE k.traeger_id = ?
+               AND NOT EXISTS (SELECT 1 FROM kind_dossiers d WHERE d.kind_id = k.id)
+        """, traegerId, einrichtungId, traegerId);
+
+        jdbc.update("""
+            INSERT INTO falloeffnungen (dossier_id, traeger_id, einrichtung_org_unit_id, status, titel,
+                                        created_by_user_id, aktenzeichen, fall_no, opened_at, created_at, updated_at)
+            SELECT d.id, ?, ?,
+                   (ARRAY['OFFEN','IN_PRUEFUNG','ABGESCHLOSSEN'])[1 + n % 3],
+                   (ARRAY['Verdacht körperliche Misshandlung','Vernachlässigung','Verlaufskontrolle Familienhilfe',
+                          'Schulabsentismus','Häusliche Gewalt'])[1 + n],
+                   ?,
+                   'BENCH-' || lpad((d.id * 10 + n)::text, 6, '0'),
+                   100 + n,
+                   now() - (random() * interval '3 years'),
+                   now() - (random() * interval '3 years'),
+                   now()
+              FROM kind_dossiers d
+             CROSS JOIN generate_series(0, ? - 1) n
+             WHERE d.traeger_id = ?
+               AND d.kind_id IN (SELECT id FROM kinder WHERE nachname LIKE '%-%')
+        """, traegerId, einrichtungId, userId, FAELLE_PRO_KIND, traegerId);
+
+        jdbc.execute("ANALYZE kinder");
+        jdbc.execute("ANALYZE kind_dossiers");
+        jdbc.execute("ANALYZE falloeffnungen");
+    }
+}
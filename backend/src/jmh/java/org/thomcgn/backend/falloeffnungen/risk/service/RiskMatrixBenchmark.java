@@ -0,0 +1,154 @@
+package org.thomcgn.backend.falloeffnungen.risk.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.thomcgn.backend.falloeffnungen.risk.model.FalleroeffnungNotizTag;
+import org.thomcgn.backend.falloeffnungen.risk.service.FallRiskService.HardRule;
+import org.thomcgn.backend.falloeffnungen.risk.service.FallRiskService.Indicator;
+import org.thomcgn.backend.falloeffnungen.risk.service.FallRiskService.RiskMatrixConfig;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Risiko-Auswertung aus FallRiskService.recomputeAndSnapshot():
+ * JSON parsen + Auswertung aller Tags auf dem JSON-Modell (bisher pro Aufruf) vs. gecachte
+ * CompiledRiskMatrix auf dem Indikator-Aggregat (fall_indicator_max_severity), sowie die
+ * zeilenweise Auswertung der Was-wäre-wenn-Simulation (evaluateRow).
+ *
+ * config: "default" = FallRiskService.defaultConfig() (11 Indikatoren), "large" = 200 generierte
+ * Indikatoren über dieselben Dimensionen (jeder zehnte mit harter Regel), wie bei umfangreich
+ * konfigurierten Trägern.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RiskMatrixBenchmark {
+
+    @Param({"default", "large"})
+    public String config;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String configJson;
+    private CompiledRiskMatrix compiled;
+    private List<FalleroeffnungNotizTag> tags;
+    private Map<String, Integer> aggregate;
+    private byte[] row;
+    private final double[] score = new double[1];
+
+    @Setup
+    public void setup() throws Exception {
+        RiskMatrixConfig cfg = "large".equals(config) ? largeConfig() : FallRiskService.defaultConfig();
+        configJson = objectMapper.writeValueAsString(cfg);
+        compiled = CompiledRiskMatrix.compile(objectMapper.readValue(configJson, RiskMatrixConfig.class));
+
+        // typischer Fall: ~30 Tags über mehrere Notizen, Wiederholungen + eine unbekannte ID
+        String[] ids = "large".equals(config)
+                ? new String[]{"ind_003", "ind_017", "ind_042", "ind_088", "ind_120", "ind_199", "legacy_indicator"}
+                : new String[]{"injury_unexplained", "fear_of_home", "neglect_basic", "school_absence",
+                        "police_callouts", "humiliation_threats", "legacy_indicator"};
+        tags = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            FalleroeffnungNotizTag t = new FalleroeffnungNotizTag();
+            t.setIndicatorId(ids[i % ids.length]);
+            t.setSeverity(i % 3);
+            tags.add(t);
+        }
+
+        // entspricht den Zeilen in fall_indicator_max_severity
+        aggregate = new HashMap<>();
+        for (FalleroeffnungNotizTag t : tags) {
+            aggregate.merge(t.getIndicatorId(), t.getSeverity(), Math::max);
+        }
+
+        // eine Zeile der spaltenweisen Matrix aus RiskSimulationService
+        row = new byte[compiled.slotCount()];
+        aggregate.forEach((id, sev) -> {
+            int slot = compiled.slotOf(id);
+            if (slot >= 0) row[slot] = (byte) (int) sev;
+        });
+    }
+
+    @Benchmark
+    public CompiledRiskMatrix.Evaluation compiledEvaluate() {
+        return compiled.evaluate(aggregate);
+    }
+
+    /** Simulation: nur Ampel + Score aus der Byte-Zeile, ohne Allokationen. */
+    @Benchmark
+    public int evaluateRow() {
+        return compiled.evaluateRow(row, 0, score, 0);
+    }
+
+    /** Cache-Miss: parsen + kompilieren + auswerten. */
+    @Benchmark
+    public CompiledRiskMatrix.Evaluation parseCompileEvaluate() throws Exception {
+        return CompiledRiskMatrix.compile(objectMapper.readValue(configJson, RiskMatrixConfig.class)).evaluate(aggregate);
+    }
+
+    /** Vorherige Implementierung: parsen + Auswertung direkt auf dem JSON-Modell. */
+    @Benchmark
+    public Object parseAndEvaluate() throws Exception {
+        return evaluateJsonModel(objectMapper.readValue(configJson, RiskMatrixConfig.class), tags);
+    }
+
+    private static RiskMatrixConfig largeConfig() {
+        RiskMatrixConfig c = FallRiskService.defaultConfig();
+        List<String> dims = new ArrayList<>(c.dimensionMultiplier.keySet());
+        Collections.sort(dims);
+        c.meta.version = "large";
+        c.indicators = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Indicator ind = new Indicator();
+            ind.id = String.format("ind_%03d", i);
+            ind.title = "Indikator " + i;
+            ind.dimension = dims.get(i % dims.size());
+            ind.weight = 2 + i % 7;
+            ind.presentAtSeverity = 1 + i % 2;
+            if (i % 10 == 0) {
+                ind.hardRule = new HardRule();
+                ind.hardRule.atOrAbove = 3;
+                ind.hardRule.label = "Harte Regel " + i;
+            }
+            c.indicators.add(ind);
+        }
+        return c;
+    }
+
+    // Auswertung wie vor der Kompilierung (ohne Rationale-Texte, gleiche Lookups/Allokationen)
+    private static Object evaluateJsonModel(RiskMatrixConfig cfg, List<FalleroeffnungNotizTag> tags) {
+        Map<String, Integer> maxSeverityByIndicator = new HashMap<>();
+        for (FalleroeffnungNotizTag t : tags) {
+            if (t.getIndicatorId() == null || t.getIndicatorId().isBlank()) continue;
+            Integer sev = t.getSeverity();
+            if (sev == null) continue;
+            maxSeverityByIndicator.merge(t.getIndicatorId().trim(), Math.max(0, Math.min(3, sev)), Math::max);
+        }
+
+        Set<String> dimsPresent = new HashSet<>();
+        List<Map<String, Object>> hardHits = new ArrayList<>();
+        double raw = 0.0;
+        for (Indicator ind : cfg.indicators) {
+            int s = maxSeverityByIndicator.getOrDefault(ind.id, 0);
+            if (s > 0 && s >= ind.presentAtSeverity) dimsPresent.add(ind.dimension);
+            if (ind.hardRule != null && s >= ind.hardRule.atOrAbove) {
+                Map<String, Object> hit = new LinkedHashMap<>();
+                hit.put("indicatorId", ind.id);
+                hit.put("label", ind.hardRule.label);
+                hardHits.add(hit);
+            }
+            double factor = s <= 0 ? 0.0 : s == 1 ? 0.5 : s == 2 ? 1.0 : 1.5;
+            raw += ind.weight * factor * cfg.dimensionMultiplier.getOrDefault(ind.dimension, 1.0);
+        }
+
+        Set<String> known = new HashSet<>();
+        for (Indicator ind : cfg.indicators) known.add(ind.id);
+        List<String> unknown = maxSeverityByIndicator.keySet().stream().filter(id -> !known.contains(id)).sorted().toList();
+
+        return List.of(raw, hardHits, dimsPresent.stream().sorted().toList(), unknown);
+    }
+}
@@ -0,0 +1,25 @@
+package org.thomcgn.backend.admin.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.thomcgn.backend.admin.service.FallListRebuildService;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/fall-list")
+public class FallListRebuildController {
+
+    private final FallListRebuildService rebuildService;
+
+    public FallListRebuildController(FallListRebuildService rebuildService) {
+        this.rebuildService = rebuildService;
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuild() {
+        return ResponseEntity.ok(Map.of("rows", rebuildService.rebuild()));
+    }
+}
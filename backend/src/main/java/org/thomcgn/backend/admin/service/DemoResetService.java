@@ -6,9 +6,13 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.thomcgn.backend.auth.service.UserContextCache;
 import org.thomcgn.backend.common.errors.DomainException;
 import org.thomcgn.backend.common.errors.ErrorCode;
 import org.thomcgn.backend.common.security.SecurityUtils;
+import org.thomcgn.backend.falloeffnungen.meldung.service.MeldungDiffCache;
+import org.thomcgn.backend.falloeffnungen.meldung.service.MeldungResponseCache;
+import org.thomcgn.backend.orgunits.service.OrgUnitHierarchyIndex;
 
 import javax.sql.DataSource;
 
@@ -18,9 +22,18 @@ public class DemoResetService {
     private static final Logger log = LoggerFactory.getLogger(DemoResetService.class);
 
     private final DataSource dataSource;
+    private final OrgUnitHierarchyIndex hierarchyIndex;
+    private final UserContextCache userContextCache;
+    private final MeldungResponseCache meldungResponseCache;
+    private final MeldungDiffCache meldungDiffCache;
 
-    public DemoResetService(DataSource dataSource) {
+    public DemoResetService(DataSource dataSource, OrgUnitHierarchyIndex hierarchyIndex, UserContextCache userContextCache,
+                            MeldungResponseCache meldungResponseCache, MeldungDiffCache meldungDiffCache) {
         this.dataSource = dataSource;
+        this.hierarchyIndex = hierarchyIndex;
+        this.userContextCache = userContextCache;
+        this.meldungResponseCache = meldungResponseCache;
+        this.meldungDiffCache = meldungDiffCache;
     }
 
     /** Vom Endpoint aufgerufen – prüft SYSTEM_ADMIN. */
@@ -45,5 +58,12 @@ public class DemoResetService {
         populator.addScript(new ClassPathResource("db/migration/R__insert_demo_admin.sql"));
         populator.setSeparator(";");
         populator.execute(dataSource);
+
+        // OrgUnits wurden per SQL neu angelegt -> In-Memory-Hierarchie verwerfen
+        hierarchyIndex.invalidateAll();
+        userContextCache.invalidateAll();
+        // Demo-Meldungen wurden gelöscht/neu angelegt (IDs können wiederverwendet werden)
+        meldungResponseCache.invalidateAll();
+        meldungDiffCache.invalidateAll();
     }
 }
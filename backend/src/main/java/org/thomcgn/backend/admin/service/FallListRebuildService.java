@@ -0,0 +1,39 @@
+package org.thomcgn.backend.admin.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.thomcgn.backend.common.errors.DomainException;
+import org.thomcgn.backend.common.errors.ErrorCode;
+import org.thomcgn.backend.common.security.SecurityUtils;
+import org.thomcgn.backend.falloeffnungen.repo.FallListEntryRepository;
+
+/**
+ * Neuaufbau des Fall-Listen-Read-Models (fall_list_entry) aus den Quelltabellen.
+ * Für Backfill nach Deployments bzw. Reparatur nach direkten SQL-Eingriffen.
+ */
+@Service
+public class FallListRebuildService {
+
+    private static final Logger log = LoggerFactory.getLogger(FallListRebuildService.class);
+
+    private final FallListEntryRepository fallListRepo;
+
+    public FallListRebuildService(FallListEntryRepository fallListRepo) {
+        this.fallListRepo = fallListRepo;
+    }
+
+    /** Vom Endpoint aufgerufen – prüft SYSTEM_ADMIN. Liefert die Anzahl geschriebener Zeilen. */
+    @Transactional
+    public int rebuild() {
+        var principal = SecurityUtils.principalOptional();
+        if (principal == null || !principal.isSystem()) {
+            throw DomainException.forbidden(ErrorCode.ACCESS_DENIED, "Only SYSTEM_ADMIN can rebuild the fall list.");
+        }
+
+        int rows = fallListRepo.rebuildAll();
+        log.info("Fall-Liste neu aufgebaut: {} Zeilen", rows);
+        return rows;
+    }
+}
@@ -2,6 +2,7 @@ package org.thomcgn.backend.audit.model;
 
 import jakarta.persistence.*;
 import org.thomcgn.backend.common.persistence.AuditableEntity;
+import org.thomcgn.backend.common.persistence.PooledIds;
 import org.thomcgn.backend.orgunits.model.OrgUnit;
 import org.thomcgn.backend.tenants.model.Traeger;
 import org.thomcgn.backend.users.model.User;
@@ -17,7 +18,8 @@ import org.thomcgn.backend.users.model.User;
 public class AuditEvent extends AuditableEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_events_id")
+    @SequenceGenerator(name = "audit_events_id", sequenceName = "audit_events_id_seq", allocationSize = PooledIds.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -8,6 +8,8 @@ import org.thomcgn.backend.common.security.SecurityUtils;
 import org.thomcgn.backend.orgunits.model.OrgUnit;
 import org.thomcgn.backend.orgunits.model.OrgUnitType;
 import org.thomcgn.backend.orgunits.repo.OrgUnitRepository;
+import org.thomcgn.backend.orgunits.service.OrgUnitHierarchy;
+import org.thomcgn.backend.orgunits.service.OrgUnitHierarchyIndex;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -16,9 +18,11 @@ import java.util.Set;
 public class AccessControlService {
 
     private final OrgUnitRepository orgUnitRepository;
+    private final OrgUnitHierarchyIndex hierarchyIndex;
 
-    public AccessControlService(OrgUnitRepository orgUnitRepository) {
+    public AccessControlService(OrgUnitRepository orgUnitRepository, OrgUnitHierarchyIndex hierarchyIndex) {
         this.orgUnitRepository = orgUnitRepository;
+        this.hierarchyIndex = hierarchyIndex;
     }
 
     // =====================================================
@@ -26,15 +30,11 @@ public class AccessControlService {
     // =====================================================
 
     public boolean has(Role role) {
-        String required = "ROLE_" + role.name();
-        var auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null) return false;
-        return auth.getAuthorities().stream().anyMatch(a -> required.equals(a.getAuthority()));
+        return SecurityUtils.hasRole(role);
     }
 
     public boolean hasAny(Role... roles) {
-        for (Role r : roles) if (has(r)) return true;
-        return false;
+        return SecurityUtils.hasAnyRole(roles);
     }
 
     public void requireAny(Role... roles) {
@@ -109,6 +109,12 @@ public class AccessControlService {
     }
 
     private Long findEinrichtungAncestorId(Long startOrgUnitId) {
+        // Fast path: In-Memory-Hierarchie des aktiven Trägers (kein SQL)
+        OrgUnitHierarchy h = currentHierarchy();
+        if (h != null && h.isResolved(startOrgUnitId)) {
+            return h.einrichtungOf(startOrgUnitId);
+        }
+
         Set<Long> visited = new HashSet<>();
         Long currentId = startOrgUnitId;
 
@@ -138,6 +144,11 @@ public class AccessControlService {
     private boolean isDescendant(Long targetId, Long rootId) {
         if (targetId.equals(rootId)) return false;
 
+        OrgUnitHierarchy h = currentHierarchy();
+        if (h != null && h.isResolved(targetId)) {
+            return h.isDescendant(targetId, rootId);
+        }
+
         Set<Long> visited = new HashSet<>();
         Long currentId = targetId;
 
@@ -159,4 +170,9 @@ public class AccessControlService {
         }
         return false;
     }
+
+    private OrgUnitHierarchy currentHierarchy() {
+        Long traegerId = SecurityUtils.currentTraegerIdOptional();
+        return traegerId != null ? hierarchyIndex.forTraeger(traegerId) : null;
+    }
 }
\ No newline at end of file
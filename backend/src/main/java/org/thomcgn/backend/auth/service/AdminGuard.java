@@ -64,10 +64,7 @@ public class AdminGuard {
     }
 
     private boolean hasRole(Role role) {
-        var auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null) return false;
-        String required = "ROLE_" + role.name();
-        return auth.getAuthorities().stream().anyMatch(a -> required.equals(a.getAuthority()));
+        return SecurityUtils.hasRole(role);
     }
 
     /**
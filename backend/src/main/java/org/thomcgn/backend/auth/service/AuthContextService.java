@@ -8,26 +8,24 @@ import org.thomcgn.backend.common.errors.ErrorCode;
 import org.thomcgn.backend.common.security.JwtService;
 import org.thomcgn.backend.common.security.SecurityUtils;
 import org.thomcgn.backend.orgunits.model.OrgUnit;
-import org.thomcgn.backend.orgunits.model.OrgUnitMembership;
 import org.thomcgn.backend.orgunits.model.OrgUnitType;
 import org.thomcgn.backend.orgunits.repo.OrgUnitRepository;
-import org.thomcgn.backend.orgunits.repo.OrgUnitMembershipRepository;
 
 import java.util.*;
 
 @Service
 public class AuthContextService {
 
-    private final OrgUnitMembershipRepository membershipRepository;
+    private final UserContextCache userContextCache;
     private final OrgUnitRepository orgUnitRepository;
     private final JwtService jwtService;
 
     public AuthContextService(
-            OrgUnitMembershipRepository membershipRepository,
+            UserContextCache userContextCache,
             OrgUnitRepository orgUnitRepository,
             JwtService jwtService
     ) {
-        this.membershipRepository = membershipRepository;
+        this.userContextCache = userContextCache;
         this.orgUnitRepository = orgUnitRepository;
         this.jwtService = jwtService;
     }
@@ -46,61 +44,15 @@ public class AuthContextService {
     public List<AuthContextResponse> listContexts() {
         Long userId = SecurityUtils.currentUserId();
 
-        List<OrgUnitMembership> memberships = membershipRepository.findAllActiveRolesByUserId(userId);
-
-        // Pass 1: collect all (traegerId → roles) for TRAEGER-level memberships
-        Map<Long, Set<String>> traegerRoles = new LinkedHashMap<>();
-        for (OrgUnitMembership m : memberships) {
-            OrgUnit ou = m.getOrgUnit();
-            if (ou == null || !ou.isEnabled()) continue;
-            if (ou.getTraeger() == null || !ou.getTraeger().isEnabled()) continue;
-            if (ou.getType() == OrgUnitType.TRAEGER) {
-                traegerRoles.computeIfAbsent(ou.getTraeger().getId(), k -> new LinkedHashSet<>()).add(m.getRole());
-            }
-        }
-
-        Map<CtxKey, CtxAgg> agg = new LinkedHashMap<>();
-
-        // Pass 2: direct (non-TRAEGER) memberships resolve to their Einrichtung ancestor
-        for (OrgUnitMembership m : memberships) {
-            OrgUnit ou = m.getOrgUnit();
-            if (ou == null || !ou.isEnabled()) continue;
-            if (ou.getTraeger() == null || !ou.getTraeger().isEnabled()) continue;
-            if (ou.getType() == OrgUnitType.TRAEGER) continue;
-
-            OrgUnit einr = findEinrichtungAncestor(ou);
-            if (einr == null || !einr.isEnabled()) continue;
-            if (einr.getTraeger() == null || !einr.getTraeger().isEnabled()) continue;
-
-            Long traegerId = einr.getTraeger().getId();
-            CtxKey key = new CtxKey(traegerId, einr.getId());
-            CtxAgg a = agg.computeIfAbsent(key, k ->
-                    new CtxAgg(traegerId, einr.getTraeger().getName(), einr.getId(), einr.getName()));
-            a.roles.add(m.getRole());
-        }
-
-        // Pass 3: for TRAEGER-level roles, add all Einrichtungen under that Träger
-        for (Map.Entry<Long, Set<String>> entry : traegerRoles.entrySet()) {
-            Long traegerId = entry.getKey();
-            Set<String> roles = entry.getValue();
-            orgUnitRepository.findAllEnabledByTraegerId(traegerId).stream()
-                    .filter(e -> e.getType() == OrgUnitType.EINRICHTUNG)
-                    .forEach(einr -> {
-                        CtxKey key = new CtxKey(traegerId, einr.getId());
-                        CtxAgg a = agg.computeIfAbsent(key, k ->
-                                new CtxAgg(traegerId, einr.getTraeger().getName(), einr.getId(), einr.getName()));
-                        a.roles.addAll(roles);
-                    });
-        }
-
-        List<AuthContextResponse> out = new ArrayList<>(agg.size());
-        for (CtxAgg a : agg.values()) {
+        List<UserContextCache.UserContext> contexts = userContextCache.forUser(userId);
+        List<AuthContextResponse> out = new ArrayList<>(contexts.size());
+        for (UserContextCache.UserContext c : contexts) {
             out.add(new AuthContextResponse(
-                    a.traegerId,
-                    a.traegerName,
-                    a.einrichtungOrgUnitId,
-                    a.einrichtungName,
-                    Collections.unmodifiableSet(a.roles)
+                    c.traegerId(),
+                    c.traegerName(),
+                    c.einrichtungOrgUnitId(),
+                    c.einrichtungName(),
+                    c.roles()
             ));
         }
         return out;
@@ -126,26 +78,11 @@ public class AuthContextService {
         Long targetTraegerId = einr.getTraeger().getId();
         Long targetEinrichtungId = einr.getId();
 
-        List<OrgUnitMembership> memberships = membershipRepository.findAllActiveRolesByUserId(userId);
-        Set<String> ctxRoles = new HashSet<>();
-
-        for (OrgUnitMembership m : memberships) {
-            OrgUnit ou = m.getOrgUnit();
-            if (ou == null || !ou.isEnabled()) continue;
-            if (ou.getTraeger() == null || !ou.getTraeger().isEnabled()) continue;
-            if (!ou.getTraeger().getId().equals(targetTraegerId)) continue;
-
-            if (ou.getType() == OrgUnitType.TRAEGER) {
-                ctxRoles.add(m.getRole());
-                continue;
-            }
-
-            OrgUnit ancestor = findEinrichtungAncestor(ou);
-            if (ancestor == null) continue;
-            if (ancestor.getId().equals(targetEinrichtungId)) {
-                ctxRoles.add(m.getRole());
-            }
-        }
+        // gleiche Quelle wie listContexts(): was dort nicht auftaucht, ist nicht wählbar
+        Set<String> ctxRoles = userContextCache.find(userId, targetEinrichtungId)
+                .filter(c -> c.traegerId().equals(targetTraegerId))
+                .map(UserContextCache.UserContext::roles)
+                .orElse(Set.of());
 
         if (ctxRoles.isEmpty()) {
             throw DomainException.forbidden(ErrorCode.ACCESS_DENIED, "Context not allowed for user.");
@@ -161,31 +98,4 @@ public class AuthContextService {
 
         return new SwitchContextResponse(token);
     }
-
-    private OrgUnit findEinrichtungAncestor(OrgUnit start) {
-        OrgUnit current = start;
-        int guard = 0;
-        while (current != null && guard++ < 50) {
-            if (current.getType() == OrgUnitType.EINRICHTUNG) return current;
-            current = current.getParent();
-        }
-        return null;
-    }
-
-    private record CtxKey(Long traegerId, Long einrichtungOrgUnitId) {}
-
-    private static final class CtxAgg {
-        final Long traegerId;
-        final String traegerName;
-        final Long einrichtungOrgUnitId;
-        final String einrichtungName;
-        final Set<String> roles = new HashSet<>();
-
-        private CtxAgg(Long traegerId, String traegerName, Long einrichtungOrgUnitId, String einrichtungName) {
-            this.traegerId = traegerId;
-            this.traegerName = traegerName;
-            this.einrichtungOrgUnitId = einrichtungOrgUnitId;
-            this.einrichtungName = einrichtungName;
-        }
-    }
 }
@@ -8,37 +8,28 @@ import org.thomcgn.backend.auth.dto.LoginResponse;
 import org.thomcgn.backend.common.errors.DomainException;
 import org.thomcgn.backend.common.errors.ErrorCode;
 import org.thomcgn.backend.common.security.JwtService;
-import org.thomcgn.backend.orgunits.model.OrgUnit;
-import org.thomcgn.backend.orgunits.model.OrgUnitMembership;
 import org.thomcgn.backend.orgunits.model.OrgUnitType;
-import org.thomcgn.backend.orgunits.repo.OrgUnitMembershipRepository;
-import org.thomcgn.backend.orgunits.repo.OrgUnitRepository;
 import org.thomcgn.backend.users.model.User;
 import org.thomcgn.backend.users.repo.UserRepository;
 
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 @Service
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final OrgUnitMembershipRepository membershipRepository;
-    private final OrgUnitRepository orgUnitRepository;
+    private final UserContextCache userContextCache;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
 
     public AuthService(
             UserRepository userRepository,
-            OrgUnitMembershipRepository membershipRepository,
-            OrgUnitRepository orgUnitRepository,
+            UserContextCache userContextCache,
             PasswordEncoder passwordEncoder,
             JwtService jwtService
     ) {
         this.userRepository = userRepository;
-        this.membershipRepository = membershipRepository;
-        this.orgUnitRepository = orgUnitRepository;
+        this.userContextCache = userContextCache;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
     }
@@ -65,51 +56,19 @@ public class AuthService {
             return new LoginResponse(baseToken, List.of(), true, systemToken);
         }
 
-        List<OrgUnitMembership> memberships = membershipRepository.findAllActiveRolesByUserId(user.getId());
-        List<AvailableContextDto> contexts = buildEinrichtungContexts(memberships);
+        List<AvailableContextDto> contexts = buildEinrichtungContexts(user.getId());
         return new LoginResponse(baseToken, contexts, false, null);
     }
 
-    private List<AvailableContextDto> buildEinrichtungContexts(List<OrgUnitMembership> memberships) {
-        Map<Long, AvailableContextDto> seen = new LinkedHashMap<>();
-        for (OrgUnitMembership m : memberships) {
-            OrgUnit ou = m.getOrgUnit();
-            if (ou == null || !ou.isEnabled()) continue;
-            if (ou.getTraeger() == null || !ou.getTraeger().isEnabled()) continue;
-
-            // TRAEGER-Rollen berechtigen für alle Einrichtungen unter diesem Träger
-            if (ou.getType() == OrgUnitType.TRAEGER) {
-                orgUnitRepository.findAllEnabledByTraegerId(ou.getTraeger().getId()).stream()
-                        .filter(e -> e.getType() == OrgUnitType.EINRICHTUNG)
-                        .forEach(einr -> seen.putIfAbsent(einr.getId(), toDto(einr)));
-                continue;
-            }
-
-            OrgUnit einr = findEinrichtungAncestor(ou);
-            if (einr == null) continue;
-
-            seen.putIfAbsent(einr.getId(), toDto(einr));
-        }
-        return List.copyOf(seen.values());
-    }
-
-    private AvailableContextDto toDto(OrgUnit einr) {
-        return new AvailableContextDto(
-                einr.getTraeger().getId(),
-                einr.getTraeger().getName(),
-                einr.getId(),
-                einr.getType().name(),
-                einr.getName()
-        );
-    }
-
-    private OrgUnit findEinrichtungAncestor(OrgUnit start) {
-        OrgUnit current = start;
-        int guard = 0;
-        while (current != null && guard++ < 50) {
-            if (current.getType() == OrgUnitType.EINRICHTUNG) return current;
-            current = current.getParent();
-        }
-        return null;
+    private List<AvailableContextDto> buildEinrichtungContexts(Long userId) {
+        return userContextCache.forUser(userId).stream()
+                .map(c -> new AvailableContextDto(
+                        c.traegerId(),
+                        c.traegerName(),
+                        c.einrichtungOrgUnitId(),
+                        OrgUnitType.EINRICHTUNG.name(),
+                        c.einrichtungName()
+                ))
+                .toList();
     }
 }
@@ -8,6 +8,8 @@ import org.thomcgn.backend.common.security.SecurityUtils;
 import org.thomcgn.backend.orgunits.model.OrgUnit;
 import org.thomcgn.backend.orgunits.model.OrgUnitType;
 import org.thomcgn.backend.orgunits.repo.OrgUnitRepository;
+import org.thomcgn.backend.orgunits.service.OrgUnitHierarchy;
+import org.thomcgn.backend.orgunits.service.OrgUnitHierarchyIndex;
 
 import java.util.*;
 
@@ -15,9 +17,11 @@ import java.util.*;
 public class PermissionService {
 
     private final OrgUnitRepository orgUnitRepository;
+    private final OrgUnitHierarchyIndex hierarchyIndex;
 
-    public PermissionService(OrgUnitRepository orgUnitRepository) {
+    public PermissionService(OrgUnitRepository orgUnitRepository, OrgUnitHierarchyIndex hierarchyIndex) {
         this.orgUnitRepository = orgUnitRepository;
+        this.hierarchyIndex = hierarchyIndex;
     }
 
     // ---------------------------------------------------
@@ -25,15 +29,11 @@ public class PermissionService {
     // ---------------------------------------------------
 
     public boolean has(Role role) {
-        String required = "ROLE_" + role.name();
-        var auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null) return false;
-        return auth.getAuthorities().stream().anyMatch(a -> required.equals(a.getAuthority()));
+        return SecurityUtils.hasRole(role);
     }
 
     public boolean hasAny(Role... roles) {
-        for (Role r : roles) if (has(r)) return true;
-        return false;
+        return SecurityUtils.hasAnyRole(roles);
     }
 
     public void requireAny(Role... roles) {
@@ -50,6 +50,14 @@ public class PermissionService {
         Long traegerId = SecurityUtils.currentTraegerIdRequired();
         Long activeOrgUnitId = SecurityUtils.currentOrgUnitIdRequired();
 
+        // Fast path: aktive OrgUnit im Träger-Index -> gleicher Träger, kein SQL
+        OrgUnitHierarchy h = hierarchyIndex.forTraeger(traegerId);
+        if (h.isResolved(targetOrgUnitId)) {
+            if (has(Role.TRAEGER_ADMIN)) return true;
+            if (!has(Role.EINRICHTUNG_ADMIN)) return false;
+            return isDescendantOrSame(targetOrgUnitId, findEinrichtungRoot(activeOrgUnitId));
+        }
+
         OrgUnit target = orgUnitRepository.findById(targetOrgUnitId).orElse(null);
         if (target == null) return false;
 
@@ -105,18 +113,14 @@ public class PermissionService {
         Long traegerId = SecurityUtils.currentTraegerIdRequired();
         Long activeOrgUnitId = SecurityUtils.currentOrgUnitIdRequired();
 
-        List<OrgUnit> all = orgUnitRepository.findAllEnabledByTraegerId(traegerId);
+        OrgUnitHierarchy h = hierarchyIndex.forTraeger(traegerId);
 
         if (has(Role.TRAEGER_ADMIN)) {
-            Set<Long> ids = new HashSet<>();
-            for (OrgUnit ou : all) {
-                if (ou.getType() == OrgUnitType.EINRICHTUNG) ids.add(ou.getId());
-            }
-            return ids;
+            return new HashSet<>(h.getEinrichtungIds());
         }
 
-        Long einrichtungId = findEinrichtungRootId(activeOrgUnitId, all);
-        if (einrichtungId == null) return Set.of();
+        Long einrichtungId = findEinrichtungRoot(activeOrgUnitId);
+        if (einrichtungId == null || !h.getEinrichtungIds().contains(einrichtungId)) return Set.of();
 
         return Set.of(einrichtungId);
     }
@@ -126,6 +130,11 @@ public class PermissionService {
     // ---------------------------------------------------
 
     private Long findEinrichtungRoot(Long activeOrgUnitId) {
+        OrgUnitHierarchy h = currentHierarchy();
+        if (h != null && h.isResolved(activeOrgUnitId)) {
+            return h.einrichtungOf(activeOrgUnitId);
+        }
+
         Long current = activeOrgUnitId;
 
         while (current != null) {
@@ -147,6 +156,11 @@ public class PermissionService {
         if (rootId == null) return false;
         if (targetId.equals(rootId)) return true;
 
+        OrgUnitHierarchy h = currentHierarchy();
+        if (h != null && h.isResolved(targetId)) {
+            return h.isDescendant(targetId, rootId);
+        }
+
         Long current = targetId;
         while (current != null) {
             OrgUnit ou = orgUnitRepository.findById(current).orElse(null);
@@ -159,23 +173,8 @@ public class PermissionService {
         return false;
     }
 
-    private Long findEinrichtungRootId(Long startId, List<OrgUnit> all) {
-        Map<Long, OrgUnit> map = new HashMap<>();
-        for (OrgUnit ou : all) map.put(ou.getId(), ou);
-
-        Set<Long> visited = new HashSet<>();
-        Long current = startId;
-
-        while (current != null) {
-            if (!visited.add(current)) return null;
-            OrgUnit ou = map.get(current);
-            if (ou == null) return null;
-
-            if (ou.getType() == OrgUnitType.EINRICHTUNG) return ou.getId();
-
-            if (ou.getParent() == null) return null;
-            current = ou.getParent().getId();
-        }
-        return null;
+    private OrgUnitHierarchy currentHierarchy() {
+        Long traegerId = SecurityUtils.currentTraegerIdOptional();
+        return traegerId != null ? hierarchyIndex.forTraeger(traegerId) : null;
     }
 }
\ No newline at end of file
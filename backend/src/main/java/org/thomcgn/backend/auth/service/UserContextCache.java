@@ -0,0 +1,190 @@
+package org.thomcgn.backend.auth.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thomcgn.backend.common.persistence.AfterCommit;
+import org.thomcgn.backend.orgunits.model.OrgUnit;
+import org.thomcgn.backend.orgunits.model.OrgUnitMembership;
+import org.thomcgn.backend.orgunits.model.OrgUnitType;
+import org.thomcgn.backend.orgunits.repo.OrgUnitMembershipRepository;
+import org.thomcgn.backend.orgunits.repo.OrgUnitRepository;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Materialisierte Kontext-Liste pro User: (Träger, Einrichtung, Rollen).
+ *
+ * Einmal aus den aktiven Rollen-Memberships berechnet und im Speicher gehalten; Login,
+ * /auth/context und switchContext lesen nur noch hieraus. Invalidiert nach Commit von
+ * Membership-Änderungen (pro User) bzw. Änderungen am OrgUnit-Baum oder an Trägern (alle User).
+ * LRU nach Anzahl User; verdrängte Einträge werden beim nächsten Zugriff neu berechnet.
+ */
+@Component
+public class UserContextCache {
+
+    /** Ein wählbarer Kontext; roles = direkte Rollen unterhalb der Einrichtung + TRAEGER-Rollen. */
+    public record UserContext(
+            Long traegerId,
+            String traegerName,
+            Long einrichtungOrgUnitId,
+            String einrichtungName,
+            Set<String> roles
+    ) {}
+
+    private final OrgUnitMembershipRepository membershipRepository;
+    private final OrgUnitRepository orgUnitRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final int maxEntries;
+
+    // access-order = LRU; Zugriff nur unter synchronized(this)
+    private final LinkedHashMap<Long, List<UserContext>> byUser;
+
+    // Schutz gegen Publish einer Liste, die vor einer Invalidierung geladen wurde
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserContextCache(OrgUnitMembershipRepository membershipRepository,
+                            OrgUnitRepository orgUnitRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${kidoc.auth.user-context-cache.max-entries:10000}") int maxEntries) {
+        this.membershipRepository = membershipRepository;
+        this.orgUnitRepository = orgUnitRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.maxEntries = Math.max(0, maxEntries);
+        this.byUser = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<UserContext>> eldest) {
+                return size() > UserContextCache.this.maxEntries;
+            }
+        };
+    }
+
+    public List<UserContext> forUser(Long userId) {
+        synchronized (this) {
+            List<UserContext> cached = byUser.get(userId);
+            if (cached != null) return cached;
+        }
+
+        // Berechnung außerhalb des Locks (DB-Zugriff)
+        long gen = generation.get();
+        List<UserContext> built = readOnlyTx.execute(status -> compute(userId));
+
+        synchronized (this) {
+            // zwischenzeitlich invalidiert -> veraltete Liste nicht ablegen
+            if (generation.get() == gen) byUser.put(userId, built);
+        }
+        return built;
+    }
+
+    public Optional<UserContext> find(Long userId, Long einrichtungOrgUnitId) {
+        for (UserContext c : forUser(userId)) {
+            if (c.einrichtungOrgUnitId().equals(einrichtungOrgUnitId)) return Optional.of(c);
+        }
+        return Optional.empty();
+    }
+
+    public synchronized void invalidateUser(Long userId) {
+        generation.incrementAndGet();
+        byUser.remove(userId);
+    }
+
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        byUser.clear();
+    }
+
+    /** invalidateUser() nach Commit, siehe {@link AfterCommit}. */
+    public void invalidateUserAfterCommit(Long userId) {
+        AfterCommit.run(() -> invalidateUser(userId));
+    }
+
+    public void invalidateAllAfterCommit() {
+        AfterCommit.run(this::invalidateAll);
+    }
+
+    // ---------------------------------------------------------
+
+    private List<UserContext> compute(Long userId) {
+        List<OrgUnitMembership> memberships = membershipRepository.findAllActiveRolesByUserId(userId);
+
+        // Aktive Bäume der beteiligten Träger, je einmal geladen (statt getParent()-Kette pro Membership)
+        Map<Long, Map<Long, OrgUnit>> treeByTraeger = new HashMap<>();
+        Map<Long, Set<String>> traegerRoles = new LinkedHashMap<>();
+        Map<Long, CtxAgg> agg = new LinkedHashMap<>();
+
+        // Pass 1: direkte (nicht-TRAEGER) Memberships -> nächste Einrichtung
+        for (OrgUnitMembership m : memberships) {
+            OrgUnit ou = m.getOrgUnit();
+            if (ou == null || !ou.isEnabled()) continue;
+            if (ou.getTraeger() == null || !ou.getTraeger().isEnabled()) continue;
+
+            Long traegerId = ou.getTraeger().getId();
+            if (ou.getType() == OrgUnitType.TRAEGER) {
+                traegerRoles.computeIfAbsent(traegerId, k -> new LinkedHashSet<>()).add(m.getRole());
+                continue;
+            }
+
+            Map<Long, OrgUnit> tree = treeByTraeger.computeIfAbsent(traegerId, this::loadTree);
+            OrgUnit einr = findEinrichtungAncestor(ou, tree);
+            if (einr == null || !einr.isEnabled()) continue;
+            if (einr.getTraeger() == null || !einr.getTraeger().isEnabled()) continue;
+
+            agg.computeIfAbsent(einr.getId(), k -> new CtxAgg(einr)).roles.add(m.getRole());
+        }
+
+        // Pass 2: TRAEGER-Rollen gelten für alle aktiven Einrichtungen des Trägers
+        for (Map.Entry<Long, Set<String>> entry : traegerRoles.entrySet()) {
+            Map<Long, OrgUnit> tree = treeByTraeger.computeIfAbsent(entry.getKey(), this::loadTree);
+            for (OrgUnit einr : tree.values()) {
+                if (einr.getType() != OrgUnitType.EINRICHTUNG) continue;
+                agg.computeIfAbsent(einr.getId(), k -> new CtxAgg(einr)).roles.addAll(entry.getValue());
+            }
+        }
+
+        List<UserContext> out = new ArrayList<>(agg.size());
+        for (CtxAgg a : agg.values()) {
+            out.add(new UserContext(a.traegerId, a.traegerName, a.einrichtungOrgUnitId, a.einrichtungName, Set.copyOf(a.roles)));
+        }
+        return List.copyOf(out);
+    }
+
+    private Map<Long, OrgUnit> loadTree(Long traegerId) {
+        Map<Long, OrgUnit> byId = new LinkedHashMap<>();
+        for (OrgUnit ou : orgUnitRepository.findAllEnabledByTraegerId(traegerId)) {
+            byId.put(ou.getId(), ou);
+        }
+        return byId;
+    }
+
+    private static OrgUnit findEinrichtungAncestor(OrgUnit start, Map<Long, OrgUnit> tree) {
+        OrgUnit current = start;
+        int guard = 0;
+        while (current != null && guard++ < 50) {
+            if (current.getType() == OrgUnitType.EINRICHTUNG) return current;
+            OrgUnit parent = current.getParent();
+            if (parent == null) return null;
+            // deaktivierte Zwischenknoten fehlen im Baum -> wie bisher lazy über den Parent
+            OrgUnit known = tree.get(parent.getId());
+            current = known != null ? known : parent;
+        }
+        return null;
+    }
+
+    private static final class CtxAgg {
+        final Long traegerId;
+        final String traegerName;
+        final Long einrichtungOrgUnitId;
+        final String einrichtungName;
+        final Set<String> roles = new LinkedHashSet<>();
+
+        private CtxAgg(OrgUnit einr) {
+            this.traegerId = einr.getTraeger().getId();
+            this.traegerName = einr.getTraeger().getName();
+            this.einrichtungOrgUnitId = einr.getId();
+            this.einrichtungName = einr.getName();
+        }
+    }
+}
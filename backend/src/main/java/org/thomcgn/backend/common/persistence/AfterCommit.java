@@ -0,0 +1,26 @@
+package org.thomcgn.backend.common.persistence;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Seiteneffekte (Cache-Invalidierung, Job-Start) erst nach erfolgreichem Commit der laufenden
+ * Transaktion ausführen; bei Rollback entfallen sie. Ohne aktive Transaktion: sofort.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {}
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -28,6 +28,9 @@ public abstract class AuditableEntity {
         this.updatedAt = Instant.now();
     }
 
+    /** Als geändert markieren, auch wenn sich nur abhängige Zeilen geändert haben (bumpt ggf. @Version). */
+    public void touch() { this.updatedAt = Instant.now(); }
+
     public Instant getCreatedAt() { return createdAt; }
     public Instant getUpdatedAt() { return updatedAt; }
 }
\ No newline at end of file
@@ -28,10 +28,12 @@ import java.util.*;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final JwtVerificationCache verificationCache;
     private final ObjectMapper objectMapper;
 
-    public JwtAuthFilter(JwtService jwtService, ObjectMapper objectMapper) {
+    public JwtAuthFilter(JwtService jwtService, JwtVerificationCache verificationCache, ObjectMapper objectMapper) {
         this.jwtService = jwtService;
+        this.verificationCache = verificationCache;
         this.objectMapper = objectMapper;
     }
 
@@ -48,19 +50,15 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         try {
-            Jws<Claims> jws = jwtService.parse(token);
-            Claims c = jws.getBody();
-
-            Long userId = c.get(JwtService.CLAIM_UID, Long.class);
-            String email = c.getSubject();
-
-            Collection<? extends GrantedAuthority> authorities = toAuthorities(c);
-
-            // ✅ principal wieder JwtPrincipal (damit ContextRequiredFilter etc. funktionieren)
-            JwtPrincipal principal = new JwtPrincipal(userId, email, c);
+            // Fast-Path: gleiches Token wurde bereits verifiziert (Frontend feuert viele Calls pro Seite)
+            JwtVerificationCache.Entry verified = verificationCache.get(token);
+            if (verified == null) {
+                verified = verify(token);
+                verificationCache.put(token, verified);
+            }
 
             UsernamePasswordAuthenticationToken auth =
-                    new UsernamePasswordAuthenticationToken(principal, null, authorities);
+                    new UsernamePasswordAuthenticationToken(verified.principal(), null, verified.authorities());
 
             auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(auth);
@@ -73,6 +71,22 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
     }
 
+    JwtVerificationCache.Entry verify(String token) {
+        Jws<Claims> jws = jwtService.parse(token);
+        Claims c = jws.getBody();
+
+        Long userId = c.get(JwtService.CLAIM_UID, Long.class);
+        String email = c.getSubject();
+
+        // ✅ principal wieder JwtPrincipal (damit ContextRequiredFilter etc. funktionieren)
+        JwtPrincipal principal = new JwtPrincipal(userId, email, c);
+
+        Date exp = c.getExpiration();
+        Instant expiresAt = exp != null ? exp.toInstant() : null;
+
+        return new JwtVerificationCache.Entry(principal, toAuthorities(c), expiresAt);
+    }
+
     private String resolveToken(HttpServletRequest request) {
         // 1) Header hat Vorrang (für Debug/Swagger/etc.)
         String header = request.getHeader(HttpHeaders.AUTHORIZATION);
@@ -101,12 +115,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         return null;
     }
 
-    private Collection<? extends GrantedAuthority> toAuthorities(Claims c) {
+    static List<GrantedAuthority> toAuthorities(Claims c) {
         List<GrantedAuthority> out = new ArrayList<>();
 
         if (JwtService.isBaseToken(c)) {
             out.add(new SimpleGrantedAuthority("ROLE_AUTHENTICATED"));
-            return out;
+            return List.copyOf(out);
         }
 
         if (JwtService.isContextToken(c) || JwtService.isSystemToken(c)) {
@@ -119,7 +133,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             out.add(new SimpleGrantedAuthority("ROLE_AUTHENTICATED"));
         }
 
-        return out;
+        return List.copyOf(out);
     }
 
     private void writeUnauthorizedProblem(HttpServletResponse response, HttpServletRequest request, String detail)
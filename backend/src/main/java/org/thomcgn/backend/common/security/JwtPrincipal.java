@@ -12,10 +12,14 @@ public class JwtPrincipal {
     private final String email;
     private final Claims claims;
 
+    // Rollen aus dem roles-Claim, einmal dekodiert: Bit = 1L << Role.ordinal()
+    private final long roleBits;
+
     public JwtPrincipal(Long userId, String email, Claims claims) {
         this.userId = userId;
         this.email = email;
         this.claims = claims;
+        this.roleBits = decodeRoleBits(claims);
     }
 
     public Long getUserId() {
@@ -50,6 +54,48 @@ public class JwtPrincipal {
         return claims != null ? claims.get(JwtService.CLAIM_OID, Long.class) : null;
     }
 
+    // ---------------------------
+    // Roles (Bit-Tests, keine Allokation)
+    // ---------------------------
+
+    public boolean hasRole(Role role) {
+        return role != null && (roleBits & bit(role)) != 0;
+    }
+
+    public boolean hasAnyRole(Role... roles) {
+        if (roles == null) return false;
+        for (Role r : roles) {
+            if (r != null && (roleBits & bit(r)) != 0) return true;
+        }
+        return false;
+    }
+
+    public long getRoleBits() {
+        return roleBits;
+    }
+
+    private static long bit(Role role) {
+        return 1L << role.ordinal();
+    }
+
+    /** Wie JwtAuthFilter.toAuthorities: Rollen zählen nur bei Context-/System-Tokens, unbekannte Namen werden ignoriert. */
+    private static long decodeRoleBits(Claims claims) {
+        if (claims == null) return 0L;
+        if (!JwtService.isContextToken(claims) && !JwtService.isSystemToken(claims)) return 0L;
+
+        long bits = 0L;
+        Object rolesObj = claims.get(JwtService.CLAIM_ROLES);
+        if (rolesObj instanceof List<?> list) {
+            for (Object r : list) {
+                if (r == null) continue;
+                try {
+                    bits |= bit(Role.valueOf(String.valueOf(r)));
+                } catch (IllegalArgumentException ignore) {}
+            }
+        }
+        return bits;
+    }
+
     // ✅ Damit Controller weiterhin AuthPrincipal bekommen können
     public AuthPrincipal toAuthPrincipal() {
         Role role = null;
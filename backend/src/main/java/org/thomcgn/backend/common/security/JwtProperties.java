@@ -8,6 +8,8 @@ public class JwtProperties {
     private String issuer;
     private long baseTtlMinutes = 60;
     private long accessTtlMinutes = 240;
+    private boolean verifyCacheEnabled = true;
+    private int verifyCacheMaxEntries = 10_000;
 
     public String getSecret() { return secret; }
     public void setSecret(String secret) { this.secret = secret; }
@@ -20,4 +22,10 @@ public class JwtProperties {
 
     public long getAccessTtlMinutes() { return accessTtlMinutes; }
     public void setAccessTtlMinutes(long accessTtlMinutes) { this.accessTtlMinutes = accessTtlMinutes; }
+
+    public boolean isVerifyCacheEnabled() { return verifyCacheEnabled; }
+    public void setVerifyCacheEnabled(boolean verifyCacheEnabled) { this.verifyCacheEnabled = verifyCacheEnabled; }
+
+    public int getVerifyCacheMaxEntries() { return verifyCacheMaxEntries; }
+    public void setVerifyCacheMaxEntries(int verifyCacheMaxEntries) { this.verifyCacheMaxEntries = verifyCacheMaxEntries; }
 }
\ No newline at end of file
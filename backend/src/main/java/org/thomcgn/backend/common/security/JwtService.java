@@ -23,9 +23,16 @@
         private final JwtProperties props;
         private final Key key;
 
+        // Immutable + thread-safe: einmal bauen statt pro Request
+        private final JwtParser parser;
+
         public JwtService(JwtProperties props) {
             this.props = props;
             this.key = Keys.hmacShaKeyFor(props.getSecret().getBytes(StandardCharsets.UTF_8));
+            this.parser = Jwts.parserBuilder()
+                    .requireIssuer(props.getIssuer())
+                    .setSigningKey(key)
+                    .build();
         }
 
         public String issueBaseToken(Long userId, String email) {
@@ -66,11 +73,7 @@
         }
 
         public Jws<Claims> parse(String token) throws JwtException {
-            return Jwts.parserBuilder()
-                    .requireIssuer(props.getIssuer())
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
+            return parser.parseClaimsJws(token);
         }
 
         public String issueSystemToken(Long userId, String email) {
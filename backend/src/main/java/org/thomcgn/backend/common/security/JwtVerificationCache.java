@@ -0,0 +1,121 @@
+package org.thomcgn.backend.common.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache für bereits verifizierte Tokens (Fast-Path im JwtAuthFilter).
+ * Key ist ein SHA-256-Digest des Tokens (kein Klartext-Token im Heap),
+ * Einträge laufen spätestens mit dem exp-Claim des Tokens ab.
+ */
+@Component
+public class JwtVerificationCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final int maxEntries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public JwtVerificationCache(JwtProperties props, MeterRegistry meterRegistry) {
+        this.enabled = props.isVerifyCacheEnabled() && props.getVerifyCacheMaxEntries() > 0;
+        this.maxEntries = props.getVerifyCacheMaxEntries();
+
+        this.hits = Counter.builder("jwt.verify.cache")
+                .tag("result", "hit")
+                .description("JWT verification cache lookups")
+                .register(meterRegistry);
+        this.misses = Counter.builder("jwt.verify.cache")
+                .tag("result", "miss")
+                .description("JWT verification cache lookups")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("jwt.verify.cache.evictions")
+                .description("Entries removed because the cache was full")
+                .register(meterRegistry);
+        Gauge.builder("jwt.verify.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    /** Verifiziertes Token inkl. fertig gebauter Authorities. */
+    public record Entry(JwtPrincipal principal, List<GrantedAuthority> authorities, Instant expiresAt) {}
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Entry get(String token) {
+        if (!enabled) return null;
+
+        String key = digest(token);
+        Entry e = entries.get(key);
+        if (e == null) {
+            misses.increment();
+            return null;
+        }
+        if (!e.expiresAt().isAfter(Instant.now())) {
+            entries.remove(key, e);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return e;
+    }
+
+    public void put(String token, Entry entry) {
+        if (!enabled || entry == null || entry.expiresAt() == null) return;
+        if (!entry.expiresAt().isAfter(Instant.now())) return;
+
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(digest(token), entry);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // ---------------------------------------------------------
+
+    private void makeRoom() {
+        Instant now = Instant.now();
+        entries.values().removeIf(e -> !e.expiresAt().isAfter(now));
+
+        // immer noch voll -> beliebige Einträge verwerfen (Tokens werden beim nächsten Request neu verifiziert)
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -21,12 +21,13 @@ public class SecurityConfig {
     public SecurityFilterChain filterChain(
             HttpSecurity http,
             JwtService jwtService,
+            JwtVerificationCache jwtVerificationCache,
             ObjectMapper objectMapper,
             ProblemAuthEntryPoint authEntryPoint,
             ProblemAccessDeniedHandler accessDeniedHandler
     ) throws Exception {
 
-        JwtAuthFilter jwtAuthFilter = new JwtAuthFilter(jwtService, objectMapper);
+        JwtAuthFilter jwtAuthFilter = new JwtAuthFilter(jwtService, jwtVerificationCache, objectMapper);
         ContextRequiredFilter contextRequiredFilter = new ContextRequiredFilter(objectMapper);
 
         return http
@@ -58,6 +59,10 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**").permitAll()
                         .requestMatchers("/github/webhook").permitAll()
 
+                        // Actuator: Metriken umfassen alle Träger -> nur SYSTEM_ADMIN (System-Token)
+                        .requestMatchers("/actuator/health", "/actuator/health/**").authenticated()
+                        .requestMatchers("/actuator/**").hasRole("SYSTEM_ADMIN")
+
                         // Geschützte Bereiche
                         .requestMatchers("/auth/**").authenticated()
                         .requestMatchers("/external/**").authenticated()
@@ -5,6 +5,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
+import org.thomcgn.backend.auth.model.Role;
 
 import java.util.Collections;
 import java.util.List;
@@ -91,6 +92,34 @@ public final class SecurityUtils {
     // Roles
     // ---------------------------
 
+    /**
+     * Rollen-Check über die vorab dekodierten Bits am JwtPrincipal.
+     * Fallback auf Authorities nur für Authentications ohne JwtPrincipal (z.B. Tests).
+     */
+    public static boolean hasRole(Role role) {
+        JwtPrincipal p = principalOptional();
+        if (p != null) return p.hasRole(role);
+        return hasAuthority("ROLE_" + role.name());
+    }
+
+    public static boolean hasAnyRole(Role... roles) {
+        JwtPrincipal p = principalOptional();
+        if (p != null) return p.hasAnyRole(roles);
+        for (Role r : roles) {
+            if (hasAuthority("ROLE_" + r.name())) return true;
+        }
+        return false;
+    }
+
+    private static boolean hasAuthority(String required) {
+        Authentication auth = authentication();
+        if (auth == null) return false;
+        for (GrantedAuthority a : auth.getAuthorities()) {
+            if (required.equals(a.getAuthority())) return true;
+        }
+        return false;
+    }
+
     public static List<String> currentRolesOptional() {
         Authentication auth = authentication();
         if (auth == null) return Collections.emptyList();
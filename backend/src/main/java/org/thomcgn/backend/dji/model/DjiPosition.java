@@ -1,6 +1,7 @@
 package org.thomcgn.backend.dji.model;
 
 import jakarta.persistence.*;
+import org.thomcgn.backend.common.persistence.PooledIds;
 
 @Entity
 @Table(
@@ -13,7 +14,8 @@ import jakarta.persistence.*;
 public class DjiPosition {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dji_positionen_id")
+    @SequenceGenerator(name = "dji_positionen_id", sequenceName = "dji_positionen_id_seq", allocationSize = PooledIds.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
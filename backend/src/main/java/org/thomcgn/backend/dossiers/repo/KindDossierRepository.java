@@ -27,9 +27,9 @@ public interface KindDossierRepository extends JpaRepository<KindDossier, Long>
         count(f.id) as fallCount
     from KindDossier d
     join d.kind k
+    join OrgUnitClosure sc on sc.descendantId = d.einrichtungOrgUnit.id and sc.ancestorId = :scopeOrgUnitId
     left join Falleroeffnung f on f.dossier = d
-    where d.einrichtungOrgUnit.id = :einrichtungOrgUnitId
-      and d.enabled = true
+    where d.enabled = true
       and (
           :q is null
           or lower(concat(coalesce(k.vorname, ''), ' ', coalesce(k.nachname, '')))
@@ -39,7 +39,7 @@ public interface KindDossierRepository extends JpaRepository<KindDossier, Long>
     order by d.createdAt desc, d.id desc
 """)
     Page<AkteListItemProjection> listAkten(
-            @Param("einrichtungOrgUnitId") Long einrichtungOrgUnitId,
+            @Param("scopeOrgUnitId") Long scopeOrgUnitId,
             @Param("q") String q,
             Pageable pageable
     );
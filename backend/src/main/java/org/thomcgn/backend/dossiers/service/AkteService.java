@@ -24,7 +24,6 @@ import org.thomcgn.backend.people.model.Kind;
 import org.thomcgn.backend.people.repo.KindRepository;
 
 import java.util.List;
-import java.util.Set;
 
 @Service
 public class AkteService {
@@ -129,9 +128,7 @@ public class AkteService {
             throw DomainException.forbidden(ErrorCode.ACCESS_DENIED, "Akte not in current traeger scope");
         }
 
-        Set<Long> allowedEinrichtungen = Set.of(einrichtungOrgUnitId);
-
-        List<Falleroeffnung> faelle = fallRepo.listByDossierScoped(traegerId, dossier.getId(), allowedEinrichtungen);
+        List<Falleroeffnung> faelle = fallRepo.listByDossierScoped(traegerId, dossier.getId(), einrichtungOrgUnitId);
 
         String kindName = ((dossier.getKind().getVorname() == null ? "" : dossier.getKind().getVorname())
                 + " "
@@ -152,6 +149,7 @@ public class AkteService {
                         f.getCreatedAt(),
                         null,
                         null,
+                        null,
                         null
                 ))
                 .toList();
@@ -31,11 +31,30 @@ public class FalleroeffnungController {
     public ResponseEntity<FalleroeffnungListResponse> list(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean exactTotal,
             Pageable pageable
     ) {
+        // cursor gesetzt (auch leer = erste Seite) -> Keyset-Modus; sonst klassisches Paging
+        if (cursor != null) {
+            return ResponseEntity.ok(service.listByCursor(status, q, cursor, pageable.getPageSize(), exactTotal));
+        }
         return ResponseEntity.ok(service.list(status, q, pageable));
     }
 
+    @GetMapping("/{id}/notizen")
+    public ResponseEntity<FalleroeffnungNotizPageResponse> listNotizen(
+            @PathVariable Long id,
+            @RequestParam(required = false) String visibility,
+            @RequestParam(required = false) String typ,
+            @RequestParam(required = false) String anlassCode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean summary
+    ) {
+        return ResponseEntity.ok(service.listNotizen(id, visibility, typ, anlassCode, cursor, size, summary));
+    }
+
     @PostMapping("/{id}/notizen")
     public ResponseEntity<FalleroeffnungNotizResponse> addNotiz(@PathVariable Long id, @Valid @RequestBody AddNotizRequest req) {
         return ResponseEntity.ok(service.addNotiz(id, req));
@@ -22,5 +22,8 @@ public record FalleroeffnungListItemResponse(
         // ✅ Neu für Dashboard: aus current Meldung abgeleitet (falls vorhanden)
         Boolean akutGefahrImVerzug,
         String dringlichkeit,
-        LocalDate naechsteUeberpruefungAm
+        LocalDate naechsteUeberpruefungAm,
+
+        // letzte Risiko-Ampel (GRUEN/GELB/ROT), null = noch kein Snapshot
+        String riskTrafficLight
 ) {}
\ No newline at end of file
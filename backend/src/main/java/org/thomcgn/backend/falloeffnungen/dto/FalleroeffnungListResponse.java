@@ -2,9 +2,19 @@ package org.thomcgn.backend.falloeffnungen.dto;
 
 import java.util.List;
 
+/**
+ * Seiten-Modus: page/size/total wie bisher, nextCursor = null.
+ * Cursor-Modus: nextCursor für die Folgeseite (null = Ende), total ggf. nur Planner-Schätzung.
+ */
 public record FalleroeffnungListResponse(
         List<FalleroeffnungListItemResponse> items,
         int page,
         int size,
-        long total
-) {}
\ No newline at end of file
+        long total,
+        String nextCursor,
+        boolean totalEstimated
+) {
+    public FalleroeffnungListResponse(List<FalleroeffnungListItemResponse> items, int page, int size, long total) {
+        this(items, page, size, total, null, false);
+    }
+}
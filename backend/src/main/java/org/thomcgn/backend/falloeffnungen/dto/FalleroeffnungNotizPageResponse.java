@@ -0,0 +1,11 @@
+package org.thomcgn.backend.falloeffnungen.dto;
+
+import java.util.List;
+
+/** Seite der Notizen-Timeline (neueste zuerst); nextCursor = null -> keine älteren Notizen. */
+public record FalleroeffnungNotizPageResponse(
+        List<FalleroeffnungNotizResponse> items,
+        int size,
+        String nextCursor,
+        boolean summary
+) {}
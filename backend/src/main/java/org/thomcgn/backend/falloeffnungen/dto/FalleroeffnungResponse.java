@@ -19,5 +19,7 @@ public record FalleroeffnungResponse(
         String createdByDisplayName,
         List<String> anlassCodes,
         RiskSnapshotResponse latestRisk,
-        List<FalleroeffnungNotizResponse> notizen
+        // nur die neuesten Notizen (aufsteigend sortiert); ältere über GET /falloeffnungen/{id}/notizen
+        List<FalleroeffnungNotizResponse> notizen,
+        String notizenNextCursor
 ) {}
\ No newline at end of file
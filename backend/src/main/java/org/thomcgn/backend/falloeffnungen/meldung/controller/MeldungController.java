@@ -1,10 +1,19 @@
     package org.thomcgn.backend.falloeffnungen.meldung.controller;
 
+    import org.springframework.http.CacheControl;
+    import org.springframework.http.HttpHeaders;
+    import org.springframework.http.MediaType;
+    import org.springframework.http.ResponseEntity;
     import org.springframework.web.bind.annotation.*;
+    import org.springframework.web.context.request.WebRequest;
+    import org.thomcgn.backend.common.errors.DomainException;
+    import org.thomcgn.backend.common.errors.ErrorCode;
     import org.thomcgn.backend.falloeffnungen.meldung.dto.*;
     import org.thomcgn.backend.falloeffnungen.meldung.service.MeldungService;
+    import org.thomcgn.backend.falloeffnungen.meldung.service.RenderedMeldung;
 
     import java.util.List;
+    import java.util.Map;
 
     @RestController
     @RequestMapping("/falloeffnungen/{fallId}/meldungen")
@@ -22,13 +31,31 @@
         }
 
         @GetMapping("/current")
-        public MeldungResponse current(@PathVariable Long fallId) {
-            return service.current(fallId);
+        public ResponseEntity<?> current(@PathVariable Long fallId, WebRequest request) {
+            return toResponse(service.current(fallId), request);
+        }
+
+        /** Change-Log seitenweise (Keyset); section/field filtern, cursor = nextCursor der vorherigen Seite. */
+        @GetMapping("/{meldungId}/changes")
+        public MeldungChangePageResponse changes(@PathVariable Long fallId, @PathVariable Long meldungId,
+                                                 @RequestParam(required = false) String section,
+                                                 @RequestParam(required = false) String field,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit) {
+            return service.changes(fallId, meldungId, section, field, cursor, limit);
+        }
+
+        /** Diff zweier Versionen (z. B. ?from=3&to=5); ohne from: Korrekturziel bzw. abgelöste Version von to. */
+        @GetMapping("/diff")
+        public MeldungDiffResponse diff(@PathVariable Long fallId,
+                                        @RequestParam(required = false) Long from,
+                                        @RequestParam Long to) {
+            return service.diff(fallId, from, to);
         }
 
         @GetMapping("/{meldungId}")
-        public MeldungResponse get(@PathVariable Long fallId, @PathVariable Long meldungId) {
-            return service.get(fallId, meldungId);
+        public ResponseEntity<?> get(@PathVariable Long fallId, @PathVariable Long meldungId, WebRequest request) {
+            return toResponse(service.get(fallId, meldungId), request);
         }
 
         @PostMapping
@@ -46,8 +73,56 @@
             return service.saveDraft(fallId, meldungId, req);
         }
 
+        /**
+         * Autosave eines Abschnitts (MeldungSection, z. B. fach, observations); Feldnamen wie beim Entwurf.
+         * Feld-Abschnitte: nur mitgeschickte Felder werden geändert. Listen-Abschnitte: kompletter Ersatz.
+         * If-Match = rowVersion (aus MeldungResponse oder ETag der letzten PATCH-Antwort), sonst 409.
+         */
+        @PatchMapping("/{meldungId}/sections/{section}")
+        public ResponseEntity<MeldungSectionResponse> patchSection(@PathVariable Long fallId, @PathVariable Long meldungId,
+                                                                   @PathVariable String section,
+                                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                   @RequestBody Map<String, Object> body) {
+            MeldungSectionResponse res = service.patchSection(fallId, meldungId, section, body, parseRowVersion(ifMatch));
+            return ResponseEntity.ok().eTag(Long.toString(res.rowVersion())).body(res);
+        }
+
         @PostMapping("/{meldungId}/submit")
         public MeldungResponse submit(@PathVariable Long fallId, @PathVariable Long meldungId, @RequestBody(required = false) MeldungSubmitRequest req) {
             return service.submit(fallId, meldungId, req);
         }
-    }
\ No newline at end of file
+    
+        // akzeptiert 5, "5" und W/"5"
+        static Long parseRowVersion(String ifMatch) {
+            if (ifMatch == null || ifMatch.isBlank()) {
+                return null;
+            }
+            String v = ifMatch.trim();
+            if (v.startsWith("W/")) {
+                v = v.substring(2);
+            }
+            if (v.length() >= 2 && v.startsWith("\"") && v.endsWith("\"")) {
+                v = v.substring(1, v.length() - 1);
+            }
+            try {
+                return Long.parseLong(v);
+            } catch (NumberFormatException e) {
+                throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "If-Match must be the Meldung rowVersion");
+            }
+        }
+
+        /** Abgeschlossene Versionen: fertiges JSON mit starkem ETag, If-None-Match -> 304 ohne Body. */
+        private static ResponseEntity<?> toResponse(RenderedMeldung rendered, WebRequest request) {
+            if (!rendered.isCached()) {
+                return ResponseEntity.ok(rendered.response());
+            }
+            if (request.checkNotModified(rendered.etag())) {
+                return ResponseEntity.status(304).eTag(rendered.etag()).build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(rendered.etag())
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(rendered.json());
+        }
+    }
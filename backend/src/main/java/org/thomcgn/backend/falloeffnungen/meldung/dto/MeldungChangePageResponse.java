@@ -0,0 +1,11 @@
+package org.thomcgn.backend.falloeffnungen.meldung.dto;
+
+import java.util.List;
+
+/**
+ * Seite des Change-Logs (GET .../meldungen/{meldungId}/changes); nextCursor null = letzte Seite.
+ */
+public record MeldungChangePageResponse(
+        List<MeldungChangeResponse> items,
+        String nextCursor
+) {}
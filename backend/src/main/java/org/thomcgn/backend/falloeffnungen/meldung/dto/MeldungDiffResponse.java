@@ -0,0 +1,30 @@
+package org.thomcgn.backend.falloeffnungen.meldung.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Serverseitiger Diff zweier Meldungs-Versionen (GET .../meldungen/diff?from=&to=).
+ * Pfade wie im Change-Log (MeldungChange.fieldPath); Kind-Sammlungen als
+ * observations[key].feld, Schlüssel fachlich statt per ID (IDs ändern sich beim Kopieren).
+ */
+public record MeldungDiffResponse(
+        Long fromId,
+        int fromVersionNo,
+        String fromType,
+        Long toId,
+        int toVersionNo,
+        String toType,
+        List<Entry> entries
+) {
+    /** op: CHANGED, ADDED, REMOVED; bei ADDED fehlt oldValue, bei REMOVED newValue. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Entry(
+            String section,
+            String path,
+            String op,
+            String oldValue,
+            String newValue
+    ) {}
+}
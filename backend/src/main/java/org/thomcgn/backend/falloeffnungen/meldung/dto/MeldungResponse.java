@@ -14,6 +14,7 @@ public record MeldungResponse(
 
         Instant createdAt,
         Instant updatedAt,
+        long rowVersion,
         String createdByDisplayName,
 
         Long supersedesId,
@@ -70,8 +71,9 @@ public record MeldungResponse(
         Instant freigabeAm,
         String freigabeVonDisplayName,
 
-        // Changes
-        List<MeldungChangeResponse> changes
+        // Change-Log: nur Zusammenfassung, Einträge seitenweise über GET .../{meldungId}/changes
+        long changeCount,
+        Instant lastChangedAt
 ) {
     public record ObservationResponse(
             Long id,
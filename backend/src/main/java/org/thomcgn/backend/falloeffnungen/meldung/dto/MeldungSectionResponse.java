@@ -0,0 +1,33 @@
+package org.thomcgn.backend.falloeffnungen.meldung.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Antwort auf PATCH .../sections/{section}: nur der gespeicherte Abschnitt, alle übrigen Teile
+ * bleiben null und werden nicht serialisiert. changes = in diesem Request geschriebene Einträge.
+ * updatedAt/rowVersion sind die Werte nach dem Flush, also inkl. dieses Schreibvorgangs.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MeldungSectionResponse(
+        Long meldungId,
+        String section,
+        Instant updatedAt,
+        // für das If-Match des nächsten PATCH
+        long rowVersion,
+
+        // META, INHALT, FACH, AKUT, PLANUNG (Feldnamen wie in MeldungResponse)
+        Map<String, Object> fields,
+
+        List<String> anlassCodes,
+        MeldungResponse.JugendamtResponse jugendamt,
+        List<MeldungResponse.ContactResponse> contacts,
+        List<MeldungResponse.ExternResponse> extern,
+        List<MeldungResponse.AttachmentResponse> attachments,
+        List<MeldungResponse.ObservationResponse> observations,
+
+        List<MeldungChangeResponse> changes
+) {}
@@ -2,6 +2,7 @@ package org.thomcgn.backend.falloeffnungen.meldung.model;
 
 import jakarta.persistence.*;
 import org.thomcgn.backend.common.persistence.AuditableEntity;
+import org.thomcgn.backend.common.persistence.PooledIds;
 import org.thomcgn.backend.falloeffnungen.model.Falleroeffnung;
 import org.thomcgn.backend.falloeffnungen.risk.model.FalleroeffnungRiskSnapshot;
 import org.thomcgn.backend.users.model.User;
@@ -24,7 +25,8 @@ import java.time.LocalDate;
 public class Meldung extends AuditableEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meldungen_id")
+    @SequenceGenerator(name = "meldungen_id", sequenceName = "meldungen_id_seq", allocationSize = PooledIds.ALLOCATION_SIZE)
     private Long id;
 
     @Version
@@ -170,6 +172,7 @@ public class Meldung extends AuditableEntity {
     // Getters/Setters
 
     public Long getId() { return id; }
+    public long getRowVersion() { return rowVersion; }
 
     public Falleroeffnung getFalleroeffnung() { return falleroeffnung; }
     public void setFalleroeffnung(Falleroeffnung falleroeffnung) { this.falleroeffnung = falleroeffnung; }
@@ -1,6 +1,7 @@
 package org.thomcgn.backend.falloeffnungen.meldung.model;
 
 import jakarta.persistence.*;
+import org.thomcgn.backend.common.persistence.PooledIds;
 import org.thomcgn.backend.users.model.User;
 
 import java.time.Instant;
@@ -9,14 +10,15 @@ import java.time.Instant;
 @Table(
         name = "meldung_changes",
         indexes = {
-                @Index(name="ix_meldung_change_meldung", columnList="meldung_id"),
+                @Index(name="ix_meldung_change_meldung_changed_at", columnList="meldung_id,changed_at,id"),
                 @Index(name="ix_meldung_change_section", columnList="section")
         }
 )
 public class MeldungChange {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meldung_changes_id")
+    @SequenceGenerator(name = "meldung_changes_id", sequenceName = "meldung_changes_id_seq", allocationSize = PooledIds.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -1,6 +1,7 @@
 package org.thomcgn.backend.falloeffnungen.meldung.model;
 
 import jakarta.persistence.*;
+import org.thomcgn.backend.common.persistence.PooledIds;
 import org.thomcgn.backend.users.model.User;
 
 import java.time.Instant;
@@ -16,7 +17,8 @@ import java.time.Instant;
 public class MeldungObservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meldung_observations_id")
+    @SequenceGenerator(name = "meldung_observations_id", sequenceName = "meldung_observations_id_seq", allocationSize = PooledIds.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -1,6 +1,7 @@
 package org.thomcgn.backend.falloeffnungen.meldung.model;
 
 import jakarta.persistence.*;
+import org.thomcgn.backend.common.persistence.PooledIds;
 
 @Entity
 @Table(name="meldung_observation_tags",
@@ -10,7 +11,8 @@ import jakarta.persistence.*;
 public class MeldungObservationTag {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meldung_observation_tags_id")
+    @SequenceGenerator(name = "meldung_observation_tags_id", sequenceName = "meldung_observation_tags_id_seq", allocationSize = PooledIds.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -3,6 +3,7 @@ package org.thomcgn.backend.falloeffnungen.meldung.repo;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.thomcgn.backend.falloeffnungen.meldung.model.MeldungAnlassCode;
 import org.thomcgn.backend.falloeffnungen.meldung.model.MeldungAnlassCodeId;
 
@@ -22,4 +23,12 @@ public interface MeldungAnlassCodeRepository extends JpaRepository<MeldungAnlass
            where a.meldung.id = :meldungId
            """)
     void deleteAllByMeldungId(Long meldungId);
+
+    @Modifying
+    @Query("""
+           delete from MeldungAnlassCode a
+           where a.meldung.id = :meldungId
+             and a.code in :codes
+           """)
+    void deleteByMeldungIdAndCodeIn(@Param("meldungId") Long meldungId, @Param("codes") List<String> codes);
 }
\ No newline at end of file
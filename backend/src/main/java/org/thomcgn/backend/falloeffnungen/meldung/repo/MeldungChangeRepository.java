@@ -1,10 +1,52 @@
 package org.thomcgn.backend.falloeffnungen.meldung.repo;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.thomcgn.backend.falloeffnungen.meldung.model.MeldungChange;
+import org.thomcgn.backend.falloeffnungen.meldung.model.MeldungSection;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface MeldungChangeRepository extends JpaRepository<MeldungChange, Long> {
-    List<MeldungChange> findAllByMeldung_IdOrderByChangedAtAsc(Long meldungId);
-}
\ No newline at end of file
+
+    interface ChangeSummary {
+        long getChangeCount();
+        Instant getLastChangedAt();
+    }
+
+    @Query("""
+           select count(c) as changeCount, max(c.changedAt) as lastChangedAt
+           from MeldungChange c
+           where c.meldung.id = :meldungId
+           """)
+    ChangeSummary summarize(@Param("meldungId") Long meldungId);
+
+    /**
+     * Seite des Change-Logs in (changedAt, id)-Reihenfolge (Index ix_meldung_change_meldung_changed_at).
+     * afterChangedAt/afterId = letzter Eintrag der vorherigen Seite (erste Seite: KeysetCursor.OLDEST_FIRST_START);
+     * fieldPattern filtert per Präfix auf
+     * fieldPath und ist bereits LIKE-escaped (siehe prefixPattern).
+     */
+    @Query("""
+           select c from MeldungChange c
+           where c.meldung.id = :meldungId
+             and (:section is null or c.section = :section)
+             and (:fieldPattern is null or c.fieldPath like :fieldPattern escape '\\')
+             and (c.changedAt, c.id) > (:afterChangedAt, :afterId)
+           order by c.changedAt asc, c.id asc
+           """)
+    List<MeldungChange> findPage(@Param("meldungId") Long meldungId,
+                                 @Param("section") MeldungSection section,
+                                 @Param("fieldPattern") String fieldPattern,
+                                 @Param("afterChangedAt") Instant afterChangedAt,
+                                 @Param("afterId") Long afterId,
+                                 Pageable pageable);
+
+    /** 'prefix%' für findPage: "_" und "%" im Feldnamen treffen nur sich selbst, nicht beliebige Zeichen. */
+    static String prefixPattern(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -49,6 +49,32 @@ public interface MeldungRepository extends JpaRepository<Meldung, Long> {
     """)
     List<Meldung> findCurrentByFallIds(@Param("fallIds") Collection<Long> fallIds);
 
+    // =========================================================
+    // RESPONSE CACHE
+    // =========================================================
+
+    interface CacheState {
+        long getRowVersion();
+        Long getFallId();
+        Long getTraegerId();
+        Long getEinrichtungOrgUnitId();
+    }
+
+    /**
+     * PK-Lookup zur Revalidierung eines Heap-Treffers von MeldungResponseCache:
+     * aktuelle row_version plus Träger/Einrichtung des Falls (Scope-Prüfung ohne Entities).
+     */
+    @Query("""
+        select m.rowVersion as rowVersion,
+               f.id as fallId,
+               f.traeger.id as traegerId,
+               f.einrichtungOrgUnit.id as einrichtungOrgUnitId
+          from Meldung m
+          join m.falleroeffnung f
+         where m.id = :meldungId
+    """)
+    Optional<CacheState> findCacheState(@Param("meldungId") Long meldungId);
+
     // =========================================================
     // VERSIONING HELPERS
     // =========================================================
@@ -0,0 +1,57 @@
+package org.thomcgn.backend.falloeffnungen.meldung.repo;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Tabellen-Stufe des MeldungResponseCache (meldung_response_cache): serialisierte Antworten
+ * abgeschlossener Meldungs-Versionen, Schlüssel (meldung_id, row_version).
+ */
+@Repository
+public class MeldungResponseCacheRepository {
+
+    public record Row(String etag, byte[] body) {}
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public MeldungResponseCacheRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Optional<Row> find(Long meldungId, long rowVersion) {
+        List<Row> rows = jdbc.query("""
+            SELECT etag, body
+              FROM meldung_response_cache
+             WHERE meldung_id = :meldungId
+               AND row_version = :rowVersion
+            """, new MapSqlParameterSource()
+                .addValue("meldungId", meldungId)
+                .addValue("rowVersion", rowVersion),
+                (rs, i) -> new Row(rs.getString(1), rs.getBytes(2)));
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    /** Legt die Version an (nebenläufig sicher) und entfernt ältere Versionen derselben Meldung. */
+    public void put(Long meldungId, long rowVersion, String etag, byte[] body) {
+        MapSqlParameterSource p = new MapSqlParameterSource()
+                .addValue("meldungId", meldungId)
+                .addValue("rowVersion", rowVersion)
+                .addValue("etag", etag)
+                .addValue("body", body);
+
+        jdbc.update("""
+            INSERT INTO meldung_response_cache (meldung_id, row_version, etag, body, created_at)
+            VALUES (:meldungId, :rowVersion, :etag, :body, now())
+            ON CONFLICT (meldung_id, row_version) DO NOTHING
+            """, p);
+        jdbc.update("""
+            DELETE FROM meldung_response_cache
+             WHERE meldung_id = :meldungId
+               AND row_version <> :rowVersion
+            """, p);
+    }
+}
@@ -0,0 +1,92 @@
+package org.thomcgn.backend.falloeffnungen.meldung.repo;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Mengenbasiertes Kopieren der Abschnitte einer Meldung in eine neue Version (Korrektur):
+ * ein INSERT … SELECT pro Kind-Tabelle, unabhängig von der Anzahl Einträge.
+ * Ziel-Meldung muss geflusht sein und darf noch keine Kind-Einträge haben.
+ */
+@Repository
+public class MeldungSectionCopyRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public MeldungSectionCopyRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Beobachtungen erhalten Ersteller der Ziel-Meldung und now() als created_at (wie bisher beim Kopieren). */
+    public void copySections(Long fromId, Long toId, Long createdByUserId, String createdByDisplayName) {
+        MapSqlParameterSource p = new MapSqlParameterSource()
+                .addValue("fromId", fromId)
+                .addValue("toId", toId)
+                .addValue("userId", createdByUserId)
+                .addValue("displayName", createdByDisplayName);
+
+        jdbc.update("""
+            INSERT INTO meldung_anlass_codes (meldung_id, code)
+            SELECT :toId, code
+              FROM meldung_anlass_codes
+             WHERE meldung_id = :fromId
+            """, p);
+
+        jdbc.update("""
+            INSERT INTO meldung_jugendamt (meldung_id, informiert, kontakt_am, kontaktart, aktenzeichen, begruendung,
+                                           created_at, updated_at)
+            SELECT :toId, informiert, kontakt_am, kontaktart, aktenzeichen, begruendung, now(), now()
+              FROM meldung_jugendamt
+             WHERE meldung_id = :fromId
+            """, p);
+
+        jdbc.update("""
+            INSERT INTO meldung_contacts (meldung_id, kontakt_mit, kontakt_am, status, notiz, ergebnis, created_at, updated_at)
+            SELECT :toId, kontakt_mit, kontakt_am, status, notiz, ergebnis, now(), now()
+              FROM meldung_contacts
+             WHERE meldung_id = :fromId
+             ORDER BY id
+            """, p);
+
+        jdbc.update("""
+            INSERT INTO meldung_extern (meldung_id, stelle, stelle_sonstiges, am, begruendung, ergebnis, created_at, updated_at)
+            SELECT :toId, stelle, stelle_sonstiges, am, begruendung, ergebnis, now(), now()
+              FROM meldung_extern
+             WHERE meldung_id = :fromId
+             ORDER BY id
+            """, p);
+
+        jdbc.update("""
+            INSERT INTO meldung_attachments (meldung_id, file_id, typ, titel, beschreibung, sichtbarkeit,
+                                             rechtsgrundlage_hinweis, created_at, updated_at)
+            SELECT :toId, file_id, typ, titel, beschreibung, sichtbarkeit, rechtsgrundlage_hinweis, now(), now()
+              FROM meldung_attachments
+             WHERE meldung_id = :fromId
+             ORDER BY id
+            """, p);
+
+        // Beobachtungen + Tags in einem Statement: neue IDs vorab aus der Sequenz ziehen (alt -> neu),
+        // Tags hängen über dieses Mapping an den Kopien. Datenverändernde CTEs laufen immer vollständig.
+        jdbc.update("""
+            WITH src AS (
+                SELECT nextval('meldung_observations_id_seq') AS new_id, o.*
+                  FROM (SELECT * FROM meldung_observations WHERE meldung_id = :fromId ORDER BY id) o
+            ),
+            obs AS (
+                INSERT INTO meldung_observations (id, meldung_id, zeitpunkt, zeitraum, ort, ort_sonstiges, quelle, text,
+                                                  woertliches_zitat, koerperbefund, verhalten_kind, verhalten_bezug,
+                                                  sichtbarkeit, created_at, created_by_user_id, created_by_display_name)
+                SELECT new_id, :toId, zeitpunkt, zeitraum, ort, ort_sonstiges, quelle, text,
+                       woertliches_zitat, koerperbefund, verhalten_kind, verhalten_bezug,
+                       sichtbarkeit, now(), :userId, :displayName
+                  FROM src
+            )
+            INSERT INTO meldung_observation_tags (observation_id, anlass_code, indicator_id, severity, comment)
+            SELECT src.new_id, t.anlass_code, t.indicator_id, t.severity, t.comment
+              FROM meldung_observation_tags t
+              JOIN src ON src.id = t.observation_id
+             ORDER BY t.id
+            """, p);
+    }
+}
@@ -0,0 +1,79 @@
+package org.thomcgn.backend.falloeffnungen.meldung.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungDiffResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Diffs zwischen zwei abgeschlossenen Meldungs-Versionen. Deren Inhalt ändert sich nicht mehr
+ * (das current-Flag ist nicht Teil des Diffs), daher Schlüssel nur (fromId, toId), ohne
+ * Invalidierung; LRU nach Anzahl Einträge.
+ */
+@Component
+public class MeldungDiffCache {
+
+    private record Key(Long fromId, Long toId) {}
+
+    /** fallId für die Prüfung, ob die Versionen zum angefragten Fall gehören. */
+    public record Entry(Long fallId, MeldungDiffResponse diff) {}
+
+    private final int maxEntries;
+
+    // access-order = LRU; Zugriff nur unter synchronized(this)
+    private final LinkedHashMap<Key, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public MeldungDiffCache(MeterRegistry meterRegistry,
+                            @Value("${kidoc.meldung.diff-cache.max-entries:2000}") int maxEntries) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > MeldungDiffCache.this.maxEntries;
+            }
+        };
+
+        this.hits = Counter.builder("meldung.diff.cache")
+                .tag("result", "hit")
+                .description("Meldung version diff cache lookups")
+                .register(meterRegistry);
+        this.misses = Counter.builder("meldung.diff.cache")
+                .tag("result", "miss")
+                .description("Meldung version diff cache lookups")
+                .register(meterRegistry);
+        Gauge.builder("meldung.diff.cache.size", this, MeldungDiffCache::size)
+                .register(meterRegistry);
+    }
+
+    public Entry get(Long fromId, Long toId) {
+        Entry e;
+        synchronized (this) {
+            e = entries.get(new Key(fromId, toId));
+        }
+        (e == null ? misses : hits).increment();
+        return e;
+    }
+
+    public void put(Long fallId, MeldungDiffResponse diff) {
+        if (maxEntries == 0) return;
+        synchronized (this) {
+            entries.put(new Key(diff.fromId(), diff.toId()), new Entry(fallId, diff));
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
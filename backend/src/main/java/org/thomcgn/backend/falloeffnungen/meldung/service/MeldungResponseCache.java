@@ -0,0 +1,232 @@
+package org.thomcgn.backend.falloeffnungen.meldung.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thomcgn.backend.common.persistence.AfterCommit;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungResponse;
+import org.thomcgn.backend.falloeffnungen.meldung.model.Meldung;
+import org.thomcgn.backend.falloeffnungen.meldung.repo.MeldungResponseCacheRepository;
+import org.thomcgn.backend.falloeffnungen.model.Falleroeffnung;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serialisierte Antworten abgeschlossener Meldungs-Versionen (MeldungStatus.ABGESCHLOSSEN).
+ *
+ * Abgeschlossene Versionen ändern sich inhaltlich nicht mehr; einzig das current-Flag kippt,
+ * wenn eine neue Version oder Korrektur übernommen wird (bumpt row_version). Lokal wird der Eintrag
+ * nach Commit verworfen; auf anderen Instanzen fällt er bei der nächsten Revalidierung heraus,
+ * weil jeder Heap-Treffer gegen die row_version in der DB geprüft wird (getIfCurrent).
+ * Heap-Stufe: LRU nach Bytes begrenzt, Schlüssel meldungId. Optionale Tabellen-Stufe
+ * (meldung_response_cache, Schlüssel meldungId + row_version) überlebt Neustarts und wird von
+ * allen Instanzen geteilt; über den Schlüssel kann sie keine veraltete Version liefern.
+ */
+@Component
+public class MeldungResponseCache {
+
+    /** Fertiges JSON einer Version; etag ist stark und inkl. Anführungszeichen. */
+    public record Entry(Long meldungId, long rowVersion, Long fallId, Long traegerId, Long einrichtungOrgUnitId,
+                        byte[] json, String etag) {}
+
+    private final MeldungResponseCacheRepository tableRepo;
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final boolean tableEnabled;
+
+    // access-order = LRU; Zugriff nur unter synchronized(this)
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+
+    // Schutz gegen Publish einer Antwort, die vor einer Invalidierung gebaut wurde
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter tableHits;
+    private final Counter misses;
+    private final Counter stale;
+
+    public MeldungResponseCache(
+            MeldungResponseCacheRepository tableRepo,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${kidoc.meldung.response-cache.max-bytes:33554432}") long maxBytes,
+            @Value("${kidoc.meldung.response-cache.table-enabled:false}") boolean tableEnabled
+    ) {
+        this.tableRepo = tableRepo;
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+        this.tableEnabled = tableEnabled;
+
+        this.hits = Counter.builder("meldung.response.cache")
+                .tag("result", "hit")
+                .description("Meldung response cache lookups")
+                .register(meterRegistry);
+        this.tableHits = Counter.builder("meldung.response.cache")
+                .tag("result", "table_hit")
+                .description("Meldung response cache lookups")
+                .register(meterRegistry);
+        this.misses = Counter.builder("meldung.response.cache")
+                .tag("result", "miss")
+                .description("Meldung response cache lookups")
+                .register(meterRegistry);
+        this.stale = Counter.builder("meldung.response.cache")
+                .tag("result", "stale")
+                .description("Meldung response cache lookups")
+                .register(meterRegistry);
+        Gauge.builder("meldung.response.cache.bytes", this, MeldungResponseCache::sizeBytes)
+                .register(meterRegistry);
+    }
+
+    /** Vor dem Laden aus der DB merken und an put() übergeben. */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Fast-Path: letzte gecachte Version der Meldung, aber nur wenn sie noch der row_version in der
+     * DB entspricht (currentRowVersion vom Aufrufer per PK-Lookup). Eine andere Instanz kann das
+     * current-Flag umgelegt haben, ohne dass dieser Heap davon erfährt -> veraltete Einträge werden
+     * hier verworfen. Zugriffsprüfung beim Aufrufer.
+     */
+    public Entry getIfCurrent(Long meldungId, long currentRowVersion) {
+        Entry e;
+        synchronized (this) {
+            e = entries.get(meldungId);
+            if (e != null && e.rowVersion() != currentRowVersion) {
+                entries.remove(meldungId);
+                bytes -= e.json().length;
+                e = null;
+                stale.increment();
+            }
+        }
+        if (e != null) hits.increment();
+        return e;
+    }
+
+    /** Ob der Heap überhaupt einen Eintrag hat (spart den Revalidierungs-Lookup bei kaltem Cache). */
+    public synchronized boolean contains(Long meldungId) {
+        return entries.containsKey(meldungId);
+    }
+
+    /** Bestimmte Version: Heap, dann Tabelle (wird in den Heap übernommen); null = Miss. */
+    public Entry get(Meldung m, Falleroeffnung fall, long gen) {
+        Entry e;
+        synchronized (this) {
+            e = entries.get(m.getId());
+        }
+        if (e != null && e.rowVersion() == m.getRowVersion()) {
+            hits.increment();
+            return e;
+        }
+
+        if (tableEnabled) {
+            MeldungResponseCacheRepository.Row row = tableRepo.find(m.getId(), m.getRowVersion()).orElse(null);
+            if (row != null) {
+                tableHits.increment();
+                Entry loaded = entry(m, fall, row.body(), row.etag());
+                publish(loaded, gen);
+                return loaded;
+            }
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    /** Serialisiert die Antwort einer abgeschlossenen Version und legt sie in beiden Stufen ab. */
+    public Entry put(Meldung m, Falleroeffnung fall, MeldungResponse response, long gen) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(response);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Meldung response not serializable", ex);
+        }
+
+        Entry e = entry(m, fall, json, etag(m.getId(), m.getRowVersion(), json));
+        if (tableEnabled) {
+            tableRepo.put(e.meldungId(), e.rowVersion(), e.etag(), e.json());
+        }
+        publish(e, gen);
+        return e;
+    }
+
+    public void evict(Long meldungId) {
+        generation.incrementAndGet();
+        synchronized (this) {
+            Entry old = entries.remove(meldungId);
+            if (old != null) bytes -= old.json().length;
+        }
+    }
+
+    /** evict() nach Commit, siehe {@link AfterCommit}. */
+    public void evictAfterCommit(Long meldungId) {
+        AfterCommit.run(() -> evict(meldungId));
+    }
+
+    /** Heap-Stufe leeren (z. B. Demo-Reset); Tabellenzeilen hängen per FK an der Meldung. */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        synchronized (this) {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    public synchronized long sizeBytes() {
+        return bytes;
+    }
+
+    // ---------------------------------------------------------
+
+    private void publish(Entry e, long gen) {
+        int size = e.json().length;
+        if (size > maxBytes) return;
+
+        synchronized (this) {
+            if (generation.get() != gen) return; // zwischenzeitlich invalidiert
+
+            Entry old = entries.put(e.meldungId(), e);
+            if (old != null) bytes -= old.json().length;
+            bytes += size;
+
+            var it = entries.entrySet().iterator();
+            while (bytes > maxBytes && it.hasNext()) {
+                Map.Entry<Long, Entry> eldest = it.next();
+                bytes -= eldest.getValue().json().length;
+                it.remove();
+            }
+        }
+    }
+
+    private static Entry entry(Meldung m, Falleroeffnung fall, byte[] json, String etag) {
+        return new Entry(
+                m.getId(),
+                m.getRowVersion(),
+                fall.getId(),
+                fall.getTraeger().getId(),
+                fall.getEinrichtungOrgUnit().getId(),
+                json,
+                etag
+        );
+    }
+
+    static String etag(Long meldungId, long rowVersion, byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + meldungId + "." + rowVersion + "."
+                    + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 12)) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package org.thomcgn.backend.falloeffnungen.meldung.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.thomcgn.backend.auth.model.Role;
 import org.thomcgn.backend.auth.service.AccessControlService;
 import org.thomcgn.backend.common.errors.DomainException;
@@ -16,22 +22,46 @@ import org.thomcgn.backend.falloeffnungen.meldung.repo.*;
 import org.thomcgn.backend.falloeffnungen.model.Falleroeffnung;
 import org.thomcgn.backend.falloeffnungen.model.FalleroeffnungNotiz;
 import org.thomcgn.backend.falloeffnungen.model.NoteVisibility;
+import org.thomcgn.backend.falloeffnungen.repo.FallListEntryRepository;
 import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungNotizRepository;
 import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungRepository;
+import org.thomcgn.backend.falloeffnungen.service.KeysetCursor;
 import org.thomcgn.backend.users.model.User;
 import org.thomcgn.backend.users.repo.UserRepository;
 
 import java.time.Instant;
-import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
 public class MeldungService {
 
+    private static final int CHANGE_PAGE_DEFAULT = 50;
+    private static final int CHANGE_PAGE_MAX = 200;
+
+    /** Abschnitte, deren Felder direkt auf der Meldung liegen (Reihenfolge = Reihenfolge im Change-Log). */
+    private static final List<MeldungSection> FIELD_SECTIONS = List.of(
+            MeldungSection.META, MeldungSection.INHALT, MeldungSection.FACH, MeldungSection.AKUT, MeldungSection.PLANUNG
+    );
+
+    /** Listen-/Objekt-Abschnitte: Pflicht-Schlüssel im PATCH-Body (der Abschnitt wird komplett ersetzt). */
+    private static final Map<MeldungSection, String> SECTION_BODY_KEYS = Map.of(
+            MeldungSection.ANLAESSE, "anlassCodes",
+            MeldungSection.JUGENDAMT, "jugendamt",
+            MeldungSection.CONTACTS, "contacts",
+            MeldungSection.EXTERN, "extern",
+            MeldungSection.ATTACHMENTS, "attachments",
+            MeldungSection.OBSERVATIONS, "observations"
+    );
+
     private final FalleroeffnungRepository fallRepo;
     private final MeldungRepository meldungRepo;
     private final MeldungObservationRepository obsRepo;
@@ -45,6 +75,12 @@ public class MeldungService {
     private final FalleroeffnungNotizRepository notizRepo;
     private final UserRepository userRepo;
     private final AccessControlService access;
+    private final FallListEntryRepository fallListRepo;
+    private final MeldungResponseCache responseCache;
+    private final MeldungDiffCache diffCache;
+    private final MeldungSectionCopyRepository sectionCopyRepo;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
 
     @PersistenceContext
     private EntityManager em;
@@ -62,7 +98,13 @@ public class MeldungService {
             MeldungChangeRepository changeRepo,
             FalleroeffnungNotizRepository notizRepo,
             UserRepository userRepo,
-            AccessControlService access
+            AccessControlService access,
+            FallListEntryRepository fallListRepo,
+            MeldungResponseCache responseCache,
+            MeldungDiffCache diffCache,
+            MeldungSectionCopyRepository sectionCopyRepo,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager
     ) {
         this.fallRepo = fallRepo;
         this.meldungRepo = meldungRepo;
@@ -77,6 +119,13 @@ public class MeldungService {
         this.notizRepo = notizRepo;
         this.userRepo = userRepo;
         this.access = access;
+        this.fallListRepo = fallListRepo;
+        this.responseCache = responseCache;
+        this.diffCache = diffCache;
+        this.sectionCopyRepo = sectionCopyRepo;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
     }
 
     // =====================================================
@@ -103,30 +152,180 @@ public class MeldungService {
                 .toList();
     }
 
+    /** Abgeschlossene Versionen kommen aus dem MeldungResponseCache (nur Auflösung der current-Version per DB). */
+    public RenderedMeldung current(Long fallId) {
+        long gen = responseCache.generation();
+        return render(readOnlyTx.execute(status -> {
+            Falleroeffnung fall = loadFallScoped(fallId);
+            accessRead(fall);
+
+            Meldung m = meldungRepo.findCurrentByFallId(fall.getId())
+                    .orElseThrow(() -> DomainException.notFound(ErrorCode.NOT_FOUND, "No current Meldung"));
+
+            return load(m, fall, gen);
+        }), gen);
+    }
+
+    /**
+     * Fast-Path: abgeschlossene Version im Heap-Cache, revalidiert per PK-Lookup (row_version,
+     * aktueller Träger/Einrichtung des Falls); Scope und Rollen werden gegen diese Werte geprüft.
+     * Sonst Laden in einer Read-only-Transaktion.
+     */
+    public RenderedMeldung get(Long fallId, Long meldungId) {
+        if (responseCache.contains(meldungId)) {
+            MeldungRepository.CacheState state = meldungRepo.findCacheState(meldungId).orElse(null);
+            if (state != null
+                    && Objects.equals(state.getFallId(), fallId)
+                    && inActiveScope(state.getTraegerId(), state.getEinrichtungOrgUnitId())) {
+                MeldungResponseCache.Entry hit = responseCache.getIfCurrent(meldungId, state.getRowVersion());
+                if (hit != null) {
+                    accessRead(state.getTraegerId(), state.getEinrichtungOrgUnitId());
+                    return RenderedMeldung.cached(hit);
+                }
+            }
+        }
+
+        long gen = responseCache.generation();
+        return render(readOnlyTx.execute(status -> {
+            Falleroeffnung fall = loadFallScoped(fallId);
+            accessRead(fall);
+
+            Meldung m = meldungRepo.findById(meldungId)
+                    .orElseThrow(() -> DomainException.notFound(ErrorCode.NOT_FOUND, "Meldung not found"));
+
+            if (!Objects.equals(m.getFalleroeffnung().getId(), fall.getId())) {
+                throw DomainException.forbidden(ErrorCode.ACCESS_DENIED, "Meldung does not belong to this Fall");
+            }
+
+            return load(m, fall, gen);
+        }), gen);
+    }
+
+    /**
+     * Change-Log seitenweise in zeitlicher Reihenfolge. cursor = nextCursor der vorherigen Seite,
+     * section/field optional (field als Präfix auf fieldPath, z. B. "fach" oder "sectionReason:").
+     */
     @Transactional(readOnly = true)
-    public MeldungResponse current(Long fallId) {
+    public MeldungChangePageResponse changes(Long fallId, Long meldungId, String sectionRaw, String field,
+                                             String cursor, Integer limit) {
         Falleroeffnung fall = loadFallScoped(fallId);
         accessRead(fall);
+        Meldung m = loadOfFall(fall, meldungId);
 
-        Meldung m = meldungRepo.findCurrentByFallId(fall.getId())
-                .orElseThrow(() -> DomainException.notFound(ErrorCode.NOT_FOUND, "No current Meldung"));
+        MeldungSection section = sectionRaw == null || sectionRaw.isBlank() ? null : parseSection(sectionRaw);
+        String fieldPattern = field == null || field.isBlank() ? null : MeldungChangeRepository.prefixPattern(field.trim());
+        int size = limit == null ? CHANGE_PAGE_DEFAULT : Math.max(1, Math.min(CHANGE_PAGE_MAX, limit));
 
-        return buildResponse(m, true);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        KeysetCursor seek = after != null ? after : KeysetCursor.OLDEST_FIRST_START;
+
+        // eine Zeile mehr laden: zeigt an, ob es eine weitere Seite gibt
+        List<MeldungChange> rows = changeRepo.findPage(m.getId(), section, fieldPattern, seek.createdAt(), seek.id(),
+                PageRequest.of(0, size + 1));
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            MeldungChange last = rows.get(size - 1);
+            nextCursor = new KeysetCursor(last.getChangedAt(), last.getId()).encode();
+        }
+
+        return new MeldungChangePageResponse(
+                rows.stream().map(MeldungService::toChangeResponse).toList(),
+                nextCursor
+        );
     }
 
+    /**
+     * Diff zweier Versionen desselben Falls; ohne from: Ziel der Korrektur bzw. die abgelöste Version.
+     * Diffs zwischen abgeschlossenen Versionen werden gecacht (MeldungDiffCache).
+     */
     @Transactional(readOnly = true)
-    public MeldungResponse get(Long fallId, Long meldungId) {
+    public MeldungDiffResponse diff(Long fallId, Long fromId, Long toId) {
         Falleroeffnung fall = loadFallScoped(fallId);
         accessRead(fall);
 
+        if (toId == null) {
+            throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "to missing");
+        }
+        if (fromId != null) {
+            MeldungDiffResponse cached = cachedDiff(fall, fromId, toId);
+            if (cached != null) return cached;
+        }
+
+        Meldung to = loadOfFall(fall, toId);
+        if (fromId == null) {
+            Meldung base = to.getCorrects() != null ? to.getCorrects() : to.getSupersedes();
+            if (base == null) {
+                throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED,
+                        "from missing and Meldung neither corrects nor supersedes a version");
+            }
+            fromId = base.getId();
+            MeldungDiffResponse cached = cachedDiff(fall, fromId, toId);
+            if (cached != null) return cached;
+        }
+        if (Objects.equals(fromId, toId)) {
+            throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "from and to must differ");
+        }
+        Meldung from = loadOfFall(fall, fromId);
+
+        MeldungDiffResponse diff = new MeldungDiffResponse(
+                from.getId(), from.getVersionNo(), from.getType().name(),
+                to.getId(), to.getVersionNo(), to.getType().name(),
+                MeldungVersionDiff.diff(FIELD_SECTIONS, from, diffChildren(from), to, diffChildren(to))
+        );
+
+        if (from.getStatus() == MeldungStatus.ABGESCHLOSSEN && to.getStatus() == MeldungStatus.ABGESCHLOSSEN) {
+            diffCache.put(fall.getId(), diff);
+        }
+        return diff;
+    }
+
+    private MeldungDiffResponse cachedDiff(Falleroeffnung fall, Long fromId, Long toId) {
+        MeldungDiffCache.Entry e = diffCache.get(fromId, toId);
+        return e != null && Objects.equals(e.fallId(), fall.getId()) ? e.diff() : null;
+    }
+
+    private Meldung loadOfFall(Falleroeffnung fall, Long meldungId) {
         Meldung m = meldungRepo.findById(meldungId)
                 .orElseThrow(() -> DomainException.notFound(ErrorCode.NOT_FOUND, "Meldung not found"));
-
         if (!Objects.equals(m.getFalleroeffnung().getId(), fall.getId())) {
             throw DomainException.forbidden(ErrorCode.ACCESS_DENIED, "Meldung does not belong to this Fall");
         }
+        return m;
+    }
 
-        return buildResponse(m, true);
+    private MeldungVersionDiff.Children diffChildren(Meldung m) {
+        return new MeldungVersionDiff.Children(
+                anlassCodes(m),
+                jugendamtResponse(m),
+                observationResponses(m),
+                contactResponses(m),
+                externResponses(m),
+                attachmentResponses(m)
+        );
+    }
+
+    /** Ergebnis des Ladens in der Transaktion; toCache = abgeschlossene Version, noch nicht im Cache. */
+    private record Loaded(Meldung meldung, Falleroeffnung fall, MeldungResponse response,
+                          MeldungResponseCache.Entry cached, boolean toCache) {}
+
+    private Loaded load(Meldung m, Falleroeffnung fall, long gen) {
+        if (m.getStatus() != MeldungStatus.ABGESCHLOSSEN) {
+            return new Loaded(m, fall, buildResponse(m), null, false);
+        }
+        MeldungResponseCache.Entry cached = responseCache.get(m, fall, gen);
+        if (cached != null) {
+            return new Loaded(m, fall, null, cached, false);
+        }
+        return new Loaded(m, fall, buildResponse(m), null, true);
+    }
+
+    // außerhalb der Read-only-Transaktion: put() schreibt ggf. in die Tabellen-Stufe
+    private RenderedMeldung render(Loaded l, long gen) {
+        if (l.cached() != null) return RenderedMeldung.cached(l.cached());
+        if (l.toCache()) return RenderedMeldung.cached(responseCache.put(l.meldung(), l.fall(), l.response(), gen));
+        return RenderedMeldung.of(l.response());
     }
 
     // =====================================================
@@ -165,6 +364,7 @@ public class MeldungService {
 
                 current.setCurrent(false);
                 meldungRepo.saveAndFlush(current);
+                responseCache.evictAfterCommit(current.getId());
 
                 int nextVersion = meldungRepo.getMaxVersionNo(fall.getId()) + 1;
 
@@ -179,7 +379,8 @@ public class MeldungService {
                 m.setCreatedByDisplayName(user.getDisplayName());
 
                 Meldung saved = meldungRepo.saveAndFlush(m);
-                return buildResponse(saved, true);
+                fallListRepo.refresh(fall.getId());
+                return buildResponse(saved);
             }
 
             Meldung m = new Meldung();
@@ -192,7 +393,8 @@ public class MeldungService {
             m.setCreatedByDisplayName(user.getDisplayName());
 
             Meldung saved = meldungRepo.saveAndFlush(m);
-            return buildResponse(saved, true);
+            fallListRepo.refresh(fall.getId());
+            return buildResponse(saved);
 
         } catch (DataIntegrityViolationException ex) {
             em.clear();
@@ -238,7 +440,7 @@ public class MeldungService {
                     );
 
             if (existingDraft.isPresent()) {
-                return buildResponse(existingDraft.get(), true);
+                return buildResponse(existingDraft.get());
             }
 
             int nextVersion = meldungRepo.getMaxVersionNo(fall.getId()) + 1;
@@ -264,7 +466,7 @@ public class MeldungService {
 
             copySectionsFrom(target, saved);
 
-            return buildResponse(saved, true);
+            return buildResponse(saved);
 
         } catch (DataIntegrityViolationException ex) {
             em.clear();
@@ -284,23 +486,16 @@ public class MeldungService {
         Falleroeffnung fall = loadFallScoped(fallId);
         accessWrite(fall);
 
-        Meldung m = meldungRepo.findById(meldungId)
-                .orElseThrow(() -> DomainException.notFound(ErrorCode.NOT_FOUND, "Meldung not found"));
-
-        if (!Objects.equals(m.getFalleroeffnung().getId(), fall.getId())) {
-            throw DomainException.forbidden(ErrorCode.ACCESS_DENIED, "Meldung does not belong to this Fall");
-        }
-
-        if (m.getStatus() == MeldungStatus.ABGESCHLOSSEN) {
-            throw DomainException.conflict(ErrorCode.CONFLICT, "Meldung is abgeschlossen (immutable)");
-        }
+        Meldung m = loadEditable(fall, meldungId);
 
         Meldung before = copyForDiff(m);
 
         applyDraftToEntity(m, req);
         meldungRepo.save(m);
 
-        writeEntityDiffs(before, m, req == null ? null : req.sectionReasons());
+        User user = currentUser();
+        Map<String, String> reasons = req == null ? null : req.sectionReasons();
+        List<MeldungChange> changes = entityDiffs(before, m, reasons, user);
 
         upsertAnlassCodes(m, req == null ? null : req.anlassCodes());
         upsertJugendamt(m, req == null ? null : req.jugendamt());
@@ -309,11 +504,98 @@ public class MeldungService {
         upsertAttachments(m, req == null ? null : req.attachments());
         upsertObservationsAndTags(m, req == null ? null : req.observations());
 
-        if (req != null && req.sectionReasons() != null && !req.sectionReasons().isEmpty()) {
-            writeSectionReasons(m, req.sectionReasons());
+        changes.addAll(sectionReasonChanges(m, reasons, user));
+        // Change-Log gesammelt: ein Batch-Insert pro Speichern
+        changeRepo.saveAll(changes);
+
+        // Fall-Liste zeigt die Flags der current Meldung (auch im Entwurf)
+        if (m.isCurrent()) {
+            fallListRepo.refresh(fall.getId());
         }
 
-        return buildResponse(m, true);
+        return buildResponse(m);
+    }
+
+    /**
+     * Autosave eines einzelnen Abschnitts: schreibt nur dessen Zeilen und Change-Log-Einträge und
+     * liefert nur diesen Abschnitt zurück (inkl. neuer rowVersion für das nächste If-Match).
+     *
+     * Feld-Abschnitte (META, INHALT, FACH, AKUT, PLANUNG): nur die im Body vorhandenen Felder werden
+     * übernommen, fehlende bleiben unverändert (explizites null leert). Listen-/Objekt-Abschnitte
+     * ersetzen den Abschnitt vollständig; der zugehörige Schlüssel (z. B. "contacts") ist Pflicht.
+     *
+     * expectedRowVersion (If-Match) ist Pflicht; weicht sie von der gespeicherten ab -> 409.
+     */
+    @Transactional
+    public MeldungSectionResponse patchSection(Long fallId, Long meldungId, String sectionRaw,
+                                               Map<String, Object> body, Long expectedRowVersion) {
+        MeldungSection section = parseSection(sectionRaw);
+        if (body == null) {
+            throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "Request body is required");
+        }
+        if (expectedRowVersion == null) {
+            throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "If-Match (rowVersion) is required");
+        }
+        String listKey = SECTION_BODY_KEYS.get(section);
+        if (listKey != null && !body.containsKey(listKey)) {
+            throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED,
+                    "Section " + section.name() + " replaces the whole section, body must contain '" + listKey + "'");
+        }
+
+        MeldungDraftRequest req;
+        try {
+            req = objectMapper.convertValue(body, MeldungDraftRequest.class);
+        } catch (IllegalArgumentException e) {
+            throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "Invalid section body: " + e.getMessage());
+        }
+
+        Falleroeffnung fall = loadFallScoped(fallId);
+        accessWrite(fall);
+
+        Meldung m = loadEditable(fall, meldungId);
+        if (m.getRowVersion() != expectedRowVersion) {
+            throw DomainException.conflict(ErrorCode.CONFLICT,
+                    "Meldung was changed concurrently (rowVersion " + m.getRowVersion() + ", expected " + expectedRowVersion + ")");
+        }
+
+        User user = currentUser();
+        Map<String, String> reasons = req.sectionReasons();
+
+        List<MeldungChange> written = new ArrayList<>();
+        switch (section) {
+            case META, INHALT, FACH, AKUT, PLANUNG -> {
+                Meldung before = copyForDiff(m);
+                applySection(m, section, req, body::containsKey);
+                written.addAll(sectionDiffs(section, before, m, reasons, user));
+            }
+            case ANLAESSE -> syncAnlassCodes(m, req.anlassCodes());
+            case JUGENDAMT -> upsertJugendamt(m, req.jugendamt());
+            case CONTACTS -> upsertContacts(m, req.contacts());
+            case EXTERN -> upsertExtern(m, req.extern());
+            case ATTACHMENTS -> upsertAttachments(m, req.attachments());
+            case OBSERVATIONS -> upsertObservationsAndTags(m, req.observations());
+        }
+
+        if (reasons != null) {
+            add(written, sectionReasonChange(m, section.name(), reasons.get(section.name()), user));
+        }
+        changeRepo.saveAll(written);
+
+        // auch reine Kind-Zeilen-Änderungen bumpen row_version/updatedAt; flush, damit die Antwort
+        // die geschriebenen Werte trägt (und ein paralleler Schreiber hier scheitert statt beim Commit)
+        m.touch();
+        try {
+            em.flush();
+        } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+            throw DomainException.conflict(ErrorCode.CONFLICT, "Meldung was changed concurrently");
+        }
+
+        // Fall-Liste zeigt dringlichkeit, akutGefahrImVerzug und naechsteUeberpruefungAm der current Meldung
+        if (m.isCurrent() && (section == MeldungSection.META || section == MeldungSection.AKUT || section == MeldungSection.PLANUNG)) {
+            fallListRepo.refresh(fall.getId());
+        }
+
+        return buildSectionResponse(m, section, written);
     }
 
     // =====================================================
@@ -336,7 +618,7 @@ public class MeldungService {
         }
 
         if (m.getStatus() == MeldungStatus.ABGESCHLOSSEN) {
-            return buildResponse(m, true);
+            return buildResponse(m);
         }
 
         boolean isCorrection = (m.getType() == MeldungType.KORREKTUR) || (m.getCorrects() != null);
@@ -366,6 +648,7 @@ public class MeldungService {
                 if (!Objects.equals(current.getId(), m.getId())) {
                     current.setCurrent(false);
                     meldungRepo.saveAndFlush(current);
+                    responseCache.evictAfterCommit(current.getId());
                 }
             }
 
@@ -388,7 +671,9 @@ public class MeldungService {
             mirrorToNotizen(saved);
         }
 
-        return buildResponse(saved, true);
+        fallListRepo.refresh(fall.getId());
+
+        return buildResponse(saved);
     }
 
     private boolean requiresInfoEffectiveAt(MeldungChangeReason reason) {
@@ -432,92 +717,15 @@ public class MeldungService {
         to.setAutoRiskSnapshot(from.getAutoRiskSnapshot());
     }
 
+    // Mengenbasiert per INSERT … SELECT (konstante Anzahl Statements, auch bei umfangreichen Meldungen);
+    // "to" ist bereits geflusht und hat noch keine Kind-Einträge
     private void copySectionsFrom(Meldung from, Meldung to) {
-        List<String> codes = anlassRepo.findAllByMeldungId(from.getId()).stream()
-                .map(MeldungAnlassCode::getCode)
-                .toList();
-        upsertAnlassCodes(to, codes);
-
-        jugendamtRepo.findByMeldungId(from.getId()).ifPresent(j -> {
-            MeldungJugendamt ja = new MeldungJugendamt();
-            ja.setMeldung(to);
-            ja.setInformiert(j.getInformiert());
-            ja.setKontaktAm(j.getKontaktAm());
-            ja.setKontaktart(j.getKontaktart());
-            ja.setAktenzeichen(j.getAktenzeichen());
-            ja.setBegruendung(j.getBegruendung());
-            jugendamtRepo.save(ja);
-        });
-
-        List<MeldungDraftRequest.ContactDraft> contacts = contactRepo.findAllByMeldungId(from.getId()).stream()
-                .map(c -> new MeldungDraftRequest.ContactDraft(
-                        c.getKontaktMit(),
-                        c.getKontaktAm(),
-                        c.getStatus(),
-                        c.getNotiz(),
-                        c.getErgebnis()
-                ))
-                .toList();
-        upsertContacts(to, contacts);
-
-        List<MeldungDraftRequest.ExternDraft> extern = externRepo.findAllByMeldungId(from.getId()).stream()
-                .map(e -> new MeldungDraftRequest.ExternDraft(
-                        e.getStelle(),
-                        e.getStelleSonstiges(),
-                        e.getAm(),
-                        e.getBegruendung(),
-                        e.getErgebnis()
-                ))
-                .toList();
-        upsertExtern(to, extern);
-
-        List<MeldungDraftRequest.AttachmentDraft> attachments = attachmentRepo.findAllByMeldungId(from.getId()).stream()
-                .map(a -> new MeldungDraftRequest.AttachmentDraft(
-                        a.getFileId(),
-                        a.getTyp(),
-                        a.getTitel(),
-                        a.getBeschreibung(),
-                        a.getSichtbarkeit(),
-                        a.getRechtsgrundlageHinweis()
-                ))
-                .toList();
-        upsertAttachments(to, attachments);
-
-        List<MeldungObservation> obs = obsRepo.findAllByMeldungId(from.getId());
-        obsRepo.deleteAllByMeldungId(to.getId());
-
-        for (MeldungObservation o : obs) {
-            MeldungObservation n = new MeldungObservation();
-            n.setMeldung(to);
-            n.setZeitpunkt(o.getZeitpunkt());
-            n.setZeitraum(o.getZeitraum());
-            n.setOrt(o.getOrt());
-            n.setOrtSonstiges(o.getOrtSonstiges());
-            n.setQuelle(o.getQuelle());
-            n.setText(o.getText());
-            n.setWoertlichesZitat(o.getWoertlichesZitat());
-            n.setKoerperbefund(o.getKoerperbefund());
-            n.setVerhaltenKind(o.getVerhaltenKind());
-            n.setVerhaltenBezug(o.getVerhaltenBezug());
-            n.setSichtbarkeit(o.getSichtbarkeit());
-
-            n.setCreatedAt(Instant.now());
-            n.setCreatedBy(to.getCreatedBy());
-            n.setCreatedByDisplayName(to.getCreatedByDisplayName());
-
-            MeldungObservation savedObs = obsRepo.save(n);
-
-            List<MeldungObservationTag> tags = obsTagRepo.findAllByObservationIds(List.of(o.getId()));
-            for (MeldungObservationTag t : tags) {
-                MeldungObservationTag nt = new MeldungObservationTag();
-                nt.setObservation(savedObs);
-                nt.setAnlassCode(t.getAnlassCode());
-                nt.setIndicatorId(t.getIndicatorId());
-                nt.setSeverity(t.getSeverity());
-                nt.setComment(t.getComment());
-                obsTagRepo.save(nt);
-            }
-        }
+        sectionCopyRepo.copySections(
+                from.getId(),
+                to.getId(),
+                to.getCreatedBy().getId(),
+                to.getCreatedByDisplayName()
+        );
     }
 
     private void applyDraftToEntity(Meldung m, MeldungDraftRequest req) {
@@ -527,42 +735,73 @@ public class MeldungService {
         m.setInfoEffectiveAt(req.infoEffectiveAt());
         m.setReasonText(req.reasonText());
 
-        m.setErfasstVonRolle(req.erfasstVonRolle());
-        m.setMeldeweg(req.meldeweg());
-        m.setMeldewegSonstiges(req.meldewegSonstiges());
-        m.setMeldendeStelleKontakt(req.meldendeStelleKontakt());
-        m.setDringlichkeit(req.dringlichkeit());
-        m.setDatenbasis(req.datenbasis());
-        m.setEinwilligungVorhanden(req.einwilligungVorhanden());
-        m.setSchweigepflichtentbindungVorhanden(req.schweigepflichtentbindungVorhanden());
-
-        if (req.kurzbeschreibung() != null) {
-            m.setKurzbeschreibung(req.kurzbeschreibung());
+        for (MeldungSection section : FIELD_SECTIONS) {
+            applySection(m, section, req);
         }
+    }
 
-        m.setFachAmpel(req.fachAmpel());
-        m.setFachText(req.fachText());
-        m.setAbweichungZurAuto(req.abweichungZurAuto());
-        m.setAbweichungsBegruendung(req.abweichungsBegruendung());
+    private void applySection(Meldung m, MeldungSection section, MeldungDraftRequest req) {
+        applySection(m, section, req, field -> true);
+    }
 
-        m.setAkutGefahrImVerzug(req.akutGefahrImVerzug());
-        m.setAkutBegruendung(req.akutBegruendung());
-        m.setAkutNotrufErforderlich(req.akutNotrufErforderlich());
-        m.setAkutKindSicherUntergebracht(req.akutKindSicherUntergebracht());
+    // has: Feld ist im Request enthalten (Entwurf: immer; PATCH: Schlüssel im Body)
+    private void applySection(Meldung m, MeldungSection section, MeldungDraftRequest req, Predicate<String> has) {
+        switch (section) {
+            case META -> applyMeta(m, req, has);
+            case INHALT -> {
+                if (has.test("kurzbeschreibung") && req.kurzbeschreibung() != null) {
+                    m.setKurzbeschreibung(req.kurzbeschreibung());
+                }
+            }
+            case FACH -> applyFach(m, req, has);
+            case AKUT -> applyAkut(m, req, has);
+            case PLANUNG -> applyPlanung(m, req, has);
+            default -> throw new IllegalArgumentException("No field section: " + section);
+        }
+    }
 
-        if (req.verantwortlicheFachkraftUserId() != null) {
-            User vf = userRepo.findById(req.verantwortlicheFachkraftUserId())
-                    .orElseThrow(() -> DomainException.notFound(ErrorCode.USER_NOT_FOUND, "verantwortlicheFachkraft not found"));
-            m.setVerantwortlicheFachkraft(vf);
-        } else {
-            m.setVerantwortlicheFachkraft(null);
+    private void applyMeta(Meldung m, MeldungDraftRequest req, Predicate<String> has) {
+        if (has.test("erfasstVonRolle")) m.setErfasstVonRolle(req.erfasstVonRolle());
+        if (has.test("meldeweg")) m.setMeldeweg(req.meldeweg());
+        if (has.test("meldewegSonstiges")) m.setMeldewegSonstiges(req.meldewegSonstiges());
+        if (has.test("meldendeStelleKontakt")) m.setMeldendeStelleKontakt(req.meldendeStelleKontakt());
+        if (has.test("dringlichkeit")) m.setDringlichkeit(req.dringlichkeit());
+        if (has.test("datenbasis")) m.setDatenbasis(req.datenbasis());
+        if (has.test("einwilligungVorhanden")) m.setEinwilligungVorhanden(req.einwilligungVorhanden());
+        if (has.test("schweigepflichtentbindungVorhanden")) m.setSchweigepflichtentbindungVorhanden(req.schweigepflichtentbindungVorhanden());
+    }
+
+    private void applyFach(Meldung m, MeldungDraftRequest req, Predicate<String> has) {
+        if (has.test("fachAmpel")) m.setFachAmpel(req.fachAmpel());
+        if (has.test("fachText")) m.setFachText(req.fachText());
+        if (has.test("abweichungZurAuto")) m.setAbweichungZurAuto(req.abweichungZurAuto());
+        if (has.test("abweichungsBegruendung")) m.setAbweichungsBegruendung(req.abweichungsBegruendung());
+    }
+
+    private void applyAkut(Meldung m, MeldungDraftRequest req, Predicate<String> has) {
+        if (has.test("akutGefahrImVerzug")) m.setAkutGefahrImVerzug(req.akutGefahrImVerzug());
+        if (has.test("akutBegruendung")) m.setAkutBegruendung(req.akutBegruendung());
+        if (has.test("akutNotrufErforderlich")) m.setAkutNotrufErforderlich(req.akutNotrufErforderlich());
+        if (has.test("akutKindSicherUntergebracht")) m.setAkutKindSicherUntergebracht(req.akutKindSicherUntergebracht());
+    }
+
+    private void applyPlanung(Meldung m, MeldungDraftRequest req, Predicate<String> has) {
+        if (has.test("verantwortlicheFachkraftUserId")) {
+            if (req.verantwortlicheFachkraftUserId() != null) {
+                User vf = userRepo.findById(req.verantwortlicheFachkraftUserId())
+                        .orElseThrow(() -> DomainException.notFound(ErrorCode.USER_NOT_FOUND, "verantwortlicheFachkraft not found"));
+                m.setVerantwortlicheFachkraft(vf);
+            } else {
+                m.setVerantwortlicheFachkraft(null);
+            }
         }
 
-        m.setNaechsteUeberpruefungAm(req.naechsteUeberpruefungAm());
-        m.setZusammenfassung(req.zusammenfassung());
+        if (has.test("naechsteUeberpruefungAm")) m.setNaechsteUeberpruefungAm(req.naechsteUeberpruefungAm());
+        if (has.test("zusammenfassung")) m.setZusammenfassung(req.zusammenfassung());
     }
 
-    private Meldung copyForDiff(Meldung src) {
+    // package-private für MeldungDiffBenchmark (src/jmh)
+    Meldung copyForDiff(Meldung src) {
         Meldung c = new Meldung();
 
         c.setErfasstVonRolle(src.getErfasstVonRolle());
@@ -596,71 +835,29 @@ public class MeldungService {
         return c;
     }
 
-    private void writeEntityDiffs(Meldung before, Meldung after, Map<String, String> sectionReasons) {
-        User user = currentUser();
-
-        writeFieldChange(after, MeldungSection.META, "erfasstVonRolle",
-                before.getErfasstVonRolle(), after.getErfasstVonRolle(), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.META, "meldeweg",
-                enumName(before.getMeldeweg()), enumName(after.getMeldeweg()), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.META, "meldewegSonstiges",
-                before.getMeldewegSonstiges(), after.getMeldewegSonstiges(), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.META, "meldendeStelleKontakt",
-                before.getMeldendeStelleKontakt(), after.getMeldendeStelleKontakt(), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.META, "dringlichkeit",
-                enumName(before.getDringlichkeit()), enumName(after.getDringlichkeit()), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.META, "datenbasis",
-                enumName(before.getDatenbasis()), enumName(after.getDatenbasis()), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.META, "einwilligungVorhanden",
-                boolStr(before.getEinwilligungVorhanden()), boolStr(after.getEinwilligungVorhanden()), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.META, "schweigepflichtentbindungVorhanden",
-                boolStr(before.getSchweigepflichtentbindungVorhanden()), boolStr(after.getSchweigepflichtentbindungVorhanden()), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.INHALT, "kurzbeschreibung",
-                before.getKurzbeschreibung(), after.getKurzbeschreibung(), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.FACH, "fachAmpel",
-                enumName(before.getFachAmpel()), enumName(after.getFachAmpel()), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.FACH, "fachText",
-                before.getFachText(), after.getFachText(), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.FACH, "abweichungZurAuto",
-                enumName(before.getAbweichungZurAuto()), enumName(after.getAbweichungZurAuto()), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.FACH, "abweichungsBegruendung",
-                before.getAbweichungsBegruendung(), after.getAbweichungsBegruendung(), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.AKUT, "akutGefahrImVerzug",
-                String.valueOf(before.isAkutGefahrImVerzug()), String.valueOf(after.isAkutGefahrImVerzug()), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.AKUT, "akutBegruendung",
-                before.getAkutBegruendung(), after.getAkutBegruendung(), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.AKUT, "akutNotrufErforderlich",
-                boolStr(before.getAkutNotrufErforderlich()), boolStr(after.getAkutNotrufErforderlich()), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.AKUT, "akutKindSicherUntergebracht",
-                enumName(before.getAkutKindSicherUntergebracht()), enumName(after.getAkutKindSicherUntergebracht()), sectionReasons, user);
-
-        writeFieldChange(after, MeldungSection.PLANUNG, "verantwortlicheFachkraftUserId",
-                userIdStr(before.getVerantwortlicheFachkraft()), userIdStr(after.getVerantwortlicheFachkraft()), sectionReasons, user);
+    // package-private für MeldungDiffBenchmark (src/jmh); Einträge noch nicht gespeichert
+    List<MeldungChange> entityDiffs(Meldung before, Meldung after, Map<String, String> sectionReasons, User user) {
+        List<MeldungChange> changes = new ArrayList<>();
+        for (MeldungSection section : FIELD_SECTIONS) {
+            changes.addAll(sectionDiffs(section, before, after, sectionReasons, user));
+        }
+        return changes;
+    }
 
-        writeFieldChange(after, MeldungSection.PLANUNG, "naechsteUeberpruefungAm",
-                localDateStr(before.getNaechsteUeberpruefungAm()), localDateStr(after.getNaechsteUeberpruefungAm()), sectionReasons, user);
+    /** Feld-Diffs eines Abschnitts als (noch nicht gespeicherte) MeldungChange; Feldliste: MeldungVersionDiff. */
+    private List<MeldungChange> sectionDiffs(MeldungSection section, Meldung before, Meldung after,
+                                             Map<String, String> sectionReasons, User user) {
+        List<MeldungChange> changes = new ArrayList<>();
+        MeldungVersionDiff.visitFields(section, before, after, (s, fieldPath, oldValue, newValue) ->
+                add(changes, fieldChange(after, s, fieldPath, oldValue, newValue, sectionReasons, user)));
+        return changes;
+    }
 
-        writeFieldChange(after, MeldungSection.PLANUNG, "zusammenfassung",
-                before.getZusammenfassung(), after.getZusammenfassung(), sectionReasons, user);
+    private static void add(List<MeldungChange> changes, MeldungChange change) {
+        if (change != null) changes.add(change);
     }
 
-    private void writeFieldChange(
+    private MeldungChange fieldChange(
             Meldung meldung,
             MeldungSection section,
             String fieldPath,
@@ -673,7 +870,7 @@ public class MeldungService {
         String newNorm = normalizeDiffValue(newValue);
 
         if (Objects.equals(oldNorm, newNorm)) {
-            return;
+            return null;
         }
 
         MeldungChange ch = new MeldungChange();
@@ -686,7 +883,7 @@ public class MeldungService {
         ch.setChangedAt(Instant.now());
         ch.setChangedBy(user);
         ch.setChangedByDisplayName(user.getDisplayName());
-        changeRepo.save(ch);
+        return ch;
     }
 
     private void upsertAnlassCodes(Meldung m, List<String> codes) {
@@ -702,6 +899,33 @@ public class MeldungService {
         }
     }
 
+    // Section-PATCH: nur entfernte Codes löschen, nur neue einfügen
+    private void syncAnlassCodes(Meldung m, List<String> codes) {
+        Set<String> wanted = new LinkedHashSet<>();
+        if (codes != null) {
+            for (String c : codes) {
+                if (c != null && !c.isBlank()) wanted.add(c.trim());
+            }
+        }
+
+        Set<String> existing = anlassRepo.findAllByMeldungId(m.getId()).stream()
+                .map(MeldungAnlassCode::getCode)
+                .collect(Collectors.toSet());
+
+        List<String> removed = existing.stream().filter(c -> !wanted.contains(c)).toList();
+        if (!removed.isEmpty()) {
+            anlassRepo.deleteByMeldungIdAndCodeIn(m.getId(), removed);
+        }
+
+        for (String c : wanted) {
+            if (existing.contains(c)) continue;
+            MeldungAnlassCode a = new MeldungAnlassCode();
+            a.setMeldung(m);
+            a.setCode(c);
+            anlassRepo.save(a);
+        }
+    }
+
     private void upsertJugendamt(Meldung m, MeldungDraftRequest.JugendamtDraft j) {
         jugendamtRepo.findByMeldungId(m.getId()).ifPresent(jugendamtRepo::delete);
         if (j == null) return;
@@ -820,28 +1044,33 @@ public class MeldungService {
 
     private void writeSectionReasons(Meldung m, Map<String, String> sectionReasons) {
         if (sectionReasons == null || sectionReasons.isEmpty()) return;
+        changeRepo.saveAll(sectionReasonChanges(m, sectionReasons, currentUser()));
+    }
 
-        User user = currentUser();
-
+    private List<MeldungChange> sectionReasonChanges(Meldung m, Map<String, String> sectionReasons, User user) {
+        List<MeldungChange> changes = new ArrayList<>();
+        if (sectionReasons == null) return changes;
         for (var e : sectionReasons.entrySet()) {
-            String key = e.getKey();
-            String reason = e.getValue();
-
-            if (key == null || key.isBlank()) continue;
-            if (reason == null || reason.isBlank()) continue;
-
-            MeldungChange ch = new MeldungChange();
-            ch.setMeldung(m);
-            ch.setSection(MeldungSection.valueOfSafe(key));
-            ch.setFieldPath("sectionReason:" + key.trim());
-            ch.setOldValue(null);
-            ch.setNewValue(null);
-            ch.setReason(reason.trim());
-            ch.setChangedAt(Instant.now());
-            ch.setChangedBy(user);
-            ch.setChangedByDisplayName(user.getDisplayName());
-            changeRepo.save(ch);
+            add(changes, sectionReasonChange(m, e.getKey(), e.getValue(), user));
         }
+        return changes;
+    }
+
+    private MeldungChange sectionReasonChange(Meldung m, String key, String reason, User user) {
+        if (key == null || key.isBlank()) return null;
+        if (reason == null || reason.isBlank()) return null;
+
+        MeldungChange ch = new MeldungChange();
+        ch.setMeldung(m);
+        ch.setSection(MeldungSection.valueOfSafe(key));
+        ch.setFieldPath("sectionReason:" + key.trim());
+        ch.setOldValue(null);
+        ch.setNewValue(null);
+        ch.setReason(reason.trim());
+        ch.setChangedAt(Instant.now());
+        ch.setChangedBy(user);
+        ch.setChangedByDisplayName(user.getDisplayName());
+        return ch;
     }
 
     private void mirrorToNotizen(Meldung m) {
@@ -872,7 +1101,154 @@ public class MeldungService {
     }
 
     @Transactional(readOnly = true)
-    protected MeldungResponse buildResponse(Meldung m, boolean includeChanges) {
+    protected MeldungResponse buildResponse(Meldung m) {
+        List<MeldungResponse.ObservationResponse> obsResp = observationResponses(m);
+        List<String> anlaesse = anlassCodes(m);
+        MeldungResponse.JugendamtResponse jaResp = jugendamtResponse(m);
+        List<MeldungResponse.ContactResponse> contacts = contactResponses(m);
+        List<MeldungResponse.ExternResponse> extern = externResponses(m);
+        List<MeldungResponse.AttachmentResponse> attachments = attachmentResponses(m);
+
+        // nur Anzahl + Zeitpunkt; der Verlauf selbst seitenweise über changes()
+        MeldungChangeRepository.ChangeSummary changeSummary = changeRepo.summarize(m.getId());
+
+        return new MeldungResponse(
+                m.getId(),
+                m.getFalleroeffnung().getId(),
+                m.getVersionNo(),
+                m.isCurrent(),
+                m.getStatus().name(),
+                m.getType().name(),
+
+                m.getCreatedAt(),
+                m.getUpdatedAt(),
+                m.getRowVersion(),
+                m.getCreatedByDisplayName(),
+
+                m.getSupersedes() == null ? null : m.getSupersedes().getId(),
+                m.getCorrects() == null ? null : m.getCorrects().getId(),
+
+                m.getChangeReason() == null ? null : m.getChangeReason().name(),
+                m.getInfoEffectiveAt(),
+                m.getReasonText(),
+
+                m.getErfasstVonRolle(),
+                m.getMeldeweg() == null ? null : m.getMeldeweg().name(),
+                m.getMeldewegSonstiges(),
+                m.getMeldendeStelleKontakt(),
+                m.getDringlichkeit() == null ? null : m.getDringlichkeit().name(),
+                m.getDatenbasis() == null ? null : m.getDatenbasis().name(),
+                m.getEinwilligungVorhanden(),
+                m.getSchweigepflichtentbindungVorhanden(),
+
+                m.getKurzbeschreibung(),
+
+                m.getFachAmpel() == null ? null : m.getFachAmpel().name(),
+                m.getFachText(),
+                m.getAbweichungZurAuto() == null ? null : m.getAbweichungZurAuto().name(),
+                m.getAbweichungsBegruendung(),
+
+                m.isAkutGefahrImVerzug(),
+                m.getAkutBegruendung(),
+                m.getAkutNotrufErforderlich(),
+                m.getAkutKindSicherUntergebracht() == null ? null : m.getAkutKindSicherUntergebracht().name(),
+
+                m.getVerantwortlicheFachkraft() == null ? null : m.getVerantwortlicheFachkraft().getId(),
+                m.getNaechsteUeberpruefungAm(),
+                m.getZusammenfassung(),
+
+                anlaesse,
+                jaResp,
+                contacts,
+                extern,
+                attachments,
+
+                obsResp,
+
+                m.getSubmittedAt(),
+                m.getSubmittedByDisplayName(),
+                m.getFreigabeAm(),
+                m.getFreigabeVon() == null ? null : m.getFreigabeVon().getDisplayName(),
+
+                changeSummary.getChangeCount(),
+                changeSummary.getLastChangedAt()
+        );
+    }
+
+    private MeldungSectionResponse buildSectionResponse(Meldung m, MeldungSection section, List<MeldungChange> written) {
+        Map<String, Object> fields = null;
+        List<String> anlaesse = null;
+        MeldungResponse.JugendamtResponse jugendamt = null;
+        List<MeldungResponse.ContactResponse> contacts = null;
+        List<MeldungResponse.ExternResponse> extern = null;
+        List<MeldungResponse.AttachmentResponse> attachments = null;
+        List<MeldungResponse.ObservationResponse> observations = null;
+
+        switch (section) {
+            case META, INHALT, FACH, AKUT, PLANUNG -> fields = sectionFields(m, section);
+            case ANLAESSE -> anlaesse = anlassCodes(m);
+            case JUGENDAMT -> jugendamt = jugendamtResponse(m);
+            case CONTACTS -> contacts = contactResponses(m);
+            case EXTERN -> extern = externResponses(m);
+            case ATTACHMENTS -> attachments = attachmentResponses(m);
+            case OBSERVATIONS -> observations = observationResponses(m);
+        }
+
+        return new MeldungSectionResponse(
+                m.getId(),
+                section.name(),
+                m.getUpdatedAt(),
+                m.getRowVersion(),
+                fields,
+                anlaesse,
+                jugendamt,
+                contacts,
+                extern,
+                attachments,
+                observations,
+                written.stream().map(MeldungService::toChangeResponse).toList()
+        );
+    }
+
+    // Feldnamen und Formatierung wie in MeldungResponse
+    private Map<String, Object> sectionFields(Meldung m, MeldungSection section) {
+        Map<String, Object> f = new LinkedHashMap<>();
+        switch (section) {
+            case META -> {
+                f.put("erfasstVonRolle", m.getErfasstVonRolle());
+                f.put("meldeweg", enumName(m.getMeldeweg()));
+                f.put("meldewegSonstiges", m.getMeldewegSonstiges());
+                f.put("meldendeStelleKontakt", m.getMeldendeStelleKontakt());
+                f.put("dringlichkeit", enumName(m.getDringlichkeit()));
+                f.put("datenbasis", enumName(m.getDatenbasis()));
+                f.put("einwilligungVorhanden", m.getEinwilligungVorhanden());
+                f.put("schweigepflichtentbindungVorhanden", m.getSchweigepflichtentbindungVorhanden());
+            }
+            case INHALT -> f.put("kurzbeschreibung", m.getKurzbeschreibung());
+            case FACH -> {
+                f.put("fachAmpel", enumName(m.getFachAmpel()));
+                f.put("fachText", m.getFachText());
+                f.put("abweichungZurAuto", enumName(m.getAbweichungZurAuto()));
+                f.put("abweichungsBegruendung", m.getAbweichungsBegruendung());
+            }
+            case AKUT -> {
+                f.put("akutGefahrImVerzug", m.isAkutGefahrImVerzug());
+                f.put("akutBegruendung", m.getAkutBegruendung());
+                f.put("akutNotrufErforderlich", m.getAkutNotrufErforderlich());
+                f.put("akutKindSicherUntergebracht", enumName(m.getAkutKindSicherUntergebracht()));
+            }
+            case PLANUNG -> {
+                f.put("verantwortlicheFachkraftUserId",
+                        m.getVerantwortlicheFachkraft() == null ? null : m.getVerantwortlicheFachkraft().getId());
+                f.put("naechsteUeberpruefungAm", m.getNaechsteUeberpruefungAm());
+                f.put("zusammenfassung", m.getZusammenfassung());
+            }
+            default -> throw new IllegalArgumentException("No field section: " + section);
+        }
+        return f;
+    }
+
+    private List<MeldungResponse.ObservationResponse> observationResponses(Meldung m) {
         List<MeldungObservation> obs = obsRepo.findAllByMeldungId(m.getId());
         List<Long> obsIds = obs.stream().map(MeldungObservation::getId).filter(Objects::nonNull).toList();
 
@@ -884,7 +1260,7 @@ public class MeldungService {
                     .collect(Collectors.groupingBy(t -> t.getObservation().getId()));
         }
 
-        List<MeldungResponse.ObservationResponse> obsResp = obs.stream().map(o -> new MeldungResponse.ObservationResponse(
+        return obs.stream().map(o -> new MeldungResponse.ObservationResponse(
                 o.getId(),
                 o.getZeitpunkt(),
                 o.getZeitraum() == null ? null : o.getZeitraum().name(),
@@ -907,21 +1283,26 @@ public class MeldungService {
                         t.getComment()
                 )).toList()
         )).toList();
+    }
 
-        List<String> anlaesse = anlassRepo.findAllByMeldungId(m.getId()).stream()
+    private List<String> anlassCodes(Meldung m) {
+        return anlassRepo.findAllByMeldungId(m.getId()).stream()
                 .map(MeldungAnlassCode::getCode)
                 .toList();
+    }
 
-        var jugendamtOpt = jugendamtRepo.findByMeldungId(m.getId());
-        MeldungResponse.JugendamtResponse jaResp = jugendamtOpt.map(j -> new MeldungResponse.JugendamtResponse(
+    private MeldungResponse.JugendamtResponse jugendamtResponse(Meldung m) {
+        return jugendamtRepo.findByMeldungId(m.getId()).map(j -> new MeldungResponse.JugendamtResponse(
                 j.getInformiert() == null ? null : j.getInformiert().name(),
                 j.getKontaktAm(),
                 j.getKontaktart() == null ? null : j.getKontaktart().name(),
                 j.getAktenzeichen(),
                 j.getBegruendung()
         )).orElse(null);
+    }
 
-        List<MeldungResponse.ContactResponse> contacts = contactRepo.findAllByMeldungId(m.getId()).stream()
+    private List<MeldungResponse.ContactResponse> contactResponses(Meldung m) {
+        return contactRepo.findAllByMeldungId(m.getId()).stream()
                 .map(c -> new MeldungResponse.ContactResponse(
                         c.getId(),
                         c.getKontaktMit() == null ? null : c.getKontaktMit().name(),
@@ -930,8 +1311,10 @@ public class MeldungService {
                         c.getNotiz(),
                         c.getErgebnis()
                 )).toList();
+    }
 
-        List<MeldungResponse.ExternResponse> extern = externRepo.findAllByMeldungId(m.getId()).stream()
+    private List<MeldungResponse.ExternResponse> externResponses(Meldung m) {
+        return externRepo.findAllByMeldungId(m.getId()).stream()
                 .map(e -> new MeldungResponse.ExternResponse(
                         e.getId(),
                         e.getStelle() == null ? null : e.getStelle().name(),
@@ -940,8 +1323,10 @@ public class MeldungService {
                         e.getBegruendung(),
                         e.getErgebnis()
                 )).toList();
+    }
 
-        List<MeldungResponse.AttachmentResponse> attachments = attachmentRepo.findAllByMeldungId(m.getId()).stream()
+    private List<MeldungResponse.AttachmentResponse> attachmentResponses(Meldung m) {
+        return attachmentRepo.findAllByMeldungId(m.getId()).stream()
                 .map(a -> new MeldungResponse.AttachmentResponse(
                         a.getId(),
                         a.getFileId(),
@@ -951,82 +1336,27 @@ public class MeldungService {
                         a.getSichtbarkeit() == null ? null : a.getSichtbarkeit().name(),
                         a.getRechtsgrundlageHinweis()
                 )).toList();
+    }
 
-        List<MeldungChangeResponse> changes = includeChanges
-                ? changeRepo.findAllByMeldung_IdOrderByChangedAtAsc(m.getId()).stream()
-                .map(c -> new MeldungChangeResponse(
-                        c.getId(),
-                        c.getSection().name(),
-                        c.getFieldPath(),
-                        c.getOldValue(),
-                        c.getNewValue(),
-                        c.getReason(),
-                        c.getChangedAt(),
-                        c.getChangedByDisplayName()
-                )).toList()
-                : List.of();
-
-        return new MeldungResponse(
-                m.getId(),
-                m.getFalleroeffnung().getId(),
-                m.getVersionNo(),
-                m.isCurrent(),
-                m.getStatus().name(),
-                m.getType().name(),
-
-                m.getCreatedAt(),
-                m.getUpdatedAt(),
-                m.getCreatedByDisplayName(),
-
-                m.getSupersedes() == null ? null : m.getSupersedes().getId(),
-                m.getCorrects() == null ? null : m.getCorrects().getId(),
-
-                m.getChangeReason() == null ? null : m.getChangeReason().name(),
-                m.getInfoEffectiveAt(),
-                m.getReasonText(),
-
-                m.getErfasstVonRolle(),
-                m.getMeldeweg() == null ? null : m.getMeldeweg().name(),
-                m.getMeldewegSonstiges(),
-                m.getMeldendeStelleKontakt(),
-                m.getDringlichkeit() == null ? null : m.getDringlichkeit().name(),
-                m.getDatenbasis() == null ? null : m.getDatenbasis().name(),
-                m.getEinwilligungVorhanden(),
-                m.getSchweigepflichtentbindungVorhanden(),
-
-                m.getKurzbeschreibung(),
-
-                m.getFachAmpel() == null ? null : m.getFachAmpel().name(),
-                m.getFachText(),
-                m.getAbweichungZurAuto() == null ? null : m.getAbweichungZurAuto().name(),
-                m.getAbweichungsBegruendung(),
-
-                m.isAkutGefahrImVerzug(),
-                m.getAkutBegruendung(),
-                m.getAkutNotrufErforderlich(),
-                m.getAkutKindSicherUntergebracht() == null ? null : m.getAkutKindSicherUntergebracht().name(),
-
-                m.getVerantwortlicheFachkraft() == null ? null : m.getVerantwortlicheFachkraft().getId(),
-                m.getNaechsteUeberpruefungAm(),
-                m.getZusammenfassung(),
-
-                anlaesse,
-                jaResp,
-                contacts,
-                extern,
-                attachments,
-
-                obsResp,
-
-                m.getSubmittedAt(),
-                m.getSubmittedByDisplayName(),
-                m.getFreigabeAm(),
-                m.getFreigabeVon() == null ? null : m.getFreigabeVon().getDisplayName(),
-
-                changes
+    private static MeldungChangeResponse toChangeResponse(MeldungChange c) {
+        return new MeldungChangeResponse(
+                c.getId(),
+                c.getSection().name(),
+                c.getFieldPath(),
+                c.getOldValue(),
+                c.getNewValue(),
+                c.getReason(),
+                c.getChangedAt(),
+                c.getChangedByDisplayName()
         );
     }
 
+    /** Entspricht dem Scope von loadFallScoped, ohne DB. */
+    private boolean inActiveScope(Long traegerId, Long einrichtungOrgUnitId) {
+        return Objects.equals(traegerId, SecurityUtils.currentTraegerIdRequired())
+                && Objects.equals(einrichtungOrgUnitId, access.activeEinrichtungId());
+    }
+
     private Falleroeffnung loadFallScoped(Long fallId) {
         Long traegerId = SecurityUtils.currentTraegerIdRequired();
         Long einrichtungId = access.activeEinrichtungId();
@@ -1038,10 +1368,37 @@ public class MeldungService {
                 .orElseThrow(() -> DomainException.notFound(ErrorCode.NOT_FOUND, "Fall not found"));
     }
 
+    private Meldung loadEditable(Falleroeffnung fall, Long meldungId) {
+        Meldung m = meldungRepo.findById(meldungId)
+                .orElseThrow(() -> DomainException.notFound(ErrorCode.NOT_FOUND, "Meldung not found"));
+
+        if (!Objects.equals(m.getFalleroeffnung().getId(), fall.getId())) {
+            throw DomainException.forbidden(ErrorCode.ACCESS_DENIED, "Meldung does not belong to this Fall");
+        }
+
+        if (m.getStatus() == MeldungStatus.ABGESCHLOSSEN) {
+            throw DomainException.conflict(ErrorCode.CONFLICT, "Meldung is abgeschlossen (immutable)");
+        }
+        return m;
+    }
+
+    // strikt (anders als MeldungSection.valueOfSafe): ein Tippfehler im Pfad darf nicht META überschreiben
+    private static MeldungSection parseSection(String raw) {
+        String s = raw == null ? "" : raw.trim().toUpperCase();
+        for (MeldungSection section : MeldungSection.values()) {
+            if (section.name().equals(s)) return section;
+        }
+        throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "Unknown section: " + raw);
+    }
+
     private void accessRead(Falleroeffnung fall) {
+        accessRead(fall.getTraeger().getId(), fall.getEinrichtungOrgUnit().getId());
+    }
+
+    private void accessRead(Long traegerId, Long einrichtungOrgUnitId) {
         access.requireAccessToEinrichtungObject(
-                fall.getTraeger().getId(),
-                fall.getEinrichtungOrgUnit().getId(),
+                traegerId,
+                einrichtungOrgUnitId,
                 Role.LESEN, Role.FACHKRAFT, Role.TEAMLEITUNG, Role.EINRICHTUNG_ADMIN, Role.TRAEGER_ADMIN
         );
     }
@@ -1066,26 +1423,13 @@ public class MeldungService {
     }
 
     private String normalizeDiffValue(String value) {
-        if (value == null || value.isBlank()) return null;
-        return value.trim();
+        return MeldungVersionDiff.normalize(value);
     }
 
     private String enumName(Enum<?> e) {
         return e == null ? null : e.name();
     }
 
-    private String boolStr(Boolean b) {
-        return b == null ? null : String.valueOf(b);
-    }
-
-    private String localDateStr(LocalDate d) {
-        return d == null ? null : d.toString();
-    }
-
-    private String userIdStr(User u) {
-        return u == null || u.getId() == null ? null : String.valueOf(u.getId());
-    }
-
     private String resolveReason(MeldungSection section, String fieldPath, Map<String, String> sectionReasons) {
         if (sectionReasons == null || sectionReasons.isEmpty()) {
             return "Änderung im Entwurf";
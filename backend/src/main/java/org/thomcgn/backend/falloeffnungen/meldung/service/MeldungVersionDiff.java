@@ -0,0 +1,316 @@
+package org.thomcgn.backend.falloeffnungen.meldung.service;
+
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungDiffResponse.Entry;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungResponse;
+import org.thomcgn.backend.falloeffnungen.meldung.model.Meldung;
+import org.thomcgn.backend.falloeffnungen.meldung.model.MeldungSection;
+import org.thomcgn.backend.users.model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Feld-Diffs von Meldungen: gemeinsame Feldliste für das Change-Log (MeldungService.writeSectionDiffs)
+ * und den Versions-Diff (MeldungService.diff), dazu der Diff der Kind-Sammlungen.
+ *
+ * Kind-Einträge werden beim Anlegen einer Version kopiert (neue IDs), daher fachliche Schlüssel:
+ * Beobachtung = Zeitpunkt bzw. Zeitraum + Quelle, Kontakt = Kontakt mit + Datum, Extern = Stelle + Datum,
+ * Anhang = fileId, Tag = Indikator bzw. Anlass. Gleiche Schlüssel werden in Listenreihenfolge mit #2, #3 … unterschieden.
+ */
+final class MeldungVersionDiff {
+
+    static final String CHANGED = "CHANGED";
+    static final String ADDED = "ADDED";
+    static final String REMOVED = "REMOVED";
+
+    @FunctionalInterface
+    interface FieldVisitor {
+        void field(MeldungSection section, String fieldPath, String oldValue, String newValue);
+    }
+
+    /** Kind-Sammlungen einer Version, wie sie MeldungService.buildResponse liefert. */
+    record Children(
+            List<String> anlassCodes,
+            MeldungResponse.JugendamtResponse jugendamt,
+            List<MeldungResponse.ObservationResponse> observations,
+            List<MeldungResponse.ContactResponse> contacts,
+            List<MeldungResponse.ExternResponse> extern,
+            List<MeldungResponse.AttachmentResponse> attachments
+    ) {}
+
+    private MeldungVersionDiff() {}
+
+    // ---------------------------------------------------------
+    // Felder direkt an der Meldung
+    // ---------------------------------------------------------
+
+    /** Alle Felder eines Abschnitts (META, INHALT, FACH, AKUT, PLANUNG), unabhängig davon, ob sie sich unterscheiden. */
+    static void visitFields(MeldungSection section, Meldung before, Meldung after, FieldVisitor v) {
+        switch (section) {
+            case META -> {
+                v.field(section, "erfasstVonRolle", before.getErfasstVonRolle(), after.getErfasstVonRolle());
+                v.field(section, "meldeweg", enumName(before.getMeldeweg()), enumName(after.getMeldeweg()));
+                v.field(section, "meldewegSonstiges", before.getMeldewegSonstiges(), after.getMeldewegSonstiges());
+                v.field(section, "meldendeStelleKontakt", before.getMeldendeStelleKontakt(), after.getMeldendeStelleKontakt());
+                v.field(section, "dringlichkeit", enumName(before.getDringlichkeit()), enumName(after.getDringlichkeit()));
+                v.field(section, "datenbasis", enumName(before.getDatenbasis()), enumName(after.getDatenbasis()));
+                v.field(section, "einwilligungVorhanden",
+                        boolStr(before.getEinwilligungVorhanden()), boolStr(after.getEinwilligungVorhanden()));
+                v.field(section, "schweigepflichtentbindungVorhanden",
+                        boolStr(before.getSchweigepflichtentbindungVorhanden()), boolStr(after.getSchweigepflichtentbindungVorhanden()));
+            }
+            case INHALT -> v.field(section, "kurzbeschreibung", before.getKurzbeschreibung(), after.getKurzbeschreibung());
+            case FACH -> {
+                v.field(section, "fachAmpel", enumName(before.getFachAmpel()), enumName(after.getFachAmpel()));
+                v.field(section, "fachText", before.getFachText(), after.getFachText());
+                v.field(section, "abweichungZurAuto", enumName(before.getAbweichungZurAuto()), enumName(after.getAbweichungZurAuto()));
+                v.field(section, "abweichungsBegruendung", before.getAbweichungsBegruendung(), after.getAbweichungsBegruendung());
+            }
+            case AKUT -> {
+                v.field(section, "akutGefahrImVerzug",
+                        String.valueOf(before.isAkutGefahrImVerzug()), String.valueOf(after.isAkutGefahrImVerzug()));
+                v.field(section, "akutBegruendung", before.getAkutBegruendung(), after.getAkutBegruendung());
+                v.field(section, "akutNotrufErforderlich",
+                        boolStr(before.getAkutNotrufErforderlich()), boolStr(after.getAkutNotrufErforderlich()));
+                v.field(section, "akutKindSicherUntergebracht",
+                        enumName(before.getAkutKindSicherUntergebracht()), enumName(after.getAkutKindSicherUntergebracht()));
+            }
+            case PLANUNG -> {
+                v.field(section, "verantwortlicheFachkraftUserId",
+                        userIdStr(before.getVerantwortlicheFachkraft()), userIdStr(after.getVerantwortlicheFachkraft()));
+                v.field(section, "naechsteUeberpruefungAm",
+                        localDateStr(before.getNaechsteUeberpruefungAm()), localDateStr(after.getNaechsteUeberpruefungAm()));
+                v.field(section, "zusammenfassung", before.getZusammenfassung(), after.getZusammenfassung());
+            }
+            default -> throw new IllegalArgumentException("No field section: " + section);
+        }
+    }
+
+    static String normalize(String value) {
+        if (value == null || value.isBlank()) return null;
+        return value.trim();
+    }
+
+    // ---------------------------------------------------------
+    // Versions-Diff
+    // ---------------------------------------------------------
+
+    static List<Entry> diff(List<MeldungSection> fieldSections, Meldung from, Children fromChildren, Meldung to, Children toChildren) {
+        List<Entry> out = new ArrayList<>();
+
+        for (MeldungSection section : fieldSections) {
+            visitFields(section, from, to, (s, path, oldValue, newValue) -> change(out, s, path, oldValue, newValue));
+        }
+
+        diffAnlassCodes(out, fromChildren.anlassCodes(), toChildren.anlassCodes());
+        diffFields(out, MeldungSection.JUGENDAMT, "jugendamt.",
+                jugendamtFields(fromChildren.jugendamt()), jugendamtFields(toChildren.jugendamt()));
+
+        diffItems(out, MeldungSection.OBSERVATIONS, "observations",
+                fromChildren.observations(), toChildren.observations(),
+                o -> key(o.zeitpunkt() != null ? o.zeitpunkt() : o.zeitraum(), o.quelle()),
+                MeldungVersionDiff::observationFields,
+                (path, before, after) -> diffItems(out, MeldungSection.OBSERVATIONS, path + ".tags",
+                        before == null ? List.of() : before.tags(),
+                        after == null ? List.of() : after.tags(),
+                        t -> key(t.indicatorId() != null ? t.indicatorId() : t.anlassCode()),
+                        MeldungVersionDiff::tagFields,
+                        null));
+
+        diffItems(out, MeldungSection.CONTACTS, "contacts",
+                fromChildren.contacts(), toChildren.contacts(),
+                c -> key(c.kontaktMit(), c.kontaktAm()),
+                MeldungVersionDiff::contactFields, null);
+
+        diffItems(out, MeldungSection.EXTERN, "extern",
+                fromChildren.extern(), toChildren.extern(),
+                e -> key(e.stelle(), e.am()),
+                MeldungVersionDiff::externFields, null);
+
+        diffItems(out, MeldungSection.ATTACHMENTS, "attachments",
+                fromChildren.attachments(), toChildren.attachments(),
+                a -> key(a.fileId()),
+                MeldungVersionDiff::attachmentFields, null);
+
+        return out;
+    }
+
+    @FunctionalInterface
+    private interface Nested<T> {
+        /** before/after null = Eintrag nur auf einer Seite vorhanden. */
+        void diff(String itemPath, T before, T after);
+    }
+
+    private static <T> void diffItems(List<Entry> out, MeldungSection section, String prefix,
+                                      List<T> before, List<T> after,
+                                      Function<T, String> key, Function<T, Map<String, String>> fields, Nested<T> nested) {
+        Map<String, T> b = keyed(before, key);
+        Map<String, T> a = keyed(after, key);
+
+        for (Map.Entry<String, T> e : b.entrySet()) {
+            String path = prefix + "[" + e.getKey() + "]";
+            T other = a.get(e.getKey());
+            diffFields(out, section, path + ".", fields.apply(e.getValue()), other == null ? Map.of() : fields.apply(other));
+            if (nested != null) nested.diff(path, e.getValue(), other);
+        }
+        for (Map.Entry<String, T> e : a.entrySet()) {
+            if (b.containsKey(e.getKey())) continue;
+            String path = prefix + "[" + e.getKey() + "]";
+            diffFields(out, section, path + ".", Map.of(), fields.apply(e.getValue()));
+            if (nested != null) nested.diff(path, null, e.getValue());
+        }
+    }
+
+    private static <T> Map<String, T> keyed(List<T> items, Function<T, String> key) {
+        Map<String, T> out = new LinkedHashMap<>();
+        Map<String, Integer> seen = new HashMap<>();
+        for (T item : items) {
+            String k = key.apply(item);
+            int n = seen.merge(k, 1, Integer::sum);
+            out.put(n == 1 ? k : k + "#" + n, item);
+        }
+        return out;
+    }
+
+    private static void diffFields(List<Entry> out, MeldungSection section, String prefix,
+                                   Map<String, String> before, Map<String, String> after) {
+        Set<String> names = new LinkedHashSet<>(before.keySet());
+        names.addAll(after.keySet());
+        for (String name : names) {
+            change(out, section, prefix + name, before.get(name), after.get(name));
+        }
+    }
+
+    private static void diffAnlassCodes(List<Entry> out, List<String> before, List<String> after) {
+        Set<String> b = new LinkedHashSet<>();
+        for (String c : before) if (normalize(c) != null) b.add(c.trim());
+        Set<String> a = new LinkedHashSet<>();
+        for (String c : after) if (normalize(c) != null) a.add(c.trim());
+
+        for (String c : b) {
+            if (!a.contains(c)) out.add(new Entry(MeldungSection.ANLAESSE.name(), "anlassCodes[" + c + "]", REMOVED, c, null));
+        }
+        for (String c : a) {
+            if (!b.contains(c)) out.add(new Entry(MeldungSection.ANLAESSE.name(), "anlassCodes[" + c + "]", ADDED, null, c));
+        }
+    }
+
+    private static void change(List<Entry> out, MeldungSection section, String path, String oldValue, String newValue) {
+        String oldNorm = normalize(oldValue);
+        String newNorm = normalize(newValue);
+        if (Objects.equals(oldNorm, newNorm)) return;
+
+        String op = oldNorm == null ? ADDED : newNorm == null ? REMOVED : CHANGED;
+        out.add(new Entry(section.name(), path, op, oldNorm, newNorm));
+    }
+
+    // ---------------------------------------------------------
+    // Felder der Kind-Einträge (Namen wie in MeldungResponse)
+    // ---------------------------------------------------------
+
+    private static Map<String, String> jugendamtFields(MeldungResponse.JugendamtResponse j) {
+        if (j == null) return Map.of();
+        Map<String, String> f = new LinkedHashMap<>();
+        f.put("informiert", j.informiert());
+        f.put("kontaktAm", str(j.kontaktAm()));
+        f.put("kontaktart", j.kontaktart());
+        f.put("aktenzeichen", j.aktenzeichen());
+        f.put("begruendung", j.begruendung());
+        return f;
+    }
+
+    private static Map<String, String> observationFields(MeldungResponse.ObservationResponse o) {
+        Map<String, String> f = new LinkedHashMap<>();
+        f.put("zeitpunkt", str(o.zeitpunkt()));
+        f.put("zeitraum", o.zeitraum());
+        f.put("ort", o.ort());
+        f.put("ortSonstiges", o.ortSonstiges());
+        f.put("quelle", o.quelle());
+        f.put("text", o.text());
+        f.put("woertlichesZitat", o.woertlichesZitat());
+        f.put("koerperbefund", o.koerperbefund());
+        f.put("verhaltenKind", o.verhaltenKind());
+        f.put("verhaltenBezug", o.verhaltenBezug());
+        f.put("sichtbarkeit", o.sichtbarkeit());
+        return f;
+    }
+
+    private static Map<String, String> tagFields(MeldungResponse.ObservationTagResponse t) {
+        Map<String, String> f = new LinkedHashMap<>();
+        f.put("anlassCode", t.anlassCode());
+        f.put("indicatorId", t.indicatorId());
+        f.put("severity", str(t.severity()));
+        f.put("comment", t.comment());
+        return f;
+    }
+
+    private static Map<String, String> contactFields(MeldungResponse.ContactResponse c) {
+        Map<String, String> f = new LinkedHashMap<>();
+        f.put("kontaktMit", c.kontaktMit());
+        f.put("kontaktAm", str(c.kontaktAm()));
+        f.put("status", c.status());
+        f.put("notiz", c.notiz());
+        f.put("ergebnis", c.ergebnis());
+        return f;
+    }
+
+    private static Map<String, String> externFields(MeldungResponse.ExternResponse e) {
+        Map<String, String> f = new LinkedHashMap<>();
+        f.put("stelle", e.stelle());
+        f.put("stelleSonstiges", e.stelleSonstiges());
+        f.put("am", str(e.am()));
+        f.put("begruendung", e.begruendung());
+        f.put("ergebnis", e.ergebnis());
+        return f;
+    }
+
+    private static Map<String, String> attachmentFields(MeldungResponse.AttachmentResponse a) {
+        Map<String, String> f = new LinkedHashMap<>();
+        f.put("fileId", str(a.fileId()));
+        f.put("typ", a.typ());
+        f.put("titel", a.titel());
+        f.put("beschreibung", a.beschreibung());
+        f.put("sichtbarkeit", a.sichtbarkeit());
+        f.put("rechtsgrundlageHinweis", a.rechtsgrundlageHinweis());
+        return f;
+    }
+
+    // ---------------------------------------------------------
+
+    private static String key(Object... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (Object p : parts) {
+            if (!sb.isEmpty()) sb.append('|');
+            sb.append(p == null ? "-" : p);
+        }
+        return sb.toString();
+    }
+
+    private static String str(Object o) {
+        return o == null ? null : o.toString();
+    }
+
+    private static String enumName(Enum<?> e) {
+        return e == null ? null : e.name();
+    }
+
+    private static String boolStr(Boolean b) {
+        return b == null ? null : String.valueOf(b);
+    }
+
+    private static String localDateStr(LocalDate d) {
+        return d == null ? null : d.toString();
+    }
+
+    private static String userIdStr(User u) {
+        return u == null || u.getId() == null ? null : String.valueOf(u.getId());
+    }
+}
@@ -0,0 +1,22 @@
+package org.thomcgn.backend.falloeffnungen.meldung.service;
+
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungResponse;
+
+/**
+ * Ergebnis von MeldungService.get/current: entweder frisch gebaute Antwort (Entwurf)
+ * oder fertig serialisiertes JSON einer abgeschlossenen Version inkl. starkem ETag.
+ */
+public record RenderedMeldung(MeldungResponse response, byte[] json, String etag) {
+
+    static RenderedMeldung of(MeldungResponse response) {
+        return new RenderedMeldung(response, null, null);
+    }
+
+    static RenderedMeldung cached(MeldungResponseCache.Entry e) {
+        return new RenderedMeldung(null, e.json(), e.etag());
+    }
+
+    public boolean isCached() {
+        return json != null;
+    }
+}
@@ -0,0 +1,88 @@
+package org.thomcgn.backend.falloeffnungen.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Read-Model der Fall-Liste (Tabelle fall_list_entry): eine denormalisierte Zeile pro Fall.
+ *
+ * Wird nur per SQL über {@link org.thomcgn.backend.falloeffnungen.repo.FallListEntryRepository}
+ * geschrieben (refresh pro Fall bzw. rebuildAll); das Entity dient ausschließlich zum Lesen.
+ */
+@Entity
+@Table(name = "fall_list_entry")
+public class FallListEntry {
+
+    @Id
+    @Column(name = "fall_id", nullable = false)
+    private Long fallId;
+
+    @Column(name = "traeger_id", nullable = false)
+    private Long traegerId;
+
+    @Column(name = "einrichtung_org_unit_id", nullable = false)
+    private Long einrichtungOrgUnitId;
+
+    @Column(name = "team_org_unit_id")
+    private Long teamOrgUnitId;
+
+    @Column(name = "dossier_id", nullable = false)
+    private Long dossierId;
+
+    @Column(name = "kind_id", nullable = false)
+    private Long kindId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private FalleroeffnungStatus status;
+
+    @Column(length = 200)
+    private String titel;
+
+    @Column(nullable = false, length = 50)
+    private String aktenzeichen;
+
+    @Column(name = "kind_name", nullable = false)
+    private String kindName;
+
+    @Column(name = "created_by_display_name")
+    private String createdByDisplayName;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "akut_gefahr_im_verzug")
+    private Boolean akutGefahrImVerzug;
+
+    @Column(length = 50)
+    private String dringlichkeit;
+
+    @Column(name = "naechste_ueberpruefung_am")
+    private LocalDate naechsteUeberpruefungAm;
+
+    @Column(name = "risk_traffic_light", length = 10)
+    private String riskTrafficLight;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private Instant refreshedAt;
+
+    public Long getFallId() { return fallId; }
+    public Long getTraegerId() { return traegerId; }
+    public Long getEinrichtungOrgUnitId() { return einrichtungOrgUnitId; }
+    public Long getTeamOrgUnitId() { return teamOrgUnitId; }
+    public Long getDossierId() { return dossierId; }
+    public Long getKindId() { return kindId; }
+    public FalleroeffnungStatus getStatus() { return status; }
+    public String getTitel() { return titel; }
+    public String getAktenzeichen() { return aktenzeichen; }
+    public String getKindName() { return kindName; }
+    public String getCreatedByDisplayName() { return createdByDisplayName; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Boolean getAkutGefahrImVerzug() { return akutGefahrImVerzug; }
+    public String getDringlichkeit() { return dringlichkeit; }
+    public LocalDate getNaechsteUeberpruefungAm() { return naechsteUeberpruefungAm; }
+    public String getRiskTrafficLight() { return riskTrafficLight; }
+    public Instant getRefreshedAt() { return refreshedAt; }
+}
@@ -0,0 +1,198 @@
+package org.thomcgn.backend.falloeffnungen.repo;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.thomcgn.backend.falloeffnungen.model.FallListEntry;
+import org.thomcgn.backend.falloeffnungen.model.FalleroeffnungStatus;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+public interface FallListEntryRepository extends JpaRepository<FallListEntry, Long> {
+
+    // Explizite Spaltenliste: eine neue Tabellenspalte bricht den Upsert nicht (Funktion mit benannten Spalten, V079)
+    String COLUMNS = """
+        fall_id, traeger_id, einrichtung_org_unit_id, team_org_unit_id, dossier_id, kind_id,
+        status, titel, aktenzeichen, kind_name, created_by_display_name, created_at,
+        akut_gefahr_im_verzug, dringlichkeit, naechste_ueberpruefung_am,
+        risk_traffic_light, refreshed_at, risk_payload_id
+        """;
+
+    // Zeile(n) aus den Quelltabellen berechnen (Funktion fall_list_entry_source; auch vom Demo-Seed genutzt);
+    // WHERE + ON CONFLICT hängen die Pflege-Queries an
+    String UPSERT_SELECT = "INSERT INTO fall_list_entry (" + COLUMNS + ")\nSELECT " + COLUMNS
+            + "  FROM fall_list_entry_source() src\n";
+
+    String ON_CONFLICT_UPDATE = """
+        ON CONFLICT (fall_id) DO UPDATE SET
+               traeger_id                = EXCLUDED.traeger_id,
+               einrichtung_org_unit_id   = EXCLUDED.einrichtung_org_unit_id,
+               team_org_unit_id          = EXCLUDED.team_org_unit_id,
+               dossier_id                = EXCLUDED.dossier_id,
+               kind_id                   = EXCLUDED.kind_id,
+               status                    = EXCLUDED.status,
+               titel                     = EXCLUDED.titel,
+               aktenzeichen              = EXCLUDED.aktenzeichen,
+               kind_name                 = EXCLUDED.kind_name,
+               created_by_display_name   = EXCLUDED.created_by_display_name,
+               created_at                = EXCLUDED.created_at,
+               akut_gefahr_im_verzug     = EXCLUDED.akut_gefahr_im_verzug,
+               dringlichkeit             = EXCLUDED.dringlichkeit,
+               naechste_ueberpruefung_am = EXCLUDED.naechste_ueberpruefung_am,
+               risk_traffic_light        = EXCLUDED.risk_traffic_light,
+               risk_payload_id           = EXCLUDED.risk_payload_id,
+               refreshed_at              = EXCLUDED.refreshed_at
+        """;
+
+    // ── Pflege ────────────────────────────────────────────────────────────────
+
+    /**
+     * Zeile eines Falls neu berechnen (Upsert). Läuft in der Transaktion des Aufrufers;
+     * flushAutomatically, damit ausstehende JPA-Änderungen im SELECT sichtbar sind.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = UPSERT_SELECT + " WHERE src.fall_id = :fallId\n" + ON_CONFLICT_UPDATE, nativeQuery = true)
+    int refresh(@Param("fallId") Long fallId);
+
+    /** Zeilen aller Fälle eines Erstellers neu berechnen (created_by_display_name nach Namensänderung). */
+    @Modifying(flushAutomatically = true)
+    @Query(value = UPSERT_SELECT + """
+         WHERE src.fall_id IN (SELECT f.id FROM falloeffnungen f WHERE f.created_by_user_id = :userId)
+        """ + ON_CONFLICT_UPDATE, nativeQuery = true)
+    int refreshForCreator(@Param("userId") Long userId);
+
+    /** Backfill / Reparatur: alle Fälle neu berechnen. */
+    @Modifying(flushAutomatically = true)
+    @Query(value = UPSERT_SELECT + ON_CONFLICT_UPDATE, nativeQuery = true)
+    int rebuildAll();
+
+    // ── Lesen ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Fall-Liste ohne Suchbegriff: nur fall_list_entry (+ Closure-PK für den Scope).
+     * Sortierung kommt aus dem Pageable (Standard neueste zuerst, siehe FalleroeffnungService.listSort).
+     * Scope wie bei FalleroeffnungRepository.searchScoped.
+     */
+    @Query(
+            value = """
+                select e
+                  from FallListEntry e
+                  join OrgUnitClosure sc on sc.descendantId = e.einrichtungOrgUnitId and sc.ancestorId = :scopeOrgUnitId
+                 where e.traegerId = :traegerId
+                   and (:status is null or e.status = :status)
+            """,
+            countQuery = """
+                select count(e)
+                  from FallListEntry e
+                  join OrgUnitClosure sc on sc.descendantId = e.einrichtungOrgUnitId and sc.ancestorId = :scopeOrgUnitId
+                 where e.traegerId = :traegerId
+                   and (:status is null or e.status = :status)
+            """
+    )
+    Page<FallListEntry> listScoped(
+            @Param("traegerId") Long traegerId,
+            @Param("scopeOrgUnitId") Long scopeOrgUnitId,
+            @Param("status") FalleroeffnungStatus status,
+            Pageable pageable
+    );
+
+    /**
+     * Keyset-Variante (Cursor-Modus) ohne Suchbegriff; Aufrufer holt limit + 1 Zeilen.
+     * Erste Seite mit KeysetCursor.NEWEST_FIRST_START (kein nullbarer Cursor -> Range-Scan auf (created_at, fall_id)).
+     */
+    @Query("""
+        select e
+          from FallListEntry e
+          join OrgUnitClosure sc on sc.descendantId = e.einrichtungOrgUnitId and sc.ancestorId = :scopeOrgUnitId
+         where e.traegerId = :traegerId
+           and (:status is null or e.status = :status)
+           and (e.createdAt, e.fallId) < (:afterCreatedAt, :afterId)
+         order by e.createdAt desc, e.fallId desc
+    """)
+    List<FallListEntry> listScopedAfter(
+            @Param("traegerId") Long traegerId,
+            @Param("scopeOrgUnitId") Long scopeOrgUnitId,
+            @Param("status") FalleroeffnungStatus status,
+            @Param("afterCreatedAt") Instant afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Pageable limit
+    );
+
+    /**
+     * Keyset-Variante mit Suchbegriff. :pattern ist bereits klein geschrieben, LIKE-escaped und
+     * in '%' eingeschlossen (siehe containsPattern); die lower(...)-Ausdrücke passen zu den
+     * Trigram-Indizes aus V075. Cursor wie bei listScopedAfter.
+     */
+    @Query("""
+        select e
+          from FallListEntry e
+          join OrgUnitClosure sc on sc.descendantId = e.einrichtungOrgUnitId and sc.ancestorId = :scopeOrgUnitId
+         where e.traegerId = :traegerId
+           and (:status is null or e.status = :status)
+           and (
+                lower(e.aktenzeichen) like :pattern escape '\\'
+                or lower(e.titel)     like :pattern escape '\\'
+                or lower(e.kindName)  like :pattern escape '\\'
+           )
+           and (e.createdAt, e.fallId) < (:afterCreatedAt, :afterId)
+         order by e.createdAt desc, e.fallId desc
+    """)
+    List<FallListEntry> searchScopedAfter(
+            @Param("traegerId") Long traegerId,
+            @Param("scopeOrgUnitId") Long scopeOrgUnitId,
+            @Param("status") FalleroeffnungStatus status,
+            @Param("pattern") String pattern,
+            @Param("afterCreatedAt") Instant afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Pageable limit
+    );
+
+    @Query("""
+        select count(e)
+          from FallListEntry e
+          join OrgUnitClosure sc on sc.descendantId = e.einrichtungOrgUnitId and sc.ancestorId = :scopeOrgUnitId
+         where e.traegerId = :traegerId
+           and (:status is null or e.status = :status)
+    """)
+    long countScoped(
+            @Param("traegerId") Long traegerId,
+            @Param("scopeOrgUnitId") Long scopeOrgUnitId,
+            @Param("status") FalleroeffnungStatus status
+    );
+
+    /** Exakte Trefferzahl zu searchScopedAfter (gleiche Prädikate, ohne Cursor). */
+    @Query("""
+        select count(e)
+          from FallListEntry e
+          join OrgUnitClosure sc on sc.descendantId = e.einrichtungOrgUnitId and sc.ancestorId = :scopeOrgUnitId
+         where e.traegerId = :traegerId
+           and (:status is null or e.status = :status)
+           and (
+                lower(e.aktenzeichen) like :pattern escape '\\'
+                or lower(e.titel)     like :pattern escape '\\'
+                or lower(e.kindName)  like :pattern escape '\\'
+           )
+    """)
+    long countMatching(
+            @Param("traegerId") Long traegerId,
+            @Param("scopeOrgUnitId") Long scopeOrgUnitId,
+            @Param("status") FalleroeffnungStatus status,
+            @Param("pattern") String pattern
+    );
+
+    /** '%needle%' für searchScopedAfter / countMatching: klein geschrieben, LIKE-Sonderzeichen escaped. */
+    static String containsPattern(String q) {
+        String needle = q.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + needle + "%";
+    }
+
+    /** Zeilen zu IDs aus FalleroeffnungSearchRepository (Reihenfolge legt der Aufrufer fest). */
+    List<FallListEntry> findAllByFallIdIn(Collection<Long> fallIds);
+}
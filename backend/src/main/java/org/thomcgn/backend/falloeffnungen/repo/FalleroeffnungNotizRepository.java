@@ -1,10 +1,13 @@
 package org.thomcgn.backend.falloeffnungen.repo;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.thomcgn.backend.falloeffnungen.model.FalleroeffnungNotiz;
+import org.thomcgn.backend.falloeffnungen.model.NoteVisibility;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface FalleroeffnungNotizRepository extends JpaRepository<FalleroeffnungNotiz, Long> {
@@ -29,4 +32,37 @@ public interface FalleroeffnungNotizRepository extends JpaRepository<Falleroeffn
             @Param("traegerId") Long traegerId,
             @Param("einrichtungId") Long einrichtungId
     );
-}
\ No newline at end of file
+
+    /**
+     * Notizen-Timeline: Keyset-Paging auf (createdAt, id), neueste zuerst, Autor per fetch join.
+     * Filter optional; Aufrufer holt limit + 1 Zeilen, um zu wissen, ob es weitergeht.
+     * Erste Seite mit KeysetCursor.NEWEST_FIRST_START, damit auch Folgeseiten per Range auf V065 seeken.
+     */
+    @Query("""
+      select n from FalleroeffnungNotiz n
+      join n.falleroeffnung f
+      join fetch n.createdBy cb
+      where f.id = :falleroeffnungId
+        and f.traeger.id = :traegerId
+        and f.einrichtungOrgUnit.id = :einrichtungId
+        and (:visibility is null or n.visibility = :visibility)
+        and (:typ is null or n.typ = :typ)
+        and (
+             :anlassCode is null
+             or exists (select 1 from FalleroeffnungNotizTag t where t.notiz = n and t.anlassCode = :anlassCode)
+        )
+        and (n.createdAt, n.id) < (:afterCreatedAt, :afterId)
+      order by n.createdAt desc, n.id desc
+    """)
+    List<FalleroeffnungNotiz> findPageScoped(
+            @Param("falleroeffnungId") Long falleroeffnungId,
+            @Param("traegerId") Long traegerId,
+            @Param("einrichtungId") Long einrichtungId,
+            @Param("visibility") NoteVisibility visibility,
+            @Param("typ") String typ,
+            @Param("anlassCode") String anlassCode,
+            @Param("afterCreatedAt") Instant afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Pageable limit
+    );
+}
@@ -13,7 +13,6 @@ import org.thomcgn.backend.falloeffnungen.model.FalleroeffnungStatus;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 public interface FalleroeffnungRepository extends JpaRepository<Falleroeffnung, Long> {
 
@@ -54,7 +53,7 @@ public interface FalleroeffnungRepository extends JpaRepository<Falleroeffnung,
     );
 
     // -----------------------------------------------------
-    // Akte: Fälle eines Dossiers scoped auf Träger + erlaubte Einrichtungen
+    // Akte: Fälle eines Dossiers scoped auf Träger + OrgUnit-Subtree (Closure-Join)
     // -----------------------------------------------------
     @Query("""
         select f
@@ -65,19 +64,20 @@ public interface FalleroeffnungRepository extends JpaRepository<Falleroeffnung,
           join fetch d.kind k
           left join fetch f.teamOrgUnit team
           left join fetch f.createdBy cb
+          join OrgUnitClosure sc on sc.descendantId = e.id and sc.ancestorId = :scopeOrgUnitId
          where t.id = :traegerId
            and d.id = :dossierId
-           and e.id in :allowedEinrichtungen
          order by f.createdAt desc
     """)
     List<Falleroeffnung> listByDossierScoped(
             @Param("traegerId") Long traegerId,
             @Param("dossierId") Long dossierId,
-            @Param("allowedEinrichtungen") Set<Long> allowedEinrichtungen
+            @Param("scopeOrgUnitId") Long scopeOrgUnitId
     );
 
     // -----------------------------------------------------
     // Fall-Liste: scoped Suche (Status optional, q optional) + Paging
+    // Scope = alle Einrichtungen im Subtree von :scopeOrgUnitId (Einrichtung -> nur sie selbst)
     // -----------------------------------------------------
     @Query(
             value = """
@@ -89,8 +89,8 @@ public interface FalleroeffnungRepository extends JpaRepository<Falleroeffnung,
                   join fetch d.kind k
                   left join fetch f.teamOrgUnit team
                   left join fetch f.createdBy cb
+                  join OrgUnitClosure sc on sc.descendantId = e.id and sc.ancestorId = :scopeOrgUnitId
                  where t.id = :traegerId
-                   and e.id in :allowedEinrichtungen
                    and (:status is null or f.status = :status)
                    and (
                         :q is null
@@ -108,8 +108,8 @@ public interface FalleroeffnungRepository extends JpaRepository<Falleroeffnung,
                   join f.traeger t
                   join f.dossier d
                   join d.kind k
+                  join OrgUnitClosure sc on sc.descendantId = e.id and sc.ancestorId = :scopeOrgUnitId
                  where t.id = :traegerId
-                   and e.id in :allowedEinrichtungen
                    and (:status is null or f.status = :status)
                    and (
                         :q is null
@@ -123,7 +123,7 @@ public interface FalleroeffnungRepository extends JpaRepository<Falleroeffnung,
     )
     Page<Falleroeffnung> searchScoped(
             @Param("traegerId") Long traegerId,
-            @Param("allowedEinrichtungen") Set<Long> allowedEinrichtungen,
+            @Param("scopeOrgUnitId") Long scopeOrgUnitId,
             @Param("status") FalleroeffnungStatus status,
             @Param("q") String q,
             Pageable pageable
@@ -0,0 +1,145 @@
+package org.thomcgn.backend.falloeffnungen.repo;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Volltext-artige Fall-Suche über die Trigram-/Präfix-Indizes aus V062.
+ *
+ * Die Treffer werden pro Tabelle ermittelt (Fall-Felder bzw. Kind-Namen), damit Postgres
+ * die GIN-Indizes per BitmapOr nutzen kann; erst danach wird auf Scope/Status gefiltert.
+ * Liefert nur IDs in Relevanz-Reihenfolge, die Entities lädt der Service nach.
+ * Außerdem: Planner-Schätzung der Fall-Anzahl für den Cursor-Modus der Fall-Liste.
+ */
+@Repository
+public class FalleroeffnungSearchRepository {
+
+    // Treffer-Menge: Fall-Felder und Kind-Namen getrennt, damit jeweils ein Index greift
+    private static final String MATCHED = """
+        WITH matched AS (
+            SELECT f.id
+              FROM falloeffnungen f
+             WHERE f.traeger_id = :traegerId
+               AND (lower(f.aktenzeichen) LIKE :prefix
+                    OR lower(f.aktenzeichen) LIKE :contains
+                    OR lower(f.titel) LIKE :contains)
+            UNION
+            SELECT f.id
+              FROM kinder k
+              JOIN kind_dossiers d ON d.kind_id = k.id
+              JOIN falloeffnungen f ON f.dossier_id = d.id
+             WHERE k.traeger_id = :traegerId
+               AND f.traeger_id = :traegerId
+               AND (lower(k.vorname) LIKE :contains
+                    OR lower(k.nachname) LIKE :contains)
+        )
+        """;
+
+    private static final String SCOPED_FROM = """
+          FROM matched m
+          JOIN falloeffnungen f ON f.id = m.id
+          JOIN org_unit_closure sc ON sc.descendant_id = f.einrichtung_org_unit_id
+                                  AND sc.ancestor_id = :scopeOrgUnitId
+        """;
+
+    // oberster Plan-Knoten steht zuerst im JSON
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public FalleroeffnungSearchRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Relevanz: exaktes Aktenzeichen > Aktenzeichen-Präfix > Trigram-Ähnlichkeit (Titel / Kindname),
+     * bei Gleichstand neueste zuerst.
+     */
+    public List<Long> searchIds(Long traegerId, Long scopeOrgUnitId, String status, String q, int limit, long offset) {
+        MapSqlParameterSource params = params(traegerId, scopeOrgUnitId, status, q)
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+
+        String sql = MATCHED + """
+            SELECT f.id
+            """ + SCOPED_FROM + """
+              JOIN kind_dossiers d ON d.id = f.dossier_id
+              JOIN kinder k ON k.id = d.kind_id
+            """ + statusFilter(status) + """
+             ORDER BY
+                   CASE WHEN lower(f.aktenzeichen) = :q THEN 3
+                        WHEN lower(f.aktenzeichen) LIKE :prefix THEN 2
+                        ELSE 0 END
+                 + GREATEST(similarity(lower(coalesce(f.titel, '')), :q),
+                            similarity(lower(concat_ws(' ', k.vorname, k.nachname)), :q)) DESC,
+                   f.created_at DESC,
+                   f.id DESC
+             LIMIT :limit OFFSET :offset
+            """;
+
+        return jdbc.queryForList(sql, params, Long.class);
+    }
+
+    public long count(Long traegerId, Long scopeOrgUnitId, String status, String q) {
+        String sql = MATCHED + """
+            SELECT count(*)
+            """ + SCOPED_FROM + statusFilter(status);
+
+        Long n = jdbc.queryForObject(sql, params(traegerId, scopeOrgUnitId, status, q), Long.class);
+        return n != null ? n : 0L;
+    }
+
+    /**
+     * Günstige Schätzung der Fall-Anzahl im Scope (ohne Suchbegriff) aus dem Query-Planner.
+     * Kein Scan – EXPLAIN liefert die Zeilen-Schätzung aus den Tabellenstatistiken.
+     */
+    public long estimateScopedCount(Long traegerId, Long scopeOrgUnitId, String status) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("traegerId", traegerId)
+                .addValue("scopeOrgUnitId", scopeOrgUnitId)
+                .addValue("status", status);
+
+        String sql = """
+            EXPLAIN (FORMAT JSON)
+            SELECT e.fall_id
+              FROM fall_list_entry e
+              JOIN org_unit_closure sc ON sc.descendant_id = e.einrichtung_org_unit_id
+                                      AND sc.ancestor_id = :scopeOrgUnitId
+             WHERE e.traeger_id = :traegerId
+            """ + (status != null ? "   AND e.status = :status\n" : "");
+
+        String plan = jdbc.queryForObject(sql, params, String.class);
+        Matcher m = PLAN_ROWS.matcher(plan != null ? plan : "");
+        return m.find() ? Long.parseLong(m.group(1)) : 0L;
+    }
+
+    // ---------------------------------------------------------
+
+    private static String statusFilter(String status) {
+        // bewusst nur angehängt, wenn gesetzt (kein ":status is null" -> Postgres kann den Typ nicht ableiten)
+        return status != null ? " WHERE f.status = :status\n" : "";
+    }
+
+    private static MapSqlParameterSource params(Long traegerId, Long scopeOrgUnitId, String status, String q) {
+        String needle = q.trim().toLowerCase(Locale.ROOT);
+        String escaped = escapeLike(needle);
+
+        return new MapSqlParameterSource()
+                .addValue("traegerId", traegerId)
+                .addValue("scopeOrgUnitId", scopeOrgUnitId)
+                .addValue("status", status)
+                .addValue("q", needle)
+                .addValue("prefix", escaped + "%")
+                .addValue("contains", "%" + escaped + "%");
+    }
+
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
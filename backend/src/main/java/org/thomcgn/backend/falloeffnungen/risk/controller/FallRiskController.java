@@ -4,13 +4,13 @@ import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.thomcgn.backend.falloeffnungen.risk.dto.RiskEvaluateRequest;
+import org.thomcgn.backend.falloeffnungen.risk.dto.RiskFallQueryResponse;
+import org.thomcgn.backend.falloeffnungen.risk.dto.RiskSnapshotPageResponse;
 import org.thomcgn.backend.falloeffnungen.risk.dto.RiskSnapshotResponse;
 import org.thomcgn.backend.falloeffnungen.risk.service.FallRiskService;
 
-import java.util.List;
-
 @RestController
-@RequestMapping("/falloeffnungen/{id}/risk")
+@RequestMapping("/falloeffnungen")
 public class FallRiskController {
 
     private final FallRiskService service;
@@ -19,19 +19,38 @@ public class FallRiskController {
         this.service = service;
     }
 
-    @PostMapping("/evaluate")
+    @PostMapping("/{id}/risk/evaluate")
     public ResponseEntity<RiskSnapshotResponse> evaluate(@PathVariable Long id, @Valid @RequestBody RiskEvaluateRequest req) {
         // mode currently only RECOMPUTE_FROM_TAGS
         return ResponseEntity.ok(service.recomputeAndSnapshot(id));
     }
 
-    @GetMapping("/latest")
+    @GetMapping("/{id}/risk/latest")
     public ResponseEntity<RiskSnapshotResponse> latest(@PathVariable Long id) {
         return ResponseEntity.ok(service.latest(id));
     }
 
-    @GetMapping("/history")
-    public ResponseEntity<List<RiskSnapshotResponse>> history(@PathVariable Long id) {
-        return ResponseEntity.ok(service.history(id));
+    @GetMapping("/{id}/risk/history")
+    public ResponseEntity<RiskSnapshotPageResponse> history(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String bucket
+    ) {
+        return ResponseEntity.ok(service.history(id, cursor, size, bucket));
+    }
+
+    // Fälle nach letztem Snapshot filtern, z. B. ?hardRule=self_harm oder ?minDimensions=3&trafficLight=ROT
+    @GetMapping("/risk/query")
+    public ResponseEntity<RiskFallQueryResponse> query(
+            @RequestParam(required = false) String hardRule,
+            @RequestParam(required = false) String dimension,
+            @RequestParam(required = false) String trafficLight,
+            @RequestParam(required = false) Integer minDimensions,
+            @RequestParam(defaultValue = "false") boolean includeClosed,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(service.queryFalls(hardRule, dimension, trafficLight, minDimensions, includeClosed, cursor, size));
     }
-}
\ No newline at end of file
+}
@@ -3,8 +3,13 @@ package org.thomcgn.backend.falloeffnungen.risk.controller;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.thomcgn.backend.falloeffnungen.risk.dto.RiskRescoreJobResponse;
+import org.thomcgn.backend.falloeffnungen.risk.dto.RiskSimulationRequest;
+import org.thomcgn.backend.falloeffnungen.risk.dto.RiskSimulationResponse;
 import org.thomcgn.backend.falloeffnungen.risk.dto.TraegerRiskMatrixConfigRequest;
 import org.thomcgn.backend.falloeffnungen.risk.dto.TraegerRiskMatrixConfigResponse;
+import org.thomcgn.backend.falloeffnungen.risk.service.RiskRescoreService;
+import org.thomcgn.backend.falloeffnungen.risk.service.RiskSimulationService;
 import org.thomcgn.backend.falloeffnungen.risk.service.TraegerRiskMatrixConfigService;
 
 import java.util.List;
@@ -14,9 +19,15 @@ import java.util.List;
 public class TraegerRiskMatrixConfigController {
 
     private final TraegerRiskMatrixConfigService service;
+    private final RiskRescoreService rescoreService;
+    private final RiskSimulationService simulationService;
 
-    public TraegerRiskMatrixConfigController(TraegerRiskMatrixConfigService service) {
+    public TraegerRiskMatrixConfigController(TraegerRiskMatrixConfigService service,
+                                             RiskRescoreService rescoreService,
+                                             RiskSimulationService simulationService) {
         this.service = service;
+        this.rescoreService = rescoreService;
+        this.simulationService = simulationService;
     }
 
     @GetMapping("/active")
@@ -38,4 +49,27 @@ public class TraegerRiskMatrixConfigController {
     public ResponseEntity<TraegerRiskMatrixConfigResponse> activate(@PathVariable Long configId) {
         return ResponseEntity.ok(service.activate(configId));
     }
-}
\ No newline at end of file
+
+    // Was-wäre-wenn: Entwurf über alle offenen Fälle auswerten (schreibt nichts)
+    @PostMapping("/simulate")
+    public ResponseEntity<RiskSimulationResponse> simulate(@RequestBody RiskSimulationRequest req) {
+        return ResponseEntity.ok(simulationService.simulate(req));
+    }
+
+    // Bulk-Neubewertung nach Aktivierung: Fortschritt / Fortsetzen
+
+    @GetMapping("/rescore-jobs")
+    public ResponseEntity<List<RiskRescoreJobResponse>> rescoreJobs() {
+        return ResponseEntity.ok(rescoreService.list());
+    }
+
+    @GetMapping("/rescore-jobs/{jobId}")
+    public ResponseEntity<RiskRescoreJobResponse> rescoreJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(rescoreService.get(jobId));
+    }
+
+    @PostMapping("/rescore-jobs/{jobId}/resume")
+    public ResponseEntity<RiskRescoreJobResponse> resumeRescoreJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(rescoreService.resume(jobId));
+    }
+}
@@ -0,0 +1,23 @@
+package org.thomcgn.backend.falloeffnungen.risk.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/** Fälle nach letztem Risiko-Snapshot gefiltert; nextCursor = null -> keine weiteren Treffer. */
+public record RiskFallQueryResponse(
+        List<Item> items,
+        int size,
+        String nextCursor
+) {
+
+    public record Item(
+            Long fallId,
+            String aktenzeichen,
+            String titel,
+            String status,
+            Instant createdAt,
+            String trafficLight,   // GRUEN|GELB|ROT (letzter Snapshot)
+            String hardHitsJson,   // JSON-String
+            String dimensionsJson  // JSON-String
+    ) {}
+}
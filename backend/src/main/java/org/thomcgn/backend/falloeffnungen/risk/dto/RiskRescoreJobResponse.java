@@ -0,0 +1,16 @@
+package org.thomcgn.backend.falloeffnungen.risk.dto;
+
+import java.time.Instant;
+
+public record RiskRescoreJobResponse(
+        Long id,
+        Long configId,
+        String status,             // QUEUED|RUNNING|DONE|FAILED|SUPERSEDED
+        int totalFalls,
+        int processedFalls,
+        Long lastFallId,           // Fortsetzungspunkt
+        String lastError,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt
+) {}
@@ -0,0 +1,11 @@
+package org.thomcgn.backend.falloeffnungen.risk.dto;
+
+/**
+ * Entwurf für die Simulation: gespeicherte (inaktive) Config per configId oder direkt configJson.
+ * maxChangedFalls begrenzt die Liste der Fälle mit Ampelwechsel (Zählung bleibt vollständig).
+ */
+public record RiskSimulationRequest(
+        Long configId,
+        String configJson,
+        Integer maxChangedFalls
+) {}
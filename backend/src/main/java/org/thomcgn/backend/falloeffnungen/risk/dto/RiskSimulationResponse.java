@@ -0,0 +1,25 @@
+package org.thomcgn.backend.falloeffnungen.risk.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record RiskSimulationResponse(
+        Long configId,                                  // null bei configJson
+        String configVersion,                           // meta.version des Entwurfs
+        int totalFalls,                                 // offene Fälle des Trägers
+        Map<String, Integer> currentDistribution,       // GRUEN|GELB|ROT|KEINE (noch kein Snapshot)
+        Map<String, Integer> simulatedDistribution,     // GRUEN|GELB|ROT
+        Map<String, Map<String, Integer>> transitions,  // aktuell -> simuliert
+        List<ScoreBucket> scoreHistogram,               // finalScore unter dem Entwurf
+        int changedCount,
+        List<ChangedFall> changedFalls,                 // höchstens maxChangedFalls, nach Fall-ID
+        boolean changedTruncated,
+        long durationMs
+) {
+
+    /** to = null: letzter, nach oben offener Bucket (Histogramm gekappt). */
+    public record ScoreBucket(double from, Double to, int count) {}
+
+    public record ChangedFall(Long fallId, String aktenzeichen, String currentTrafficLight,
+                              String simulatedTrafficLight, double simulatedScore) {}
+}
@@ -0,0 +1,14 @@
+package org.thomcgn.backend.falloeffnungen.risk.dto;
+
+import java.util.List;
+
+/**
+ * Seite der Risiko-Historie (neueste zuerst); nextCursor = null -> keine älteren Snapshots.
+ * bucket = DAY|WEEK|MONTH: pro Zeitraum nur der letzte Snapshot (null = alle).
+ */
+public record RiskSnapshotPageResponse(
+        List<RiskSnapshotResponse> items,
+        int size,
+        String nextCursor,
+        String bucket
+) {}
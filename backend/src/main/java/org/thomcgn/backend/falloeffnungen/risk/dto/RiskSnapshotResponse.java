@@ -15,5 +15,7 @@ public record RiskSnapshotResponse(
         String rationaleJson,      // JSON-String (Frontend kann darstellen)
         String hardHitsJson,       // JSON-String
         String dimensionsJson,     // JSON-String
-        Instant createdAt
-) {}
\ No newline at end of file
+        Instant createdAt,
+        Instant confirmedAt,       // zuletzt durch eine Neuberechnung ohne Änderung bestätigt
+        boolean pending            // Neuberechnung angefordert, aber noch nicht gelaufen
+) {}
@@ -0,0 +1,36 @@
+package org.thomcgn.backend.falloeffnungen.risk.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Aggregat (Tabelle fall_indicator_max_severity): höchste Severity pro Fall und Indikator-ID.
+ *
+ * Wird nur per SQL über {@link org.thomcgn.backend.falloeffnungen.risk.repo.FallIndicatorMaxSeverityRepository}
+ * gepflegt; das Entity dient ausschließlich zum Lesen in der Risiko-Auswertung.
+ */
+@Entity
+@Table(name = "fall_indicator_max_severity")
+@IdClass(FallIndicatorMaxSeverityId.class)
+public class FallIndicatorMaxSeverity {
+
+    @Id
+    @Column(name = "falloeffnung_id", nullable = false)
+    private Long falloeffnungId;
+
+    @Id
+    @Column(name = "indicator_id", nullable = false, length = 80)
+    private String indicatorId;
+
+    @Column(name = "max_severity", nullable = false)
+    private int maxSeverity;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public Long getFalloeffnungId() { return falloeffnungId; }
+    public String getIndicatorId() { return indicatorId; }
+    public int getMaxSeverity() { return maxSeverity; }
+    public Instant getUpdatedAt() { return updatedAt; }
+}
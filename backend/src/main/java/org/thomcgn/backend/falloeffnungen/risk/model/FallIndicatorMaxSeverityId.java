@@ -0,0 +1,29 @@
+package org.thomcgn.backend.falloeffnungen.risk.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class FallIndicatorMaxSeverityId implements Serializable {
+
+    private Long falloeffnungId;
+    private String indicatorId;
+
+    public FallIndicatorMaxSeverityId() {}
+
+    public FallIndicatorMaxSeverityId(Long falloeffnungId, String indicatorId) {
+        this.falloeffnungId = falloeffnungId;
+        this.indicatorId = indicatorId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FallIndicatorMaxSeverityId that)) return false;
+        return Objects.equals(falloeffnungId, that.falloeffnungId) && Objects.equals(indicatorId, that.indicatorId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(falloeffnungId, indicatorId);
+    }
+}
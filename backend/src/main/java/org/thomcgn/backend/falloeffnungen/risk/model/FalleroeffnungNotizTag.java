@@ -2,6 +2,7 @@ package org.thomcgn.backend.falloeffnungen.risk.model;
 
 import jakarta.persistence.*;
 import org.thomcgn.backend.common.persistence.AuditableEntity;
+import org.thomcgn.backend.common.persistence.PooledIds;
 import org.thomcgn.backend.falloeffnungen.model.FalleroeffnungNotiz;
 
 @Entity
@@ -16,7 +17,8 @@ import org.thomcgn.backend.falloeffnungen.model.FalleroeffnungNotiz;
 public class FalleroeffnungNotizTag extends AuditableEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "falloeffnung_notiz_tags_id")
+    @SequenceGenerator(name = "falloeffnung_notiz_tags_id", sequenceName = "falloeffnung_notiz_tags_id_seq", allocationSize = PooledIds.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
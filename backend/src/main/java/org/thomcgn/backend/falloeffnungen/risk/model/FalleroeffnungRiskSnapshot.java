@@ -6,12 +6,13 @@ import org.thomcgn.backend.common.persistence.AuditableEntity;
 import org.thomcgn.backend.falloeffnungen.model.Falleroeffnung;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Entity
 @Table(
         name = "falloeffnung_risk_snapshots",
         indexes = {
-                @Index(name = "ix_fall_risk_fall", columnList = "falloeffnung_id,created_at")
+                @Index(name = "ix_fall_risk_fall", columnList = "falloeffnung_id,created_at DESC,id DESC")
         }
 )
 public class FalleroeffnungRiskSnapshot extends AuditableEntity {
@@ -46,14 +47,18 @@ public class FalleroeffnungRiskSnapshot extends AuditableEntity {
     @Column(name = "traffic_light", nullable = false, length = 10)
     private String trafficLight; // GRUEN|GELB|ROT
 
-    @Column(name = "rationale_json", length = 200000)
-    private String rationaleJson;
+    // Rationale / Hard-Hits / Dimensionen, dedupliziert über payload_hash
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "payload_id", nullable = false)
+    private RiskSnapshotPayload payload;
 
-    @Column(name = "hard_hits_json", length = 200000)
-    private String hardHitsJson;
+    // Hash über Config, Score, Ampel, harte Regeln, Dimensionen (RiskSnapshotContent)
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
 
-    @Column(name = "dimensions_json", length = 200000)
-    private String dimensionsJson;
+    // Zuletzt bestätigt durch eine Neuberechnung mit unverändertem Ergebnis
+    @Column(name = "confirmed_at", nullable = false)
+    private Instant confirmedAt;
 
     public Long getId() { return id; }
 
@@ -78,12 +83,12 @@ public class FalleroeffnungRiskSnapshot extends AuditableEntity {
     public String getTrafficLight() { return trafficLight; }
     public void setTrafficLight(String trafficLight) { this.trafficLight = trafficLight; }
 
-    public String getRationaleJson() { return rationaleJson; }
-    public void setRationaleJson(String rationaleJson) { this.rationaleJson = rationaleJson; }
+    public RiskSnapshotPayload getPayload() { return payload; }
+    public void setPayload(RiskSnapshotPayload payload) { this.payload = payload; }
 
-    public String getHardHitsJson() { return hardHitsJson; }
-    public void setHardHitsJson(String hardHitsJson) { this.hardHitsJson = hardHitsJson; }
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
 
-    public String getDimensionsJson() { return dimensionsJson; }
-    public void setDimensionsJson(String dimensionsJson) { this.dimensionsJson = dimensionsJson; }
+    public Instant getConfirmedAt() { return confirmedAt; }
+    public void setConfirmedAt(Instant confirmedAt) { this.confirmedAt = confirmedAt; }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package org.thomcgn.backend.falloeffnungen.risk.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * Inhalt eines Risiko-Snapshots (Tabelle risk_snapshot_payloads): Rationale, harte Regeln und
+ * Dimensionen als JSON, einmal pro payload_hash abgelegt und von beliebig vielen Snapshots referenziert.
+ *
+ * Unveränderlich; angelegt wird nur per SQL über
+ * {@link org.thomcgn.backend.falloeffnungen.risk.repo.RiskSnapshotPayloadRepository#insertIfAbsent}.
+ */
+@Entity
+@Table(name = "risk_snapshot_payloads")
+public class RiskSnapshotPayload {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "payload_hash", nullable = false, length = 64, unique = true)
+    private String payloadHash;
+
+    // jsonb (V071); GIN-Indizes auf hard_hits_json / dimensions_json
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "rationale_json")
+    private String rationaleJson;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "hard_hits_json")
+    private String hardHitsJson;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "dimensions_json")
+    private String dimensionsJson;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public Long getId() { return id; }
+    public String getPayloadHash() { return payloadHash; }
+    public String getRationaleJson() { return rationaleJson; }
+    public String getHardHitsJson() { return hardHitsJson; }
+    public String getDimensionsJson() { return dimensionsJson; }
+    public Instant getCreatedAt() { return createdAt; }
+}
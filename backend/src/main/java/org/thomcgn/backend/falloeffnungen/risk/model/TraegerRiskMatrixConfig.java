@@ -1,6 +1,8 @@
 package org.thomcgn.backend.falloeffnungen.risk.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.thomcgn.backend.common.persistence.AuditableEntity;
 import org.thomcgn.backend.tenants.model.Traeger;
 import org.thomcgn.backend.users.model.User;
@@ -29,7 +31,9 @@ public class TraegerRiskMatrixConfig extends AuditableEntity {
     @Column(nullable = false)
     private boolean active = false;
 
-    @Column(name = "config_json", nullable = false, length = 200000)
+    // jsonb (V071)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "config_json", nullable = false)
     private String configJson;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -0,0 +1,76 @@
+package org.thomcgn.backend.falloeffnungen.risk.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.thomcgn.backend.falloeffnungen.risk.model.FallIndicatorMaxSeverity;
+import org.thomcgn.backend.falloeffnungen.risk.model.FallIndicatorMaxSeverityId;
+
+import java.util.List;
+
+public interface FallIndicatorMaxSeverityRepository extends JpaRepository<FallIndicatorMaxSeverity, FallIndicatorMaxSeverityId> {
+
+    // MAX(severity) pro Fall + Indikator aus den Roh-Tags (gleiche Normalisierung wie beim Schreiben)
+    String RAW_AGGREGATE = """
+        SELECT n.falloeffnung_id, BTRIM(t.indicator_id) AS indicator_id,
+               MAX(LEAST(GREATEST(t.severity, 0), 3)) AS max_severity
+          FROM falloeffnung_notiz_tags t
+          JOIN falloeffnung_notizen n ON n.id = t.notiz_id
+         WHERE t.indicator_id IS NOT NULL
+           AND BTRIM(t.indicator_id) <> ''
+           AND t.severity IS NOT NULL
+        """;
+
+    // ── Pflege ────────────────────────────────────────────────────────────────
+
+    /**
+     * Inkrementell beim Schreiben eines Indikator-Tags: legt die Zeile an bzw. erhöht max_severity.
+     * Nebenläufige Notizen am selben Fall sind über ON CONFLICT abgesichert.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO fall_indicator_max_severity (falloeffnung_id, indicator_id, max_severity, updated_at)
+        VALUES (:fallId, :indicatorId, :severity, now())
+        ON CONFLICT (falloeffnung_id, indicator_id) DO UPDATE SET
+               max_severity = EXCLUDED.max_severity,
+               updated_at   = EXCLUDED.updated_at
+         WHERE fall_indicator_max_severity.max_severity < EXCLUDED.max_severity
+        """, nativeQuery = true)
+    int raise(@Param("fallId") Long fallId,
+              @Param("indicatorId") String indicatorId,
+              @Param("severity") int severity);
+
+    @Modifying
+    @Query(value = "DELETE FROM fall_indicator_max_severity WHERE falloeffnung_id = :fallId", nativeQuery = true)
+    int deleteForFall(@Param("fallId") Long fallId);
+
+    /** Reparatur: Zeilen eines Falls aus den Roh-Tags neu berechnen (nach deleteForFall). */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        INSERT INTO fall_indicator_max_severity (falloeffnung_id, indicator_id, max_severity, updated_at)
+        SELECT a.falloeffnung_id, a.indicator_id, a.max_severity, now()
+          FROM (""" + RAW_AGGREGATE + """
+                   AND n.falloeffnung_id = :fallId
+                 GROUP BY n.falloeffnung_id, BTRIM(t.indicator_id)) a
+        """, nativeQuery = true)
+    int insertFromTagsForFall(@Param("fallId") Long fallId);
+
+    // ── Lesen ─────────────────────────────────────────────────────────────────
+
+    /** Eingabe der Risiko-Auswertung; höchstens eine Zeile pro Indikator. */
+    @Query("select a from FallIndicatorMaxSeverity a where a.falloeffnungId = :fallId")
+    List<FallIndicatorMaxSeverity> findAllByFallId(@Param("fallId") Long fallId);
+
+    /** Abgleich: Fälle, deren Aggregat von den Roh-Tags abweicht (fehlende, überzählige oder falsche Zeilen). */
+    @Query(value = """
+        SELECT DISTINCT COALESCE(r.falloeffnung_id, a.falloeffnung_id)
+          FROM (""" + RAW_AGGREGATE + """
+                 GROUP BY n.falloeffnung_id, BTRIM(t.indicator_id)) r
+          FULL OUTER JOIN fall_indicator_max_severity a
+            ON a.falloeffnung_id = r.falloeffnung_id
+           AND a.indicator_id = r.indicator_id
+         WHERE r.max_severity IS DISTINCT FROM a.max_severity
+        """, nativeQuery = true)
+    List<Long> findDriftedFallIds();
+}
@@ -0,0 +1,94 @@
+package org.thomcgn.backend.falloeffnungen.risk.repo;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Fall-Filter nach dem letzten Risiko-Snapshot (harte Regel, Dimension, Ampel) im Scope des Aufrufers.
+ *
+ * Läuft über fall_list_entry.risk_payload_id: die jsonb-Bedingungen treffen die wenigen
+ * deduplizierten Payloads per GIN-Index (V071), erst danach wird auf Fälle/Scope gejoint.
+ * Keyset auf (created_at, fall_id) wie die Fall-Liste im Cursor-Modus.
+ */
+@Repository
+public class FallRiskQueryRepository {
+
+    /** Filter; null = nicht filtern. hardRuleJson / dimensionJson sind fertige jsonb-Containment-Werte. */
+    public record Filter(
+            String trafficLight,
+            String hardRuleJson,
+            String dimensionJson,
+            Integer minDimensions,
+            boolean includeClosed
+    ) {}
+
+    public record Row(
+            Long fallId,
+            String aktenzeichen,
+            String titel,
+            String status,
+            Instant createdAt,
+            String trafficLight,
+            String hardHitsJson,
+            String dimensionsJson
+    ) {}
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public FallRiskQueryRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Fälle älter als (afterCreatedAt, afterId), neueste zuerst; Aufrufer holt limit + 1 Zeilen. */
+    public List<Row> find(Long traegerId, Long scopeOrgUnitId, Filter filter,
+                          Instant afterCreatedAt, long afterId, int limit) {
+        // Bedingungen nur anhängen, wenn gesetzt (kein ":x is null" -> Postgres kann den Typ nicht ableiten)
+        StringBuilder where = new StringBuilder();
+        if (!filter.includeClosed()) where.append("   AND e.status <> 'ABGESCHLOSSEN'\n");
+        if (filter.trafficLight() != null) where.append("   AND e.risk_traffic_light = :trafficLight\n");
+        if (filter.hardRuleJson() != null) where.append("   AND p.hard_hits_json @> CAST(:hardRule AS jsonb)\n");
+        if (filter.dimensionJson() != null) where.append("   AND p.dimensions_json @> CAST(:dimension AS jsonb)\n");
+        if (filter.minDimensions() != null) where.append("   AND jsonb_array_length(p.dimensions_json) >= :minDimensions\n");
+
+        String sql = """
+            SELECT e.fall_id, e.aktenzeichen, e.titel, e.status, e.created_at, e.risk_traffic_light,
+                   p.hard_hits_json::text AS hard_hits_json, p.dimensions_json::text AS dimensions_json
+              FROM fall_list_entry e
+              JOIN risk_snapshot_payloads p ON p.id = e.risk_payload_id
+              JOIN org_unit_closure sc ON sc.descendant_id = e.einrichtung_org_unit_id
+                                      AND sc.ancestor_id = :scopeOrgUnitId
+             WHERE e.traeger_id = :traegerId
+               AND (e.created_at, e.fall_id) < (:afterCreatedAt, :afterId)
+            """ + where + """
+             ORDER BY e.created_at DESC, e.fall_id DESC
+             LIMIT :limit
+            """;
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("traegerId", traegerId)
+                .addValue("scopeOrgUnitId", scopeOrgUnitId)
+                .addValue("afterCreatedAt", Timestamp.from(afterCreatedAt))
+                .addValue("afterId", afterId)
+                .addValue("limit", limit)
+                .addValue("trafficLight", filter.trafficLight())
+                .addValue("hardRule", filter.hardRuleJson())
+                .addValue("dimension", filter.dimensionJson())
+                .addValue("minDimensions", filter.minDimensions());
+
+        return jdbc.query(sql, params, (rs, rowNum) -> new Row(
+                rs.getLong("fall_id"),
+                rs.getString("aktenzeichen"),
+                rs.getString("titel"),
+                rs.getString("status"),
+                rs.getTimestamp("created_at").toInstant(),
+                rs.getString("risk_traffic_light"),
+                rs.getString("hard_hits_json"),
+                rs.getString("dimensions_json")
+        ));
+    }
+}
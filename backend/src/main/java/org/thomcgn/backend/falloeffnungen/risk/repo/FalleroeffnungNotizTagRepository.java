@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.thomcgn.backend.falloeffnungen.risk.model.FalleroeffnungNotizTag;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface FalleroeffnungNotizTagRepository extends JpaRepository<FalleroeffnungNotizTag, Long> {
@@ -23,4 +24,12 @@ public interface FalleroeffnungNotizTagRepository extends JpaRepository<Falleroe
            order by t.createdAt asc
            """)
     List<FalleroeffnungNotizTag> findAllByNotizId(Long notizId);
+
+    @Query("""
+           select t
+           from FalleroeffnungNotizTag t
+           where t.notiz.id in :notizIds
+           order by t.createdAt asc
+           """)
+    List<FalleroeffnungNotizTag> findAllByNotizIdIn(Collection<Long> notizIds);
 }
\ No newline at end of file
@@ -1,32 +1,91 @@
 package org.thomcgn.backend.falloeffnungen.risk.repo;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.thomcgn.backend.falloeffnungen.risk.model.FalleroeffnungRiskSnapshot;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface FalleroeffnungRiskSnapshotRepository extends JpaRepository<FalleroeffnungRiskSnapshot, Long> {
 
+    /** Keyset-Startwert für die erste Seite (statt nullbarer Parameter). */
+    Instant FIRST_PAGE_CREATED_AT = Instant.parse("9999-12-31T00:00:00Z");
+
+    // ── Letzter Snapshot ──────────────────────────────────────────────────────
+
+    // LIMIT über Pageable; Index ix_fall_risk_fall (falloeffnung_id, created_at DESC, id DESC)
     @Query("""
            select s
            from FalleroeffnungRiskSnapshot s
+           join fetch s.payload
            where s.falleroeffnung.id = :fallId
-           order by s.createdAt desc
+           order by s.createdAt desc, s.id desc
            """)
-    List<FalleroeffnungRiskSnapshot> findHistory(Long fallId);
+    List<FalleroeffnungRiskSnapshot> findLatestPage(@Param("fallId") Long fallId, Pageable pageable);
+
+    default Optional<FalleroeffnungRiskSnapshot> findLatest(Long fallId) {
+        List<FalleroeffnungRiskSnapshot> list = findLatestPage(fallId, PageRequest.of(0, 1));
+        return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
+    }
 
+    // ── Historie (Keyset, neueste zuerst) ─────────────────────────────────────
+
+    /** Snapshots älter als (afterCreatedAt, afterId); erste Seite mit FIRST_PAGE_CREATED_AT / Long.MAX_VALUE. */
     @Query("""
            select s
            from FalleroeffnungRiskSnapshot s
+           join fetch s.payload
            where s.falleroeffnung.id = :fallId
-           order by s.createdAt desc
+             and (s.createdAt < :afterCreatedAt
+                  or (s.createdAt = :afterCreatedAt and s.id < :afterId))
+           order by s.createdAt desc, s.id desc
            """)
-    List<FalleroeffnungRiskSnapshot> findTop1ByFallIdOrderByCreatedAtDesc(Long fallId);
+    List<FalleroeffnungRiskSnapshot> findHistoryPage(
+            @Param("fallId") Long fallId,
+            @Param("afterCreatedAt") Instant afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Pageable limit
+    );
 
-    default Optional<FalleroeffnungRiskSnapshot> findLatest(Long fallId) {
-        List<FalleroeffnungRiskSnapshot> list = findTop1ByFallIdOrderByCreatedAtDesc(fallId);
-        return list.isEmpty() ? Optional.empty() : Optional.of(list.get(0));
-    }
-}
\ No newline at end of file
+    /**
+     * Downsampling: pro Zeitraum (date_trunc-Einheit day/week/month, Europe/Berlin) nur der letzte Snapshot.
+     * Liefert IDs in Keyset-Reihenfolge; die Entities lädt der Aufrufer per findAllByIdIn.
+     */
+    @Query(value = """
+           SELECT b.id
+             FROM (
+                   SELECT DISTINCT ON (t.bucket) t.id, t.created_at
+                     FROM (
+                           SELECT s.id, s.created_at,
+                                  date_trunc(:unit, s.created_at AT TIME ZONE 'Europe/Berlin') AS bucket
+                             FROM falloeffnung_risk_snapshots s
+                            WHERE s.falloeffnung_id = :fallId
+                          ) t
+                    ORDER BY t.bucket DESC, t.created_at DESC, t.id DESC
+                  ) b
+            WHERE (b.created_at, b.id) < (:afterCreatedAt, :afterId)
+            ORDER BY b.created_at DESC, b.id DESC
+            LIMIT :limit
+           """, nativeQuery = true)
+    List<Long> findHistoryBucketIds(
+            @Param("fallId") Long fallId,
+            @Param("unit") String unit,
+            @Param("afterCreatedAt") Instant afterCreatedAt,
+            @Param("afterId") Long afterId,
+            @Param("limit") int limit
+    );
+
+    @Query("""
+           select s
+           from FalleroeffnungRiskSnapshot s
+           join fetch s.payload
+           where s.id in :ids
+           """)
+    List<FalleroeffnungRiskSnapshot> findAllByIdIn(@Param("ids") Collection<Long> ids);
+}
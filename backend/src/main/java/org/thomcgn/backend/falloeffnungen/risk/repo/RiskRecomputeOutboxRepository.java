@@ -0,0 +1,194 @@
+package org.thomcgn.backend.falloeffnungen.risk.repo;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Outbox der Risiko-Neuberechnung (Tabelle risk_recompute_outbox, eine Zeile pro Fall).
+ *
+ * enqueue läuft in der Transaktion des Aufrufers. claimNext vergibt eine Lease (locked_until) und
+ * zählt den Versuch in einer eigenen, sofort committeten Transaktion; complete löscht die Zeile in
+ * der Transaktion der Neuberechnung, markFailed gibt die Lease in derselben Transaktion frei, die
+ * den Fehler protokolliert (bzw. parkt die Zeile nach maxAttempts). Stirbt der Worker, läuft die
+ * Lease ab und die Zeile wird erneut geclaimt – der Versuch ist dann bereits gezählt.
+ */
+@Repository
+public class RiskRecomputeOutboxRepository {
+
+    /** Geclaimte Anforderung; firstRequestedAt für die End-to-End-Latenz, requestedAt für complete. */
+    public record Claim(Long fallId, Instant firstRequestedAt, Instant requestedAt, int attempts) {}
+
+    /** Momentaufnahme für die Queue-Metriken; oldestRequestedAt null = nichts offen. */
+    public record Stats(long pending, long parked, Instant oldestRequestedAt) {}
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public RiskRecomputeOutboxRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Neuberechnung anfordern. Liegt für den Fall schon eine Zeile vor, wird sie nur verschoben
+     * (Entprellung), höchstens aber bis first_requested_at + maxDelay; Backoff nach Fehlern bleibt.
+     * Eine geparkte Zeile wird mit frischem Versuchszähler reaktiviert.
+     */
+    public void enqueue(Long fallId, long debounceMs, long maxDelayMs) {
+        String sql = """
+            INSERT INTO risk_recompute_outbox (falloeffnung_id, first_requested_at, requested_at, next_attempt_at)
+            VALUES (:fallId, now(), now(), now() + :debounceMs * interval '1 millisecond')
+            ON CONFLICT (falloeffnung_id) DO UPDATE SET
+                   requested_at       = EXCLUDED.requested_at,
+                   first_requested_at = CASE
+                       WHEN risk_recompute_outbox.status = 'PARKED' THEN EXCLUDED.first_requested_at
+                       ELSE risk_recompute_outbox.first_requested_at
+                   END,
+                   next_attempt_at    = CASE
+                       WHEN risk_recompute_outbox.status = 'PARKED' THEN EXCLUDED.next_attempt_at
+                       WHEN risk_recompute_outbox.attempts > 0 THEN risk_recompute_outbox.next_attempt_at
+                       ELSE LEAST(EXCLUDED.next_attempt_at,
+                                  risk_recompute_outbox.first_requested_at + :maxDelayMs * interval '1 millisecond')
+                   END,
+                   attempts           = CASE
+                       WHEN risk_recompute_outbox.status = 'PARKED' THEN 0
+                       ELSE risk_recompute_outbox.attempts
+                   END,
+                   status             = 'PENDING',
+                   parked_at          = NULL
+            """;
+
+        jdbc.update(sql, new MapSqlParameterSource()
+                .addValue("fallId", fallId)
+                .addValue("debounceMs", debounceMs)
+                .addValue("maxDelayMs", maxDelayMs));
+    }
+
+    /**
+     * Nächste fällige Anforderung leasen (null = nichts fällig) und den Versuch zählen.
+     * Eigene Transaktion, die vor der Neuberechnung committet.
+     */
+    public Claim claimNext(long leaseMs, int maxAttempts) {
+        String sql = """
+            UPDATE risk_recompute_outbox o
+               SET locked_until = now() + :leaseMs * interval '1 millisecond',
+                   attempts     = o.attempts + 1
+             WHERE o.falloeffnung_id = (
+                   SELECT c.falloeffnung_id
+                     FROM risk_recompute_outbox c
+                    WHERE c.status = 'PENDING'
+                      AND c.next_attempt_at <= now()
+                      AND (c.locked_until IS NULL OR c.locked_until <= now())
+                      AND c.attempts < :maxAttempts
+                    ORDER BY c.next_attempt_at
+                    LIMIT 1
+                      FOR UPDATE SKIP LOCKED)
+            RETURNING o.falloeffnung_id, o.first_requested_at, o.requested_at, o.attempts
+            """;
+
+        List<Claim> rows = jdbc.query(sql, new MapSqlParameterSource()
+                .addValue("leaseMs", leaseMs)
+                .addValue("maxAttempts", maxAttempts), (rs, i) -> new Claim(
+                rs.getLong("falloeffnung_id"),
+                rs.getTimestamp("first_requested_at").toInstant(),
+                rs.getTimestamp("requested_at").toInstant(),
+                rs.getInt("attempts")
+        ));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Nach erfolgreicher Neuberechnung (in deren Transaktion). Kam während der Lease eine neue
+     * Anforderung (requested_at neuer als beim Claim), bleibt die Zeile sofort fällig stehen.
+     */
+    public void complete(Claim claim) {
+        int deleted = jdbc.update("""
+            DELETE FROM risk_recompute_outbox
+             WHERE falloeffnung_id = :fallId
+               AND requested_at = :requestedAt
+            """, new MapSqlParameterSource()
+                .addValue("fallId", claim.fallId())
+                .addValue("requestedAt", Timestamp.from(claim.requestedAt())));
+        if (deleted > 0) return;
+
+        jdbc.update("""
+            UPDATE risk_recompute_outbox
+               SET attempts           = 0,
+                   last_error         = NULL,
+                   locked_until       = NULL,
+                   first_requested_at = requested_at,
+                   next_attempt_at    = now()
+             WHERE falloeffnung_id = :fallId
+            """, new MapSqlParameterSource("fallId", claim.fallId()));
+    }
+
+    /**
+     * Nach fehlgeschlagener Neuberechnung: Fehler protokollieren und Lease freigeben (eine Transaktion);
+     * ab maxAttempts wird die Zeile geparkt. Liefert true, wenn sie geparkt wurde.
+     */
+    public boolean markFailed(Long fallId, String error, Instant nextAttemptAt, int maxAttempts) {
+        String sql = """
+            UPDATE risk_recompute_outbox
+               SET last_error      = :error,
+                   locked_until    = NULL,
+                   next_attempt_at = :nextAttemptAt,
+                   status          = CASE WHEN attempts >= :maxAttempts THEN 'PARKED' ELSE status END,
+                   parked_at       = CASE WHEN attempts >= :maxAttempts THEN now() ELSE parked_at END
+             WHERE falloeffnung_id = :fallId
+            RETURNING status
+            """;
+
+        List<String> status = jdbc.queryForList(sql, new MapSqlParameterSource()
+                .addValue("fallId", fallId)
+                .addValue("error", error)
+                .addValue("nextAttemptAt", Timestamp.from(nextAttemptAt))
+                .addValue("maxAttempts", maxAttempts), String.class);
+        return status.contains("PARKED");
+    }
+
+    /**
+     * Zeilen parken, deren Lease abgelaufen ist, ohne dass ein Ergebnis verbucht wurde
+     * (Worker abgestürzt), und die maxAttempts erreicht haben. Liefert die Anzahl.
+     */
+    public int parkExhausted(int maxAttempts) {
+        return jdbc.update("""
+            UPDATE risk_recompute_outbox
+               SET status       = 'PARKED',
+                   parked_at    = now(),
+                   locked_until = NULL,
+                   last_error   = COALESCE(last_error, 'lease expired')
+             WHERE status = 'PENDING'
+               AND attempts >= :maxAttempts
+               AND (locked_until IS NULL OR locked_until <= now())
+            """, new MapSqlParameterSource("maxAttempts", maxAttempts));
+    }
+
+    /** Offene Neuberechnung? Geparkte Zeilen zählen nicht (kein weiterer Versuch ohne neue Anforderung). */
+    public boolean isPending(Long fallId) {
+        Boolean pending = jdbc.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM risk_recompute_outbox WHERE falloeffnung_id = :fallId AND status = 'PENDING')",
+                new MapSqlParameterSource("fallId", fallId),
+                Boolean.class
+        );
+        return Boolean.TRUE.equals(pending);
+    }
+
+    public Stats stats() {
+        return jdbc.queryForObject("""
+                SELECT count(*) FILTER (WHERE status = 'PENDING')                AS pending,
+                       count(*) FILTER (WHERE status = 'PARKED')                 AS parked,
+                       min(first_requested_at) FILTER (WHERE status = 'PENDING') AS oldest
+                  FROM risk_recompute_outbox
+                """,
+                new MapSqlParameterSource(),
+                (rs, i) -> {
+                    Timestamp oldest = rs.getTimestamp("oldest");
+                    return new Stats(rs.getLong("pending"), rs.getLong("parked"),
+                            oldest != null ? oldest.toInstant() : null);
+                }
+        );
+    }
+}
@@ -0,0 +1,308 @@
+package org.thomcgn.backend.falloeffnungen.risk.repo;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Bulk-Neubewertung (Tabelle risk_rescore_jobs) inkl. der Chunk-Queries des Runners:
+ * offene Fälle per Keyset laden, Snapshots und Listen-Ampeln per JDBC-Batch schreiben.
+ */
+@Repository
+public class RiskRescoreJobRepository {
+
+    public record Job(
+            Long id,
+            Long traegerId,
+            Long configId,
+            String status,
+            int totalFalls,
+            int processedFalls,
+            long lastFallId,
+            String lastError,
+            Instant createdAt,
+            Instant startedAt,
+            Instant finishedAt
+    ) {}
+
+    /** Ein zu schreibender Snapshot (Scores gerundet, JSON serialisiert, Hashes wie RiskSnapshotContent). */
+    public record SnapshotRow(
+            Long fallId,
+            BigDecimal rawScore,
+            BigDecimal protectiveReduction,
+            BigDecimal finalScore,
+            String trafficLight,
+            String rationaleJson,
+            String hardHitsJson,
+            String dimensionsJson,
+            String payloadHash,
+            String contentHash
+    ) {}
+
+    // Fälle mit Status ABGESCHLOSSEN werden nicht neu bewertet
+    private static final String OPEN_FALLS = """
+          FROM falloeffnungen f
+         WHERE f.traeger_id = :traegerId
+           AND f.status <> 'ABGESCHLOSSEN'
+        """;
+
+    private static final String JOB_COLUMNS = """
+        SELECT id, traeger_id, config_id, status, total_falls, processed_falls, last_fall_id, last_error,
+               created_at, started_at, finished_at
+          FROM risk_rescore_jobs
+        """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public RiskRescoreJobRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // ── Jobs ──────────────────────────────────────────────────────────────────
+
+    /** Neuer Job (QUEUED); total = Anzahl offener Fälle zum Zeitpunkt der Aktivierung. */
+    public Long insertQueued(Long traegerId, Long configId) {
+        String sql = """
+            INSERT INTO risk_rescore_jobs (traeger_id, config_id, status, total_falls)
+            SELECT :traegerId, :configId, 'QUEUED', count(*)
+            """ + OPEN_FALLS;
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbc.update(sql, new MapSqlParameterSource()
+                .addValue("traegerId", traegerId)
+                .addValue("configId", configId), keys, new String[]{"id"});
+        return Objects.requireNonNull(keys.getKey()).longValue();
+    }
+
+    /** Offene Jobs des Trägers sind durch eine neue Aktivierung überholt. */
+    public int supersedeOpen(Long traegerId) {
+        return jdbc.update("""
+            UPDATE risk_rescore_jobs
+               SET status = 'SUPERSEDED', finished_at = now()
+             WHERE traeger_id = :traegerId
+               AND status IN ('QUEUED', 'RUNNING', 'FAILED')
+            """, new MapSqlParameterSource("traegerId", traegerId));
+    }
+
+    /**
+     * Job übernehmen: QUEUED/FAILED oder RUNNING ohne Heartbeat seit staleSeconds (abgestürzte Instanz).
+     * true = dieser Aufrufer führt den Job aus.
+     */
+    public boolean tryClaim(Long jobId, long staleSeconds) {
+        return jdbc.update("""
+            UPDATE risk_rescore_jobs
+               SET status = 'RUNNING',
+                   started_at = COALESCE(started_at, now()),
+                   heartbeat_at = now(),
+                   last_error = NULL
+             WHERE id = :jobId
+               AND (status IN ('QUEUED', 'FAILED')
+                    OR (status = 'RUNNING' AND heartbeat_at < now() - :staleSeconds * interval '1 second'))
+            """, new MapSqlParameterSource()
+                .addValue("jobId", jobId)
+                .addValue("staleSeconds", staleSeconds)) == 1;
+    }
+
+    /** Fortschritt nach einem Chunk; false = Job läuft nicht mehr (z. B. SUPERSEDED). */
+    public boolean advance(Long jobId, long lastFallId, int processed) {
+        return jdbc.update("""
+            UPDATE risk_rescore_jobs
+               SET last_fall_id = :lastFallId,
+                   processed_falls = processed_falls + :processed,
+                   heartbeat_at = now()
+             WHERE id = :jobId
+               AND status = 'RUNNING'
+            """, new MapSqlParameterSource()
+                .addValue("jobId", jobId)
+                .addValue("lastFallId", lastFallId)
+                .addValue("processed", processed)) == 1;
+    }
+
+    public void finish(Long jobId, String status, String error) {
+        jdbc.update("""
+            UPDATE risk_rescore_jobs
+               SET status = :status, last_error = :error, finished_at = now()
+             WHERE id = :jobId
+               AND status = 'RUNNING'
+            """, new MapSqlParameterSource()
+                .addValue("jobId", jobId)
+                .addValue("status", status)
+                .addValue("error", error));
+    }
+
+    public Optional<Job> findById(Long jobId) {
+        return jdbc.query(JOB_COLUMNS + " WHERE id = :jobId",
+                new MapSqlParameterSource("jobId", jobId), RiskRescoreJobRepository::mapJob).stream().findFirst();
+    }
+
+    public List<Job> findRecentByTraeger(Long traegerId, int limit) {
+        return jdbc.query(JOB_COLUMNS + " WHERE traeger_id = :traegerId ORDER BY id DESC LIMIT :limit",
+                new MapSqlParameterSource()
+                        .addValue("traegerId", traegerId)
+                        .addValue("limit", limit), RiskRescoreJobRepository::mapJob);
+    }
+
+    /** Kandidaten zum (Wieder-)Aufnehmen; ob übernommen wird, entscheidet tryClaim. */
+    public List<Long> findResumableIds(long staleSeconds) {
+        return jdbc.queryForList("""
+            SELECT id
+              FROM risk_rescore_jobs
+             WHERE status = 'QUEUED'
+                OR (status = 'RUNNING' AND heartbeat_at < now() - :staleSeconds * interval '1 second')
+             ORDER BY id
+            """, new MapSqlParameterSource("staleSeconds", staleSeconds), Long.class);
+    }
+
+    // ── Chunks ────────────────────────────────────────────────────────────────
+
+    /**
+     * Nächster Chunk offener Fälle (id > afterFallId, aufsteigend) mit ihrem Indikator-Aggregat.
+     * Fälle ohne Indikatoren erscheinen mit leerer Map.
+     */
+    public LinkedHashMap<Long, Map<String, Integer>> loadChunk(Long traegerId, long afterFallId, int limit) {
+        String sql = """
+            WITH chunk AS (
+                SELECT f.id
+            """ + OPEN_FALLS + """
+                   AND f.id > :afterFallId
+                 ORDER BY f.id
+                 LIMIT :limit
+            )
+            SELECT c.id AS fall_id, a.indicator_id, a.max_severity
+              FROM chunk c
+              LEFT JOIN fall_indicator_max_severity a ON a.falloeffnung_id = c.id
+             ORDER BY c.id
+            """;
+
+        LinkedHashMap<Long, Map<String, Integer>> out = new LinkedHashMap<>();
+        jdbc.query(sql, new MapSqlParameterSource()
+                .addValue("traegerId", traegerId)
+                .addValue("afterFallId", afterFallId)
+                .addValue("limit", limit), rs -> {
+            Map<String, Integer> bySeverity = out.computeIfAbsent(rs.getLong("fall_id"), k -> new HashMap<>());
+            String indicatorId = rs.getString("indicator_id");
+            if (indicatorId != null) {
+                bySeverity.put(indicatorId, rs.getInt("max_severity"));
+            }
+        });
+        return out;
+    }
+
+    /**
+     * Snapshots eines Chunks in zwei JDBC-Batches: zuerst die Payloads (pro Hash einmal,
+     * ON CONFLICT DO NOTHING), dann pro Fall ein Confirm-or-Insert: hat der letzte Snapshot denselben
+     * content_hash, wird nur dessen confirmed_at gesetzt, sonst ein neuer Snapshot auf den Payload angelegt.
+     */
+    public void insertSnapshots(Long configId, String configVersion, List<SnapshotRow> rows) {
+        // Payloads einmal pro Hash (innerhalb des Chunks vorab dedupliziert)
+        Map<String, SnapshotRow> byPayload = new LinkedHashMap<>();
+        for (SnapshotRow r : rows) byPayload.putIfAbsent(r.payloadHash(), r);
+
+        jdbc.batchUpdate("""
+            INSERT INTO risk_snapshot_payloads (payload_hash, rationale_json, hard_hits_json, dimensions_json, created_at)
+            VALUES (:payloadHash, CAST(:rationaleJson AS jsonb), CAST(:hardHitsJson AS jsonb),
+                    CAST(:dimensionsJson AS jsonb), now())
+            ON CONFLICT (payload_hash) DO NOTHING
+            """, byPayload.values().stream().map(r -> new MapSqlParameterSource()
+                .addValue("payloadHash", r.payloadHash())
+                .addValue("rationaleJson", r.rationaleJson())
+                .addValue("hardHitsJson", r.hardHitsJson())
+                .addValue("dimensionsJson", r.dimensionsJson())
+        ).toArray(SqlParameterSource[]::new));
+
+        // wie FallRiskService.snapshot
+        String sql = """
+            WITH latest AS (
+                SELECT s.id, s.content_hash
+                  FROM falloeffnung_risk_snapshots s
+                 WHERE s.falloeffnung_id = :fallId
+                 ORDER BY s.created_at DESC, s.id DESC
+                 LIMIT 1
+            ), confirmed AS (
+                UPDATE falloeffnung_risk_snapshots s
+                   SET confirmed_at = now(), updated_at = now()
+                  FROM latest l
+                 WHERE s.id = l.id
+                   AND l.content_hash = :contentHash
+                RETURNING s.id
+            )
+            INSERT INTO falloeffnung_risk_snapshots (falloeffnung_id, config_id, config_version,
+                                                     raw_score, protective_reduction, final_score, traffic_light,
+                                                     payload_id, content_hash, confirmed_at,
+                                                     created_at, updated_at)
+            SELECT :fallId, :configId, :configVersion,
+                   :rawScore, :protectiveReduction, :finalScore, :trafficLight,
+                   p.id, :contentHash, now(),
+                   now(), now()
+              FROM risk_snapshot_payloads p
+             WHERE p.payload_hash = :payloadHash
+               AND NOT EXISTS (SELECT 1 FROM confirmed)
+            """;
+
+        SqlParameterSource[] batch = rows.stream().map(r -> new MapSqlParameterSource()
+                .addValue("fallId", r.fallId())
+                .addValue("configId", configId)
+                .addValue("configVersion", configVersion)
+                .addValue("rawScore", r.rawScore())
+                .addValue("protectiveReduction", r.protectiveReduction())
+                .addValue("finalScore", r.finalScore())
+                .addValue("trafficLight", r.trafficLight())
+                .addValue("payloadHash", r.payloadHash())
+                .addValue("contentHash", r.contentHash())
+        ).toArray(SqlParameterSource[]::new);
+
+        jdbc.batchUpdate(sql, batch);
+    }
+
+    /** Ampel + Payload-Verweis im Fall-Listen-Read-Model nachziehen (wie fallListRepo.refresh, nur Risiko). */
+    public void updateListTrafficLights(List<SnapshotRow> rows) {
+        SqlParameterSource[] batch = rows.stream().map(r -> new MapSqlParameterSource()
+                .addValue("fallId", r.fallId())
+                .addValue("trafficLight", r.trafficLight())
+        ).toArray(SqlParameterSource[]::new);
+
+        jdbc.batchUpdate("""
+            UPDATE fall_list_entry
+               SET risk_traffic_light = :trafficLight,
+                   risk_payload_id = (SELECT s.payload_id
+                                        FROM falloeffnung_risk_snapshots s
+                                       WHERE s.falloeffnung_id = :fallId
+                                       ORDER BY s.created_at DESC, s.id DESC
+                                       LIMIT 1),
+                   refreshed_at = now()
+             WHERE fall_id = :fallId
+            """, batch);
+    }
+
+    // ---------------------------------------------------------
+
+    private static Job mapJob(ResultSet rs, int rowNum) throws SQLException {
+        return new Job(
+                rs.getLong("id"),
+                rs.getLong("traeger_id"),
+                rs.getLong("config_id"),
+                rs.getString("status"),
+                rs.getInt("total_falls"),
+                rs.getInt("processed_falls"),
+                rs.getLong("last_fall_id"),
+                rs.getString("last_error"),
+                toInstant(rs.getTimestamp("created_at")),
+                toInstant(rs.getTimestamp("started_at")),
+                toInstant(rs.getTimestamp("finished_at"))
+        );
+    }
+
+    private static Instant toInstant(Timestamp ts) {
+        return ts != null ? ts.toInstant() : null;
+    }
+}
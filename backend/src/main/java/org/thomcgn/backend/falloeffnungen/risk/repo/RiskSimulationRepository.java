@@ -0,0 +1,72 @@
+package org.thomcgn.backend.falloeffnungen.risk.repo;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lese-Queries der Was-wäre-wenn-Simulation: offene Fälle eines Trägers mit aktueller Ampel
+ * und ihr Indikator-Aggregat, zeilenweise an Callbacks gestreamt (kein Entity-Mapping).
+ */
+@Repository
+public class RiskSimulationRepository {
+
+    @FunctionalInterface
+    public interface FallRow {
+        /** trafficLight = Ampel des letzten Snapshots laut Fall-Liste, null = noch kein Snapshot. */
+        void accept(long fallId, String trafficLight);
+    }
+
+    @FunctionalInterface
+    public interface SeverityRow {
+        void accept(long fallId, String indicatorId, int maxSeverity);
+    }
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public RiskSimulationRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Offene Fälle (wie Bulk-Neubewertung), id aufsteigend. */
+    public void forEachOpenFall(Long traegerId, FallRow row) {
+        jdbc.query("""
+            SELECT f.id, le.risk_traffic_light
+              FROM falloeffnungen f
+              LEFT JOIN fall_list_entry le ON le.fall_id = f.id
+             WHERE f.traeger_id = :traegerId
+               AND f.status <> 'ABGESCHLOSSEN'
+             ORDER BY f.id
+            """, new MapSqlParameterSource("traegerId", traegerId),
+                rs -> { row.accept(rs.getLong(1), rs.getString(2)); });
+    }
+
+    /** Aggregat-Zeilen der offenen Fälle, beschränkt auf die übergebenen Indikator-IDs. */
+    public void forEachSeverity(Long traegerId, Collection<String> indicatorIds, SeverityRow row) {
+        if (indicatorIds.isEmpty()) return;
+        jdbc.query("""
+            SELECT a.falloeffnung_id, a.indicator_id, a.max_severity
+              FROM fall_indicator_max_severity a
+              JOIN falloeffnungen f ON f.id = a.falloeffnung_id
+             WHERE f.traeger_id = :traegerId
+               AND f.status <> 'ABGESCHLOSSEN'
+               AND a.indicator_id IN (:indicatorIds)
+            """, new MapSqlParameterSource()
+                .addValue("traegerId", traegerId)
+                .addValue("indicatorIds", indicatorIds),
+                rs -> { row.accept(rs.getLong(1), rs.getString(2), rs.getInt(3)); });
+    }
+
+    public Map<Long, String> findAktenzeichen(Collection<Long> fallIds) {
+        Map<Long, String> out = new HashMap<>();
+        if (fallIds.isEmpty()) return out;
+        jdbc.query("SELECT id, aktenzeichen FROM falloeffnungen WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", fallIds),
+                rs -> { out.put(rs.getLong(1), rs.getString(2)); });
+        return out;
+    }
+}
@@ -0,0 +1,27 @@
+package org.thomcgn.backend.falloeffnungen.risk.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.thomcgn.backend.falloeffnungen.risk.model.RiskSnapshotPayload;
+
+import java.util.Optional;
+
+public interface RiskSnapshotPayloadRepository extends JpaRepository<RiskSnapshotPayload, Long> {
+
+    /** Legt den Payload an, falls der Hash noch unbekannt ist (nebenläufig sicher über ON CONFLICT). */
+    @Modifying
+    @Query(value = """
+        INSERT INTO risk_snapshot_payloads (payload_hash, rationale_json, hard_hits_json, dimensions_json, created_at)
+        VALUES (:payloadHash, CAST(:rationaleJson AS jsonb), CAST(:hardHitsJson AS jsonb),
+                CAST(:dimensionsJson AS jsonb), now())
+        ON CONFLICT (payload_hash) DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("payloadHash") String payloadHash,
+                       @Param("rationaleJson") String rationaleJson,
+                       @Param("hardHitsJson") String hardHitsJson,
+                       @Param("dimensionsJson") String dimensionsJson);
+
+    Optional<RiskSnapshotPayload> findByPayloadHash(String payloadHash);
+}
@@ -0,0 +1,297 @@
+package org.thomcgn.backend.falloeffnungen.risk.service;
+
+import org.thomcgn.backend.falloeffnungen.risk.service.FallRiskService.Indicator;
+import org.thomcgn.backend.falloeffnungen.risk.service.FallRiskService.RiskMatrixConfig;
+
+import java.util.*;
+
+/**
+ * Vorkompilierte Risiko-Matrix (aus dem JSON-Modell {@link RiskMatrixConfig}), unveränderlich.
+ *
+ * Indikator-IDs sind auf dichte int-Slots abgebildet; Gewicht, Schwellen und der aufgelöste
+ * Dimensions-Multiplikator liegen pro Indikator in primitiven Arrays. evaluate() liefert dieselben
+ * Scores und Texte wie die bisherige Auswertung direkt auf dem JSON-Modell.
+ */
+public final class CompiledRiskMatrix {
+
+    /** Ergebnis einer Auswertung; Scores bereits auf eine Nachkommastelle gerundet. */
+    public record Evaluation(
+            double rawScore,
+            double protectiveReduction,
+            double finalScore,
+            String trafficLight,
+            List<String> rationale,
+            List<Map<String, Object>> hardRuleHits,
+            List<String> dimensionsPresent
+    ) {}
+
+    // Ampel-Codes der zeilenweisen Auswertung (evaluateRow), Index in TRAFFIC_LIGHTS
+    public static final int GRUEN = 0;
+    public static final int GELB = 1;
+    public static final int ROT = 2;
+    public static final List<String> TRAFFIC_LIGHTS = List.of("GRUEN", "GELB", "ROT");
+
+    private static final int NO_HARD_RULE = Integer.MAX_VALUE;
+
+    private final String metaVersion;
+    private final boolean supportOnly;
+
+    private final double greenMax;
+    private final double yellowMax;
+    private final int multiDimensionMinForRed;
+    private final int volumeMinIndicatorsForYellow;
+    private final double reduction;
+
+    // ID -> Slot im Severity-Array (mehrfach konfigurierte IDs teilen sich einen Slot)
+    private final Map<String, Integer> slotById;
+
+    // pro Indikator (Reihenfolge wie in der Config)
+    private final String[] indicatorIds;
+    private final int[] slots;
+    private final double[] weights;
+    private final int[] presentAtSeverity;
+    private final int[] hardAtOrAbove;
+    private final String[] hardLabels;
+    private final int[] dimensionIndex;
+    private final double[] dimensionMultipliers;
+
+    // Dimensionen sortiert -> dimensionsPresent entsteht ohne Sortieren
+    private final String[] dimensions;
+
+    // Rationale-Texte der Score-Schwellen (hängen nur von der Config ab)
+    private final String greenText;
+    private final String yellowText;
+    private final String redText;
+
+    private CompiledRiskMatrix(RiskMatrixConfig cfg) {
+        this.metaVersion = cfg.meta != null ? cfg.meta.version : null;
+        this.supportOnly = cfg.meta != null && cfg.meta.supportOnly;
+
+        this.greenMax = cfg.greenMax;
+        this.yellowMax = cfg.yellowMax;
+        this.multiDimensionMinForRed = cfg.multiDimensionMinForRed;
+        this.volumeMinIndicatorsForYellow = cfg.volumeMinIndicatorsForYellow;
+
+        // Schutzfaktoren kommen (noch) nicht aus Tags -> Reduktion 0, gedeckelt durch die Config
+        this.reduction = Math.min(0.0, cfg.protectiveCapMaxReduction);
+
+        List<Indicator> inds = cfg.indicators != null ? cfg.indicators : List.of();
+        Map<String, Double> mul = cfg.dimensionMultiplier != null ? cfg.dimensionMultiplier : Map.of();
+        int n = inds.size();
+
+        TreeSet<String> dimSet = new TreeSet<>(Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+        for (Indicator ind : inds) dimSet.add(ind.dimension);
+        this.dimensions = dimSet.toArray(new String[0]);
+
+        this.slotById = new HashMap<>();
+        this.indicatorIds = new String[n];
+        this.slots = new int[n];
+        this.weights = new double[n];
+        this.presentAtSeverity = new int[n];
+        this.hardAtOrAbove = new int[n];
+        this.hardLabels = new String[n];
+        this.dimensionIndex = new int[n];
+        this.dimensionMultipliers = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            Indicator ind = inds.get(i);
+            indicatorIds[i] = ind.id;
+            slots[i] = slotById.computeIfAbsent(ind.id, k -> slotById.size());
+            weights[i] = ind.weight;
+            presentAtSeverity[i] = ind.presentAtSeverity;
+            hardAtOrAbove[i] = ind.hardRule != null ? ind.hardRule.atOrAbove : NO_HARD_RULE;
+            hardLabels[i] = ind.hardRule != null ? ind.hardRule.label : null;
+            dimensionIndex[i] = Arrays.binarySearch(dimensions, ind.dimension, Comparator.nullsFirst(Comparator.naturalOrder()));
+            dimensionMultipliers[i] = ind.dimension != null ? mul.getOrDefault(ind.dimension, 1.0) : 1.0;
+        }
+
+        this.greenText = "Score ≤ " + greenMax + ".";
+        this.yellowText = "Score zwischen " + (greenMax + 0.1) + " und " + yellowMax + ".";
+        this.redText = "Score > " + yellowMax + ".";
+    }
+
+    public static CompiledRiskMatrix compile(RiskMatrixConfig cfg) {
+        return new CompiledRiskMatrix(cfg);
+    }
+
+    /** meta.version der Config (null, wenn meta fehlt). */
+    public String metaVersion() {
+        return metaVersion;
+    }
+
+    /** Anzahl Severity-Slots (= verschiedene konfigurierte Indikator-IDs). */
+    public int slotCount() {
+        return slotById.size();
+    }
+
+    /** Slot einer Indikator-ID, -1 = in dieser Matrix nicht konfiguriert. */
+    public int slotOf(String indicatorId) {
+        Integer slot = slotById.get(indicatorId);
+        return slot != null ? slot : -1;
+    }
+
+    public Set<String> indicatorIds() {
+        return Collections.unmodifiableSet(slotById.keySet());
+    }
+
+    /**
+     * Nur Ampel und finalScore für eine Zeile einer spaltenweisen Severity-Matrix
+     * (severities[offset + slot], Werte 0..3), ohne Rationale und ohne Allokationen.
+     * Gleiche Regeln wie {@link #evaluate}; finalScore wird nach scores[row] geschrieben.
+     *
+     * @return GRUEN, GELB oder ROT
+     */
+    public int evaluateRow(byte[] severities, int offset, double[] scores, int row) {
+        // Dimensionen als Bitmaske (Fallback für > 64 Dimensionen)
+        long dimMask = 0L;
+        boolean[] dimPresent = dimensions.length > 64 ? new boolean[dimensions.length] : null;
+        int dimCount = 0;
+        int presentCount = 0;
+        boolean hardHit = false;
+        double raw = 0.0;
+
+        for (int i = 0; i < indicatorIds.length; i++) {
+            int s = severities[offset + slots[i]];
+
+            if (s > 0 && s >= presentAtSeverity[i]) {
+                presentCount += 1;
+                int d = dimensionIndex[i];
+                if (dimPresent == null) {
+                    if ((dimMask & (1L << d)) == 0) {
+                        dimMask |= 1L << d;
+                        dimCount += 1;
+                    }
+                } else if (!dimPresent[d]) {
+                    dimPresent[d] = true;
+                    dimCount += 1;
+                }
+            }
+
+            if (s >= hardAtOrAbove[i]) hardHit = true;
+
+            raw += weights[i] * severityFactor(s) * dimensionMultipliers[i];
+        }
+
+        double finalScore = Math.max(0.0, round1(raw - reduction));
+        scores[row] = finalScore;
+
+        if (hardHit || dimCount >= multiDimensionMinForRed) return ROT;
+
+        int traffic = finalScore <= greenMax ? GRUEN : finalScore <= yellowMax ? GELB : ROT;
+        if (traffic == GRUEN && presentCount >= volumeMinIndicatorsForYellow) traffic = GELB;
+        return traffic;
+    }
+
+    /**
+     * @param maxSeverityByIndicator MAX(severity) 0..3 pro Indikator-ID des Falls
+     *                               (aus fall_indicator_max_severity)
+     */
+    public Evaluation evaluate(Map<String, Integer> maxSeverityByIndicator) {
+        // Auf Slots verteilen; unbekannte IDs nur für die Warnung sammeln
+        int[] severity = new int[slotById.size()];
+        TreeSet<String> unknown = null;
+        for (Map.Entry<String, Integer> e : maxSeverityByIndicator.entrySet()) {
+            Integer slot = slotById.get(e.getKey());
+            if (slot == null) {
+                if (unknown == null) unknown = new TreeSet<>();
+                unknown.add(e.getKey());
+            } else {
+                severity[slot] = Math.max(0, Math.min(3, e.getValue()));
+            }
+        }
+
+        boolean[] dimPresent = new boolean[dimensions.length];
+        int dimCount = 0;
+        int presentCount = 0;
+        List<Map<String, Object>> hardHits = new ArrayList<>();
+        double raw = 0.0;
+
+        for (int i = 0; i < indicatorIds.length; i++) {
+            int s = severity[slots[i]];
+
+            if (s > 0 && s >= presentAtSeverity[i]) {
+                presentCount += 1;
+                int d = dimensionIndex[i];
+                if (!dimPresent[d]) {
+                    dimPresent[d] = true;
+                    dimCount += 1;
+                }
+            }
+
+            if (s >= hardAtOrAbove[i]) {
+                Map<String, Object> hit = new LinkedHashMap<>();
+                hit.put("indicatorId", indicatorIds[i]);
+                hit.put("label", hardLabels[i]);
+                hardHits.add(hit);
+            }
+
+            raw += weights[i] * severityFactor(s) * dimensionMultipliers[i];
+        }
+
+        double finalScore = Math.max(0.0, round1(raw - reduction));
+
+        String traffic;
+        List<String> rationale = new ArrayList<>();
+
+        if (!hardHits.isEmpty()) {
+            traffic = "ROT";
+            rationale.add("Mindestens eine harte Regel wurde ausgelöst.");
+        } else if (dimCount >= multiDimensionMinForRed) {
+            traffic = "ROT";
+            rationale.add("Mehrdimensionale Hinweise (" + dimCount + ") ≥ " + multiDimensionMinForRed + ".");
+        } else {
+            if (finalScore <= greenMax) {
+                traffic = "GRUEN";
+                rationale.add(greenText);
+            } else if (finalScore <= yellowMax) {
+                traffic = "GELB";
+                rationale.add(yellowText);
+            } else {
+                traffic = "ROT";
+                rationale.add(redText);
+            }
+
+            if (presentCount >= volumeMinIndicatorsForYellow && "GRUEN".equals(traffic)) {
+                traffic = "GELB";
+                rationale.add("Viele Hinweise (" + presentCount + ") ≥ " + volumeMinIndicatorsForYellow + " → mindestens GELB.");
+            }
+        }
+
+        if (supportOnly) {
+            rationale.add("Hinweis: Die Ampel ist Entscheidungsunterstützung (keine automatische Entscheidung).");
+        }
+
+        if (unknown != null) {
+            rationale.add("Warnung: Unbekannte Indikator-IDs in Tags (werden ignoriert): " + String.join(", ", unknown));
+        }
+
+        List<String> dimsPresent = new ArrayList<>(dimCount);
+        for (int d = 0; d < dimensions.length; d++) {
+            if (dimPresent[d]) dimsPresent.add(dimensions[d]);
+        }
+
+        return new Evaluation(
+                round1(raw),
+                round1(reduction),
+                finalScore,
+                traffic,
+                rationale,
+                hardHits,
+                Collections.unmodifiableList(dimsPresent)
+        );
+    }
+
+    // ---------------------------------------------------------
+
+    static double round1(double v) {
+        return Math.round(v * 10.0) / 10.0;
+    }
+
+    // SeverityFactor: 0 -> 0.0, 1 -> 0.5, 2 -> 1.0, 3 -> 1.5
+    private static double severityFactor(int s) {
+        if (s <= 0) return 0.0;
+        if (s == 1) return 0.5;
+        if (s == 2) return 1.0;
+        return 1.5;
+    }
+}
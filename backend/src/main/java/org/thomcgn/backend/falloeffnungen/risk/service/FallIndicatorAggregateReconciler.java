@@ -0,0 +1,49 @@
+package org.thomcgn.backend.falloeffnungen.risk.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.thomcgn.backend.falloeffnungen.risk.repo.FallIndicatorMaxSeverityRepository;
+
+import java.util.List;
+
+/**
+ * Abgleich von fall_indicator_max_severity gegen die Roh-Tags.
+ *
+ * Das Aggregat wird beim Schreiben nur erhöht; fehlt ein Upsert oder verschwinden Tags
+ * (z. B. per SQL gelöschte Notizen), weicht es ab. Betroffene Fälle werden neu aggregiert und
+ * ihre Risiko-Neuberechnung über die Outbox angefordert (gleiche Transaktion), damit Snapshot
+ * und Fall-Liste nicht auf dem alten Aggregat stehen bleiben.
+ */
+@Component
+public class FallIndicatorAggregateReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(FallIndicatorAggregateReconciler.class);
+
+    private final FallIndicatorMaxSeverityRepository aggregateRepo;
+    private final FallRiskService riskService;
+
+    public FallIndicatorAggregateReconciler(FallIndicatorMaxSeverityRepository aggregateRepo,
+                                            FallRiskService riskService) {
+        this.aggregateRepo = aggregateRepo;
+        this.riskService = riskService;
+    }
+
+    /** Nächtlich (konfigurierbar via kidoc.risk.indicator-reconcile-cron); liefert die Anzahl reparierter Fälle. */
+    @Scheduled(cron = "${kidoc.risk.indicator-reconcile-cron:0 30 3 * * *}")
+    @Transactional
+    public int reconcile() {
+        List<Long> drifted = aggregateRepo.findDriftedFallIds();
+        if (drifted.isEmpty()) return 0;
+
+        log.warn("Indikator-Aggregat weicht bei {} Fall/Fällen von den Tags ab, berechne neu: {}", drifted.size(), drifted);
+        for (Long fallId : drifted) {
+            aggregateRepo.deleteForFall(fallId);
+            aggregateRepo.insertFromTagsForFall(fallId);
+            riskService.requestRecompute(fallId);
+        }
+        return drifted.size();
+    }
+}
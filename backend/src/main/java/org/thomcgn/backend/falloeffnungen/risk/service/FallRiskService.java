@@ -1,6 +1,8 @@
 package org.thomcgn.backend.falloeffnungen.risk.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.thomcgn.backend.auth.model.Role;
@@ -9,43 +11,74 @@ import org.thomcgn.backend.common.errors.DomainException;
 import org.thomcgn.backend.common.errors.ErrorCode;
 import org.thomcgn.backend.common.security.SecurityUtils;
 import org.thomcgn.backend.falloeffnungen.model.Falleroeffnung;
+import org.thomcgn.backend.falloeffnungen.repo.FallListEntryRepository;
 import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungRepository;
+import org.thomcgn.backend.falloeffnungen.service.KeysetCursor;
+import org.thomcgn.backend.falloeffnungen.risk.dto.RiskSnapshotPageResponse;
 import org.thomcgn.backend.falloeffnungen.risk.dto.RiskSnapshotResponse;
-import org.thomcgn.backend.falloeffnungen.risk.model.FalleroeffnungNotizTag;
+import org.thomcgn.backend.falloeffnungen.risk.model.FallIndicatorMaxSeverity;
 import org.thomcgn.backend.falloeffnungen.risk.model.FalleroeffnungRiskSnapshot;
+import org.thomcgn.backend.falloeffnungen.risk.model.RiskSnapshotPayload;
 import org.thomcgn.backend.falloeffnungen.risk.model.TraegerRiskMatrixConfig;
-import org.thomcgn.backend.falloeffnungen.risk.repo.FalleroeffnungNotizTagRepository;
+import org.thomcgn.backend.falloeffnungen.risk.dto.RiskFallQueryResponse;
+import org.thomcgn.backend.falloeffnungen.risk.repo.FallIndicatorMaxSeverityRepository;
+import org.thomcgn.backend.falloeffnungen.risk.repo.FallRiskQueryRepository;
 import org.thomcgn.backend.falloeffnungen.risk.repo.FalleroeffnungRiskSnapshotRepository;
+import org.thomcgn.backend.falloeffnungen.risk.repo.RiskRecomputeOutboxRepository;
+import org.thomcgn.backend.falloeffnungen.risk.repo.RiskSnapshotPayloadRepository;
 import org.thomcgn.backend.falloeffnungen.risk.repo.TraegerRiskMatrixConfigRepository;
 
-import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class FallRiskService {
 
+    /** Obergrenze für size der Historien-Seite. */
+    static final int HISTORY_MAX_SIZE = 200;
+
     private final FalleroeffnungRepository fallRepo;
-    private final FalleroeffnungNotizTagRepository tagRepo;
+    private final FallIndicatorMaxSeverityRepository indicatorAggRepo;
     private final TraegerRiskMatrixConfigRepository configRepo;
     private final FalleroeffnungRiskSnapshotRepository snapshotRepo;
+    private final RiskSnapshotPayloadRepository payloadRepo;
+    private final FallRiskQueryRepository queryRepo;
     private final AccessControlService access;
     private final ObjectMapper objectMapper;
+    private final FallListEntryRepository fallListRepo;
+    private final RiskMatrixCache matrixCache;
+    private final RiskRecomputeOutboxRepository outbox;
+    private final long outboxDebounceMs;
+    private final long outboxMaxDelayMs;
 
     public FallRiskService(
             FalleroeffnungRepository fallRepo,
-            FalleroeffnungNotizTagRepository tagRepo,
+            FallIndicatorMaxSeverityRepository indicatorAggRepo,
             TraegerRiskMatrixConfigRepository configRepo,
             FalleroeffnungRiskSnapshotRepository snapshotRepo,
+            RiskSnapshotPayloadRepository payloadRepo,
+            FallRiskQueryRepository queryRepo,
             AccessControlService access,
-            ObjectMapper objectMapper
+            ObjectMapper objectMapper,
+            FallListEntryRepository fallListRepo,
+            RiskMatrixCache matrixCache,
+            RiskRecomputeOutboxRepository outbox,
+            @Value("${kidoc.risk.outbox.debounce-ms:2000}") long outboxDebounceMs,
+            @Value("${kidoc.risk.outbox.max-delay-ms:30000}") long outboxMaxDelayMs
     ) {
         this.fallRepo = fallRepo;
-        this.tagRepo = tagRepo;
+        this.indicatorAggRepo = indicatorAggRepo;
         this.configRepo = configRepo;
         this.snapshotRepo = snapshotRepo;
+        this.payloadRepo = payloadRepo;
+        this.queryRepo = queryRepo;
         this.access = access;
         this.objectMapper = objectMapper;
+        this.fallListRepo = fallListRepo;
+        this.matrixCache = matrixCache;
+        this.outbox = outbox;
+        this.outboxDebounceMs = outboxDebounceMs;
+        this.outboxMaxDelayMs = outboxMaxDelayMs;
     }
 
     // ---------------------------------------------------------
@@ -66,36 +99,27 @@ public class FallRiskService {
                 Role.LESEN, Role.FACHKRAFT, Role.TEAMLEITUNG, Role.EINRICHTUNG_ADMIN, Role.TRAEGER_ADMIN
         );
 
-        TraegerRiskMatrixConfig cfg = configRepo.findActiveByTraegerId(tid).orElse(null);
-
-        RiskMatrixConfig parsed = cfg != null ? parseConfig(cfg.getConfigJson()) : defaultConfig();
-
-        List<FalleroeffnungNotizTag> tags = tagRepo.findAllTagsByFallId(fallId);
-
-        Evaluation eval = evaluate(parsed, tags);
-
-        FalleroeffnungRiskSnapshot s = new FalleroeffnungRiskSnapshot();
-        s.setFalleroeffnung(f);
-        s.setConfig(cfg);
-        s.setConfigVersion(cfg != null ? cfg.getVersion() : parsed.meta.version);
-        s.setRawScore(BigDecimal.valueOf(round1(eval.rawScore)));
-        s.setProtectiveReduction(BigDecimal.valueOf(round1(eval.protectiveReduction)));
-        s.setFinalScore(BigDecimal.valueOf(round1(eval.finalScore)));
-        s.setTrafficLight(eval.trafficLight);
+        return snapshot(f);
+    }
 
-        try {
-            s.setRationaleJson(objectMapper.writeValueAsString(eval.rationale));
-            s.setHardHitsJson(objectMapper.writeValueAsString(eval.hardRuleHits));
-            s.setDimensionsJson(objectMapper.writeValueAsString(eval.dimensionsPresent));
-        } catch (Exception e) {
-            // Fallback: not fatal
-            s.setRationaleJson("[\"JSON serialization failed\"]");
-            s.setHardHitsJson("[]");
-            s.setDimensionsJson("[]");
-        }
+    /**
+     * Neuberechnung anfordern (Outbox, Transaktion des Aufrufers). Mehrere Anforderungen für
+     * denselben Fall werden zu einer Neuberechnung zusammengefasst; bis dahin liefert latest() pending = true.
+     */
+    @Transactional
+    public void requestRecompute(Long fallId) {
+        outbox.enqueue(fallId, outboxDebounceMs, outboxMaxDelayMs);
+    }
 
-        FalleroeffnungRiskSnapshot saved = snapshotRepo.save(s);
-        return toResponse(saved);
+    /**
+     * Neuberechnung aus der Outbox (RiskRecomputeWorker): ohne User-Kontext, daher ohne Scope-/Rollenprüfung.
+     * Die Anforderung wurde bereits in der (geprüften) Notiz-Transaktion geschrieben.
+     */
+    @Transactional
+    public void recomputeQueued(Long fallId) {
+        Falleroeffnung f = fallRepo.findByIdWithRefs(fallId)
+                .orElseThrow(() -> DomainException.notFound(ErrorCode.NOT_FOUND, "Falleröffnung not found"));
+        snapshot(f);
     }
 
     @Transactional(readOnly = true)
@@ -112,11 +136,26 @@ public class FallRiskService {
                 Role.LESEN, Role.FACHKRAFT, Role.TEAMLEITUNG, Role.EINRICHTUNG_ADMIN, Role.TRAEGER_ADMIN
         );
 
-        return snapshotRepo.findLatest(fallId).map(this::toResponse).orElse(null);
+        return latestForCheckedFall(fallId);
     }
 
+    /**
+     * Letzter Snapshot ohne erneutes Laden/Prüfen des Falls.
+     * Nur für Aufrufer, die den Fall bereits scoped geladen und die Rollen geprüft haben.
+     * pending = true: eine Neuberechnung steht noch in der Outbox (Snapshot ggf. veraltet).
+     */
     @Transactional(readOnly = true)
-    public List<RiskSnapshotResponse> history(Long fallId) {
+    public RiskSnapshotResponse latestForCheckedFall(Long fallId) {
+        boolean pending = outbox.isPending(fallId);
+        return snapshotRepo.findLatest(fallId).map(s -> toResponse(s, pending)).orElse(null);
+    }
+
+    /**
+     * Historie per Keyset-Cursor, neueste zuerst; optional downgesampelt (bucket DAY|WEEK|MONTH:
+     * letzter Snapshot pro Zeitraum, z. B. für Verlaufs-Diagramme).
+     */
+    @Transactional(readOnly = true)
+    public RiskSnapshotPageResponse history(Long fallId, String cursor, int size, String bucket) {
         Long tid = SecurityUtils.currentTraegerIdRequired();
         Long oid = SecurityUtils.currentOrgUnitIdRequired();
 
@@ -129,152 +168,194 @@ public class FallRiskService {
                 Role.LESEN, Role.FACHKRAFT, Role.TEAMLEITUNG, Role.EINRICHTUNG_ADMIN, Role.TRAEGER_ADMIN
         );
 
-        return snapshotRepo.findHistory(fallId).stream().map(this::toResponse).toList();
-    }
+        int limit = Math.max(1, Math.min(HISTORY_MAX_SIZE, size));
+        String unit = parseBucket(bucket);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Instant afterCreatedAt = after != null ? after.createdAt() : FalleroeffnungRiskSnapshotRepository.FIRST_PAGE_CREATED_AT;
+        Long afterId = after != null ? after.id() : Long.MAX_VALUE;
 
-    // ---------------------------------------------------------
-    // Internal: Config + Evaluation
-    // ---------------------------------------------------------
+        // limit + 1 laden: die Extra-Zeile zeigt nur an, ob es ältere Snapshots gibt
+        List<FalleroeffnungRiskSnapshot> rows;
+        if (unit == null) {
+            rows = snapshotRepo.findHistoryPage(fallId, afterCreatedAt, afterId, PageRequest.of(0, limit + 1));
+        } else {
+            List<Long> ids = snapshotRepo.findHistoryBucketIds(fallId, unit, afterCreatedAt, afterId, limit + 1);
+            Map<Long, FalleroeffnungRiskSnapshot> byId = new HashMap<>();
+            for (FalleroeffnungRiskSnapshot s : snapshotRepo.findAllByIdIn(ids)) byId.put(s.getId(), s);
+            rows = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+        }
 
-    private RiskSnapshotResponse toResponse(FalleroeffnungRiskSnapshot s) {
-        return new RiskSnapshotResponse(
-                s.getId(),
-                s.getFalleroeffnung().getId(),
-                s.getConfig() != null ? s.getConfig().getId() : null,
-                s.getConfigVersion(),
-                s.getRawScore(),
-                s.getProtectiveReduction(),
-                s.getFinalScore(),
-                s.getTrafficLight(),
-                s.getRationaleJson(),
-                s.getHardHitsJson(),
-                s.getDimensionsJson(),
-                s.getCreatedAt()
-        );
-    }
+        boolean hasMore = rows.size() > limit;
+        List<FalleroeffnungRiskSnapshot> page = hasMore ? rows.subList(0, limit) : rows;
 
-    private double round1(double v) {
-        return Math.round(v * 10.0) / 10.0;
-    }
+        String nextCursor = null;
+        if (hasMore) {
+            FalleroeffnungRiskSnapshot last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
 
-    // SeverityFactor: 0 -> 0.0, 1 -> 0.5, 2 -> 1.0, 3 -> 1.5
-    private double severityFactor(int s) {
-        if (s <= 0) return 0.0;
-        if (s == 1) return 0.5;
-        if (s == 2) return 1.0;
-        return 1.5;
+        List<RiskSnapshotResponse> items = page.stream().map(s -> toResponse(s, false)).toList();
+        return new RiskSnapshotPageResponse(items, limit, nextCursor, unit != null ? bucket.trim().toUpperCase(Locale.ROOT) : null);
     }
 
-    private Evaluation evaluate(RiskMatrixConfig cfg, List<FalleroeffnungNotizTag> tags) {
-        // Aggregate indicator severities: pro indicatorId MAX severity (robust)
-        Map<String, Integer> maxSeverityByIndicator = new HashMap<>();
-        for (FalleroeffnungNotizTag t : tags) {
-            if (t.getIndicatorId() == null || t.getIndicatorId().isBlank()) continue;
-            Integer sev = t.getSeverity();
-            if (sev == null) continue;
-            int s = Math.max(0, Math.min(3, sev));
-            maxSeverityByIndicator.merge(t.getIndicatorId().trim(), s, Math::max);
-        }
+    /**
+     * Fälle im Scope (aktive Einrichtung inkl. Unterstruktur), deren letzter Snapshot die Filter erfüllt:
+     * harte Regel (Indikator-ID), vorhandene Dimension, Ampel, Mindestanzahl Dimensionen.
+     * Standardmäßig nur offene Fälle; Keyset-Cursor wie die Fall-Liste.
+     */
+    @Transactional(readOnly = true)
+    public RiskFallQueryResponse queryFalls(String hardRule, String dimension, String trafficLight,
+                                            Integer minDimensions, boolean includeClosed, String cursor, int size) {
+        access.requireAny(Role.LESEN, Role.FACHKRAFT, Role.TEAMLEITUNG, Role.EINRICHTUNG_ADMIN, Role.TRAEGER_ADMIN);
 
-        // Dimensions present
-        Set<String> dimsPresent = new HashSet<>();
-        int presentCount = 0;
-        List<Map<String, Object>> hardHits = new ArrayList<>();
+        Long tid = SecurityUtils.currentTraegerIdRequired();
+        Long oid = SecurityUtils.currentOrgUnitIdRequired();
 
-        double raw = 0.0;
+        String light = null;
+        if (trafficLight != null && !trafficLight.isBlank()) {
+            light = trafficLight.trim().toUpperCase(Locale.ROOT);
+            if (!CompiledRiskMatrix.TRAFFIC_LIGHTS.contains(light)) {
+                throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "Unknown trafficLight: " + trafficLight);
+            }
+        }
+        if (minDimensions != null && minDimensions < 0) {
+            throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "minDimensions must be >= 0");
+        }
 
-        // Evaluate indicators from config
-        for (Indicator ind : cfg.indicators) {
-            int s = maxSeverityByIndicator.getOrDefault(ind.id, 0);
+        FallRiskQueryRepository.Filter filter = new FallRiskQueryRepository.Filter(
+                light,
+                hardRule != null && !hardRule.isBlank() ? containmentJson(List.of(Map.of("indicatorId", hardRule.trim()))) : null,
+                dimension != null && !dimension.isBlank() ? containmentJson(List.of(dimension.trim())) : null,
+                minDimensions,
+                includeClosed
+        );
 
-            boolean isPresent = s > 0 && s >= ind.presentAtSeverity;
-            if (isPresent) {
-                presentCount += 1;
-                dimsPresent.add(ind.dimension);
-            }
+        int limit = Math.max(1, Math.min(HISTORY_MAX_SIZE, size));
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<FallRiskQueryRepository.Row> rows = queryRepo.find(
+                tid, oid, filter,
+                after != null ? after.createdAt() : FalleroeffnungRiskSnapshotRepository.FIRST_PAGE_CREATED_AT,
+                after != null ? after.id() : Long.MAX_VALUE,
+                limit + 1
+        );
 
-            // hard rule
-            if (ind.hardRule != null && s >= ind.hardRule.atOrAbove) {
-                Map<String, Object> hit = new LinkedHashMap<>();
-                hit.put("indicatorId", ind.id);
-                hit.put("label", ind.hardRule.label);
-                hardHits.add(hit);
-            }
+        boolean hasMore = rows.size() > limit;
+        List<FallRiskQueryRepository.Row> page = hasMore ? rows.subList(0, limit) : rows;
 
-            double dimMul = cfg.dimensionMultiplier.getOrDefault(ind.dimension, 1.0);
-            raw += ind.weight * severityFactor(s) * dimMul;
+        String nextCursor = null;
+        if (hasMore) {
+            FallRiskQueryRepository.Row last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.createdAt(), last.fallId()).encode();
         }
 
-        // Protective factors: (optional) – aktuell nicht aus Tags, sondern nur config-seitig
-        // Wenn ihr Schutzfaktoren auch als Notiz-Tags abbilden wollt, könnt ihr analog weitere Tag-Typen einführen.
-        double reduction = 0.0;
-        // capped
-        reduction = Math.min(reduction, cfg.protectiveCapMaxReduction);
+        List<RiskFallQueryResponse.Item> items = page.stream().map(r -> new RiskFallQueryResponse.Item(
+                r.fallId(),
+                r.aktenzeichen(),
+                r.titel(),
+                r.status(),
+                r.createdAt(),
+                r.trafficLight(),
+                r.hardHitsJson(),
+                r.dimensionsJson()
+        )).toList();
+        return new RiskFallQueryResponse(items, limit, nextCursor);
+    }
 
-        double finalScore = Math.max(0.0, round1(raw - reduction));
+    // ---------------------------------------------------------
+    // Internal: Config + Evaluation
+    // ---------------------------------------------------------
 
-        // Determine traffic light
-        String traffic;
-        List<String> rationale = new ArrayList<>();
+    private RiskSnapshotResponse snapshot(Falleroeffnung f) {
+        Long fallId = f.getId();
 
-        if (!hardHits.isEmpty()) {
-            traffic = "ROT";
-            rationale.add("Mindestens eine harte Regel wurde ausgelöst.");
-        } else if (dimsPresent.size() >= cfg.multiDimensionMinForRed) {
-            traffic = "ROT";
-            rationale.add("Mehrdimensionale Hinweise (" + dimsPresent.size() + ") ≥ " + cfg.multiDimensionMinForRed + ".");
-        } else {
-            if (finalScore <= cfg.greenMax) {
-                traffic = "GRUEN";
-                rationale.add("Score ≤ " + cfg.greenMax + ".");
-            } else if (finalScore <= cfg.yellowMax) {
-                traffic = "GELB";
-                rationale.add("Score zwischen " + (cfg.greenMax + 0.1) + " und " + cfg.yellowMax + ".");
-            } else {
-                traffic = "ROT";
-                rationale.add("Score > " + cfg.yellowMax + ".");
-            }
+        // Kompilierte Matrix aus dem Cache (kein Config-Lookup / JSON-Parsing pro Aufruf)
+        RiskMatrixCache.ActiveMatrix active = matrixCache.forTraeger(f.getTraeger().getId());
+        TraegerRiskMatrixConfig cfg = active.configId() != null ? configRepo.getReferenceById(active.configId()) : null;
 
-            if (presentCount >= cfg.volumeMinIndicatorsForYellow && "GRUEN".equals(traffic)) {
-                traffic = "GELB";
-                rationale.add("Viele Hinweise (" + presentCount + ") ≥ " + cfg.volumeMinIndicatorsForYellow + " → mindestens GELB.");
-            }
+        // Aggregat statt aller Tags des Falls: höchstens eine Zeile pro Indikator
+        Map<String, Integer> maxSeverityByIndicator = new HashMap<>();
+        for (FallIndicatorMaxSeverity a : indicatorAggRepo.findAllByFallId(fallId)) {
+            maxSeverityByIndicator.put(a.getIndicatorId(), a.getMaxSeverity());
         }
 
-        if (cfg.meta != null && cfg.meta.supportOnly) {
-            rationale.add("Hinweis: Die Ampel ist Entscheidungsunterstützung (keine automatische Entscheidung).");
-        }
+        CompiledRiskMatrix.Evaluation eval = active.matrix().evaluate(maxSeverityByIndicator);
+        RiskSnapshotContent content = RiskSnapshotContent.of(eval, active.configId(), active.snapshotVersion(), objectMapper);
 
-        // Unknown indicators referenced in tags (optional warn)
-        Set<String> knownIndicatorIds = cfg.indicators.stream().map(i -> i.id).collect(Collectors.toSet());
-        List<String> unknown = maxSeverityByIndicator.keySet().stream()
-                .filter(id -> !knownIndicatorIds.contains(id))
-                .sorted()
-                .toList();
-        if (!unknown.isEmpty()) {
-            rationale.add("Warnung: Unbekannte Indikator-IDs in Tags (werden ignoriert): " + String.join(", ", unknown));
+        // Unverändertes Ergebnis: keine neue Zeile, letzten Snapshot nur bestätigen
+        FalleroeffnungRiskSnapshot latest = snapshotRepo.findLatest(fallId).orElse(null);
+        if (latest != null && content.contentHash().equals(latest.getContentHash())) {
+            latest.setConfirmedAt(Instant.now());
+            return toResponse(latest, false);
         }
 
-        Evaluation e = new Evaluation();
-        e.rawScore = round1(raw);
-        e.protectiveReduction = round1(reduction);
-        e.finalScore = finalScore;
-        e.trafficLight = traffic;
-        e.rationale = rationale;
-        e.hardRuleHits = hardHits;
-        e.dimensionsPresent = dimsPresent.stream().sorted().toList();
-        return e;
+        FalleroeffnungRiskSnapshot s = new FalleroeffnungRiskSnapshot();
+        s.setFalleroeffnung(f);
+        s.setConfig(cfg);
+        s.setConfigVersion(active.snapshotVersion());
+        s.setRawScore(content.rawScore());
+        s.setProtectiveReduction(content.protectiveReduction());
+        s.setFinalScore(content.finalScore());
+        s.setTrafficLight(content.trafficLight());
+        s.setPayload(payloadFor(content));
+        s.setContentHash(content.contentHash());
+        s.setConfirmedAt(Instant.now());
+
+        FalleroeffnungRiskSnapshot saved = snapshotRepo.save(s);
+
+        // Ampel in der Fall-Liste nachziehen
+        fallListRepo.refresh(fallId);
+
+        return toResponse(saved, false);
+    }
+
+    // Gleicher Inhalt -> gleicher Payload (einmal gespeichert)
+    private RiskSnapshotPayload payloadFor(RiskSnapshotContent content) {
+        payloadRepo.insertIfAbsent(content.payloadHash(), content.rationaleJson(), content.hardHitsJson(), content.dimensionsJson());
+        return payloadRepo.findByPayloadHash(content.payloadHash())
+                .orElseThrow(() -> new IllegalStateException("Risk snapshot payload missing: " + content.payloadHash()));
+    }
+
+    private RiskSnapshotResponse toResponse(FalleroeffnungRiskSnapshot s, boolean pending) {
+        return new RiskSnapshotResponse(
+                s.getId(),
+                s.getFalleroeffnung().getId(),
+                s.getConfig() != null ? s.getConfig().getId() : null,
+                s.getConfigVersion(),
+                s.getRawScore(),
+                s.getProtectiveReduction(),
+                s.getFinalScore(),
+                s.getTrafficLight(),
+                s.getPayload().getRationaleJson(),
+                s.getPayload().getHardHitsJson(),
+                s.getPayload().getDimensionsJson(),
+                s.getCreatedAt(),
+                s.getConfirmedAt(),
+                pending
+        );
     }
 
-    private RiskMatrixConfig parseConfig(String json) {
+    // jsonb-@>-Wert per ObjectMapper (Escaping von Nutzereingaben)
+    private String containmentJson(Object value) {
         try {
-            return objectMapper.readValue(json, RiskMatrixConfig.class);
+            return objectMapper.writeValueAsString(value);
         } catch (Exception e) {
-            throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "Invalid risk matrix config JSON: " + e.getMessage());
+            throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "Invalid filter value");
         }
     }
 
-    private RiskMatrixConfig defaultConfig() {
+    // DAY|WEEK|MONTH -> date_trunc-Einheit; leer = kein Downsampling
+    private static String parseBucket(String bucket) {
+        if (bucket == null || bucket.isBlank()) return null;
+        return switch (bucket.trim().toUpperCase(Locale.ROOT)) {
+            case "DAY" -> "day";
+            case "WEEK" -> "week";
+            case "MONTH" -> "month";
+            default -> throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "Unknown bucket: " + bucket);
+        };
+    }
+
+    // Wird einmalig in RiskMatrixCache kompiliert
+    static RiskMatrixConfig defaultConfig() {
         // Minimal default; Traeger sollte via UI/Config-API aktiv konfigurieren.
         RiskMatrixConfig c = new RiskMatrixConfig();
         c.meta = new Meta();
@@ -315,7 +396,7 @@ public class FallRiskService {
         return c;
     }
 
-    private Indicator ind(String id, String title, String dim, double weight, int presentAt, HardRule rule) {
+    private static Indicator ind(String id, String title, String dim, double weight, int presentAt, HardRule rule) {
         Indicator i = new Indicator();
         i.id = id;
         i.title = title;
@@ -326,7 +407,7 @@ public class FallRiskService {
         return i;
     }
 
-    private Indicator indHard(String id, String title, String dim, double weight, int presentAt, int atOrAbove, String label) {
+    private static Indicator indHard(String id, String title, String dim, double weight, int presentAt, int atOrAbove, String label) {
         HardRule r = new HardRule();
         r.atOrAbove = atOrAbove;
         r.label = label;
@@ -366,18 +447,4 @@ public class FallRiskService {
         public int atOrAbove;
         public String label;
     }
-
-    // ---------------------------------------------------------
-    // Evaluation model (internal)
-    // ---------------------------------------------------------
-
-    private static class Evaluation {
-        double rawScore;
-        double protectiveReduction;
-        double finalScore;
-        String trafficLight;
-        List<String> rationale;
-        List<Map<String, Object>> hardRuleHits;
-        List<String> dimensionsPresent;
-    }
-}
\ No newline at end of file
+}
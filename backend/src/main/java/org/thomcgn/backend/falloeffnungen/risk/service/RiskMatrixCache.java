@@ -0,0 +1,98 @@
+package org.thomcgn.backend.falloeffnungen.risk.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.thomcgn.backend.common.errors.DomainException;
+import org.thomcgn.backend.common.errors.ErrorCode;
+import org.thomcgn.backend.common.persistence.AfterCommit;
+import org.thomcgn.backend.falloeffnungen.risk.model.TraegerRiskMatrixConfig;
+import org.thomcgn.backend.falloeffnungen.risk.repo.TraegerRiskMatrixConfigRepository;
+import org.thomcgn.backend.falloeffnungen.risk.service.FallRiskService.RiskMatrixConfig;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aktive, vorkompilierte Risiko-Matrix pro Träger.
+ *
+ * Beim ersten Zugriff wird die aktive Config geladen, geparst und kompiliert (ohne aktive
+ * Config: Default-Matrix); danach kein DB-Zugriff und kein JSON-Parsing mehr. Invalidiert
+ * nach Commit von TraegerRiskMatrixConfigService.create/activate.
+ */
+@Component
+public class RiskMatrixCache {
+
+    /** Aktive Matrix eines Trägers; configId/configVersion null = Default-Matrix. */
+    public record ActiveMatrix(Long configId, String configVersion, CompiledRiskMatrix matrix) {
+
+        /** Version für den Snapshot: Config-Version bzw. meta.version der Default-Matrix. */
+        public String snapshotVersion() {
+            return configId != null ? configVersion : matrix.metaVersion();
+        }
+    }
+
+    private static final CompiledRiskMatrix DEFAULT_MATRIX = CompiledRiskMatrix.compile(FallRiskService.defaultConfig());
+
+    private final TraegerRiskMatrixConfigRepository configRepo;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, ActiveMatrix> byTraeger = new ConcurrentHashMap<>();
+
+    // Schutz gegen Publish einer Matrix, die vor einer Invalidierung geladen wurde
+    private final AtomicLong generation = new AtomicLong();
+
+    public RiskMatrixCache(TraegerRiskMatrixConfigRepository configRepo, ObjectMapper objectMapper) {
+        this.configRepo = configRepo;
+        this.objectMapper = objectMapper;
+    }
+
+    /** Läuft beim Laden in der Transaktion des Aufrufers. */
+    public ActiveMatrix forTraeger(Long traegerId) {
+        ActiveMatrix cached = byTraeger.get(traegerId);
+        if (cached != null) return cached;
+
+        long gen = generation.get();
+        ActiveMatrix built = load(traegerId);
+
+        byTraeger.put(traegerId, built);
+        if (generation.get() != gen) {
+            // zwischenzeitlich invalidiert -> veraltete Matrix nicht stehen lassen
+            byTraeger.remove(traegerId, built);
+        }
+        return built;
+    }
+
+    /** Entwurf kompilieren, ohne ihn zu cachen (z. B. Simulation vor der Aktivierung). */
+    public CompiledRiskMatrix compileUncached(String configJson) {
+        return CompiledRiskMatrix.compile(parseConfig(configJson));
+    }
+
+    public void invalidateTraeger(Long traegerId) {
+        generation.incrementAndGet();
+        byTraeger.remove(traegerId);
+    }
+
+    /** invalidateTraeger() nach Commit, siehe {@link AfterCommit}. */
+    public void invalidateTraegerAfterCommit(Long traegerId) {
+        AfterCommit.run(() -> invalidateTraeger(traegerId));
+    }
+
+    // ---------------------------------------------------------
+
+    private ActiveMatrix load(Long traegerId) {
+        TraegerRiskMatrixConfig cfg = configRepo.findActiveByTraegerId(traegerId).orElse(null);
+        if (cfg == null) {
+            return new ActiveMatrix(null, null, DEFAULT_MATRIX);
+        }
+        return new ActiveMatrix(cfg.getId(), cfg.getVersion(), CompiledRiskMatrix.compile(parseConfig(cfg.getConfigJson())));
+    }
+
+    private RiskMatrixConfig parseConfig(String json) {
+        try {
+            return objectMapper.readValue(json, RiskMatrixConfig.class);
+        } catch (Exception e) {
+            throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "Invalid risk matrix config JSON: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.thomcgn.backend.falloeffnungen.risk.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thomcgn.backend.falloeffnungen.risk.repo.RiskRecomputeOutboxRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Arbeitet die Outbox risk_recompute_outbox ab.
+ *
+ * Pro Poll laufen bis zu kidoc.risk.outbox.workers Threads; jeder least Fälle einzeln
+ * (Claim committet sofort, dann Neuberechnung + complete in einer Transaktion), bis nichts mehr
+ * fällig ist. Fehlschläge bleiben in der Outbox und werden mit Backoff wiederholt; nach
+ * kidoc.risk.outbox.max-attempts Versuchen wird die Zeile geparkt.
+ *
+ * Metriken: risk.outbox.pending, risk.outbox.parked, risk.outbox.lag (Sekunden seit der ältesten
+ * offenen Anforderung), risk.outbox.processed{result=ok|failed|parked}, risk.outbox.latency
+ * (Anforderung bis Snapshot).
+ */
+@Component
+public class RiskRecomputeWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskRecomputeWorker.class);
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(30);
+
+    private final RiskRecomputeOutboxRepository outbox;
+    private final FallRiskService riskService;
+    private final TransactionTemplate tx;
+
+    private final int workers;
+    private final int maxPerRun;
+    private final int maxAttempts;
+    private final long leaseMs;
+    private final ExecutorService pool;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong parked = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter parkedTotal;
+    private final Timer latency;
+
+    public RiskRecomputeWorker(RiskRecomputeOutboxRepository outbox,
+                               FallRiskService riskService,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${kidoc.risk.outbox.workers:2}") int workers,
+                               @Value("${kidoc.risk.outbox.max-per-run:200}") int maxPerRun,
+                               @Value("${kidoc.risk.outbox.max-attempts:8}") int maxAttempts,
+                               @Value("${kidoc.risk.outbox.lease-ms:300000}") long leaseMs) {
+        this.outbox = outbox;
+        this.riskService = riskService;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.workers = Math.max(1, workers);
+        this.maxPerRun = Math.max(1, maxPerRun);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.leaseMs = Math.max(1000, leaseMs);
+        this.pool = Executors.newFixedThreadPool(this.workers, Thread.ofPlatform().name("risk-outbox-", 0).factory());
+
+        this.succeeded = Counter.builder("risk.outbox.processed")
+                .tag("result", "ok")
+                .description("Risk recomputations taken from the outbox")
+                .register(meterRegistry);
+        this.failed = Counter.builder("risk.outbox.processed")
+                .tag("result", "failed")
+                .description("Risk recomputations taken from the outbox")
+                .register(meterRegistry);
+        this.parkedTotal = Counter.builder("risk.outbox.processed")
+                .tag("result", "parked")
+                .description("Risk recomputations taken from the outbox")
+                .register(meterRegistry);
+        this.latency = Timer.builder("risk.outbox.latency")
+                .description("Time from first request to written snapshot")
+                .register(meterRegistry);
+        Gauge.builder("risk.outbox.pending", pending, AtomicLong::get)
+                .description("Falls waiting for risk recomputation")
+                .register(meterRegistry);
+        Gauge.builder("risk.outbox.parked", parked, AtomicLong::get)
+                .description("Falls parked after max-attempts failed recomputations")
+                .register(meterRegistry);
+        Gauge.builder("risk.outbox.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest pending request")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${kidoc.risk.outbox.poll-ms:1000}")
+    public void poll() throws InterruptedException {
+        List<Callable<Integer>> drains = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            drains.add(this::drain);
+        }
+        pool.invokeAll(drains);
+
+        // Leases abgestürzter Worker, die schon alle Versuche verbraucht haben
+        Integer exhausted = tx.execute(status -> outbox.parkExhausted(maxAttempts));
+        if (exhausted != null && exhausted > 0) {
+            parkedTotal.increment(exhausted);
+            log.error("Risiko-Outbox: {} Fall/Fälle nach {} Versuchen ohne Ergebnis geparkt", exhausted, maxAttempts);
+        }
+
+        refreshStats();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // ---------------------------------------------------------
+
+    private int drain() {
+        int done = 0;
+        try {
+            while (done < maxPerRun && processOne()) {
+                done++;
+            }
+        } catch (Exception e) {
+            // z. B. DB nicht erreichbar beim Claim -> nächster Poll versucht es erneut
+            log.warn("Risiko-Outbox: Abarbeitung abgebrochen", e);
+        }
+        return done;
+    }
+
+    /** false = nichts fällig. */
+    boolean processOne() {
+        RiskRecomputeOutboxRepository.Claim c = tx.execute(status -> outbox.claimNext(leaseMs, maxAttempts));
+        if (c == null) return false;
+
+        try {
+            tx.executeWithoutResult(status -> {
+                riskService.recomputeQueued(c.fallId());
+                outbox.complete(c);
+            });
+        } catch (Exception e) {
+            // Lease freigeben und Fehler verbuchen in einer Transaktion; Versuch ist beim Claim gezählt
+            Instant next = Instant.now().plus(backoff(c.attempts()));
+            boolean nowParked = Boolean.TRUE.equals(tx.execute(status ->
+                    outbox.markFailed(c.fallId(), String.valueOf(e.getMessage()), next, maxAttempts)));
+            if (nowParked) {
+                parkedTotal.increment();
+                log.error("Risiko-Neuberechnung für Fall {} nach {} Versuchen geparkt", c.fallId(), c.attempts(), e);
+            } else {
+                failed.increment();
+                log.warn("Risiko-Neuberechnung für Fall {} fehlgeschlagen (Versuch {}), nächster Versuch {}",
+                        c.fallId(), c.attempts(), next, e);
+            }
+            return true;
+        }
+
+        succeeded.increment();
+        latency.record(Duration.between(c.firstRequestedAt(), Instant.now()));
+        return true;
+    }
+
+    private void refreshStats() {
+        RiskRecomputeOutboxRepository.Stats s = outbox.stats();
+        pending.set(s.pending());
+        parked.set(s.parked());
+        lagSeconds.set(s.oldestRequestedAt() != null
+                ? Math.max(0, Duration.between(s.oldestRequestedAt(), Instant.now()).toSeconds())
+                : 0);
+    }
+
+    // 10s, 20s, 40s, ... gedeckelt auf MAX_BACKOFF
+    static Duration backoff(int attempt) {
+        long seconds = 10L << Math.min(attempt - 1, 10);
+        return Duration.ofSeconds(Math.min(seconds, MAX_BACKOFF.toSeconds()));
+    }
+}
@@ -0,0 +1,154 @@
+package org.thomcgn.backend.falloeffnungen.risk.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thomcgn.backend.falloeffnungen.risk.repo.RiskRescoreJobRepository;
+import org.thomcgn.backend.falloeffnungen.risk.repo.RiskRescoreJobRepository.Job;
+import org.thomcgn.backend.falloeffnungen.risk.repo.RiskRescoreJobRepository.SnapshotRow;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Führt Bulk-Neubewertungen (risk_rescore_jobs) aus.
+ *
+ * Offene Fälle werden in id-aufsteigenden Chunks samt Indikator-Aggregat geladen, im
+ * ForkJoin-Pool parallel ausgewertet und pro Chunk in einer kurzen Transaktion geschrieben
+ * (Snapshots + Listen-Ampel + Fortschritt). Nach Abbruch setzt der Job bei last_fall_id fort.
+ * Jobs laufen nacheinander auf einem eigenen Thread.
+ */
+@Component
+public class RiskRescoreJobRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskRescoreJobRunner.class);
+
+    /** RUNNING-Jobs ohne Heartbeat seit dieser Zeit gelten als verwaist (abgestürzte Instanz). */
+    static final long STALE_SECONDS = 300;
+
+    private final RiskRescoreJobRepository jobs;
+    private final RiskMatrixCache matrixCache;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+
+    private final int chunkSize;
+    private final ExecutorService jobExecutor;
+    private final ForkJoinPool evalPool;
+
+    public RiskRescoreJobRunner(RiskRescoreJobRepository jobs,
+                                RiskMatrixCache matrixCache,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${kidoc.risk.rescore.chunk-size:500}") int chunkSize,
+                                @Value("${kidoc.risk.rescore.parallelism:0}") int parallelism) {
+        this.jobs = jobs;
+        this.matrixCache = matrixCache;
+        this.objectMapper = objectMapper;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.jobExecutor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("risk-rescore").factory());
+        // 0 = Anzahl Kerne
+        this.evalPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Job asynchron ausführen; mehrfaches Starten ist unkritisch (tryClaim entscheidet). */
+    public void start(Long jobId) {
+        jobExecutor.submit(() -> run(jobId));
+    }
+
+    /** Wartende bzw. verwaiste Jobs aufnehmen (auch nach Neustart). */
+    @Scheduled(fixedDelayString = "${kidoc.risk.rescore.resume-ms:60000}", initialDelayString = "${kidoc.risk.rescore.resume-ms:60000}")
+    public void resumePending() {
+        for (Long jobId : jobs.findResumableIds(STALE_SECONDS)) {
+            start(jobId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        evalPool.shutdownNow();
+    }
+
+    // ---------------------------------------------------------
+
+    void run(Long jobId) {
+        if (!jobs.tryClaim(jobId, STALE_SECONDS)) return;
+        Job job = jobs.findById(jobId).orElse(null);
+        if (job == null) return;
+
+        try {
+            RiskMatrixCache.ActiveMatrix active = matrixCache.forTraeger(job.traegerId());
+            if (!job.configId().equals(active.configId())) {
+                jobs.finish(jobId, "SUPERSEDED", "Config " + job.configId() + " ist nicht mehr aktiv");
+                return;
+            }
+
+            log.info("Risiko-Neubewertung {} gestartet (Träger {}, Config {}, ab Fall {})",
+                    jobId, job.traegerId(), job.configId(), job.lastFallId());
+
+            long after = job.lastFallId();
+            while (true) {
+                LinkedHashMap<Long, Map<String, Integer>> chunk = jobs.loadChunk(job.traegerId(), after, chunkSize);
+                if (chunk.isEmpty()) break;
+
+                List<SnapshotRow> rows = evaluate(active.matrix(), job.configId(), active.snapshotVersion(), chunk);
+                long last = chunk.sequencedKeySet().getLast();
+
+                Boolean stillRunning = tx.execute(status -> {
+                    // Job-Zeile zuerst: sperrt gegen parallele Aktivierung (SUPERSEDED)
+                    if (!jobs.advance(jobId, last, rows.size())) return false;
+                    jobs.insertSnapshots(job.configId(), active.snapshotVersion(), rows);
+                    jobs.updateListTrafficLights(rows);
+                    return true;
+                });
+                if (!Boolean.TRUE.equals(stillRunning)) {
+                    log.info("Risiko-Neubewertung {} abgebrochen (nicht mehr RUNNING)", jobId);
+                    return;
+                }
+                after = last;
+            }
+
+            jobs.finish(jobId, "DONE", null);
+            log.info("Risiko-Neubewertung {} abgeschlossen", jobId);
+        } catch (Exception e) {
+            log.error("Risiko-Neubewertung {} fehlgeschlagen (fortsetzbar ab letztem Chunk)", jobId, e);
+            jobs.finish(jobId, "FAILED", String.valueOf(e.getMessage()));
+        }
+    }
+
+    private List<SnapshotRow> evaluate(CompiledRiskMatrix matrix, Long configId, String configVersion,
+                                       Map<Long, Map<String, Integer>> chunk) {
+        List<Map.Entry<Long, Map<String, Integer>>> entries = new ArrayList<>(chunk.entrySet());
+        return evalPool.submit(() -> entries.parallelStream()
+                .map(e -> toRow(e.getKey(), RiskSnapshotContent.of(matrix.evaluate(e.getValue()), configId, configVersion, objectMapper)))
+                .toList()
+        ).join();
+    }
+
+    private static SnapshotRow toRow(Long fallId, RiskSnapshotContent c) {
+        return new SnapshotRow(
+                fallId,
+                c.rawScore(),
+                c.protectiveReduction(),
+                c.finalScore(),
+                c.trafficLight(),
+                c.rationaleJson(),
+                c.hardHitsJson(),
+                c.dimensionsJson(),
+                c.payloadHash(),
+                c.contentHash()
+        );
+    }
+}
@@ -0,0 +1,103 @@
+package org.thomcgn.backend.falloeffnungen.risk.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.thomcgn.backend.auth.model.Role;
+import org.thomcgn.backend.auth.service.AccessControlService;
+import org.thomcgn.backend.common.errors.DomainException;
+import org.thomcgn.backend.common.errors.ErrorCode;
+import org.thomcgn.backend.common.persistence.AfterCommit;
+import org.thomcgn.backend.common.security.SecurityUtils;
+import org.thomcgn.backend.falloeffnungen.risk.dto.RiskRescoreJobResponse;
+import org.thomcgn.backend.falloeffnungen.risk.repo.RiskRescoreJobRepository;
+import org.thomcgn.backend.falloeffnungen.risk.repo.RiskRescoreJobRepository.Job;
+
+import java.util.List;
+
+/**
+ * Bulk-Neubewertung nach Aktivierung einer Risiko-Matrix: Job anlegen, Fortschritt abfragen, fortsetzen.
+ * Ausgeführt wird der Job vom {@link RiskRescoreJobRunner}.
+ */
+@Service
+public class RiskRescoreService {
+
+    private static final int HISTORY_LIMIT = 20;
+
+    private final RiskRescoreJobRepository jobs;
+    private final RiskRescoreJobRunner runner;
+    private final AccessControlService access;
+
+    public RiskRescoreService(RiskRescoreJobRepository jobs, RiskRescoreJobRunner runner, AccessControlService access) {
+        this.jobs = jobs;
+        this.runner = runner;
+        this.access = access;
+    }
+
+    /**
+     * In der Aktivierungs-Transaktion: offene Jobs des Trägers überholen, neuen Job anlegen.
+     * Gestartet wird erst nach Commit (vorher sieht der Runner die neue Config nicht).
+     */
+    @Transactional
+    public Long scheduleForActivation(Long traegerId, Long configId) {
+        jobs.supersedeOpen(traegerId);
+        Long jobId = jobs.insertQueued(traegerId, configId);
+
+        AfterCommit.run(() -> runner.start(jobId));
+        return jobId;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RiskRescoreJobResponse> list() {
+        access.requireAny(Role.TRAEGER_ADMIN);
+
+        Long traegerId = SecurityUtils.currentTraegerIdRequired();
+        return jobs.findRecentByTraeger(traegerId, HISTORY_LIMIT).stream().map(this::toResponse).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public RiskRescoreJobResponse get(Long jobId) {
+        access.requireAny(Role.TRAEGER_ADMIN);
+        return toResponse(loadOwn(jobId));
+    }
+
+    /** Fehlgeschlagenen Job ab dem letzten geschriebenen Chunk fortsetzen. */
+    @Transactional(readOnly = true)
+    public RiskRescoreJobResponse resume(Long jobId) {
+        access.requireAny(Role.TRAEGER_ADMIN);
+
+        Job job = loadOwn(jobId);
+        if (!"FAILED".equals(job.status())) {
+            throw DomainException.conflict(ErrorCode.CONFLICT, "Only FAILED jobs can be resumed (status " + job.status() + ")");
+        }
+        runner.start(jobId);
+        return toResponse(job);
+    }
+
+    // ---------------------------------------------------------
+
+    private Job loadOwn(Long jobId) {
+        Long traegerId = SecurityUtils.currentTraegerIdRequired();
+        Job job = jobs.findById(jobId)
+                .orElseThrow(() -> DomainException.notFound(ErrorCode.NOT_FOUND, "Rescore job not found"));
+        if (!job.traegerId().equals(traegerId)) {
+            // kein Leak über fremde Job-IDs
+            throw DomainException.notFound(ErrorCode.NOT_FOUND, "Rescore job not found");
+        }
+        return job;
+    }
+
+    private RiskRescoreJobResponse toResponse(Job j) {
+        return new RiskRescoreJobResponse(
+                j.id(),
+                j.configId(),
+                j.status(),
+                j.totalFalls(),
+                j.processedFalls(),
+                j.lastFallId(),
+                j.lastError(),
+                j.createdAt(),
+                j.startedAt(),
+                j.finishedAt()
+        );
+    }
+}
@@ -0,0 +1,265 @@
+package org.thomcgn.backend.falloeffnungen.risk.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.thomcgn.backend.auth.model.Role;
+import org.thomcgn.backend.auth.service.AccessControlService;
+import org.thomcgn.backend.common.errors.DomainException;
+import org.thomcgn.backend.common.errors.ErrorCode;
+import org.thomcgn.backend.common.security.SecurityUtils;
+import org.thomcgn.backend.falloeffnungen.risk.dto.RiskSimulationRequest;
+import org.thomcgn.backend.falloeffnungen.risk.dto.RiskSimulationResponse;
+import org.thomcgn.backend.falloeffnungen.risk.dto.RiskSimulationResponse.ChangedFall;
+import org.thomcgn.backend.falloeffnungen.risk.dto.RiskSimulationResponse.ScoreBucket;
+import org.thomcgn.backend.falloeffnungen.risk.model.TraegerRiskMatrixConfig;
+import org.thomcgn.backend.falloeffnungen.risk.repo.RiskSimulationRepository;
+import org.thomcgn.backend.falloeffnungen.risk.repo.TraegerRiskMatrixConfigRepository;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Was-wäre-wenn-Simulation eines Matrix-Entwurfs über alle offenen Fälle eines Trägers.
+ *
+ * Das Indikator-Aggregat wird einmal in eine spaltenweise Byte-Matrix geladen (Zeile = Fall,
+ * Spalte = Slot des Entwurfs; nur dessen Indikator-IDs) und parallel per
+ * {@link CompiledRiskMatrix#evaluateRow} ausgewertet. Es wird nichts geschrieben.
+ */
+@Service
+public class RiskSimulationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RiskSimulationService.class);
+
+    static final int DEFAULT_MAX_CHANGED_FALLS = 200;
+    static final int MAX_CHANGED_FALLS = 5000;
+    static final double SCORE_BUCKET_WIDTH = 2.0;
+    // Obergrenze unabhängig von den Gewichten des Entwurfs; der letzte Bucket ist dann nach oben offen
+    static final int MAX_SCORE_BUCKETS = 100;
+
+    // Fall ohne Snapshot (Index 3 in den Verteilungen)
+    private static final String NO_LIGHT = "KEINE";
+    private static final byte NO_LIGHT_CODE = 3;
+
+    private final RiskSimulationRepository repo;
+    private final TraegerRiskMatrixConfigRepository configRepo;
+    private final RiskMatrixCache matrixCache;
+    private final AccessControlService access;
+
+    public RiskSimulationService(RiskSimulationRepository repo,
+                                 TraegerRiskMatrixConfigRepository configRepo,
+                                 RiskMatrixCache matrixCache,
+                                 AccessControlService access) {
+        this.repo = repo;
+        this.configRepo = configRepo;
+        this.matrixCache = matrixCache;
+        this.access = access;
+    }
+
+    @Transactional(readOnly = true)
+    public RiskSimulationResponse simulate(RiskSimulationRequest req) {
+        access.requireAny(Role.TRAEGER_ADMIN);
+
+        Long traegerId = SecurityUtils.currentTraegerIdRequired();
+        long started = System.nanoTime();
+
+        Draft draft = resolveDraft(traegerId, req);
+        CompiledRiskMatrix matrix = draft.matrix();
+        int maxChanged = req.maxChangedFalls() != null
+                ? Math.max(0, Math.min(MAX_CHANGED_FALLS, req.maxChangedFalls()))
+                : DEFAULT_MAX_CHANGED_FALLS;
+
+        Caseload c = load(traegerId, matrix);
+        int n = c.size;
+
+        // Auswertung: jede Zeile unabhängig, Ergebnisse in eigene Array-Slots
+        byte[] simulated = new byte[n];
+        double[] scores = new double[n];
+        int stride = c.stride;
+        IntStream.range(0, n).parallel()
+                .forEach(i -> simulated[i] = (byte) matrix.evaluateRow(c.severities, i * stride, scores, i));
+
+        // Verteilungen, Übergänge, Histogramm
+        int[][] transitions = new int[4][3];
+        for (int i = 0; i < n; i++) {
+            transitions[c.currentLights[i]][simulated[i]]++;
+        }
+
+        // Ampelwechsel (nur Fälle mit bisherigem Snapshot)
+        int changedCount = 0;
+        List<Integer> changedRows = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (c.currentLights[i] == NO_LIGHT_CODE || c.currentLights[i] == simulated[i]) continue;
+            changedCount++;
+            if (changedRows.size() < maxChanged) changedRows.add(i);
+        }
+
+        List<Long> changedIds = changedRows.stream().map(i -> c.fallIds[i]).toList();
+        Map<Long, String> aktenzeichen = repo.findAktenzeichen(changedIds);
+        List<ChangedFall> changed = changedRows.stream().map(i -> new ChangedFall(
+                c.fallIds[i],
+                aktenzeichen.get(c.fallIds[i]),
+                lightName(c.currentLights[i]),
+                lightName(simulated[i]),
+                scores[i]
+        )).toList();
+
+        long durationMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Risiko-Simulation Träger {} (Config {}): {} Fälle, {} Ampelwechsel in {} ms",
+                traegerId, draft.configId() != null ? draft.configId() : "Entwurf", n, changedCount, durationMs);
+
+        return new RiskSimulationResponse(
+                draft.configId(),
+                draft.version(),
+                n,
+                currentDistribution(transitions),
+                simulatedDistribution(transitions),
+                transitionMap(transitions),
+                scoreHistogram(scores, n),
+                changedCount,
+                changed,
+                changedCount > changed.size(),
+                durationMs
+        );
+    }
+
+    // ---------------------------------------------------------
+    // Internal: Entwurf + Laden
+    // ---------------------------------------------------------
+
+    private record Draft(Long configId, String version, CompiledRiskMatrix matrix) {}
+
+    private Draft resolveDraft(Long traegerId, RiskSimulationRequest req) {
+        if (req.configId() != null) {
+            TraegerRiskMatrixConfig cfg = configRepo.findById(req.configId())
+                    .orElseThrow(() -> DomainException.notFound(ErrorCode.NOT_FOUND, "Config not found"));
+            if (!cfg.getTraeger().getId().equals(traegerId)) {
+                throw DomainException.forbidden(ErrorCode.ACCESS_DENIED, "Cannot simulate config for other traeger");
+            }
+            return new Draft(cfg.getId(), cfg.getVersion(), matrixCache.compileUncached(cfg.getConfigJson()));
+        }
+
+        if (req.configJson() == null || req.configJson().isBlank()) {
+            throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "configId or configJson is required");
+        }
+        CompiledRiskMatrix matrix = matrixCache.compileUncached(req.configJson().trim());
+        return new Draft(null, matrix.metaVersion(), matrix);
+    }
+
+    /** Spaltenweise Severity-Matrix: Zeile = Fall (id aufsteigend), Spalte = Slot der Entwurfs-Matrix. */
+    private static final class Caseload {
+        final int stride;
+        long[] fallIds = new long[1024];
+        byte[] currentLights = new byte[1024];
+        byte[] severities;
+        int size;
+
+        Caseload(int stride) {
+            this.stride = stride;
+        }
+
+        void addFall(long fallId, String trafficLight) {
+            if (size == fallIds.length) {
+                fallIds = Arrays.copyOf(fallIds, size * 2);
+                currentLights = Arrays.copyOf(currentLights, size * 2);
+            }
+            fallIds[size] = fallId;
+            currentLights[size] = lightCode(trafficLight);
+            size++;
+        }
+
+        void allocateSeverities() {
+            severities = new byte[Math.multiplyExact(size, stride)];
+        }
+
+        void setSeverity(long fallId, int slot, int severity) {
+            int row = Arrays.binarySearch(fallIds, 0, size, fallId);
+            if (row < 0) return; // zwischen den beiden Queries angelegt
+            severities[row * stride + slot] = (byte) Math.max(0, Math.min(3, severity));
+        }
+    }
+
+    private Caseload load(Long traegerId, CompiledRiskMatrix matrix) {
+        Caseload c = new Caseload(matrix.slotCount());
+        repo.forEachOpenFall(traegerId, c::addFall);
+        c.allocateSeverities();
+        repo.forEachSeverity(traegerId, matrix.indicatorIds(), (fallId, indicatorId, maxSeverity) -> {
+            int slot = matrix.slotOf(indicatorId);
+            if (slot >= 0) c.setSeverity(fallId, slot, maxSeverity);
+        });
+        return c;
+    }
+
+    // ---------------------------------------------------------
+    // Internal: Ergebnis
+    // ---------------------------------------------------------
+
+    private static byte lightCode(String trafficLight) {
+        if (trafficLight == null) return NO_LIGHT_CODE;
+        int code = CompiledRiskMatrix.TRAFFIC_LIGHTS.indexOf(trafficLight);
+        return code >= 0 ? (byte) code : NO_LIGHT_CODE;
+    }
+
+    private static String lightName(byte code) {
+        return code == NO_LIGHT_CODE ? NO_LIGHT : CompiledRiskMatrix.TRAFFIC_LIGHTS.get(code);
+    }
+
+    private static Map<String, Integer> currentDistribution(int[][] transitions) {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        for (byte from = 0; from <= NO_LIGHT_CODE; from++) {
+            out.put(lightName(from), Arrays.stream(transitions[from]).sum());
+        }
+        return out;
+    }
+
+    private static Map<String, Integer> simulatedDistribution(int[][] transitions) {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        for (int to = 0; to < 3; to++) {
+            int sum = 0;
+            for (int[] row : transitions) sum += row[to];
+            out.put(CompiledRiskMatrix.TRAFFIC_LIGHTS.get(to), sum);
+        }
+        return out;
+    }
+
+    private static Map<String, Map<String, Integer>> transitionMap(int[][] transitions) {
+        Map<String, Map<String, Integer>> out = new LinkedHashMap<>();
+        for (byte from = 0; from <= NO_LIGHT_CODE; from++) {
+            Map<String, Integer> row = new LinkedHashMap<>();
+            for (int to = 0; to < 3; to++) {
+                row.put(CompiledRiskMatrix.TRAFFIC_LIGHTS.get(to), transitions[from][to]);
+            }
+            out.put(lightName(from), row);
+        }
+        return out;
+    }
+
+    /**
+     * Buckets der Breite SCORE_BUCKET_WIDTH bis zum höchsten Score, höchstens MAX_SCORE_BUCKETS.
+     * Bei Kappung sammelt der letzte Bucket alle höheren Scores (to = null). Rechnung in double,
+     * damit extreme Gewichte weder ein riesiges Array noch einen int-Überlauf erzeugen.
+     */
+    static List<ScoreBucket> scoreHistogram(double[] scores, int n) {
+        double maxScore = 0.0;
+        for (int i = 0; i < n; i++) {
+            if (scores[i] > maxScore) maxScore = scores[i];
+        }
+        double needed = Math.floor(maxScore / SCORE_BUCKET_WIDTH) + 1;
+        int buckets = needed >= MAX_SCORE_BUCKETS ? MAX_SCORE_BUCKETS : (int) needed;
+        boolean capped = needed > MAX_SCORE_BUCKETS;
+
+        int[] histogram = new int[buckets];
+        for (int i = 0; i < n; i++) {
+            double b = scores[i] > 0 ? Math.floor(scores[i] / SCORE_BUCKET_WIDTH) : 0;
+            histogram[b >= buckets - 1 ? buckets - 1 : (int) b]++;
+        }
+
+        List<ScoreBucket> out = new ArrayList<>(buckets);
+        for (int b = 0; b < buckets; b++) {
+            boolean open = capped && b == buckets - 1;
+            out.add(new ScoreBucket(b * SCORE_BUCKET_WIDTH, open ? null : (b + 1) * SCORE_BUCKET_WIDTH, histogram[b]));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,86 @@
+package org.thomcgn.backend.falloeffnungen.risk.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Serialisiertes Ergebnis einer Auswertung samt Hashes für die änderungsbasierte Ablage.
+ *
+ * contentHash: Config + finalScore + Ampel + harte Regeln + Dimensionen. Gleicher Hash wie der
+ * letzte Snapshot -> keine neue Zeile, nur confirmed_at.
+ * payloadHash: Rationale + Hard-Hits + Dimensionen (JSON) -> Schlüssel in risk_snapshot_payloads.
+ *
+ * Die Formeln sind in V070__risk_snapshot_change_only.sql für den Bestand nachgebildet.
+ */
+record RiskSnapshotContent(
+        BigDecimal rawScore,
+        BigDecimal protectiveReduction,
+        BigDecimal finalScore,
+        String trafficLight,
+        String rationaleJson,
+        String hardHitsJson,
+        String dimensionsJson,
+        String payloadHash,
+        String contentHash
+) {
+
+    private static final char SEP = (char) 31;
+
+    static RiskSnapshotContent of(CompiledRiskMatrix.Evaluation eval, Long configId, String configVersion,
+                                  ObjectMapper objectMapper) {
+        String rationaleJson;
+        String hardHitsJson;
+        String dimensionsJson;
+        try {
+            rationaleJson = objectMapper.writeValueAsString(eval.rationale());
+            hardHitsJson = objectMapper.writeValueAsString(eval.hardRuleHits());
+            dimensionsJson = objectMapper.writeValueAsString(eval.dimensionsPresent());
+        } catch (Exception e) {
+            // Fallback: not fatal
+            rationaleJson = "[\"JSON serialization failed\"]";
+            hardHitsJson = "[]";
+            dimensionsJson = "[]";
+        }
+
+        // Skala 1 wie final_score NUMERIC(8,1) -> identischer Text in Java und SQL
+        BigDecimal finalScore = score(eval.finalScore());
+
+        String payloadHash = sha256Hex(rationaleJson + SEP + hardHitsJson + SEP + dimensionsJson);
+        String contentHash = sha256Hex((configId != null ? configId.toString() : "default") + ":" + configVersion + SEP
+                + finalScore.toPlainString() + SEP
+                + eval.trafficLight() + SEP
+                + hardHitsJson + SEP
+                + dimensionsJson);
+
+        return new RiskSnapshotContent(
+                score(eval.rawScore()),
+                score(eval.protectiveReduction()),
+                finalScore,
+                eval.trafficLight(),
+                rationaleJson,
+                hardHitsJson,
+                dimensionsJson,
+                payloadHash,
+                contentHash
+        );
+    }
+
+    private static BigDecimal score(double v) {
+        return BigDecimal.valueOf(CompiledRiskMatrix.round1(v)).setScale(1, RoundingMode.HALF_UP);
+    }
+
+    private static String sha256Hex(String s) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -25,17 +25,23 @@ public class TraegerRiskMatrixConfigService {
     private final TraegerRepository traegerRepo;
     private final UserRepository userRepo;
     private final AccessControlService access;
+    private final RiskMatrixCache matrixCache;
+    private final RiskRescoreService rescoreService;
 
     public TraegerRiskMatrixConfigService(
             TraegerRiskMatrixConfigRepository repo,
             TraegerRepository traegerRepo,
             UserRepository userRepo,
-            AccessControlService access
+            AccessControlService access,
+            RiskMatrixCache matrixCache,
+            RiskRescoreService rescoreService
     ) {
         this.repo = repo;
         this.traegerRepo = traegerRepo;
         this.userRepo = userRepo;
         this.access = access;
+        this.matrixCache = matrixCache;
+        this.rescoreService = rescoreService;
     }
 
     @Transactional(readOnly = true)
@@ -77,6 +83,9 @@ public class TraegerRiskMatrixConfigService {
             throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "configJson is required");
         }
 
+        // jsonb-Spalte + spätere Aktivierung: ungültige Configs gar nicht erst speichern
+        matrixCache.compileUncached(req.configJson().trim());
+
         TraegerRiskMatrixConfig c = new TraegerRiskMatrixConfig();
         c.setTraeger(traeger);
         c.setVersion(req.version().trim());
@@ -85,6 +94,7 @@ public class TraegerRiskMatrixConfigService {
         c.setCreatedBy(creator);
 
         TraegerRiskMatrixConfig saved = repo.save(c);
+        matrixCache.invalidateTraegerAfterCommit(traegerId);
 
         if (req.active()) {
             activate(saved.getId());
@@ -117,6 +127,12 @@ public class TraegerRiskMatrixConfigService {
 
         target.setActive(true);
         TraegerRiskMatrixConfig saved = repo.save(target);
+
+        // Kompilierte Matrix erst nach Commit verwerfen (sonst lädt ein Leser noch die alte)
+        matrixCache.invalidateTraegerAfterCommit(traegerId);
+
+        // Offene Fälle gegen die neue Matrix neu bewerten (Job startet nach Commit)
+        rescoreService.scheduleForActivation(traegerId, saved.getId());
         return toResponse(saved);
     }
 
@@ -0,0 +1,164 @@
+package org.thomcgn.backend.falloeffnungen.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.thomcgn.backend.falloeffnungen.dto.FalleroeffnungNotizResponse;
+import org.thomcgn.backend.falloeffnungen.model.Falleroeffnung;
+import org.thomcgn.backend.falloeffnungen.model.FalleroeffnungNotiz;
+import org.thomcgn.backend.falloeffnungen.model.NoteVisibility;
+import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungNotizRepository;
+import org.thomcgn.backend.falloeffnungen.risk.dto.RiskSnapshotResponse;
+import org.thomcgn.backend.falloeffnungen.risk.model.FalleroeffnungNotizTag;
+import org.thomcgn.backend.falloeffnungen.risk.repo.FalleroeffnungAnlassRepository;
+import org.thomcgn.backend.falloeffnungen.risk.repo.FalleroeffnungNotizTagRepository;
+import org.thomcgn.backend.falloeffnungen.risk.service.FallRiskService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lädt die Detail-Daten eines bereits scoped geladenen und geprüften Falls in fester Query-Anzahl:
+ * neueste Notizen (inkl. Autor), Tags dieser Notizen (ein IN), Anlass-Codes und letzter Risk-Snapshot.
+ * Ältere Notizen liefert die Timeline (loadNotizPage) seitenweise per Keyset-Cursor.
+ */
+@Component
+public class FallDetailLoader {
+
+    /** Anzahl Notizen, die das Fall-Detail direkt mitliefert. */
+    static final int DETAIL_NOTIZEN = 20;
+
+    /** Summary-Modus: Text wird auf diese Länge gekürzt, Tags entfallen. */
+    static final int SUMMARY_TEXT_MAX = 280;
+
+    /** Aggregat für FalleroeffnungService.get(); notizen aufsteigend, notizenNextCursor für ältere. */
+    public record FallDetail(
+            List<FalleroeffnungNotizResponse> notizen,
+            String notizenNextCursor,
+            List<String> anlassCodes,
+            RiskSnapshotResponse latestRisk
+    ) {}
+
+    /** Eine Seite der Timeline, neueste zuerst. */
+    public record NotizPage(
+            List<FalleroeffnungNotizResponse> items,
+            String nextCursor
+    ) {}
+
+    private final FalleroeffnungNotizRepository notizRepo;
+    private final FalleroeffnungNotizTagRepository tagRepo;
+    private final FalleroeffnungAnlassRepository anlassRepo;
+    private final FallRiskService riskService;
+
+    public FallDetailLoader(FalleroeffnungNotizRepository notizRepo,
+                            FalleroeffnungNotizTagRepository tagRepo,
+                            FalleroeffnungAnlassRepository anlassRepo,
+                            FallRiskService riskService) {
+        this.notizRepo = notizRepo;
+        this.tagRepo = tagRepo;
+        this.anlassRepo = anlassRepo;
+        this.riskService = riskService;
+    }
+
+    public FallDetail load(Falleroeffnung f, Long traegerId, Long einrichtungId) {
+        Long fallId = f.getId();
+
+        NotizPage newest = loadNotizPage(fallId, traegerId, einrichtungId,
+                null, null, null, null, DETAIL_NOTIZEN, false);
+
+        // Detail zeigt chronologisch (wie bisher), die Timeline-Seite kommt neueste zuerst
+        List<FalleroeffnungNotizResponse> notizen = new ArrayList<>(newest.items());
+        Collections.reverse(notizen);
+
+        List<String> anlassCodes = anlassRepo.findCodesByFallId(fallId);
+        RiskSnapshotResponse latestRisk = riskService.latestForCheckedFall(fallId);
+
+        return new FallDetail(notizen, newest.nextCursor(), anlassCodes, latestRisk);
+    }
+
+    /**
+     * Timeline-Seite: max. limit Notizen älter als after (null = neueste), optional gefiltert.
+     * Notizen scoped laden (sonst Leak über fallId). Summary: ohne Tags, Text gekürzt.
+     */
+    NotizPage loadNotizPage(Long fallId, Long traegerId, Long einrichtungId,
+                            NoteVisibility visibility, String typ, String anlassCode,
+                            KeysetCursor after, int limit, boolean summary) {
+        KeysetCursor seek = after != null ? after : KeysetCursor.NEWEST_FIRST_START;
+
+        // limit + 1 laden: die Extra-Zeile zeigt nur an, ob es ältere Notizen gibt
+        List<FalleroeffnungNotiz> rows = notizRepo.findPageScoped(
+                fallId, traegerId, einrichtungId,
+                visibility, typ, anlassCode,
+                seek.createdAt(), seek.id(),
+                PageRequest.of(0, limit + 1)
+        );
+
+        boolean hasMore = rows.size() > limit;
+        List<FalleroeffnungNotiz> notizen = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            FalleroeffnungNotiz last = notizen.get(notizen.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        if (summary) {
+            return new NotizPage(notizen.stream().map(FallDetailLoader::toSummaryResponse).toList(), nextCursor);
+        }
+
+        Map<Long, List<FalleroeffnungNotizTag>> tagsByNotiz = new HashMap<>();
+        if (!notizen.isEmpty()) {
+            List<Long> notizIds = notizen.stream().map(FalleroeffnungNotiz::getId).toList();
+            for (FalleroeffnungNotizTag t : tagRepo.findAllByNotizIdIn(notizIds)) {
+                tagsByNotiz.computeIfAbsent(t.getNotiz().getId(), k -> new ArrayList<>()).add(t);
+            }
+        }
+
+        List<FalleroeffnungNotizResponse> items = notizen.stream()
+                .map(n -> toNotizResponse(n, tagsByNotiz.getOrDefault(n.getId(), List.of())))
+                .toList();
+        return new NotizPage(items, nextCursor);
+    }
+
+    static FalleroeffnungNotizResponse toNotizResponse(FalleroeffnungNotiz n, List<FalleroeffnungNotizTag> tags) {
+        var anlassCodes = tags.stream()
+                .map(FalleroeffnungNotizTag::getAnlassCode)
+                .filter(c -> c != null && !c.isBlank())
+                .map(String::trim)
+                .distinct()
+                .toList();
+        var indicatorLinks = tags.stream()
+                .filter(t -> t.getIndicatorId() != null && !t.getIndicatorId().isBlank())
+                .filter(t -> t.getSeverity() != null)
+                .map(t -> new FalleroeffnungNotizResponse.IndicatorLink(t.getIndicatorId().trim(), Math.max(0, Math.min(3, t.getSeverity()))))
+                .toList();
+
+        return new FalleroeffnungNotizResponse(
+                n.getId(),
+                n.getTyp(),
+                n.getText(),
+                n.getCreatedBy().getDisplayName(),
+                n.getCreatedAt(),
+                anlassCodes,
+                indicatorLinks
+        );
+    }
+
+    private static FalleroeffnungNotizResponse toSummaryResponse(FalleroeffnungNotiz n) {
+        String text = n.getText();
+        if (text != null && text.length() > SUMMARY_TEXT_MAX) {
+            text = text.substring(0, SUMMARY_TEXT_MAX - 1) + "…";
+        }
+        return new FalleroeffnungNotizResponse(
+                n.getId(),
+                n.getTyp(),
+                text,
+                n.getCreatedBy().getDisplayName(),
+                n.getCreatedAt(),
+                List.of(),
+                List.of()
+        );
+    }
+}
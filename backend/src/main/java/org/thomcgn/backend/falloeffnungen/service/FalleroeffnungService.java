@@ -2,7 +2,10 @@
 package org.thomcgn.backend.falloeffnungen.service;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.thomcgn.backend.audit.model.AuditEventAction;
@@ -16,11 +19,14 @@ import org.thomcgn.backend.dossiers.model.KindDossier;
 import org.thomcgn.backend.dossiers.repo.KindDossierRepository;
 import org.thomcgn.backend.falloeffnungen.dto.*;
 import org.thomcgn.backend.falloeffnungen.model.*;
+import org.thomcgn.backend.falloeffnungen.repo.FallListEntryRepository;
 import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungNotizRepository;
 import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungRepository;
+import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungSearchRepository;
 import org.thomcgn.backend.falloeffnungen.risk.AnlassCatalog;
 import org.thomcgn.backend.falloeffnungen.risk.model.FalleroeffnungAnlass;
 import org.thomcgn.backend.falloeffnungen.risk.model.FalleroeffnungNotizTag;
+import org.thomcgn.backend.falloeffnungen.risk.repo.FallIndicatorMaxSeverityRepository;
 import org.thomcgn.backend.falloeffnungen.risk.repo.FalleroeffnungAnlassRepository;
 import org.thomcgn.backend.falloeffnungen.risk.repo.FalleroeffnungNotizTagRepository;
 import org.thomcgn.backend.falloeffnungen.risk.service.FallRiskService;
@@ -34,20 +40,32 @@ import org.thomcgn.backend.users.model.User;
 import org.thomcgn.backend.users.repo.UserRepository;
 
 import org.thomcgn.backend.falloeffnungen.meldung.model.Dringlichkeit;
-import org.thomcgn.backend.falloeffnungen.meldung.model.Meldung;
 import org.thomcgn.backend.falloeffnungen.meldung.repo.MeldungRepository;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class FalleroeffnungService {
 
+    // Sortierbare Felder der Fall-Liste: API-Name -> FallListEntry-Property
+    private static final Map<String, String> LIST_SORT_PROPERTIES = Map.of(
+            "id", "fallId",
+            "createdAt", "createdAt",
+            "aktenzeichen", "aktenzeichen",
+            "titel", "titel",
+            "status", "status",
+            "kindName", "kindName",
+            "dringlichkeit", "dringlichkeit",
+            "naechsteUeberpruefungAm", "naechsteUeberpruefungAm"
+    );
+    private static final Sort DEFAULT_LIST_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("fallId"));
+
     private final FalleroeffnungRepository repo;
     private final FalleroeffnungNotizRepository notizRepo;
     private final KindDossierRepository dossierRepo;
@@ -64,9 +82,17 @@ public class FalleroeffnungService {
     private final FalleroeffnungNotizTagRepository tagRepo;
     private final FallRiskService riskService;
 
-    // ✅ Neu: current Meldung für List (akut/dringlichkeit)
+    // current Meldung (Abschluss-Prüfung in updateStatus)
     private final MeldungRepository meldungRepo;
 
+    private final FalleroeffnungSearchRepository searchRepo;
+
+    // Read-Model der Fall-Liste (fall_list_entry), in derselben Transaktion gepflegt
+    private final FallListEntryRepository listRepo;
+
+    private final FallDetailLoader detailLoader;
+    private final FallIndicatorMaxSeverityRepository indicatorAggRepo;
+
     public FalleroeffnungService(
             FalleroeffnungRepository repo,
             FalleroeffnungNotizRepository notizRepo,
@@ -82,7 +108,11 @@ public class FalleroeffnungService {
             FalleroeffnungAnlassRepository anlassRepo,
             FalleroeffnungNotizTagRepository tagRepo,
             FallRiskService riskService,
-            MeldungRepository meldungRepo
+            MeldungRepository meldungRepo,
+            FalleroeffnungSearchRepository searchRepo,
+            FallListEntryRepository listRepo,
+            FallDetailLoader detailLoader,
+            FallIndicatorMaxSeverityRepository indicatorAggRepo
     ) {
         this.repo = repo;
         this.notizRepo = notizRepo;
@@ -99,6 +129,10 @@ public class FalleroeffnungService {
         this.tagRepo = tagRepo;
         this.riskService = riskService;
         this.meldungRepo = meldungRepo;
+        this.searchRepo = searchRepo;
+        this.listRepo = listRepo;
+        this.detailLoader = detailLoader;
+        this.indicatorAggRepo = indicatorAggRepo;
     }
 
     // =========================================================
@@ -194,6 +228,8 @@ public class FalleroeffnungService {
             }
         }
 
+        listRepo.refresh(saved.getId());
+
         audit.log(
                 AuditEventAction.FALL_CREATED,
                 "Falleroeffnung",
@@ -208,7 +244,7 @@ public class FalleroeffnungService {
         List<FalleroeffnungNotizResponse> notizen = List.of();
         List<String> anlaesse = anlassRepo.findCodesByFallId(saved.getId());
 
-        return toResponse(saved, anlaesse, latestRisk, notizen);
+        return toResponse(saved, anlaesse, latestRisk, notizen, null);
     }
 
     // =========================================================
@@ -228,40 +264,49 @@ public class FalleroeffnungService {
                 Role.LESEN, Role.FACHKRAFT, Role.TEAMLEITUNG, Role.EINRICHTUNG_ADMIN, Role.TRAEGER_ADMIN
         );
 
-        // Notizen scoped laden (sonst Leak über fallId)
-        List<FalleroeffnungNotizResponse> notizen = notizRepo
-                .findAllByFalleroeffnungIdScopedOrderByCreatedAtAsc(id, tid, oid)
-                .stream()
-                .map(n -> {
-                    var tags = tagRepo.findAllByNotizId(n.getId());
-                    var anlassCodes = tags.stream()
-                            .map(FalleroeffnungNotizTag::getAnlassCode)
-                            .filter(c -> c != null && !c.isBlank())
-                            .map(String::trim)
-                            .distinct()
-                            .toList();
-                    var indicatorLinks = tags.stream()
-                            .filter(t -> t.getIndicatorId() != null && !t.getIndicatorId().isBlank())
-                            .filter(t -> t.getSeverity() != null)
-                            .map(t -> new FalleroeffnungNotizResponse.IndicatorLink(t.getIndicatorId().trim(), Math.max(0, Math.min(3, t.getSeverity()))))
-                            .toList();
-
-                    return new FalleroeffnungNotizResponse(
-                            n.getId(),
-                            n.getTyp(),
-                            n.getText(),
-                            n.getCreatedBy().getDisplayName(),
-                            n.getCreatedAt(),
-                            anlassCodes,
-                            indicatorLinks
-                    );
-                })
-                .toList();
+        // Notizen + Tags + Anlässe + Risk in fester Query-Anzahl (kein N+1 pro Notiz)
+        FallDetailLoader.FallDetail detail = detailLoader.load(f, tid, oid);
+
+        return toResponse(f, detail.anlassCodes(), detail.latestRisk(), detail.notizen(), detail.notizenNextCursor());
+    }
+
+    // =========================================================
+    // NOTIZEN-TIMELINE (Keyset, neueste zuerst) - SCOPED
+    // =========================================================
+    @Transactional(readOnly = true)
+    public FalleroeffnungNotizPageResponse listNotizen(Long id, String visibility, String typ, String anlassCode,
+                                                       String cursor, int size, boolean summary) {
+        Long tid = SecurityUtils.currentTraegerIdRequired();
+        Long oid = SecurityUtils.currentOrgUnitIdRequired();
+
+        Falleroeffnung f = repo.findByIdWithRefsScoped(id, tid, oid)
+                .orElseThrow(() -> DomainException.notFound(ErrorCode.NOT_FOUND, "Falleröffnung not found"));
 
-        List<String> fallAnlaesse = anlassRepo.findCodesByFallId(id);
-        var latestRisk = riskService.latest(id);
+        access.requireAccessToEinrichtungObject(
+                f.getTraeger().getId(),
+                f.getEinrichtungOrgUnit().getId(),
+                Role.LESEN, Role.FACHKRAFT, Role.TEAMLEITUNG, Role.EINRICHTUNG_ADMIN, Role.TRAEGER_ADMIN
+        );
 
-        return toResponse(f, fallAnlaesse, latestRisk, notizen);
+        NoteVisibility vis = null;
+        if (visibility != null && !visibility.isBlank()) {
+            try { vis = NoteVisibility.valueOf(visibility.trim()); }
+            catch (Exception e) { throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "Unknown visibility: " + visibility); }
+        }
+
+        int limit = Math.max(1, Math.min(size, 100));
+
+        FallDetailLoader.NotizPage page = detailLoader.loadNotizPage(
+                f.getId(), tid, oid,
+                vis,
+                (typ == null || typ.isBlank()) ? null : typ.trim(),
+                (anlassCode == null || anlassCode.isBlank()) ? null : anlassCode.trim(),
+                KeysetCursor.decode(cursor),
+                limit,
+                summary
+        );
+
+        return new FalleroeffnungNotizPageResponse(page.items(), limit, page.nextCursor(), summary);
     }
 
     // =========================================================
@@ -274,73 +319,152 @@ public class FalleroeffnungService {
         Long traegerId = SecurityUtils.currentTraegerIdRequired();
         Long activeEinrichtungId = SecurityUtils.currentOrgUnitIdRequired();
 
-        FalleroeffnungStatus st = null;
-        if (status != null && !status.isBlank()) {
-            try { st = FalleroeffnungStatus.valueOf(status.trim()); }
-            catch (Exception e) { throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "Unknown status: " + status); }
+        FalleroeffnungStatus st = parseListStatus(status);
+        String query = (q == null || q.isBlank()) ? null : q.trim();
+
+        // Mit Suchbegriff: index-gestützte Suche, nach Relevanz sortiert; sonst Read-Model,
+        // Sortierung des Clients (Whitelist) bzw. neueste zuerst
+        Page<FallListEntry> page;
+        if (query != null) {
+            if (pageable.getSort().isSorted()) {
+                throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "sort is not supported together with q (results are ranked by relevance)");
+            }
+            page = searchRanked(traegerId, activeEinrichtungId, st, query, pageable);
+        } else {
+            page = listRepo.listScoped(traegerId, activeEinrichtungId, st,
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), listSort(pageable.getSort())));
         }
 
+        List<FalleroeffnungListItemResponse> items = toListItems(page.getContent());
+        return new FalleroeffnungListResponse(items, page.getNumber(), page.getSize(), page.getTotalElements());
+    }
+
+    /**
+     * Cursor-Modus der Fall-Liste: Seek auf (createdAt, id) statt Offset, keine Count-Query pro Seite.
+     * total ist eine Planner-Schätzung, außer exactTotal oder ein Suchbegriff ist gesetzt.
+     */
+    @Transactional(readOnly = true)
+    public FalleroeffnungListResponse listByCursor(String status, String q, String cursor, int size, boolean exactTotal) {
+        access.requireAny(Role.LESEN, Role.FACHKRAFT, Role.TEAMLEITUNG, Role.EINRICHTUNG_ADMIN, Role.TRAEGER_ADMIN);
+
+        Long traegerId = SecurityUtils.currentTraegerIdRequired();
+        Long activeEinrichtungId = SecurityUtils.currentOrgUnitIdRequired();
+
+        FalleroeffnungStatus st = parseListStatus(status);
         String query = (q == null || q.isBlank()) ? null : q.trim();
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int limit = Math.max(1, Math.min(size, 200));
+
+        KeysetCursor seek = after != null ? after : KeysetCursor.NEWEST_FIRST_START;
+        String pattern = query != null ? FallListEntryRepository.containsPattern(query) : null;
+
+        // limit + 1 laden: die Extra-Zeile zeigt nur an, ob es eine Folgeseite gibt
+        List<FallListEntry> rows = pattern != null
+                ? listRepo.searchScopedAfter(traegerId, activeEinrichtungId, st, pattern,
+                        seek.createdAt(), seek.id(), PageRequest.of(0, limit + 1))
+                : listRepo.listScopedAfter(traegerId, activeEinrichtungId, st,
+                        seek.createdAt(), seek.id(), PageRequest.of(0, limit + 1));
+
+        boolean hasMore = rows.size() > limit;
+        List<FallListEntry> content = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            FallListEntry last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getFallId()).encode();
+        }
 
-        Page<Falleroeffnung> page = repo.searchScoped(
-                traegerId,
-                Set.of(activeEinrichtungId),
-                st,
-                query,
-                pageable
-        );
+        long total;
+        boolean estimated;
+        if (after == null && !hasMore) {
+            // einzige Seite -> exakt ohne Zusatz-Query
+            total = content.size();
+            estimated = false;
+        } else if (pattern != null) {
+            // die Planner-Schätzung kennt den Suchbegriff nicht -> bei Suche immer exakt zählen
+            total = listRepo.countMatching(traegerId, activeEinrichtungId, st, pattern);
+            estimated = false;
+        } else if (exactTotal) {
+            total = listRepo.countScoped(traegerId, activeEinrichtungId, st);
+            estimated = false;
+        } else {
+            total = searchRepo.estimateScopedCount(traegerId, activeEinrichtungId, st != null ? st.name() : null);
+            estimated = true;
+        }
 
-        // ✅ Batch: current Meldung Info (akut/dringlichkeit) holen
-        List<Long> fallIds = page.getContent().stream()
-                .map(Falleroeffnung::getId)
-                .filter(Objects::nonNull)
+        return new FalleroeffnungListResponse(toListItems(content), 0, limit, total, nextCursor, estimated);
+    }
+
+    /** Client-Sortierung auf FallListEntry abbilden; unbekannte Felder -> 400, fallId als Tie-Breaker. */
+    private static Sort listSort(Sort requested) {
+        if (requested.isUnsorted()) return DEFAULT_LIST_SORT;
+
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order o : requested) {
+            String property = LIST_SORT_PROPERTIES.get(o.getProperty());
+            if (property == null) {
+                throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "Unsupported sort: " + o.getProperty());
+            }
+            orders.add(new Sort.Order(o.getDirection(), property));
+        }
+        if (orders.stream().noneMatch(o -> o.getProperty().equals("fallId"))) {
+            orders.add(Sort.Order.desc("fallId"));
+        }
+        return Sort.by(orders);
+    }
+
+    private static FalleroeffnungStatus parseListStatus(String status) {
+        if (status == null || status.isBlank()) return null;
+        try { return FalleroeffnungStatus.valueOf(status.trim()); }
+        catch (Exception e) { throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "Unknown status: " + status); }
+    }
+
+    private static List<FalleroeffnungListItemResponse> toListItems(List<FallListEntry> entries) {
+        return entries.stream()
+                .map(e -> new FalleroeffnungListItemResponse(
+                        e.getFallId(),
+                        e.getStatus().name(),
+                        e.getTitel(),
+                        e.getAktenzeichen(),
+                        e.getDossierId(),
+                        e.getKindId(),
+                        e.getKindName(),
+                        e.getEinrichtungOrgUnitId(),
+                        e.getTeamOrgUnitId(),
+                        e.getCreatedByDisplayName(),
+                        e.getCreatedAt(),
+                        e.getAkutGefahrImVerzug(),
+                        e.getDringlichkeit(),
+                        e.getNaechsteUeberpruefungAm(),
+                        e.getRiskTrafficLight()
+                ))
                 .toList();
+    }
 
-        final Map<Long, Meldung> currentMeldungByFallId;
-        if (fallIds.isEmpty()) {
-            currentMeldungByFallId = Map.of();
-        } else {
-            currentMeldungByFallId = meldungRepo.findCurrentByFallIds(fallIds).stream()
-                    .filter(m -> m.getFalleroeffnung() != null && m.getFalleroeffnung().getId() != null)
-                    .collect(Collectors.toMap(
-                            m -> m.getFalleroeffnung().getId(),
-                            m -> m,
-                            (a, b) -> a
-                    ));
+    private Page<FallListEntry> searchRanked(Long traegerId, Long scopeOrgUnitId, FalleroeffnungStatus st,
+                                             String query, Pageable pageable) {
+        String status = st != null ? st.name() : null;
+
+        List<Long> ids = searchRepo.searchIds(
+                traegerId, scopeOrgUnitId, status, query, pageable.getPageSize(), pageable.getOffset());
+
+        // erste Seite nicht voll -> total steht fest, Count-Query sparen
+        long total = (pageable.getOffset() == 0 && ids.size() < pageable.getPageSize())
+                ? ids.size()
+                : searchRepo.count(traegerId, scopeOrgUnitId, status, query);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, total);
         }
 
-        List<FalleroeffnungListItemResponse> items = page.getContent().stream()
-                .map(f -> {
-                    var k = f.getDossier().getKind();
-                    String kindName = ((k.getVorname() != null ? k.getVorname() : "") + " " + (k.getNachname() != null ? k.getNachname() : "")).trim();
-                    if (kindName.isBlank()) kindName = "-";
-
-                    Meldung cur = currentMeldungByFallId.get(f.getId());
-                    Boolean akut = (cur == null) ? null : cur.isAkutGefahrImVerzug();
-
-                    Dringlichkeit d = (cur == null) ? null : cur.getDringlichkeit();
-                    String dringlichkeit = (d == null) ? null : d.name();
-
-                    return new FalleroeffnungListItemResponse(
-                            f.getId(),
-                            f.getStatus().name(),
-                            f.getTitel(),
-                            f.getAktenzeichen(),
-                            f.getDossier().getId(),
-                            k.getId(),
-                            kindName,
-                            f.getEinrichtungOrgUnit().getId(),
-                            f.getTeamOrgUnit() != null ? f.getTeamOrgUnit().getId() : null,
-                            f.getCreatedBy() != null ? f.getCreatedBy().getDisplayName() : null,
-                            f.getCreatedAt(),
-                            akut,
-                            dringlichkeit,
-                            cur != null ? cur.getNaechsteUeberpruefungAm() : null
-                    );
-                })
+        // Reihenfolge der Suche (Relevanz) beibehalten
+        Map<Long, FallListEntry> byId = listRepo.findAllByFallIdIn(ids).stream()
+                .collect(Collectors.toMap(FallListEntry::getFallId, e -> e));
+        List<FallListEntry> content = ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .toList();
 
-        return new FalleroeffnungListResponse(items, page.getNumber(), page.getSize(), page.getTotalElements());
+        return new PageImpl<>(content, pageable, total);
     }
 
     // =========================================================
@@ -410,6 +534,9 @@ public class FalleroeffnungService {
                 t.setIndicatorId(link.indicatorId().trim());
                 t.setSeverity(s);
                 tagRepo.save(t);
+
+                // Aggregat für die Risiko-Auswertung inkrementell nachziehen
+                indicatorAggRepo.raise(f.getId(), t.getIndicatorId(), s);
             }
         }
 
@@ -421,33 +548,10 @@ public class FalleroeffnungService {
                 "Note added" + (req.typ() != null ? " (" + req.typ() + ")" : "") + " visibility=" + vis
         );
 
-        try {
-            riskService.recomputeAndSnapshot(f.getId());
-        } catch (Exception ignored) {
-        }
-
-        var tags = tagRepo.findAllByNotizId(saved.getId());
-        var anlassCodes = tags.stream()
-                .map(FalleroeffnungNotizTag::getAnlassCode)
-                .filter(c -> c != null && !c.isBlank())
-                .map(String::trim)
-                .distinct()
-                .toList();
-        var indicatorLinks = tags.stream()
-                .filter(t -> t.getIndicatorId() != null && !t.getIndicatorId().isBlank())
-                .filter(t -> t.getSeverity() != null)
-                .map(t -> new FalleroeffnungNotizResponse.IndicatorLink(t.getIndicatorId().trim(), Math.max(0, Math.min(3, t.getSeverity()))))
-                .toList();
+        // Risiko asynchron neu berechnen (Outbox, zusammengefasst pro Fall)
+        riskService.requestRecompute(f.getId());
 
-        return new FalleroeffnungNotizResponse(
-                saved.getId(),
-                saved.getTyp(),
-                saved.getText(),
-                author.getDisplayName(),
-                saved.getCreatedAt(),
-                anlassCodes,
-                indicatorLinks
-        );
+        return FallDetailLoader.toNotizResponse(saved, tagRepo.findAllByNotizId(saved.getId()));
     }
 
     // =========================================================
@@ -494,6 +598,7 @@ public class FalleroeffnungService {
         }
 
         f.setStatus(newStatus);
+        listRepo.refresh(f.getId());
 
         audit.log(
                 AuditEventAction.FALL_STATUS_CHANGED,
@@ -510,7 +615,8 @@ public class FalleroeffnungService {
             Falleroeffnung f,
             List<String> anlassCodes,
             org.thomcgn.backend.falloeffnungen.risk.dto.RiskSnapshotResponse latestRisk,
-            List<FalleroeffnungNotizResponse> notizen
+            List<FalleroeffnungNotizResponse> notizen,
+            String notizenNextCursor
     ) {
         var k = f.getDossier().getKind();
         String kindName = ((k.getVorname() != null ? k.getVorname() : "") + " " + (k.getNachname() != null ? k.getNachname() : "")).trim();
@@ -531,7 +637,8 @@ public class FalleroeffnungService {
                 f.getCreatedBy() != null ? f.getCreatedBy().getDisplayName() : null,
                 anlassCodes != null ? anlassCodes : List.of(),
                 latestRisk,
-                notizen
+                notizen,
+                notizenNextCursor
         );
     }
 }
\ No newline at end of file
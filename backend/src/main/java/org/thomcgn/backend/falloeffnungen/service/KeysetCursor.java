@@ -0,0 +1,42 @@
+package org.thomcgn.backend.falloeffnungen.service;
+
+import org.thomcgn.backend.common.errors.DomainException;
+import org.thomcgn.backend.common.errors.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaker Keyset-Cursor: Position (createdAt, id) des letzten gelieferten Eintrags.
+ * Genutzt von Fall-Liste, Notizen-Timeline, Risiko-Historie und Meldungs-Change-Log; für den Client nur ein String,
+ * Format kann sich ändern.
+ */
+public record KeysetCursor(Instant createdAt, Long id) {
+
+    /**
+     * Startposition der ersten Seite bei "neueste zuerst": liegt hinter jeder echten Zeile, damit die
+     * Queries ohne ":after is null or …" auskommen und (created_at, id) als Index-Range seeken.
+     */
+    public static final KeysetCursor NEWEST_FIRST_START = new KeysetCursor(Instant.parse("9999-12-31T00:00:00Z"), Long.MAX_VALUE);
+
+    /** Gegenstück für "älteste zuerst" (z. B. Change-Log der Meldung): liegt vor jeder echten Zeile. */
+    public static final KeysetCursor OLDEST_FIRST_START = new KeysetCursor(Instant.parse("0001-01-01T00:00:00Z"), Long.MIN_VALUE);
+
+    public String encode() {
+        String raw = createdAt.toString() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Leerer/fehlender Cursor = erste Seite (null). */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new KeysetCursor(Instant.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "Invalid cursor.");
+        }
+    }
+}
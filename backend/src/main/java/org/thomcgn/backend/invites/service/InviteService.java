@@ -5,10 +5,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.thomcgn.backend.auth.model.Role;
 import org.thomcgn.backend.auth.service.AdminGuard;
+import org.thomcgn.backend.auth.service.UserContextCache;
 import org.thomcgn.backend.common.errors.DomainException;
 import org.thomcgn.backend.common.errors.ErrorCode;
 import org.thomcgn.backend.common.security.JwtService;
 import org.thomcgn.backend.common.security.SecurityUtils;
+import org.thomcgn.backend.falloeffnungen.repo.FallListEntryRepository;
 import org.thomcgn.backend.invites.dto.*;
 import org.thomcgn.backend.invites.model.Invite;
 import org.thomcgn.backend.invites.repo.InviteRepository;
@@ -21,6 +23,7 @@ import org.thomcgn.backend.users.repo.UserRepository;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -33,6 +36,8 @@ public class InviteService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AdminGuard adminGuard;
+    private final UserContextCache userContextCache;
+    private final FallListEntryRepository fallListRepo;
 
     // Für MVP: base URL hardcodiert oder aus config
     private final String frontendBaseUrl = "https://your-frontend.example.com";
@@ -43,7 +48,9 @@ public class InviteService {
             OrgUnitMembershipRepository membershipRepository,
             PasswordEncoder passwordEncoder,
             JwtService jwtService,
-            AdminGuard adminGuard
+            AdminGuard adminGuard,
+            UserContextCache userContextCache,
+            FallListEntryRepository fallListRepo
     ) {
         this.inviteRepository = inviteRepository;
         this.userRepository = userRepository;
@@ -51,6 +58,8 @@ public class InviteService {
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.adminGuard = adminGuard;
+        this.userContextCache = userContextCache;
+        this.fallListRepo = fallListRepo;
     }
 
     @Transactional
@@ -133,15 +142,25 @@ public class InviteService {
                     return u;
                 });
 
+        String oldVorname = user.getVorname();
+        String oldNachname = user.getNachname();
+
         user.setPasswordHash(passwordEncoder.encode(req.newPassword()));
         if (req.vorname() != null) user.setVorname(req.vorname());
         if (req.nachname() != null) user.setNachname(req.nachname());
 
+        // bestehender User umbenannt -> Ersteller-Namen in der Fall-Liste nachziehen
+        boolean renamed = user.getId() != null
+                && (!Objects.equals(oldVorname, user.getVorname()) || !Objects.equals(oldNachname, user.getNachname()));
+
         // Defaults (UX)
         user.setDefaultTraeger(inv.getTraeger());
         user.setDefaultOrgUnit(inv.getOrgUnit());
 
         user = userRepository.save(user);
+        if (renamed) {
+            fallListRepo.refreshForCreator(user.getId());
+        }
 
         // Rollen zuweisen (upsert enabled)
         for (Role r : inv.getRoles()) {
@@ -163,6 +182,8 @@ public class InviteService {
                     });
         }
 
+        userContextCache.invalidateUserAfterCommit(user.getId());
+
         // Invite abschließen
         inv.setUsedAt(Instant.now());
         inv.setAcceptedBy(user);
@@ -1,6 +1,7 @@
 package org.thomcgn.backend.kinderschutz.model;
 
 import jakarta.persistence.*;
+import org.thomcgn.backend.common.persistence.PooledIds;
 
 @Entity
 @Table(
@@ -13,7 +14,8 @@ import jakarta.persistence.*;
 public class KinderschutzbogenBewertung {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "kinderschutzbogen_bewertungen_id")
+    @SequenceGenerator(name = "kinderschutzbogen_bewertungen_id", sequenceName = "kinderschutzbogen_bewertungen_id_seq", allocationSize = PooledIds.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -3,6 +3,7 @@ package org.thomcgn.backend.messenger.model;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.thomcgn.backend.common.persistence.PooledIds;
 
 import java.time.OffsetDateTime;
 
@@ -19,7 +20,8 @@ import java.time.OffsetDateTime;
 public class MessageRecipient {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "message_recipients_id")
+    @SequenceGenerator(name = "message_recipients_id", sequenceName = "message_recipients_id_seq", allocationSize = PooledIds.ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "message_id", nullable = false)
@@ -9,5 +9,6 @@ public record UpdateOrgUnitRequest(
         String plz,
         String ort,
         String leitung,
-        String ansprechpartner
+        String ansprechpartner,
+        Long parentId // optional: verschiebt die Einheit unter einen neuen Parent
 ) {}
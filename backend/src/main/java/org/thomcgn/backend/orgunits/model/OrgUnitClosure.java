@@ -0,0 +1,30 @@
+package org.thomcgn.backend.orgunits.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Closure-Tabelle des OrgUnit-Baums: (ancestor, descendant, depth), inkl. self-Zeile mit depth = 0.
+ *
+ * Wird nur über {@link org.thomcgn.backend.orgunits.repo.OrgUnitClosureRepository} gepflegt;
+ * das Entity existiert, damit JPQL-Queries per {@code join OrgUnitClosure c on ...} auf Subtrees scopen können.
+ */
+@Entity
+@Table(name = "org_unit_closure")
+@IdClass(OrgUnitClosureId.class)
+public class OrgUnitClosure {
+
+    @Id
+    @Column(name = "ancestor_id", nullable = false)
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id", nullable = false)
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private int depth;
+
+    public Long getAncestorId() { return ancestorId; }
+    public Long getDescendantId() { return descendantId; }
+    public int getDepth() { return depth; }
+}
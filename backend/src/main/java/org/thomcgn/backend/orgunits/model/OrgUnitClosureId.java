@@ -0,0 +1,29 @@
+package org.thomcgn.backend.orgunits.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class OrgUnitClosureId implements Serializable {
+
+    private Long ancestorId;
+    private Long descendantId;
+
+    public OrgUnitClosureId() {}
+
+    public OrgUnitClosureId(Long ancestorId, Long descendantId) {
+        this.ancestorId = ancestorId;
+        this.descendantId = descendantId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof OrgUnitClosureId that)) return false;
+        return Objects.equals(ancestorId, that.ancestorId) && Objects.equals(descendantId, that.descendantId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ancestorId, descendantId);
+    }
+}
@@ -0,0 +1,82 @@
+package org.thomcgn.backend.orgunits.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.thomcgn.backend.orgunits.model.OrgUnitClosure;
+import org.thomcgn.backend.orgunits.model.OrgUnitClosureId;
+
+import java.util.Optional;
+
+public interface OrgUnitClosureRepository extends JpaRepository<OrgUnitClosure, OrgUnitClosureId> {
+
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    /** Nächste EINRICHTUNG oberhalb des Knotens (inkl. self); leer unterhalb des Träger-Roots. */
+    @Query(value = """
+        SELECT c.ancestor_id
+          FROM org_unit_closure c
+          JOIN org_units o ON o.id = c.ancestor_id
+         WHERE c.descendant_id = :nodeId
+           AND o.type = 'EINRICHTUNG'
+         ORDER BY c.depth
+         LIMIT 1
+    """, nativeQuery = true)
+    Optional<Long> findEinrichtungOf(@Param("nodeId") Long nodeId);
+
+    /** Ob ein Fall einem Team im Subtree des Knotens (inkl. self) zugeordnet ist. */
+    @Query(value = """
+        SELECT EXISTS (
+            SELECT 1
+              FROM falloeffnungen f
+              JOIN org_unit_closure c ON c.descendant_id = f.team_org_unit_id
+             WHERE c.ancestor_id = :nodeId
+        )
+    """, nativeQuery = true)
+    boolean existsFallWithTeamInSubtree(@Param("nodeId") Long nodeId);
+
+    // ── Pflege ────────────────────────────────────────────────────────────────
+
+    /** Self-Zeile für eine neue Wurzel (Träger-Root). */
+    @Modifying
+    @Query(value = """
+        INSERT INTO org_unit_closure (ancestor_id, descendant_id, depth)
+        VALUES (:nodeId, :nodeId, 0)
+    """, nativeQuery = true)
+    int insertRoot(@Param("nodeId") Long nodeId);
+
+    /** Neues Blatt: alle Vorfahren des Parents (+1) plus self-Zeile. */
+    @Modifying
+    @Query(value = """
+        INSERT INTO org_unit_closure (ancestor_id, descendant_id, depth)
+        SELECT c.ancestor_id, :nodeId, c.depth + 1
+          FROM org_unit_closure c
+         WHERE c.descendant_id = :parentId
+        UNION ALL
+        SELECT :nodeId, :nodeId, 0
+    """, nativeQuery = true)
+    int insertLeaf(@Param("nodeId") Long nodeId, @Param("parentId") Long parentId);
+
+    /** Re-Parent Schritt 1: Pfade von oberhalb des Knotens in seinen Subtree entfernen. */
+    @Modifying
+    @Query(value = """
+        DELETE FROM org_unit_closure c
+         WHERE c.descendant_id IN (SELECT s.descendant_id FROM org_unit_closure s WHERE s.ancestor_id = :nodeId)
+           AND c.ancestor_id IN (SELECT a.ancestor_id FROM org_unit_closure a
+                                  WHERE a.descendant_id = :nodeId AND a.ancestor_id <> :nodeId)
+    """, nativeQuery = true)
+    int detachSubtree(@Param("nodeId") Long nodeId);
+
+    /** Re-Parent Schritt 2: Subtree unter den neuen Parent hängen (Kreuzprodukt der Pfade). */
+    @Modifying
+    @Query(value = """
+        INSERT INTO org_unit_closure (ancestor_id, descendant_id, depth)
+        SELECT sup.ancestor_id, sub.descendant_id, sup.depth + sub.depth + 1
+          FROM org_unit_closure sup
+          CROSS JOIN org_unit_closure sub
+         WHERE sup.descendant_id = :newParentId
+           AND sub.ancestor_id = :nodeId
+    """, nativeQuery = true)
+    int attachSubtree(@Param("nodeId") Long nodeId, @Param("newParentId") Long newParentId);
+}
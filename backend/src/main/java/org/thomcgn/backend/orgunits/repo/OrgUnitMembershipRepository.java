@@ -51,6 +51,17 @@ public interface OrgUnitMembershipRepository extends JpaRepository<OrgUnitMember
     """)
     List<OrgUnitMembership> findAllEnabledRolesByOrgUnitId(@Param("orgUnitId") Long orgUnitId);
 
+    /** Wie oben, aber für den gesamten Subtree (Closure-Join, inkl. der Einheit selbst). */
+    @Query("""
+        select m from OrgUnitMembership m
+        join fetch m.user u
+        join OrgUnitClosure sc on sc.descendantId = m.orgUnit.id and sc.ancestorId = :rootOrgUnitId
+        where m.role is not null
+          and m.enabled = true
+          and u.enabled = true
+    """)
+    List<OrgUnitMembership> findAllEnabledRolesInSubtree(@Param("rootOrgUnitId") Long rootOrgUnitId);
+
     // ── All-member lookups (roles + memberships) ──────────────────────────────
 
     @Query("""
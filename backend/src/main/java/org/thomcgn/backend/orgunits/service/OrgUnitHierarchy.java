@@ -0,0 +1,181 @@
+package org.thomcgn.backend.orgunits.service;
+
+import org.thomcgn.backend.orgunits.model.OrgUnit;
+import org.thomcgn.backend.orgunits.model.OrgUnitType;
+
+import java.util.*;
+
+/**
+ * Unveränderlicher Snapshot des (aktiven) OrgUnit-Baums eines Trägers.
+ *
+ * Pro Knoten: Parent-Index, Pre-/Post-Order-Nummer (Descendant-Check per Intervall)
+ * und der Index der nächsten EINRICHTUNG (Ancestor-or-self). Alle Lookups O(1), ohne SQL.
+ *
+ * Knoten, die nicht von einer Wurzel erreichbar sind (Parent deaktiviert, Zyklus),
+ * gelten als "unresolved" – Aufrufer fallen dann auf den DB-Walk zurück.
+ */
+public final class OrgUnitHierarchy {
+
+    private static final int NONE = -1;
+
+    private final Long traegerId;
+    private final Map<Long, Integer> indexById;
+    private final long[] ids;
+    private final int[] parent;
+    private final int[] pre;
+    private final int[] post;
+    private final int[] einrichtung;
+    private final Long rootId;
+    private final Set<Long> einrichtungIds;
+
+    private OrgUnitHierarchy(Long traegerId, Map<Long, Integer> indexById, long[] ids, int[] parent,
+                             int[] pre, int[] post, int[] einrichtung, Long rootId, Set<Long> einrichtungIds) {
+        this.traegerId = traegerId;
+        this.indexById = indexById;
+        this.ids = ids;
+        this.parent = parent;
+        this.pre = pre;
+        this.post = post;
+        this.einrichtung = einrichtung;
+        this.rootId = rootId;
+        this.einrichtungIds = einrichtungIds;
+    }
+
+    public static OrgUnitHierarchy build(Long traegerId, List<OrgUnit> units) {
+        int n = units.size();
+        Map<Long, Integer> indexById = new HashMap<>(n * 2);
+        long[] ids = new long[n];
+        boolean[] isEinrichtung = new boolean[n];
+        Set<Long> einrichtungIds = new LinkedHashSet<>();
+
+        for (int i = 0; i < n; i++) {
+            OrgUnit ou = units.get(i);
+            ids[i] = ou.getId();
+            indexById.put(ou.getId(), i);
+            isEinrichtung[i] = ou.getType() == OrgUnitType.EINRICHTUNG;
+            if (isEinrichtung[i]) einrichtungIds.add(ou.getId());
+        }
+
+        int[] parent = new int[n];
+        List<List<Integer>> children = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) children.add(new ArrayList<>());
+
+        List<Integer> roots = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            OrgUnit p = units.get(i).getParent();
+            if (p == null) {
+                parent[i] = NONE;
+                roots.add(i);
+                continue;
+            }
+            Integer pi = indexById.get(p.getId());
+            parent[i] = pi != null ? pi : NONE;
+            if (pi != null) children.get(pi).add(i);
+            // Parent nicht im Snapshot (deaktiviert) -> Knoten bleibt unresolved
+        }
+
+        int[] pre = new int[n];
+        int[] post = new int[n];
+        int[] einrichtung = new int[n];
+        Arrays.fill(pre, NONE);
+        Arrays.fill(post, NONE);
+        Arrays.fill(einrichtung, NONE);
+
+        // Iterative DFS (keine Rekursionstiefe-Probleme bei tiefen Bäumen)
+        int preCounter = 0;
+        int postCounter = 0;
+        Long rootId = null;
+        int[] cursor = new int[n];
+        Deque<Integer> stack = new ArrayDeque<>();
+
+        for (int r : roots) {
+            if (rootId == null) rootId = ids[r];
+            pre[r] = preCounter++;
+            einrichtung[r] = isEinrichtung[r] ? r : NONE;
+            stack.push(r);
+
+            while (!stack.isEmpty()) {
+                int cur = stack.peek();
+                List<Integer> kids = children.get(cur);
+                if (cursor[cur] < kids.size()) {
+                    int child = kids.get(cursor[cur]++);
+                    if (pre[child] != NONE) continue; // defensive: schon besucht
+                    pre[child] = preCounter++;
+                    einrichtung[child] = isEinrichtung[child] ? child : einrichtung[cur];
+                    stack.push(child);
+                } else {
+                    post[cur] = postCounter++;
+                    stack.pop();
+                }
+            }
+        }
+
+        return new OrgUnitHierarchy(
+                traegerId,
+                Collections.unmodifiableMap(indexById),
+                ids,
+                parent,
+                pre,
+                post,
+                einrichtung,
+                rootId,
+                Collections.unmodifiableSet(einrichtungIds)
+        );
+    }
+
+    public Long getTraegerId() {
+        return traegerId;
+    }
+
+    /** Id der Träger-Wurzel (erste gefundene Wurzel), null wenn Baum leer. */
+    public Long getRootId() {
+        return rootId;
+    }
+
+    /** Alle aktiven EINRICHTUNG-Knoten des Trägers. */
+    public Set<Long> getEinrichtungIds() {
+        return einrichtungIds;
+    }
+
+    public boolean contains(Long orgUnitId) {
+        return orgUnitId != null && indexById.containsKey(orgUnitId);
+    }
+
+    /** True, wenn der Knoten im Snapshot liegt und über aktive Parents von einer Wurzel erreichbar ist. */
+    public boolean isResolved(Long orgUnitId) {
+        Integer i = orgUnitId == null ? null : indexById.get(orgUnitId);
+        return i != null && pre[i] != NONE;
+    }
+
+    public Long parentId(Long orgUnitId) {
+        int i = resolvedIndex(orgUnitId);
+        return parent[i] == NONE ? null : ids[parent[i]];
+    }
+
+    /** Nächste EINRICHTUNG (inkl. self), null wenn keine existiert. */
+    public Long einrichtungOf(Long orgUnitId) {
+        int i = resolvedIndex(orgUnitId);
+        return einrichtung[i] == NONE ? null : ids[einrichtung[i]];
+    }
+
+    /** True, wenn target echter Nachfahre von root ist (nicht gleich). */
+    public boolean isDescendant(Long targetId, Long rootId) {
+        int t = resolvedIndex(targetId);
+        Integer r = rootId == null ? null : indexById.get(rootId);
+        if (r == null || pre[r] == NONE || r == t) return false;
+        return pre[r] < pre[t] && post[t] < post[r];
+    }
+
+    public boolean isDescendantOrSame(Long targetId, Long rootId) {
+        if (targetId != null && targetId.equals(rootId)) return isResolved(targetId);
+        return isDescendant(targetId, rootId);
+    }
+
+    private int resolvedIndex(Long orgUnitId) {
+        Integer i = orgUnitId == null ? null : indexById.get(orgUnitId);
+        if (i == null || pre[i] == NONE) {
+            throw new IllegalArgumentException("OrgUnit not resolved in hierarchy: " + orgUnitId);
+        }
+        return i;
+    }
+}
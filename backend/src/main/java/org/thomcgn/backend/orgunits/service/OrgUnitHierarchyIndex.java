@@ -0,0 +1,60 @@
+package org.thomcgn.backend.orgunits.service;
+
+import org.springframework.stereotype.Component;
+import org.thomcgn.backend.common.persistence.AfterCommit;
+import org.thomcgn.backend.orgunits.repo.OrgUnitRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-Memory-Index der OrgUnit-Hierarchie pro Träger.
+ *
+ * Snapshots werden lazy aus {@link OrgUnitRepository#findAllEnabledByTraegerId} gebaut und
+ * nach Commit von Änderungen (OrgUnitService) verworfen; der nächste Zugriff baut neu.
+ */
+@Component
+public class OrgUnitHierarchyIndex {
+
+    private final OrgUnitRepository orgUnitRepository;
+
+    private final Map<Long, OrgUnitHierarchy> byTraeger = new ConcurrentHashMap<>();
+
+    // Schutz gegen Publish eines Snapshots, der vor einer Invalidierung geladen wurde
+    private final AtomicLong generation = new AtomicLong();
+
+    public OrgUnitHierarchyIndex(OrgUnitRepository orgUnitRepository) {
+        this.orgUnitRepository = orgUnitRepository;
+    }
+
+    public OrgUnitHierarchy forTraeger(Long traegerId) {
+        OrgUnitHierarchy cached = byTraeger.get(traegerId);
+        if (cached != null) return cached;
+
+        long gen = generation.get();
+        OrgUnitHierarchy built = OrgUnitHierarchy.build(traegerId, orgUnitRepository.findAllEnabledByTraegerId(traegerId));
+
+        byTraeger.put(traegerId, built);
+        if (generation.get() != gen) {
+            // zwischenzeitlich invalidiert -> veralteten Snapshot nicht stehen lassen
+            byTraeger.remove(traegerId, built);
+        }
+        return built;
+    }
+
+    public void invalidate(Long traegerId) {
+        generation.incrementAndGet();
+        byTraeger.remove(traegerId);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        byTraeger.clear();
+    }
+
+    /** invalidate() nach Commit, siehe {@link AfterCommit}. */
+    public void invalidateAfterCommit(Long traegerId) {
+        AfterCommit.run(() -> invalidate(traegerId));
+    }
+}
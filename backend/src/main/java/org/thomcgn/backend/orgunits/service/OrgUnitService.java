@@ -3,6 +3,7 @@ package org.thomcgn.backend.orgunits.service;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.thomcgn.backend.auth.service.AdminGuard;
+import org.thomcgn.backend.auth.service.UserContextCache;
 import org.thomcgn.backend.common.errors.DomainException;
 import org.thomcgn.backend.common.errors.ErrorCode;
 import org.thomcgn.backend.common.security.SecurityUtils;
@@ -11,6 +12,7 @@ import org.thomcgn.backend.orgunits.dto.OrgUnitNodeDto;
 import org.thomcgn.backend.orgunits.dto.UpdateOrgUnitRequest;
 import org.thomcgn.backend.orgunits.model.OrgUnit;
 import org.thomcgn.backend.orgunits.model.OrgUnitType;
+import org.thomcgn.backend.orgunits.repo.OrgUnitClosureRepository;
 import org.thomcgn.backend.orgunits.repo.OrgUnitRepository;
 
 import java.util.*;
@@ -20,10 +22,20 @@ public class OrgUnitService {
 
     private final OrgUnitRepository orgUnitRepository;
     private final AdminGuard adminGuard;
-
-    public OrgUnitService(OrgUnitRepository orgUnitRepository, AdminGuard adminGuard) {
+    private final OrgUnitHierarchyIndex hierarchyIndex;
+    private final OrgUnitClosureRepository closureRepository;
+    private final UserContextCache userContextCache;
+
+    public OrgUnitService(OrgUnitRepository orgUnitRepository,
+                          AdminGuard adminGuard,
+                          OrgUnitHierarchyIndex hierarchyIndex,
+                          OrgUnitClosureRepository closureRepository,
+                          UserContextCache userContextCache) {
         this.orgUnitRepository = orgUnitRepository;
         this.adminGuard = adminGuard;
+        this.hierarchyIndex = hierarchyIndex;
+        this.closureRepository = closureRepository;
+        this.userContextCache = userContextCache;
     }
 
     @Transactional(readOnly = true)
@@ -82,6 +94,9 @@ public class OrgUnitService {
         applyAddress(ou, req.strasse(), req.hausnummer(), req.plz(), req.ort(), req.leitung(), req.ansprechpartner());
 
         OrgUnit saved = orgUnitRepository.save(ou);
+        closureRepository.insertLeaf(saved.getId(), parent.getId());
+        hierarchyIndex.invalidateAfterCommit(traegerId);
+        userContextCache.invalidateAllAfterCommit();
         return toDto(saved, List.of());
     }
 
@@ -97,7 +112,15 @@ public class OrgUnitService {
         ou.setName(req.name().trim());
         applyAddress(ou, req.strasse(), req.hausnummer(), req.plz(), req.ort(), req.leitung(), req.ansprechpartner());
 
-        return toDto(orgUnitRepository.save(ou), List.of());
+        if (req.parentId() != null
+                && (ou.getParent() == null || !req.parentId().equals(ou.getParent().getId()))) {
+            reparent(ou, req.parentId(), traegerId);
+        }
+
+        OrgUnit saved = orgUnitRepository.save(ou);
+        hierarchyIndex.invalidateAfterCommit(traegerId);
+        userContextCache.invalidateAllAfterCommit();
+        return toDto(saved, List.of());
     }
 
     @Transactional
@@ -112,12 +135,65 @@ public class OrgUnitService {
             throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "Träger-Root-Einheit kann nicht deaktiviert werden.");
         }
 
+        // Closure-Zeilen bleiben stehen: die Einheit bleibt strukturell im Baum,
+        // Fälle/Akten darunter sollen über den Scope des Parents weiterhin auffindbar sein.
         ou.setEnabled(false);
         orgUnitRepository.save(ou);
+        hierarchyIndex.invalidateAfterCommit(traegerId);
+        userContextCache.invalidateAllAfterCommit();
     }
 
     // -------------------------------------------------------------------------
 
+    private void reparent(OrgUnit ou, Long newParentId, Long traegerId) {
+        if (ou.getType() == OrgUnitType.TRAEGER) {
+            throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "Träger-Root-Einheit kann nicht verschoben werden.");
+        }
+
+        OrgUnit newParent = adminGuard.requireCanManageOrgUnit(newParentId);
+        if (!newParent.getTraeger().getId().equals(traegerId)) {
+            throw DomainException.forbidden(ErrorCode.ACCESS_DENIED, "Parent is not in current traeger.");
+        }
+        // Zyklus: neuer Parent liegt im eigenen Subtree (inkl. self)
+        if (closureRepository.existsByAncestorIdAndDescendantId(ou.getId(), newParent.getId())) {
+            throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED, "OrgUnit kann nicht unter sich selbst verschoben werden.");
+        }
+        requireAllowedParent(ou.getType(), newParent.getType());
+
+        // Fälle tragen Einrichtung und Team getrennt (falloeffnungen, fall_list_entry, Scope-Prüfungen);
+        // ein Team mit Fällen darf daher nicht in eine andere Einrichtung wandern.
+        if (ou.getType() != OrgUnitType.EINRICHTUNG) {
+            Long oldEinrichtungId = closureRepository.findEinrichtungOf(ou.getId()).orElse(null);
+            Long newEinrichtungId = closureRepository.findEinrichtungOf(newParent.getId()).orElse(null);
+            if (!Objects.equals(oldEinrichtungId, newEinrichtungId)
+                    && closureRepository.existsFallWithTeamInSubtree(ou.getId())) {
+                throw DomainException.conflict(ErrorCode.CONFLICT,
+                        "OrgUnit mit zugeordneten Fällen kann nicht in eine andere Einrichtung verschoben werden.");
+            }
+        }
+
+        ou.setParent(newParent);
+        closureRepository.detachSubtree(ou.getId());
+        closureRepository.attachSubtree(ou.getId(), newParent.getId());
+    }
+
+    /**
+     * Zulässige Parents: EINRICHTUNG direkt unter dem Träger-Root; alles darunter (Abteilung, Team, …)
+     * innerhalb einer Einrichtung, Teams unter EINRICHTUNG oder ABTEILUNG.
+     */
+    private static void requireAllowedParent(OrgUnitType type, OrgUnitType parentType) {
+        boolean allowed = switch (type) {
+            case TRAEGER -> false;
+            case EINRICHTUNG -> parentType == OrgUnitType.TRAEGER;
+            case TEAM -> parentType == OrgUnitType.EINRICHTUNG || parentType == OrgUnitType.ABTEILUNG;
+            case ABTEILUNG, GRUPPE, STANDORT -> parentType != OrgUnitType.TRAEGER;
+        };
+        if (!allowed) {
+            throw DomainException.badRequest(ErrorCode.VALIDATION_FAILED,
+                    type + " kann nicht unter " + parentType + " liegen.");
+        }
+    }
+
     private static void applyAddress(OrgUnit ou, String strasse, String hausnummer,
                                      String plz, String ort, String leitung, String ansprechpartner) {
         ou.setStrasse(trim(strasse));
@@ -1,6 +1,7 @@
 package org.thomcgn.backend.schutzplan.model;
 
 import jakarta.persistence.*;
+import org.thomcgn.backend.common.persistence.PooledIds;
 
 import java.time.LocalDate;
 
@@ -10,7 +11,8 @@ import java.time.LocalDate;
 public class SchutzplanMassnahme {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "schutzplan_massnahmen_id")
+    @SequenceGenerator(name = "schutzplan_massnahmen_id", sequenceName = "schutzplan_massnahmen_id_seq", allocationSize = PooledIds.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
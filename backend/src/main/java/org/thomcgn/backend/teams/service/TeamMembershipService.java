@@ -3,6 +3,7 @@ package org.thomcgn.backend.teams.service;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.thomcgn.backend.auth.service.AdminGuard;
+import org.thomcgn.backend.auth.service.UserContextCache;
 import org.thomcgn.backend.common.errors.DomainException;
 import org.thomcgn.backend.common.errors.ErrorCode;
 import org.thomcgn.backend.orgunits.model.OrgUnit;
@@ -25,15 +26,18 @@ public class TeamMembershipService {
     private final OrgUnitMembershipRepository membershipRepository;
     private final UserRepository userRepository;
     private final AdminGuard adminGuard;
+    private final UserContextCache userContextCache;
 
     public TeamMembershipService(
             OrgUnitMembershipRepository membershipRepository,
             UserRepository userRepository,
-            AdminGuard adminGuard
+            AdminGuard adminGuard,
+            UserContextCache userContextCache
     ) {
         this.membershipRepository = membershipRepository;
         this.userRepository = userRepository;
         this.adminGuard = adminGuard;
+        this.userContextCache = userContextCache;
     }
 
     @Transactional
@@ -73,6 +77,7 @@ public class TeamMembershipService {
         OrgUnitMembership saved = membershipRepository.save(membership);
 
         ensureFachbereichMembership(user, team);
+        userContextCache.invalidateUserAfterCommit(user.getId());
 
         return toResponse(saved);
     }
@@ -130,6 +135,7 @@ public class TeamMembershipService {
             membership.setPrimary(false);
         }
 
+        userContextCache.invalidateUserAfterCommit(membership.getUser().getId());
         return toResponse(membershipRepository.save(membership));
     }
 
@@ -143,6 +149,7 @@ public class TeamMembershipService {
 
         membership.setEnabled(false);
         membership.setPrimary(false);
+        userContextCache.invalidateUserAfterCommit(membership.getUser().getId());
     }
 
     private void ensureFachbereichMembership(User user, OrgUnit team) {
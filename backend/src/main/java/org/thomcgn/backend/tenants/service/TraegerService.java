@@ -4,12 +4,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.thomcgn.backend.auth.model.Role;
 import org.thomcgn.backend.auth.service.AccessControlService;
+import org.thomcgn.backend.auth.service.UserContextCache;
 import org.thomcgn.backend.common.errors.DomainException;
 import org.thomcgn.backend.common.errors.ErrorCode;
 import org.thomcgn.backend.common.security.SecurityUtils;
 import org.thomcgn.backend.orgunits.model.OrgUnit;
 import org.thomcgn.backend.orgunits.model.OrgUnitType;
+import org.thomcgn.backend.orgunits.repo.OrgUnitClosureRepository;
 import org.thomcgn.backend.orgunits.repo.OrgUnitRepository;
+import org.thomcgn.backend.orgunits.service.OrgUnitHierarchyIndex;
 import org.thomcgn.backend.tenants.dto.CreateTraegerRequest;
 import org.thomcgn.backend.tenants.dto.TraegerResponse;
 import org.thomcgn.backend.tenants.model.Traeger;
@@ -25,13 +28,22 @@ public class TraegerService {
     private final TraegerRepository repo;
     private final AccessControlService access;
     private final OrgUnitRepository orgUnitRepository;
+    private final OrgUnitHierarchyIndex hierarchyIndex;
+    private final OrgUnitClosureRepository closureRepository;
+    private final UserContextCache userContextCache;
 
     public TraegerService(TraegerRepository repo,
                           AccessControlService access,
-                          OrgUnitRepository orgUnitRepository) {
+                          OrgUnitRepository orgUnitRepository,
+                          OrgUnitHierarchyIndex hierarchyIndex,
+                          OrgUnitClosureRepository closureRepository,
+                          UserContextCache userContextCache) {
         this.repo = repo;
         this.access = access;
         this.orgUnitRepository = orgUnitRepository;
+        this.hierarchyIndex = hierarchyIndex;
+        this.closureRepository = closureRepository;
+        this.userContextCache = userContextCache;
     }
 
     @Transactional
@@ -67,7 +79,9 @@ public class TraegerService {
         root.setType(OrgUnitType.TRAEGER);
         root.setName(saved.getName());
         root.setEnabled(true);
-        orgUnitRepository.save(root);
+        OrgUnit savedRoot = orgUnitRepository.save(root);
+        closureRepository.insertRoot(savedRoot.getId());
+        hierarchyIndex.invalidateAfterCommit(saved.getId());
 
         return toDto(saved);
     }
@@ -115,7 +129,10 @@ public class TraegerService {
         t.setLeitung(trim(req.leitung()));
         t.setAnsprechpartner(trim(req.ansprechpartner()));
 
-        return toDto(repo.save(t));
+        Traeger saved = repo.save(t);
+        // Kontext-Listen enthalten den Träger-Namen
+        userContextCache.invalidateAllAfterCommit();
+        return toDto(saved);
     }
 
     // -------------------------------------------------------------------------
@@ -21,8 +21,9 @@ public class UserQueryAdminController {
 
     @PreAuthorize("hasRole('TRAEGER_ADMIN') or hasRole('EINRICHTUNG_ADMIN')")
     @GetMapping("/{orgUnitId}/users")
-    public ResponseEntity<List<OrgUnitUserResponse>> list(@PathVariable Long orgUnitId) {
-        return ResponseEntity.ok(userQueryService.listUsersForOrgUnit(orgUnitId));
+    public ResponseEntity<List<OrgUnitUserResponse>> list(@PathVariable Long orgUnitId,
+                                                          @RequestParam(defaultValue = "false") boolean subtree) {
+        return ResponseEntity.ok(userQueryService.listUsersForOrgUnit(orgUnitId, subtree));
     }
 
     @PreAuthorize("hasRole('TRAEGER_ADMIN') or hasRole('EINRICHTUNG_ADMIN')")
@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.thomcgn.backend.auth.model.Role;
 import org.thomcgn.backend.auth.service.AdminGuard;
+import org.thomcgn.backend.auth.service.UserContextCache;
 import org.thomcgn.backend.common.errors.DomainException;
 import org.thomcgn.backend.common.errors.ErrorCode;
 import org.thomcgn.backend.orgunits.model.OrgUnit;
@@ -34,17 +35,20 @@ public class UserAdminService {
     private final OrgUnitMembershipRepository membershipRepository;
     private final PasswordEncoder passwordEncoder;
     private final AdminGuard adminGuard;
+    private final UserContextCache userContextCache;
 
     public UserAdminService(
             UserRepository userRepository,
             OrgUnitMembershipRepository membershipRepository,
             PasswordEncoder passwordEncoder,
-            AdminGuard adminGuard
+            AdminGuard adminGuard,
+            UserContextCache userContextCache
     ) {
         this.userRepository = userRepository;
         this.membershipRepository = membershipRepository;
         this.passwordEncoder = passwordEncoder;
         this.adminGuard = adminGuard;
+        this.userContextCache = userContextCache;
     }
 
     @Transactional
@@ -98,6 +102,7 @@ public class UserAdminService {
         adminGuard.requireCanManageOrgUnit(m.getOrgUnit().getId());
         checkCanAssignRoleByName(m.getRole());
         m.setEnabled(false);
+        userContextCache.invalidateUserAfterCommit(userId);
     }
 
     /**
@@ -272,6 +277,7 @@ public class UserAdminService {
         }
 
         checkCanAssignRole(role);
+        userContextCache.invalidateUserAfterCommit(user.getId());
 
         return membershipRepository.findByUserIdAndOrgUnitIdAndRole(user.getId(), targetOrg.getId(), role.name())
                 .map(existing -> {
@@ -24,8 +24,10 @@ public class UserQueryService {
     }
 
     @Transactional(readOnly = true)
-    public List<OrgUnitUserResponse> listUsersForOrgUnit(Long orgUnitId) {
-        List<OrgUnitMembership> rows = membershipRepository.findAllEnabledRolesByOrgUnitId(orgUnitId);
+    public List<OrgUnitUserResponse> listUsersForOrgUnit(Long orgUnitId, boolean includeSubtree) {
+        List<OrgUnitMembership> rows = includeSubtree
+                ? membershipRepository.findAllEnabledRolesInSubtree(orgUnitId)
+                : membershipRepository.findAllEnabledRolesByOrgUnitId(orgUnitId);
 
         Map<Long, UserRoleAgg> map = new LinkedHashMap<>();
         for (OrgUnitMembership m : rows) {
@@ -89,6 +89,23 @@ VALUES ((SELECT id FROM traeger WHERE slug = 'demo-traeger'),
         (SELECT id FROM org_units WHERE name = 'Musterträger e.V.' AND type = 'TRAEGER'),
         true, now(), now());
 
+-- Closure-Zeilen für den Demo-Baum (alte Zeilen sind per ON DELETE CASCADE weg)
+INSERT INTO org_unit_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE tree(ancestor_id, descendant_id, depth) AS (
+    SELECT id, id, 0
+      FROM org_units
+     WHERE traeger_id = (SELECT id FROM traeger WHERE slug = 'demo-traeger')
+    UNION ALL
+    SELECT t.ancestor_id, c.id, t.depth + 1
+      FROM tree t
+      JOIN org_units c ON c.parent_id = t.descendant_id
+     WHERE t.depth < 50
+)
+SELECT ancestor_id, descendant_id, MIN(depth)
+  FROM tree
+ GROUP BY ancestor_id, descendant_id
+ON CONFLICT (ancestor_id, descendant_id) DO NOTHING;
+
 -- ─── Benutzer ─────────────────────────────────────────────────────────────────
 
 INSERT INTO users (email, password_hash, enabled, system_admin, default_traeger_id, default_org_unit_id, created_at, updated_at, vorname, nachname)
@@ -1127,3 +1144,20 @@ FROM falloeffnungen f
 WHERE f.traeger_id = (SELECT id FROM traeger WHERE slug = 'demo-traeger')
 GROUP BY f.id
 ON CONFLICT (falloeffnung_id) DO UPDATE SET next_value = EXCLUDED.next_value;
+
+-- ═══════════════════════════════════════════════════════════════════════════
+-- FALL-LISTE (Read-Model neu aufbauen; alte Zeilen sind per ON DELETE CASCADE weg)
+-- ═══════════════════════════════════════════════════════════════════════════
+
+-- gleiche Berechnung wie FallListEntryRepository.refresh (Funktion aus V077/V079)
+INSERT INTO fall_list_entry (fall_id, traeger_id, einrichtung_org_unit_id, team_org_unit_id, dossier_id, kind_id,
+                             status, titel, aktenzeichen, kind_name, created_by_display_name, created_at,
+                             akut_gefahr_im_verzug, dringlichkeit, naechste_ueberpruefung_am,
+                             risk_traffic_light, refreshed_at, risk_payload_id)
+SELECT e.fall_id, e.traeger_id, e.einrichtung_org_unit_id, e.team_org_unit_id, e.dossier_id, e.kind_id,
+       e.status, e.titel, e.aktenzeichen, e.kind_name, e.created_by_display_name, e.created_at,
+       e.akut_gefahr_im_verzug, e.dringlichkeit, e.naechste_ueberpruefung_am,
+       e.risk_traffic_light, e.refreshed_at, e.risk_payload_id
+FROM fall_list_entry_source() e
+WHERE e.traeger_id = (SELECT id FROM traeger WHERE slug = 'demo-traeger')
+ON CONFLICT (fall_id) DO NOTHING;
@@ -0,0 +1,28 @@
+-- Closure-Tabelle für den OrgUnit-Baum: eine Zeile pro (Ancestor, Descendant)-Paar inkl. self (depth = 0).
+-- Ermöglicht Subtree-Scoping direkt in SQL (join statt IN-Liste aus der JVM).
+-- Gepflegt von OrgUnitService (create / re-parent) und TraegerService (Root).
+
+CREATE TABLE org_unit_closure (
+    ancestor_id   BIGINT   NOT NULL REFERENCES org_units(id) ON DELETE CASCADE,
+    descendant_id BIGINT   NOT NULL REFERENCES org_units(id) ON DELETE CASCADE,
+    depth         INTEGER  NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+-- PK deckt "alle Nachfahren von X" ab, dieser Index "alle Vorfahren von X"
+CREATE INDEX ix_org_unit_closure_descendant ON org_unit_closure (descendant_id, ancestor_id);
+
+-- Backfill aus parent_id (depth-Guard gegen evtl. Zyklen in Altdaten)
+INSERT INTO org_unit_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE tree(ancestor_id, descendant_id, depth) AS (
+    SELECT id, id, 0
+      FROM org_units
+    UNION ALL
+    SELECT t.ancestor_id, c.id, t.depth + 1
+      FROM tree t
+      JOIN org_units c ON c.parent_id = t.descendant_id
+     WHERE t.depth < 50
+)
+SELECT ancestor_id, descendant_id, MIN(depth)
+  FROM tree
+ GROUP BY ancestor_id, descendant_id;
@@ -0,0 +1,21 @@
+-- Fall-Suche (FalleroeffnungSearchRepository): Trigram-Indizes für Teilstring-Suche
+-- und ein Pattern-Index für exakte Präfix-Treffer auf dem Aktenzeichen.
+-- Ausdrücke müssen exakt zu den lower(...)-Prädikaten der Suche passen.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_fall_aktenzeichen_prefix
+    ON falloeffnungen (lower(aktenzeichen) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS ix_fall_aktenzeichen_trgm
+    ON falloeffnungen USING gin (lower(aktenzeichen) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS ix_fall_titel_trgm
+    ON falloeffnungen USING gin (lower(titel) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS ix_kind_vorname_trgm
+    ON kinder USING gin (lower(vorname) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS ix_kind_nachname_trgm
+    ON kinder USING gin (lower(nachname) gin_trgm_ops);
+
@@ -0,0 +1,3 @@
+-- Keyset-Paging der Fall-Liste: Seek auf (created_at, id) innerhalb einer Einrichtung
+CREATE INDEX IF NOT EXISTS ix_fall_einr_created_id
+    ON falloeffnungen (einrichtung_org_unit_id, created_at DESC, id DESC);
@@ -0,0 +1,63 @@
+-- Read-Model der Fall-Liste: eine Zeile pro Fall mit allem, was die Liste anzeigt
+-- (Kindname, Status, Flags der current Meldung, letzte Risiko-Ampel).
+-- Gepflegt in derselben Transaktion von FalleroeffnungService, MeldungService und FallRiskService;
+-- Neuaufbau über POST /admin/fall-list/rebuild.
+
+CREATE TABLE fall_list_entry (
+    fall_id                   BIGINT       PRIMARY KEY REFERENCES falloeffnungen(id) ON DELETE CASCADE,
+    traeger_id                BIGINT       NOT NULL,
+    einrichtung_org_unit_id   BIGINT       NOT NULL,
+    team_org_unit_id          BIGINT,
+    dossier_id                BIGINT       NOT NULL,
+    kind_id                   BIGINT       NOT NULL,
+
+    status                    VARCHAR(30)  NOT NULL,
+    titel                     VARCHAR(200),
+    aktenzeichen              VARCHAR(50)  NOT NULL,
+    kind_name                 VARCHAR(255) NOT NULL,
+    created_by_display_name   VARCHAR(255),
+    created_at                TIMESTAMPTZ  NOT NULL,
+
+    -- aus der current Meldung (NULL = keine Meldung)
+    akut_gefahr_im_verzug     BOOLEAN,
+    dringlichkeit             VARCHAR(50),
+    naechste_ueberpruefung_am DATE,
+
+    -- aus dem letzten Risk-Snapshot
+    risk_traffic_light        VARCHAR(10),
+
+    refreshed_at              TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
+
+-- Liste pro Einrichtung (optional Status), neueste zuerst; deckt Offset- und Keyset-Paging
+CREATE INDEX ix_fall_list_einr_created
+    ON fall_list_entry (einrichtung_org_unit_id, created_at DESC, fall_id DESC);
+
+CREATE INDEX ix_fall_list_einr_status_created
+    ON fall_list_entry (einrichtung_org_unit_id, status, created_at DESC, fall_id DESC);
+
+-- Backfill (identisch zu FallListEntryRepository.rebuildAll)
+INSERT INTO fall_list_entry (fall_id, traeger_id, einrichtung_org_unit_id, team_org_unit_id, dossier_id, kind_id,
+                             status, titel, aktenzeichen, kind_name, created_by_display_name, created_at,
+                             akut_gefahr_im_verzug, dringlichkeit, naechste_ueberpruefung_am, risk_traffic_light,
+                             refreshed_at)
+SELECT f.id, f.traeger_id, f.einrichtung_org_unit_id, f.team_org_unit_id, f.dossier_id, d.kind_id,
+       f.status, f.titel, f.aktenzeichen,
+       COALESCE(NULLIF(BTRIM(COALESCE(k.vorname, '') || ' ' || COALESCE(k.nachname, '')), ''), '-'),
+       COALESCE(NULLIF(BTRIM(CONCAT_WS(' ', BTRIM(u.vorname), BTRIM(u.nachname))), ''), u.email),
+       f.created_at,
+       m.akut_gefahr_im_verzug, m.dringlichkeit, m.naechste_ueberpruefung_am,
+       r.traffic_light,
+       now()
+  FROM falloeffnungen f
+  JOIN kind_dossiers d ON d.id = f.dossier_id
+  JOIN kinder k ON k.id = d.kind_id
+  LEFT JOIN users u ON u.id = f.created_by_user_id
+  LEFT JOIN meldungen m ON m.falloeffnung_id = f.id AND m.current = true
+  LEFT JOIN LATERAL (
+        SELECT s.traffic_light
+          FROM falloeffnung_risk_snapshots s
+         WHERE s.falloeffnung_id = f.id
+         ORDER BY s.created_at DESC, s.id DESC
+         LIMIT 1
+  ) r ON true;
@@ -0,0 +1,6 @@
+-- Notizen-Timeline: Keyset-Paging auf (created_at, id) pro Fall (rückwärts gescannt = neueste zuerst).
+-- Ersetzt den reinen Fall-Index, der Präfix dieses Index ist.
+CREATE INDEX IF NOT EXISTS ix_falloeffnung_notiz_fall_created
+    ON falloeffnung_notizen (falloeffnung_id, created_at, id);
+
+DROP INDEX IF EXISTS ix_falloeffnung_notiz_fall;
@@ -0,0 +1,23 @@
+-- Aggregat für die Risiko-Auswertung: MAX(severity) pro Fall und Indikator.
+-- Wird beim Schreiben von Indikator-Tags (FalleroeffnungService.addNotiz) per Upsert nur erhöht;
+-- FallRiskService liest nur noch diese Tabelle statt aller Tags des Falls.
+-- Abgleich gegen die Roh-Tags: FallIndicatorAggregateReconciler (nächtlich).
+
+CREATE TABLE fall_indicator_max_severity (
+    falloeffnung_id BIGINT      NOT NULL REFERENCES falloeffnungen(id) ON DELETE CASCADE,
+    indicator_id    VARCHAR(80) NOT NULL,
+    max_severity    INT         NOT NULL,
+    updated_at      TIMESTAMPTZ NOT NULL DEFAULT now(),
+
+    PRIMARY KEY (falloeffnung_id, indicator_id)
+);
+
+-- Backfill (identisch zu FallIndicatorMaxSeverityRepository.insertFromTagsForFall, über alle Fälle)
+INSERT INTO fall_indicator_max_severity (falloeffnung_id, indicator_id, max_severity, updated_at)
+SELECT n.falloeffnung_id, BTRIM(t.indicator_id), MAX(LEAST(GREATEST(t.severity, 0), 3)), now()
+  FROM falloeffnung_notiz_tags t
+  JOIN falloeffnung_notizen n ON n.id = t.notiz_id
+ WHERE t.indicator_id IS NOT NULL
+   AND BTRIM(t.indicator_id) <> ''
+   AND t.severity IS NOT NULL
+ GROUP BY n.falloeffnung_id, BTRIM(t.indicator_id);
@@ -0,0 +1,13 @@
+-- Outbox für die Risiko-Neuberechnung: eine Zeile pro Fall (PK) = mehrere Anforderungen werden zusammengefasst.
+-- Geschrieben in der Notiz-Transaktion (FalleroeffnungService.addNotiz), abgearbeitet von RiskRecomputeWorker.
+
+CREATE TABLE risk_recompute_outbox (
+    falloeffnung_id    BIGINT      PRIMARY KEY REFERENCES falloeffnungen(id) ON DELETE CASCADE,
+    first_requested_at TIMESTAMPTZ NOT NULL,   -- älteste offene Anforderung (Lag-Messung)
+    requested_at       TIMESTAMPTZ NOT NULL,   -- jüngste Anforderung
+    next_attempt_at    TIMESTAMPTZ NOT NULL,   -- frühestens bearbeiten ab (Entprellung / Backoff)
+    attempts           INT         NOT NULL DEFAULT 0,
+    last_error         TEXT
+);
+
+CREATE INDEX ix_risk_outbox_next_attempt ON risk_recompute_outbox (next_attempt_at);
@@ -0,0 +1,21 @@
+-- Bulk-Neubewertung aller offenen Fälle eines Trägers nach Aktivierung einer Risiko-Matrix.
+-- Fortschritt wird pro Chunk (Keyset über falloeffnung_id) zusammen mit den Snapshots committet,
+-- ein abgebrochener Job setzt bei last_fall_id fort (RiskRescoreJobRunner).
+
+CREATE TABLE risk_rescore_jobs (
+    id              BIGSERIAL   PRIMARY KEY,
+    traeger_id      BIGINT      NOT NULL REFERENCES traeger(id) ON DELETE CASCADE,
+    config_id       BIGINT      NOT NULL REFERENCES traeger_risk_matrix_configs(id) ON DELETE CASCADE,
+    status          VARCHAR(20) NOT NULL,   -- QUEUED | RUNNING | DONE | FAILED | SUPERSEDED
+    total_falls     INT         NOT NULL,
+    processed_falls INT         NOT NULL DEFAULT 0,
+    last_fall_id    BIGINT      NOT NULL DEFAULT 0,
+    last_error      TEXT,
+    created_at      TIMESTAMPTZ NOT NULL DEFAULT now(),
+    started_at      TIMESTAMPTZ,
+    heartbeat_at    TIMESTAMPTZ,
+    finished_at     TIMESTAMPTZ
+);
+
+CREATE INDEX ix_risk_rescore_traeger ON risk_rescore_jobs (traeger_id, id DESC);
+CREATE INDEX ix_risk_rescore_open    ON risk_rescore_jobs (status) WHERE status IN ('QUEUED', 'RUNNING');
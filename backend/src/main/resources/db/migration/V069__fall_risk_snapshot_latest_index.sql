@@ -0,0 +1,7 @@
+-- Letzter Snapshot (LIMIT 1) und Keyset-Paging der Historie: ORDER BY created_at DESC, id DESC
+-- vollständig aus dem Index. Ersetzt ix_fall_risk_fall (ohne id).
+
+DROP INDEX IF EXISTS ix_fall_risk_fall;
+
+CREATE INDEX ix_fall_risk_fall
+    ON falloeffnung_risk_snapshots (falloeffnung_id, created_at DESC, id DESC);
@@ -0,0 +1,61 @@
+-- Änderungsbasierte Risiko-Snapshots:
+--  * content_hash über Config, Score, Ampel, harte Regeln und Dimensionen. Eine Neuberechnung mit
+--    gleichem Hash wie der letzte Snapshot schreibt keine neue Zeile, sondern setzt confirmed_at.
+--  * Rationale / Hard-Hits / Dimensionen (JSON) werden in risk_snapshot_payloads einmal pro
+--    Inhalt (payload_hash) abgelegt und referenziert.
+-- Hash-Formeln entsprechen RiskSnapshotContent (SHA-256 hex, Felder getrennt durch chr(31)).
+
+CREATE TABLE risk_snapshot_payloads (
+    id              BIGSERIAL PRIMARY KEY,
+    payload_hash    VARCHAR(64) NOT NULL,
+    rationale_json  TEXT,
+    hard_hits_json  TEXT,
+    dimensions_json TEXT,
+    created_at      TIMESTAMPTZ NOT NULL DEFAULT now(),
+
+    CONSTRAINT uq_risk_snapshot_payload_hash UNIQUE (payload_hash)
+);
+
+ALTER TABLE falloeffnung_risk_snapshots
+    ADD COLUMN payload_id   BIGINT,
+    ADD COLUMN content_hash VARCHAR(64),
+    ADD COLUMN confirmed_at TIMESTAMPTZ;
+
+-- Bestand: Payloads deduplizieren
+INSERT INTO risk_snapshot_payloads (payload_hash, rationale_json, hard_hits_json, dimensions_json)
+SELECT DISTINCT ON (x.payload_hash) x.payload_hash, x.rationale_json, x.hard_hits_json, x.dimensions_json
+  FROM (
+        SELECT encode(sha256(convert_to(
+                   coalesce(s.rationale_json, '') || chr(31) ||
+                   coalesce(s.hard_hits_json, '') || chr(31) ||
+                   coalesce(s.dimensions_json, ''), 'UTF8')), 'hex') AS payload_hash,
+               s.rationale_json, s.hard_hits_json, s.dimensions_json
+          FROM falloeffnung_risk_snapshots s
+       ) x
+ON CONFLICT (payload_hash) DO NOTHING;
+
+UPDATE falloeffnung_risk_snapshots s
+   SET payload_id = p.id,
+       content_hash = encode(sha256(convert_to(
+           coalesce(s.config_id::text, 'default') || ':' || s.config_version || chr(31) ||
+           s.final_score::text || chr(31) ||
+           s.traffic_light || chr(31) ||
+           coalesce(s.hard_hits_json, '') || chr(31) ||
+           coalesce(s.dimensions_json, ''), 'UTF8')), 'hex'),
+       confirmed_at = s.created_at
+  FROM risk_snapshot_payloads p
+ WHERE p.payload_hash = encode(sha256(convert_to(
+           coalesce(s.rationale_json, '') || chr(31) ||
+           coalesce(s.hard_hits_json, '') || chr(31) ||
+           coalesce(s.dimensions_json, ''), 'UTF8')), 'hex');
+
+ALTER TABLE falloeffnung_risk_snapshots
+    ALTER COLUMN payload_id SET NOT NULL,
+    ALTER COLUMN content_hash SET NOT NULL,
+    ALTER COLUMN confirmed_at SET NOT NULL,
+    ADD CONSTRAINT fk_fall_risk_payload FOREIGN KEY (payload_id) REFERENCES risk_snapshot_payloads(id),
+    DROP COLUMN rationale_json,
+    DROP COLUMN hard_hits_json,
+    DROP COLUMN dimensions_json;
+
+CREATE INDEX ix_fall_risk_payload ON falloeffnung_risk_snapshots (payload_id);
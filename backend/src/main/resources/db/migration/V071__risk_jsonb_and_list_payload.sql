@@ -0,0 +1,42 @@
+-- Risiko-JSON als jsonb, abfragbar über GIN-Indizes:
+--  * risk_snapshot_payloads: rationale / hard hits / dimensions
+--  * traeger_risk_matrix_configs.config_json
+-- fall_list_entry.risk_payload_id zeigt auf den Payload des letzten Snapshots, damit Filter wie
+-- "letzter Snapshot hat harte Regel self_harm" über den GIN-Index der (deduplizierten) Payloads
+-- laufen statt über alle Snapshots.
+
+-- Ungültiges JSON im Bestand nicht verlieren: als JSON-String übernehmen
+CREATE FUNCTION pg_temp.kidoc_try_jsonb(t TEXT) RETURNS JSONB
+    LANGUAGE plpgsql IMMUTABLE AS $$
+BEGIN
+    RETURN t::jsonb;
+EXCEPTION WHEN others THEN
+    RETURN to_jsonb(t);
+END;
+$$;
+
+ALTER TABLE risk_snapshot_payloads
+    ALTER COLUMN rationale_json  TYPE JSONB USING pg_temp.kidoc_try_jsonb(rationale_json),
+    ALTER COLUMN hard_hits_json  TYPE JSONB USING pg_temp.kidoc_try_jsonb(hard_hits_json),
+    ALTER COLUMN dimensions_json TYPE JSONB USING pg_temp.kidoc_try_jsonb(dimensions_json);
+
+ALTER TABLE traeger_risk_matrix_configs
+    ALTER COLUMN config_json TYPE JSONB USING pg_temp.kidoc_try_jsonb(config_json);
+
+-- @>-Abfragen: hard_hits_json @> '[{"indicatorId": "..."}]', dimensions_json @> '["..."]'
+CREATE INDEX ix_risk_payload_hard_hits  ON risk_snapshot_payloads USING GIN (hard_hits_json jsonb_path_ops);
+CREATE INDEX ix_risk_payload_dimensions ON risk_snapshot_payloads USING GIN (dimensions_json jsonb_path_ops);
+
+ALTER TABLE fall_list_entry
+    ADD COLUMN risk_payload_id BIGINT REFERENCES risk_snapshot_payloads(id);
+
+UPDATE fall_list_entry e
+   SET risk_payload_id = (
+           SELECT s.payload_id
+             FROM falloeffnung_risk_snapshots s
+            WHERE s.falloeffnung_id = e.fall_id
+            ORDER BY s.created_at DESC, s.id DESC
+            LIMIT 1
+       );
+
+CREATE INDEX ix_fall_list_entry_risk_payload ON fall_list_entry (risk_payload_id);
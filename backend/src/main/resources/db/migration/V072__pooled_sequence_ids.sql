@@ -0,0 +1,34 @@
+-- Sequenz-IDs mit pooled-lo (PooledIds.ALLOCATION_SIZE = 50) statt IDENTITY für mengenstarke Tabellen:
+-- Hibernate reserviert pro nextval() einen Block von 50 IDs und kann Inserts als JDBC-Batch senden.
+--
+-- INCREMENT BY 50: jeder nextval()-Aufruf (Hibernate oder DEFAULT bei SQL-Inserts) belegt einen
+-- eigenen Block, es gibt keine Überschneidungen. Vorher auf MAX(id) setzen (vgl. V048), damit der
+-- erste Block sicher oberhalb der bestehenden IDs liegt.
+
+DO $$
+DECLARE
+    t text;
+    seq text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[
+        'meldungen',
+        'meldung_observations',
+        'meldung_observation_tags',
+        'meldung_changes',
+        'falloeffnung_notiz_tags',
+        'dji_positionen',
+        'kinderschutzbogen_bewertungen',
+        'schutzplan_massnahmen',
+        'message_recipients',
+        'audit_events'
+    ]
+    LOOP
+        seq := pg_get_serial_sequence(t, 'id');
+        IF seq IS NULL OR right(seq, length(t) + 7) <> t || '_id_seq' THEN
+            RAISE EXCEPTION 'Sequenz für %.id ist % (erwartet %_id_seq)', t, seq, t;
+        END IF;
+
+        EXECUTE format('SELECT setval(%L, COALESCE((SELECT MAX(id) FROM %I), 1), true)', seq, t);
+        EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50', seq);
+    END LOOP;
+END $$;
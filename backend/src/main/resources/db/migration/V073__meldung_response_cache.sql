@@ -0,0 +1,13 @@
+-- Optionale zweite Stufe des MeldungResponseCache (kidoc.meldung.response-cache.table-enabled):
+-- fertig serialisierte Antworten abgeschlossener Meldungs-Versionen, Schlüssel (meldung_id, row_version).
+-- Überlebt Neustarts und wird von allen Instanzen geteilt; ON DELETE CASCADE räumt mit der Meldung ab.
+
+CREATE TABLE meldung_response_cache (
+    meldung_id  BIGINT      NOT NULL REFERENCES meldungen(id) ON DELETE CASCADE,
+    row_version BIGINT      NOT NULL,
+    etag        VARCHAR(80) NOT NULL,
+    body        BYTEA       NOT NULL,
+    created_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+
+    CONSTRAINT pk_meldung_response_cache PRIMARY KEY (meldung_id, row_version)
+);
@@ -0,0 +1,8 @@
+-- Change-Log seitenweise (GET .../meldungen/{meldungId}/changes, Keyset auf changed_at + id)
+-- und Zusammenfassung (count, max(changed_at)) in MeldungResponse.
+-- Ersetzt ix_meldung_change_meldung (meldung_id ist Präfix des neuen Index).
+
+CREATE INDEX IF NOT EXISTS ix_meldung_change_meldung_changed_at
+    ON meldung_changes (meldung_id, changed_at, id);
+
+DROP INDEX IF EXISTS ix_meldung_change_meldung;
@@ -0,0 +1,14 @@
+-- Cursor-Suche der Fall-Liste (FallListEntryRepository.searchScopedAfter / countMatching):
+-- Trigram-Indizes auf dem Read-Model, damit '%q%' nicht die ganze Tabelle scannt.
+-- Ausdrücke müssen exakt zu den lower(...)-Prädikaten der Queries passen.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_fall_list_aktenzeichen_trgm
+    ON fall_list_entry USING gin (lower(aktenzeichen) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS ix_fall_list_titel_trgm
+    ON fall_list_entry USING gin (lower(titel) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS ix_fall_list_kind_name_trgm
+    ON fall_list_entry USING gin (lower(kind_name) gin_trgm_ops);
@@ -0,0 +1,20 @@
+-- Risiko-Outbox: Lease statt Delete-on-Claim, Versuchs-Obergrenze mit Parken.
+-- claimNext setzt locked_until und zählt attempts in einer eigenen, sofort committeten Transaktion;
+-- Erfolg löscht die Zeile in der Neuberechnungs-Transaktion, ein Fehlschlag gibt die Lease in
+-- derselben Transaktion frei, die den Fehler protokolliert. Stirbt der Worker, läuft die Lease ab.
+-- status PARKED: kidoc.risk.outbox.max-attempts erreicht, wird nicht mehr geclaimt
+-- (Metrik risk.outbox.parked); eine neue Anforderung für den Fall reaktiviert die Zeile.
+
+ALTER TABLE risk_recompute_outbox
+    ADD COLUMN status       VARCHAR(10) NOT NULL DEFAULT 'PENDING',
+    ADD COLUMN locked_until TIMESTAMPTZ,
+    ADD COLUMN parked_at    TIMESTAMPTZ;
+
+ALTER TABLE risk_recompute_outbox
+    ADD CONSTRAINT ck_risk_outbox_status CHECK (status IN ('PENDING', 'PARKED'));
+
+DROP INDEX IF EXISTS ix_risk_outbox_next_attempt;
+
+CREATE INDEX ix_risk_outbox_next_attempt
+    ON risk_recompute_outbox (next_attempt_at)
+    WHERE status = 'PENDING';
@@ -0,0 +1,42 @@
+-- Eine Quelle für die Zeilen von fall_list_entry: FallListEntryRepository (refresh, rebuildAll,
+-- refreshForCreator) und der Demo-Seed (R__insert_demo_admin.sql) lesen nur noch hieraus,
+-- statt die Berechnung jeweils selbst zu kopieren.
+-- RETURNS SETOF fall_list_entry: Spalten exakt in Tabellen-Reihenfolge, neue Spalten der Tabelle
+-- fallen beim nächsten Aufruf sofort auf, bis die Funktion per CREATE OR REPLACE nachgezogen ist.
+-- LANGUAGE sql + STABLE, damit Postgres die Funktion inlinet und WHERE fall_id = ... auf f.id drückt.
+
+CREATE OR REPLACE FUNCTION fall_list_entry_source()
+    RETURNS SETOF fall_list_entry
+    LANGUAGE sql
+    STABLE
+AS $$
+    SELECT f.id, f.traeger_id, f.einrichtung_org_unit_id, f.team_org_unit_id, f.dossier_id, d.kind_id,
+           f.status, f.titel, f.aktenzeichen,
+           COALESCE(NULLIF(BTRIM(COALESCE(k.vorname, '') || ' ' || COALESCE(k.nachname, '')), ''), '-'),
+           COALESCE(NULLIF(BTRIM(CONCAT_WS(' ', BTRIM(u.vorname), BTRIM(u.nachname))), ''), u.email),
+           f.created_at,
+           m.akut_gefahr_im_verzug, m.dringlichkeit, m.naechste_ueberpruefung_am,
+           r.traffic_light,
+           now(),
+           r.payload_id
+      FROM falloeffnungen f
+      JOIN kind_dossiers d ON d.id = f.dossier_id
+      JOIN kinder k ON k.id = d.kind_id
+      LEFT JOIN users u ON u.id = f.created_by_user_id
+      LEFT JOIN meldungen m ON m.falloeffnung_id = f.id AND m.current = true
+      LEFT JOIN LATERAL (
+            SELECT s.traffic_light, s.payload_id
+              FROM falloeffnung_risk_snapshots s
+             WHERE s.falloeffnung_id = f.id
+             ORDER BY s.created_at DESC, s.id DESC
+             LIMIT 1
+      ) r ON true
+$$;
+
+-- Bestand angleichen: Zeilen aus dem alten Demo-Seed hatten risk_payload_id nicht gesetzt
+INSERT INTO fall_list_entry
+SELECT * FROM fall_list_entry_source()
+ON CONFLICT (fall_id) DO UPDATE SET
+       risk_traffic_light = EXCLUDED.risk_traffic_light,
+       risk_payload_id    = EXCLUDED.risk_payload_id,
+       refreshed_at       = EXCLUDED.refreshed_at;
@@ -0,0 +1,3 @@
+-- Die Fall-Liste liest seit V064 aus fall_list_entry (ix_fall_list_einr_created); kein Query seekt mehr
+-- auf falloeffnungen (einrichtung_org_unit_id, created_at, id). Der Index aus V063 kostet nur noch Schreibzeit.
+DROP INDEX IF EXISTS ix_fall_einr_created_id;
@@ -0,0 +1,54 @@
+-- fall_list_entry_source (V077) mit benannten Ergebnisspalten statt RETURNS SETOF fall_list_entry.
+-- Die Aufrufer (FallListEntryRepository, R__insert_demo_admin.sql) fügen mit expliziter Spaltenliste
+-- ein; ein späteres ALTER TABLE fall_list_entry ADD COLUMN bricht damit weder die Funktion noch jedes
+-- refresh zur Laufzeit. Neue Spalten werden hier und in der Spaltenliste bewusst nachgezogen.
+-- Rückgabetyp ändert sich -> DROP + CREATE (CREATE OR REPLACE reicht nicht).
+
+DROP FUNCTION IF EXISTS fall_list_entry_source();
+
+CREATE FUNCTION fall_list_entry_source()
+    RETURNS TABLE (
+        fall_id                   BIGINT,
+        traeger_id                BIGINT,
+        einrichtung_org_unit_id   BIGINT,
+        team_org_unit_id          BIGINT,
+        dossier_id                BIGINT,
+        kind_id                   BIGINT,
+        status                    VARCHAR(30),
+        titel                     VARCHAR(200),
+        aktenzeichen              VARCHAR(50),
+        kind_name                 TEXT,
+        created_by_display_name   TEXT,
+        created_at                TIMESTAMPTZ,
+        akut_gefahr_im_verzug     BOOLEAN,
+        dringlichkeit             VARCHAR(50),
+        naechste_ueberpruefung_am DATE,
+        risk_traffic_light        VARCHAR(10),
+        refreshed_at              TIMESTAMPTZ,
+        risk_payload_id           BIGINT
+    )
+    LANGUAGE sql
+    STABLE
+AS $$
+    SELECT f.id, f.traeger_id, f.einrichtung_org_unit_id, f.team_org_unit_id, f.dossier_id, d.kind_id,
+           f.status, f.titel, f.aktenzeichen,
+           COALESCE(NULLIF(BTRIM(COALESCE(k.vorname, '') || ' ' || COALESCE(k.nachname, '')), ''), '-'),
+           COALESCE(NULLIF(BTRIM(CONCAT_WS(' ', BTRIM(u.vorname), BTRIM(u.nachname))), ''), u.email),
+           f.created_at,
+           m.akut_gefahr_im_verzug, m.dringlichkeit, m.naechste_ueberpruefung_am,
+           r.traffic_light,
+           now(),
+           r.payload_id
+      FROM falloeffnungen f
+      JOIN kind_dossiers d ON d.id = f.dossier_id
+      JOIN kinder k ON k.id = d.kind_id
+      LEFT JOIN users u ON u.id = f.created_by_user_id
+      LEFT JOIN meldungen m ON m.falloeffnung_id = f.id AND m.current = true
+      LEFT JOIN LATERAL (
+            SELECT s.traffic_light, s.payload_id
+              FROM falloeffnung_risk_snapshots s
+             WHERE s.falloeffnung_id = f.id
+             ORDER BY s.created_at DESC, s.id DESC
+             LIMIT 1
+      ) r ON true
+$$;
@@ -0,0 +1,80 @@
+package org.thomcgn.backend.falloeffnungen.meldung.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.thomcgn.backend.common.errors.DomainException;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungChangePageResponse;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungChangeResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Meldung change log against real Postgres: the field filter is a literal prefix (LIKE wildcards
+ * escaped), and the keyset cursor pages through rows with equal changed_at without gaps or repeats.
+ */
+class MeldungChangeLogTest extends MeldungServiceDbTestSupport {
+
+    // ── Field filter ──────────────────────────────────────────────────────────
+
+    @Test
+    void changes_field_filter_treats_like_wildcards_literally() {
+        insertChange("sectionReason_META", "2025-01-14T08:00:00Z");
+        insertChange("sectionReasonXMETA", "2025-01-14T08:01:00Z");
+        insertChange("fach%text", "2025-01-14T08:02:00Z");
+        insertChange("fachText", "2025-01-14T08:03:00Z");
+
+        assertThat(service.changes(fallId, meldungId, null, "sectionReason_", null, null).items())
+                .extracting(MeldungChangeResponse::fieldPath).containsExactly("sectionReason_META");
+        assertThat(service.changes(fallId, meldungId, null, "fach%", null, null).items())
+                .extracting(MeldungChangeResponse::fieldPath).containsExactly("fach%text");
+        assertThat(service.changes(fallId, meldungId, null, "fach", null, null).items())
+                .extracting(MeldungChangeResponse::fieldPath).containsExactly("fach%text", "fachText");
+    }
+
+    // ── Keyset cursor ─────────────────────────────────────────────────────────
+
+    @Test
+    void changes_pages_through_equal_timestamps_without_gaps() {
+        for (int i = 0; i < 5; i++) {
+            insertChange("feld" + i, "2025-01-14T08:00:00Z");
+        }
+        insertChange("spaeter", "2025-01-14T09:00:00Z");
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MeldungChangePageResponse page = service.changes(fallId, meldungId, null, null, cursor, 2);
+            page.items().forEach(c -> seen.add(c.fieldPath()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(6).doesNotHaveDuplicates().endsWith("spaeter")
+                .containsExactlyInAnyOrder("feld0", "feld1", "feld2", "feld3", "feld4", "spaeter");
+    }
+
+    @Test
+    void changes_rejects_malformed_cursor() {
+        assertThatThrownBy(() -> service.changes(fallId, meldungId, null, null, "kein-cursor!", 10))
+                .isInstanceOf(DomainException.class)
+                .extracting(e -> ((DomainException) e).getStatus())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private void insertChange(String fieldPath, String changedAt) {
+        em.createNativeQuery("""
+                INSERT INTO meldung_changes (meldung_id, section, field_path, reason, changed_at,
+                                             changed_by_user_id, changed_by_display_name)
+                SELECT %d, 'META', '%s', 'Test', timestamptz '%s', id, 'D. Emo'
+                  FROM users WHERE email = 'demo@kidoc.local'
+                """.formatted(meldungId, fieldPath, changedAt)).executeUpdate();
+    }
+}
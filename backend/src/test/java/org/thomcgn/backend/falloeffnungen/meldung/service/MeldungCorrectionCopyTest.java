@@ -0,0 +1,39 @@
+package org.thomcgn.backend.falloeffnungen.meldung.service;
+
+import org.junit.jupiter.api.Test;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungCorrectRequest;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starting a correction against real Postgres: all sections of the completed Meldung are copied
+ * set-based into the new KORREKTUR version, leaving the target's rows untouched.
+ */
+class MeldungCorrectionCopyTest extends MeldungServiceDbTestSupport {
+
+    @Test
+    void startCorrection_copies_observations_and_tags() {
+        service.saveDraft(fallId, meldungId, draft(50));
+        em.flush();
+        em.createNativeQuery("UPDATE meldungen SET status = 'ABGESCHLOSSEN' WHERE id = " + meldungId).executeUpdate();
+        em.clear();
+
+        MeldungResponse korr = service.startCorrection(fallId, new MeldungCorrectRequest(meldungId, null, null, null));
+
+        assertThat(korr.type()).isEqualTo("KORREKTUR");
+        assertThat(korr.correctsId()).isEqualTo(meldungId);
+        assertThat(korr.observations()).hasSize(50);
+        assertThat(korr.observations())
+                .allSatisfy(o -> assertThat(o.tags()).extracting(MeldungResponse.ObservationTagResponse::indicatorId)
+                        .containsExactly("indicator_0", "indicator_1", "indicator_2"));
+        assertThat(korr.observations().get(0).text()).isEqualTo("Beobachtung 0");
+        assertThat(korr.observations().get(49).text()).isEqualTo("Beobachtung 49");
+
+        // copies, not the target's rows
+        long targetObservations = queryLong("SELECT count(*) FROM meldung_observations WHERE meldung_id = " + meldungId);
+        assertThat(targetObservations).isEqualTo(50);
+        assertThat(queryLong("SELECT count(*) FROM meldung_observation_tags t JOIN meldung_observations o ON o.id = t.observation_id"
+                + " WHERE o.meldung_id = " + korr.id())).isEqualTo(50L * TAGS_PER_OBSERVATION);
+    }
+}
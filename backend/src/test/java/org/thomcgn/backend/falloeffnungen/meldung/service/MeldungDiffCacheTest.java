@@ -0,0 +1,234 @@
+package org.thomcgn.backend.falloeffnungen.meldung.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.thomcgn.backend.auth.service.AccessControlService;
+import org.thomcgn.backend.common.errors.DomainException;
+import org.thomcgn.backend.common.security.SecurityUtils;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungDiffResponse;
+import org.thomcgn.backend.falloeffnungen.meldung.model.Meldung;
+import org.thomcgn.backend.falloeffnungen.meldung.model.MeldungStatus;
+import org.thomcgn.backend.falloeffnungen.meldung.model.MeldungType;
+import org.thomcgn.backend.falloeffnungen.meldung.repo.*;
+import org.thomcgn.backend.falloeffnungen.model.Falleroeffnung;
+import org.thomcgn.backend.falloeffnungen.repo.FallListEntryRepository;
+import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungNotizRepository;
+import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungRepository;
+import org.thomcgn.backend.orgunits.model.OrgUnit;
+import org.thomcgn.backend.tenants.model.Traeger;
+import org.thomcgn.backend.users.repo.UserRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Version diff endpoint: default base version (corrects before supersedes) and the diff cache,
+ * which only holds diffs of two submitted (ABGESCHLOSSEN) versions.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MeldungDiffCacheTest {
+
+    private static final long TRAEGER_ID  = 1L;
+    private static final long ORG_UNIT_ID = 10L;
+    private static final long FALL_ID     = 42L;
+
+    @Mock FalleroeffnungRepository fallRepo;
+    @Mock MeldungRepository meldungRepo;
+    @Mock AccessControlService access;
+
+    SimpleMeterRegistry registry;
+    MeldungDiffCache diffCache;
+    MeldungService service;
+    MockedStatic<SecurityUtils> security;
+    Falleroeffnung fall;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        diffCache = new MeldungDiffCache(registry, 100);
+
+        service = new MeldungService(
+                fallRepo, meldungRepo,
+                mock(MeldungObservationRepository.class), mock(MeldungObservationTagRepository.class),
+                mock(MeldungAnlassCodeRepository.class), mock(MeldungJugendamtRepository.class),
+                mock(MeldungContactRepository.class), mock(MeldungExternRepository.class),
+                mock(MeldungAttachmentRepository.class), mock(MeldungChangeRepository.class),
+                mock(FalleroeffnungNotizRepository.class), mock(UserRepository.class),
+                access, mock(FallListEntryRepository.class),
+                mock(MeldungResponseCache.class), diffCache, mock(MeldungSectionCopyRepository.class),
+                new ObjectMapper(), mock(PlatformTransactionManager.class)
+        );
+
+        fall = fall(FALL_ID);
+        when(access.activeEinrichtungId()).thenReturn(ORG_UNIT_ID);
+        when(fallRepo.findByIdWithRefsScoped(FALL_ID, TRAEGER_ID, ORG_UNIT_ID)).thenReturn(Optional.of(fall));
+
+        security = mockStatic(SecurityUtils.class);
+        security.when(SecurityUtils::currentTraegerIdRequired).thenReturn(TRAEGER_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        security.close();
+    }
+
+    // ── Default base version ──────────────────────────────────────────────────
+
+    @Test
+    void diff_without_from_uses_corrected_version_before_superseded() {
+        Meldung v1 = meldung(1L, 1, MeldungStatus.ABGESCHLOSSEN, "erste");
+        Meldung v2 = meldung(2L, 2, MeldungStatus.ABGESCHLOSSEN, "zweite");
+        Meldung korr = meldung(3L, 3, MeldungStatus.ABGESCHLOSSEN, "korrigiert");
+        korr.setType(MeldungType.KORREKTUR);
+        korr.setSupersedes(v2);
+        korr.setCorrects(v1);
+
+        MeldungDiffResponse diff = service.diff(FALL_ID, null, 3L);
+
+        assertThat(diff.fromId()).isEqualTo(1L);
+        assertThat(diff.toType()).isEqualTo("KORREKTUR");
+        assertThat(diff.entries()).singleElement()
+                .satisfies(e -> {
+                    assertThat(e.path()).isEqualTo("kurzbeschreibung");
+                    assertThat(e.oldValue()).isEqualTo("erste");
+                    assertThat(e.newValue()).isEqualTo("korrigiert");
+                });
+    }
+
+    @Test
+    void diff_without_from_falls_back_to_superseded_version() {
+        Meldung v1 = meldung(1L, 1, MeldungStatus.ABGESCHLOSSEN, "erste");
+        Meldung v2 = meldung(2L, 2, MeldungStatus.ABGESCHLOSSEN, "zweite");
+        v2.setSupersedes(v1);
+
+        assertThat(service.diff(FALL_ID, null, 2L).fromId()).isEqualTo(1L);
+    }
+
+    @Test
+    void diff_without_from_rejects_first_version() {
+        meldung(1L, 1, MeldungStatus.ABGESCHLOSSEN, "erste");
+
+        assertThatThrownBy(() -> service.diff(FALL_ID, null, 1L)).isInstanceOf(DomainException.class);
+    }
+
+    // ── Caching ───────────────────────────────────────────────────────────────
+
+    @Test
+    void diff_of_two_submitted_versions_is_cached() {
+        meldung(1L, 1, MeldungStatus.ABGESCHLOSSEN, "erste");
+        meldung(2L, 2, MeldungStatus.ABGESCHLOSSEN, "zweite");
+
+        MeldungDiffResponse first = service.diff(FALL_ID, 1L, 2L);
+        MeldungDiffResponse second = service.diff(FALL_ID, 1L, 2L);
+
+        assertThat(second).isSameAs(first);
+        assertThat(diffCache.size()).isEqualTo(1);
+        assertThat(registry.get("meldung.diff.cache").tag("result", "hit").counter().count()).isEqualTo(1.0);
+        verify(meldungRepo, times(2)).findById(anyLong());
+    }
+
+    @Test
+    void diff_against_a_draft_is_not_cached() {
+        meldung(1L, 1, MeldungStatus.ABGESCHLOSSEN, "erste");
+        meldung(2L, 2, MeldungStatus.ENTWURF, "entwurf");
+
+        service.diff(FALL_ID, 1L, 2L);
+        service.diff(FALL_ID, 1L, 2L);
+
+        assertThat(diffCache.size()).isZero();
+        verify(meldungRepo, times(4)).findById(anyLong());
+    }
+
+    @Test
+    void default_from_resolves_to_the_cached_pair() {
+        Meldung v1 = meldung(1L, 1, MeldungStatus.ABGESCHLOSSEN, "erste");
+        Meldung v2 = meldung(2L, 2, MeldungStatus.ABGESCHLOSSEN, "zweite");
+        v2.setSupersedes(v1);
+
+        MeldungDiffResponse explicit = service.diff(FALL_ID, 1L, 2L);
+
+        assertThat(service.diff(FALL_ID, null, 2L)).isSameAs(explicit);
+    }
+
+    @Test
+    void cached_diff_is_not_served_for_another_fall() {
+        diffCache.put(99L, new MeldungDiffResponse(1L, 1, "MELDUNG", 2L, 2, "MELDUNG", List.of()));
+        meldung(1L, 1, MeldungStatus.ABGESCHLOSSEN, "erste");
+        meldung(2L, 2, MeldungStatus.ABGESCHLOSSEN, "zweite");
+
+        MeldungDiffResponse diff = service.diff(FALL_ID, 1L, 2L);
+
+        assertThat(diff.entries()).isNotEmpty();
+    }
+
+    @Test
+    void cache_evicts_least_recently_used_entry() {
+        MeldungDiffCache small = new MeldungDiffCache(new SimpleMeterRegistry(), 2);
+        small.put(FALL_ID, diffResponse(1L, 2L));
+        small.put(FALL_ID, diffResponse(2L, 3L));
+        small.get(1L, 2L);
+        small.put(FALL_ID, diffResponse(3L, 4L));
+
+        assertThat(small.get(1L, 2L)).isNotNull();
+        assertThat(small.get(2L, 3L)).isNull();
+        assertThat(small.get(3L, 4L)).isNotNull();
+    }
+
+    @Test
+    void cache_with_zero_entries_stores_nothing() {
+        MeldungDiffCache disabled = new MeldungDiffCache(new SimpleMeterRegistry(), 0);
+        disabled.put(FALL_ID, diffResponse(1L, 2L));
+
+        assertThat(disabled.size()).isZero();
+        assertThat(disabled.get(1L, 2L)).isNull();
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static MeldungDiffResponse diffResponse(Long fromId, Long toId) {
+        return new MeldungDiffResponse(fromId, 1, "MELDUNG", toId, 2, "MELDUNG", List.of());
+    }
+
+    private Meldung meldung(long id, int versionNo, MeldungStatus status, String kurzbeschreibung) {
+        Meldung m = new Meldung();
+        ReflectionTestUtils.setField(m, "id", id);
+        m.setFalleroeffnung(fall);
+        m.setVersionNo(versionNo);
+        m.setStatus(status);
+        m.setType(versionNo == 1 ? MeldungType.ERSTMELDUNG : MeldungType.MELDUNG);
+        m.setKurzbeschreibung(kurzbeschreibung);
+        when(meldungRepo.findById(id)).thenReturn(Optional.of(m));
+        return m;
+    }
+
+    private static Falleroeffnung fall(long id) {
+        Traeger traeger = new Traeger();
+        ReflectionTestUtils.setField(traeger, "id", TRAEGER_ID);
+
+        OrgUnit einrichtung = new OrgUnit();
+        ReflectionTestUtils.setField(einrichtung, "id", ORG_UNIT_ID);
+
+        Falleroeffnung fall = mock(Falleroeffnung.class);
+        when(fall.getId()).thenReturn(id);
+        when(fall.getTraeger()).thenReturn(traeger);
+        when(fall.getEinrichtungOrgUnit()).thenReturn(einrichtung);
+        return fall;
+    }
+}
@@ -0,0 +1,61 @@
+package org.thomcgn.backend.falloeffnungen.meldung.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Saving a Meldung draft against real Postgres (Flyway schema): observations and tags use pooled
+ * sequence IDs, so their inserts go out as JDBC batches instead of one round trip per row.
+ */
+class MeldungDraftBatchInsertTest extends MeldungServiceDbTestSupport {
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // ── Statement count does not grow with the number of observations ────────
+
+    @Test
+    void saveDraft_batches_observation_and_tag_inserts() {
+        long withFive = statementsForDraft(5);
+        long withFifty = statementsForDraft(50);
+
+        // 50 observations + 150 tags: a few extra sequence blocks / batches, not ~180 extra round trips
+        assertThat(withFifty - withFive).isLessThanOrEqualTo(6);
+        assertThat(withFifty).isLessThan(50);
+    }
+
+    @Test
+    void saveDraft_returns_all_observations_with_their_tags() {
+        MeldungResponse response = service.saveDraft(fallId, meldungId, draft(50));
+
+        assertThat(response.observations()).hasSize(50);
+        assertThat(response.observations())
+                .allSatisfy(o -> assertThat(o.tags()).hasSize(TAGS_PER_OBSERVATION));
+        assertThat(response.observations().get(0).text()).isEqualTo("Beobachtung 0");
+        assertThat(response.observations().get(49).text()).isEqualTo("Beobachtung 49");
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private long statementsForDraft(int observations) {
+        em.flush();
+        em.clear();
+        statistics.clear();
+
+        service.saveDraft(fallId, meldungId, draft(observations));
+        em.flush();
+
+        assertThat(statistics.getEntityInsertCount())
+                .isGreaterThanOrEqualTo((long) observations * (1 + TAGS_PER_OBSERVATION));
+        return statistics.getPrepareStatementCount();
+    }
+}
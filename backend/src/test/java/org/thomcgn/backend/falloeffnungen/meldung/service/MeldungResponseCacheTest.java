@@ -0,0 +1,251 @@
+package org.thomcgn.backend.falloeffnungen.meldung.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.thomcgn.backend.auth.service.AccessControlService;
+import org.thomcgn.backend.common.errors.DomainException;
+import org.thomcgn.backend.common.security.SecurityUtils;
+import org.thomcgn.backend.falloeffnungen.meldung.controller.MeldungController;
+import org.thomcgn.backend.falloeffnungen.meldung.model.Meldung;
+import org.thomcgn.backend.falloeffnungen.meldung.repo.*;
+import org.thomcgn.backend.falloeffnungen.model.Falleroeffnung;
+import org.thomcgn.backend.falloeffnungen.repo.FallListEntryRepository;
+import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungNotizRepository;
+import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungRepository;
+import org.thomcgn.backend.orgunits.model.OrgUnit;
+import org.thomcgn.backend.tenants.model.Traeger;
+import org.thomcgn.backend.users.repo.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Response cache of submitted Meldung versions: heap hits are revalidated against the DB
+ * row_version (another instance may have flipped {@code current}), local eviction after commit,
+ * and the ETag / If-None-Match handling in the controller.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class MeldungResponseCacheTest {
+
+    private static final long TRAEGER_ID  = 1L;
+    private static final long ORG_UNIT_ID = 10L;
+    private static final long FALL_ID     = 42L;
+    private static final long MELDUNG_ID  = 7L;
+
+    private static final byte[] JSON = "{\"id\":7}".getBytes(StandardCharsets.UTF_8);
+
+    @Mock MeldungResponseCacheRepository tableRepo;
+    @Mock ObjectMapper objectMapper;
+
+    @Mock FalleroeffnungRepository fallRepo;
+    @Mock MeldungRepository meldungRepo;
+    @Mock AccessControlService access;
+
+    MeldungResponseCache cache;
+    MeldungService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(objectMapper.writeValueAsBytes(any())).thenReturn(JSON);
+        cache = new MeldungResponseCache(tableRepo, objectMapper, new SimpleMeterRegistry(), 1 << 20, false);
+
+        service = new MeldungService(
+                fallRepo, meldungRepo,
+                mock(MeldungObservationRepository.class), mock(MeldungObservationTagRepository.class),
+                mock(MeldungAnlassCodeRepository.class), mock(MeldungJugendamtRepository.class),
+                mock(MeldungContactRepository.class), mock(MeldungExternRepository.class),
+                mock(MeldungAttachmentRepository.class), mock(MeldungChangeRepository.class),
+                mock(FalleroeffnungNotizRepository.class), mock(UserRepository.class),
+                access, mock(FallListEntryRepository.class),
+                cache, mock(MeldungDiffCache.class), mock(MeldungSectionCopyRepository.class),
+                new ObjectMapper(), mock(PlatformTransactionManager.class)
+        );
+        when(access.activeEinrichtungId()).thenReturn(ORG_UNIT_ID);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Falleroeffnung fall() {
+        Traeger traeger = new Traeger();
+        ReflectionTestUtils.setField(traeger, "id", TRAEGER_ID);
+
+        OrgUnit einrichtung = new OrgUnit();
+        ReflectionTestUtils.setField(einrichtung, "id", ORG_UNIT_ID);
+
+        Falleroeffnung fall = mock(Falleroeffnung.class);
+        when(fall.getId()).thenReturn(FALL_ID);
+        when(fall.getTraeger()).thenReturn(traeger);
+        when(fall.getEinrichtungOrgUnit()).thenReturn(einrichtung);
+        return fall;
+    }
+
+    private static Meldung meldung(long rowVersion) {
+        Meldung m = new Meldung();
+        ReflectionTestUtils.setField(m, "id", MELDUNG_ID);
+        ReflectionTestUtils.setField(m, "rowVersion", rowVersion);
+        return m;
+    }
+
+    private static MeldungRepository.CacheState state(long rowVersion, long einrichtungId) {
+        return new MeldungRepository.CacheState() {
+            @Override public long getRowVersion() { return rowVersion; }
+            @Override public Long getFallId() { return FALL_ID; }
+            @Override public Long getTraegerId() { return TRAEGER_ID; }
+            @Override public Long getEinrichtungOrgUnitId() { return einrichtungId; }
+        };
+    }
+
+    private MeldungResponseCache.Entry putVersion(long rowVersion) {
+        return cache.put(meldung(rowVersion), fall(), null, cache.generation());
+    }
+
+    // ── Cache ─────────────────────────────────────────────────────────────────
+
+    @Test
+    void getIfCurrent_returns_entry_for_matching_row_version() {
+        MeldungResponseCache.Entry put = putVersion(3);
+
+        assertThat(cache.getIfCurrent(MELDUNG_ID, 3)).isSameAs(put);
+        assertThat(put.etag()).startsWith("\"7.3.").endsWith("\"");
+    }
+
+    @Test
+    void getIfCurrent_evicts_entry_when_row_version_moved_on() {
+        // another instance flipped current -> row_version 4 in the DB, heap still holds 3
+        putVersion(3);
+        assertThat(cache.sizeBytes()).isEqualTo(JSON.length);
+
+        assertThat(cache.getIfCurrent(MELDUNG_ID, 4)).isNull();
+        assertThat(cache.contains(MELDUNG_ID)).isFalse();
+        assertThat(cache.sizeBytes()).isZero();
+    }
+
+    @Test
+    void evictAfterCommit_waits_for_commit() {
+        putVersion(3);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evictAfterCommit(MELDUNG_ID);
+        assertThat(cache.contains(MELDUNG_ID)).isTrue();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.contains(MELDUNG_ID)).isFalse();
+    }
+
+    @Test
+    void put_with_outdated_generation_is_not_published() {
+        long gen = cache.generation();
+        cache.evict(MELDUNG_ID); // invalidation while the response was being built
+
+        cache.put(meldung(3), fall(), null, gen);
+
+        assertThat(cache.contains(MELDUNG_ID)).isFalse();
+    }
+
+    // ── Service fast path ─────────────────────────────────────────────────────
+
+    @Test
+    void get_serves_heap_hit_after_row_version_check() {
+        MeldungResponseCache.Entry put = putVersion(3);
+        when(meldungRepo.findCacheState(MELDUNG_ID)).thenReturn(Optional.of(state(3, ORG_UNIT_ID)));
+
+        try (MockedStatic<SecurityUtils> sec = mockStatic(SecurityUtils.class)) {
+            sec.when(SecurityUtils::currentTraegerIdRequired).thenReturn(TRAEGER_ID);
+
+            RenderedMeldung rendered = service.get(FALL_ID, MELDUNG_ID);
+
+            assertThat(rendered.etag()).isEqualTo(put.etag());
+            verify(fallRepo, never()).findByIdWithRefsScoped(anyLong(), anyLong(), anyLong());
+        }
+    }
+
+    @Test
+    void get_falls_back_to_db_when_heap_entry_is_stale() {
+        putVersion(3);
+        when(meldungRepo.findCacheState(MELDUNG_ID)).thenReturn(Optional.of(state(4, ORG_UNIT_ID)));
+
+        try (MockedStatic<SecurityUtils> sec = mockStatic(SecurityUtils.class)) {
+            sec.when(SecurityUtils::currentTraegerIdRequired).thenReturn(TRAEGER_ID);
+
+            // slow path loads the Fall; the mocked repository has none -> 404
+            assertThatThrownBy(() -> service.get(FALL_ID, MELDUNG_ID)).isInstanceOf(DomainException.class);
+
+            verify(fallRepo).findByIdWithRefsScoped(FALL_ID, TRAEGER_ID, ORG_UNIT_ID);
+            assertThat(cache.contains(MELDUNG_ID)).isFalse();
+        }
+    }
+
+    @Test
+    void get_does_not_serve_heap_hit_when_fall_moved_out_of_scope() {
+        putVersion(3);
+        when(meldungRepo.findCacheState(MELDUNG_ID)).thenReturn(Optional.of(state(3, 99L)));
+
+        try (MockedStatic<SecurityUtils> sec = mockStatic(SecurityUtils.class)) {
+            sec.when(SecurityUtils::currentTraegerIdRequired).thenReturn(TRAEGER_ID);
+
+            assertThatThrownBy(() -> service.get(FALL_ID, MELDUNG_ID)).isInstanceOf(DomainException.class);
+            verify(fallRepo).findByIdWithRefsScoped(FALL_ID, TRAEGER_ID, ORG_UNIT_ID);
+        }
+    }
+
+    // ── Controller: ETag / 304 ────────────────────────────────────────────────
+
+    @Test
+    void controller_answers_304_for_matching_if_none_match() throws Exception {
+        MeldungService svc = mock(MeldungService.class);
+        String etag = MeldungResponseCache.etag(MELDUNG_ID, 3, JSON);
+        when(svc.get(FALL_ID, MELDUNG_ID)).thenReturn(new RenderedMeldung(null, JSON, etag));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new MeldungController(svc)).build();
+
+        String url = "/falloeffnungen/" + FALL_ID + "/meldungen/" + MELDUNG_ID;
+
+        mvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(JSON));
+
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        // after a flip the ETag carries the new row_version -> old validator no longer matches
+        String flipped = MeldungResponseCache.etag(MELDUNG_ID, 4, JSON);
+        when(svc.get(FALL_ID, MELDUNG_ID)).thenReturn(new RenderedMeldung(null, JSON, flipped));
+
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, flipped));
+    }
+}
@@ -0,0 +1,67 @@
+package org.thomcgn.backend.falloeffnungen.meldung.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.thomcgn.backend.common.errors.DomainException;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungChangeResponse;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungSectionResponse;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Section PATCH against real Postgres: only fields present in the body are applied, the row
+ * version from If-Match must match, and every accepted patch bumps it.
+ */
+class MeldungSectionPatchTest extends MeldungServiceDbTestSupport {
+
+    // ── Partial body ──────────────────────────────────────────────────────────
+
+    @Test
+    void patchSection_applies_only_fields_present_in_body() {
+        em.createNativeQuery("UPDATE meldungen SET meldeweg = 'TELEFON', dringlichkeit = 'BEOBACHTEN' WHERE id = " + meldungId)
+                .executeUpdate();
+        em.clear();
+
+        MeldungSectionResponse res = service.patchSection(fallId, meldungId, "meta",
+                Map.of("dringlichkeit", "AKUT_HEUTE"), 0L);
+
+        assertThat(res.fields()).containsEntry("dringlichkeit", "AKUT_HEUTE").containsEntry("meldeweg", "TELEFON");
+        assertThat(res.rowVersion()).isEqualTo(1L);
+        assertThat(res.updatedAt()).isNotNull();
+        assertThat(res.changes()).extracting(MeldungChangeResponse::fieldPath).containsExactly("dringlichkeit");
+    }
+
+    @Test
+    void patchSection_requires_the_collection_key_for_list_sections() {
+        assertThatThrownBy(() -> service.patchSection(fallId, meldungId, "contacts", Map.of(), 0L))
+                .isInstanceOf(DomainException.class)
+                .extracting(e -> ((DomainException) e).getStatus())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    // ── If-Match / row version ────────────────────────────────────────────────
+
+    @Test
+    void patchSection_rejects_stale_row_version() {
+        service.patchSection(fallId, meldungId, "inhalt", Map.of("kurzbeschreibung", "erster Stand"), 0L);
+        em.flush();
+        em.clear();
+
+        // second client still holds rowVersion 0
+        assertThatThrownBy(() -> service.patchSection(fallId, meldungId, "inhalt", Map.of("kurzbeschreibung", "zweiter Stand"), 0L))
+                .isInstanceOf(DomainException.class)
+                .extracting(e -> ((DomainException) e).getStatus())
+                .isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void patchSection_bumps_row_version_for_child_only_sections() {
+        MeldungSectionResponse res = service.patchSection(fallId, meldungId, "anlaesse", Map.of("anlassCodes", List.of()), 0L);
+
+        assertThat(res.rowVersion()).isEqualTo(1L);
+    }
+}
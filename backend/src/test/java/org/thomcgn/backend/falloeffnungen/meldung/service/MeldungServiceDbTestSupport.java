@@ -0,0 +1,152 @@
+package org.thomcgn.backend.falloeffnungen.meldung.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.thomcgn.backend.auth.service.AccessControlService;
+import org.thomcgn.backend.common.security.JwtPrincipal;
+import org.thomcgn.backend.common.security.JwtService;
+import org.thomcgn.backend.config.JacksonConfig;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungDraftRequest;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungDraftRequest.ObservationDraft;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungDraftRequest.ObservationTagDraft;
+import org.thomcgn.backend.falloeffnungen.meldung.model.Sichtbarkeit;
+import org.thomcgn.backend.falloeffnungen.meldung.repo.MeldungSectionCopyRepository;
+import org.thomcgn.backend.falloeffnungen.repo.FallListEntryRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Shared Postgres setup (Flyway schema) for MeldungService tests: one Fall with an empty Meldung
+ * draft (row_version 0) in the demo Träger, and a ctx principal for the demo user.
+ * Caches and the fall list projection are mocked; every test runs in its own rolled-back transaction.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MeldungService.class, MeldungSectionCopyRepository.class, JacksonConfig.class})
+@Testcontainers(disabledWithoutDocker = true)
+abstract class MeldungServiceDbTestSupport {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    static final int TAGS_PER_OBSERVATION = 3;
+
+    @MockitoBean AccessControlService access;
+    @MockitoBean FallListEntryRepository fallListRepo;
+    @MockitoBean MeldungResponseCache responseCache;
+    @MockitoBean MeldungDiffCache diffCache;
+
+    @Autowired MeldungService service;
+    @Autowired EntityManager em;
+
+    long fallId;
+    long meldungId;
+
+    @BeforeEach
+    void setUpFallAndMeldung() {
+        long traegerId = queryLong("SELECT id FROM traeger WHERE slug = 'demo-traeger'");
+        long einrichtungId = queryLong(
+                "SELECT id FROM org_units WHERE traeger_id = " + traegerId + " AND type = 'EINRICHTUNG' ORDER BY id LIMIT 1");
+        long userId = queryLong("SELECT id FROM users WHERE email = 'demo@kidoc.local'");
+
+        long kindId = queryLong("""
+                INSERT INTO kinder (traeger_id, owner_einrichtung_org_unit_id, vorname, nachname, foerderbedarf, created_at, updated_at)
+                VALUES (%d, %d, 'Meldung', 'Test', false, now(), now())
+                RETURNING id
+                """.formatted(traegerId, einrichtungId));
+        long dossierId = queryLong("""
+                INSERT INTO kind_dossiers (traeger_id, einrichtung_org_unit_id, kind_id, enabled, created_at, updated_at)
+                VALUES (%d, %d, %d, true, now(), now())
+                RETURNING id
+                """.formatted(traegerId, einrichtungId, kindId));
+        fallId = queryLong("""
+                INSERT INTO falloeffnungen (dossier_id, traeger_id, einrichtung_org_unit_id, status, titel,
+                                            created_by_user_id, aktenzeichen, fall_no, opened_at, created_at, updated_at)
+                VALUES (%d, %d, %d, 'OFFEN', 'Meldung-Test', %d, 'MELDUNG-000001', 990001, now(), now(), now())
+                RETURNING id
+                """.formatted(dossierId, traegerId, einrichtungId, userId));
+        meldungId = queryLong("""
+                INSERT INTO meldungen (falloeffnung_id, version_no, current, row_version, status, type,
+                                       created_by_user_id, created_by_display_name, created_at, updated_at)
+                VALUES (%d, 1, true, 0, 'ENTWURF', 'MELDUNG', %d, 'D. Emo', now(), now())
+                RETURNING id
+                """.formatted(fallId, userId));
+
+        Claims claims = Jwts.claims();
+        claims.put(JwtService.CLAIM_TYP, "ctx");
+        claims.put(JwtService.CLAIM_UID, userId);
+        claims.put(JwtService.CLAIM_TID, traegerId);
+        claims.put(JwtService.CLAIM_OID, einrichtungId);
+        JwtPrincipal principal = new JwtPrincipal(userId, "demo@kidoc.local", claims);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+
+        when(access.activeEinrichtungId()).thenReturn(einrichtungId);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    static MeldungDraftRequest draft(int observations) {
+        List<ObservationDraft> obs = new ArrayList<>();
+        for (int i = 0; i < observations; i++) {
+            List<ObservationTagDraft> tags = new ArrayList<>();
+            for (int t = 0; t < TAGS_PER_OBSERVATION; t++) {
+                tags.add(new ObservationTagDraft(null, "indicator_" + t, 1 + t % 3, null));
+            }
+            obs.add(new ObservationDraft(
+                    Instant.parse("2025-01-14T08:45:00Z").plusSeconds(i * 3600L),
+                    null, null, null, null,
+                    "Beobachtung " + i,
+                    null, null, null, null,
+                    Sichtbarkeit.INTERN,
+                    tags));
+        }
+        return new MeldungDraftRequest(
+                null, null, null, null, null, null, null, null,
+                null,
+                null, null,
+                null, null,
+                false, null, null, null,
+                null, null, null,
+                null, null, null,
+                null,
+                obs, null, null, null, null,
+                null
+        );
+    }
+
+    long queryLong(String sql) {
+        return ((Number) em.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+}
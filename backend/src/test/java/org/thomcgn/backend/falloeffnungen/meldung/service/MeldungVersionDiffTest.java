@@ -0,0 +1,198 @@
+package org.thomcgn.backend.falloeffnungen.meldung.service;
+
+import org.junit.jupiter.api.Test;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungDiffResponse.Entry;
+import org.thomcgn.backend.falloeffnungen.meldung.dto.MeldungResponse;
+import org.thomcgn.backend.falloeffnungen.meldung.model.AmpelStatus;
+import org.thomcgn.backend.falloeffnungen.meldung.model.Meldung;
+import org.thomcgn.backend.falloeffnungen.meldung.model.MeldungSection;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Version diff: child rows are matched by their natural key (IDs change when a version is copied),
+ * repeated keys are told apart by list position (#2, #3 …), nested tags are diffed per observation.
+ */
+class MeldungVersionDiffTest {
+
+    private static final Instant T1 = Instant.parse("2025-01-14T08:45:00Z");
+    private static final Instant T2 = Instant.parse("2025-01-15T10:00:00Z");
+    private static final String OBS_KEY = "observations[2025-01-14T08:45:00Z|SCHULE]";
+
+    // ── Fields on the Meldung ─────────────────────────────────────────────────
+
+    @Test
+    void field_sections_report_changed_added_and_ignore_whitespace() {
+        Meldung from = new Meldung();
+        from.setKurzbeschreibung("alt");
+        from.setFachText("gleich ");
+        Meldung to = new Meldung();
+        to.setKurzbeschreibung("neu");
+        to.setFachText(" gleich");
+        to.setFachAmpel(AmpelStatus.GELB);
+
+        List<Entry> entries = MeldungVersionDiff.diff(
+                List.of(MeldungSection.INHALT, MeldungSection.FACH), from, empty(), to, empty());
+
+        assertThat(entries).extracting(Entry::section, Entry::path, Entry::op, Entry::oldValue, Entry::newValue)
+                .containsExactly(
+                        tuple("INHALT", "kurzbeschreibung", MeldungVersionDiff.CHANGED, "alt", "neu"),
+                        tuple("FACH", "fachAmpel", MeldungVersionDiff.ADDED, null, "GELB"));
+    }
+
+    // ── Children matched by natural key ───────────────────────────────────────
+
+    @Test
+    void copied_children_with_new_ids_produce_no_entries() {
+        MeldungVersionDiff.Children from = children(List.of(obs(1L, T1, "Text", tag(11L, "neglect_basic", 2))));
+        MeldungVersionDiff.Children to = children(List.of(obs(101L, T1, "Text", tag(111L, "neglect_basic", 2))));
+
+        assertThat(diff(from, to)).isEmpty();
+    }
+
+    @Test
+    void changed_observation_field_is_reported_under_its_natural_key() {
+        MeldungVersionDiff.Children from = children(List.of(obs(1L, T1, "vorher")));
+        MeldungVersionDiff.Children to = children(List.of(obs(101L, T1, "nachher")));
+
+        assertThat(diff(from, to)).extracting(Entry::path, Entry::op, Entry::oldValue, Entry::newValue)
+                .containsExactly(tuple(OBS_KEY + ".text", MeldungVersionDiff.CHANGED, "vorher", "nachher"));
+    }
+
+    @Test
+    void observation_with_new_key_is_removed_and_added() {
+        MeldungVersionDiff.Children from = children(List.of(obs(1L, T1, "Text")));
+        MeldungVersionDiff.Children to = children(List.of(obs(101L, T2, "Text")));
+
+        List<Entry> entries = diff(from, to);
+
+        assertThat(entries).filteredOn(e -> e.path().startsWith(OBS_KEY))
+                .isNotEmpty()
+                .allSatisfy(e -> assertThat(e.op()).isEqualTo(MeldungVersionDiff.REMOVED));
+        assertThat(entries).filteredOn(e -> e.path().startsWith("observations[2025-01-15T10:00:00Z|SCHULE]"))
+                .isNotEmpty()
+                .allSatisfy(e -> assertThat(e.op()).isEqualTo(MeldungVersionDiff.ADDED));
+        assertThat(entries).extracting(Entry::path)
+                .contains(OBS_KEY + ".text", "observations[2025-01-15T10:00:00Z|SCHULE].text");
+    }
+
+    @Test
+    void repeated_keys_are_disambiguated_by_position() {
+        MeldungVersionDiff.Children from = children(List.of(obs(1L, T1, "eins"), obs(2L, T1, "zwei")));
+        MeldungVersionDiff.Children to = children(List.of(obs(101L, T1, "eins"), obs(102L, T1, "drei")));
+
+        assertThat(diff(from, to)).extracting(Entry::path, Entry::op, Entry::oldValue, Entry::newValue)
+                .containsExactly(tuple("observations[2025-01-14T08:45:00Z|SCHULE#2].text",
+                        MeldungVersionDiff.CHANGED, "zwei", "drei"));
+    }
+
+    @Test
+    void repeated_key_dropped_at_the_end_is_removed() {
+        MeldungVersionDiff.Children from = children(List.of(obs(1L, T1, "eins"), obs(2L, T1, "zwei")));
+        MeldungVersionDiff.Children to = children(List.of(obs(101L, T1, "eins")));
+
+        assertThat(diff(from, to))
+                .isNotEmpty()
+                .allSatisfy(e -> {
+                    assertThat(e.path()).startsWith("observations[2025-01-14T08:45:00Z|SCHULE#2].");
+                    assertThat(e.op()).isEqualTo(MeldungVersionDiff.REMOVED);
+                });
+    }
+
+    // ── Nested tags ───────────────────────────────────────────────────────────
+
+    @Test
+    void nested_tags_are_diffed_per_observation() {
+        MeldungVersionDiff.Children from = children(List.of(
+                obs(1L, T1, "Text", tag(11L, "neglect_basic", 2), tag(12L, "violence_signs", 1))));
+        MeldungVersionDiff.Children to = children(List.of(
+                obs(101L, T1, "Text", tag(111L, "neglect_basic", 3), anlassTag(112L, "SCHULE"))));
+
+        assertThat(diff(from, to)).extracting(Entry::path, Entry::op, Entry::oldValue, Entry::newValue)
+                .containsExactly(
+                        tuple(OBS_KEY + ".tags[neglect_basic].severity", MeldungVersionDiff.CHANGED, "2", "3"),
+                        tuple(OBS_KEY + ".tags[violence_signs].indicatorId", MeldungVersionDiff.REMOVED, "violence_signs", null),
+                        tuple(OBS_KEY + ".tags[violence_signs].severity", MeldungVersionDiff.REMOVED, "1", null),
+                        tuple(OBS_KEY + ".tags[SCHULE].anlassCode", MeldungVersionDiff.ADDED, null, "SCHULE"));
+    }
+
+    @Test
+    void tags_of_an_added_observation_are_added() {
+        MeldungVersionDiff.Children to = children(List.of(obs(101L, T1, "Text", tag(111L, "neglect_basic", 2))));
+
+        assertThat(diff(empty(), to)).extracting(Entry::path)
+                .contains(OBS_KEY + ".tags[neglect_basic].indicatorId", OBS_KEY + ".tags[neglect_basic].severity");
+    }
+
+    // ── Other collections ─────────────────────────────────────────────────────
+
+    @Test
+    void anlass_codes_are_compared_as_sets() {
+        MeldungVersionDiff.Children from = new MeldungVersionDiff.Children(
+                List.of("A01", "A02 "), null, List.of(), List.of(), List.of(), List.of());
+        MeldungVersionDiff.Children to = new MeldungVersionDiff.Children(
+                List.of("A02", "A03", " "), null, List.of(), List.of(), List.of(), List.of());
+
+        assertThat(diff(from, to)).extracting(Entry::path, Entry::op)
+                .containsExactly(
+                        tuple("anlassCodes[A01]", MeldungVersionDiff.REMOVED),
+                        tuple("anlassCodes[A03]", MeldungVersionDiff.ADDED));
+    }
+
+    @Test
+    void contacts_attachments_and_jugendamt_use_their_keys() {
+        MeldungVersionDiff.Children from = new MeldungVersionDiff.Children(
+                List.of(), null, List.of(),
+                List.of(new MeldungResponse.ContactResponse(1L, "ELTERN", T1, "GEPLANT", null, null)),
+                List.of(),
+                List.of(new MeldungResponse.AttachmentResponse(1L, 500L, "FOTO", "Foto", null, "INTERN", null)));
+        MeldungVersionDiff.Children to = new MeldungVersionDiff.Children(
+                List.of(),
+                new MeldungResponse.JugendamtResponse("JA", T2, null, null, null),
+                List.of(),
+                List.of(new MeldungResponse.ContactResponse(101L, "ELTERN", T1, "ERFOLGT", null, null)),
+                List.of(),
+                List.of(new MeldungResponse.AttachmentResponse(101L, 500L, "FOTO", "Foto (neu)", null, "INTERN", null)));
+
+        assertThat(diff(from, to)).extracting(Entry::section, Entry::path, Entry::op)
+                .containsExactly(
+                        tuple("JUGENDAMT", "jugendamt.informiert", MeldungVersionDiff.ADDED),
+                        tuple("JUGENDAMT", "jugendamt.kontaktAm", MeldungVersionDiff.ADDED),
+                        tuple("CONTACTS", "contacts[ELTERN|2025-01-14T08:45:00Z].status", MeldungVersionDiff.CHANGED),
+                        tuple("ATTACHMENTS", "attachments[500].titel", MeldungVersionDiff.CHANGED));
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static List<Entry> diff(MeldungVersionDiff.Children from, MeldungVersionDiff.Children to) {
+        return MeldungVersionDiff.diff(List.of(), new Meldung(), from, new Meldung(), to);
+    }
+
+    private static MeldungVersionDiff.Children empty() {
+        return children(List.of());
+    }
+
+    private static MeldungVersionDiff.Children children(List<MeldungResponse.ObservationResponse> observations) {
+        return new MeldungVersionDiff.Children(List.of(), null, observations, List.of(), List.of(), List.of());
+    }
+
+    private static MeldungResponse.ObservationResponse obs(Long id, Instant zeitpunkt, String text,
+                                                           MeldungResponse.ObservationTagResponse... tags) {
+        return new MeldungResponse.ObservationResponse(
+                id, zeitpunkt, null, null, null, "SCHULE", text,
+                null, null, null, null, "INTERN",
+                Instant.now(), "D. Emo", List.of(tags));
+    }
+
+    private static MeldungResponse.ObservationTagResponse tag(Long id, String indicatorId, int severity) {
+        return new MeldungResponse.ObservationTagResponse(id, null, indicatorId, severity, null);
+    }
+
+    private static MeldungResponse.ObservationTagResponse anlassTag(Long id, String anlassCode) {
+        return new MeldungResponse.ObservationTagResponse(id, anlassCode, null, null, null);
+    }
+}
@@ -0,0 +1,230 @@
+package org.thomcgn.backend.falloeffnungen.risk.repo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Risk recompute outbox against real Postgres (Flyway schema): requests for the same Fall coalesce
+ * into one row, debounce is capped by max-delay, backoff after failures survives new requests,
+ * claims lease the row and count the attempt, and rows are parked after max-attempts.
+ *
+ * Everything runs in one test transaction, so now() is constant; moving timestamps is done in SQL.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RiskRecomputeOutboxRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+class RiskRecomputeOutboxRepositoryTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    private static final long LEASE_MS = 60_000;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired RiskRecomputeOutboxRepository outbox;
+    @Autowired JdbcTemplate jdbc;
+
+    private long fallId;
+
+    @BeforeEach
+    void setUp() {
+        long traegerId = queryLong("SELECT id FROM traeger WHERE slug = 'demo-traeger'");
+        long einrichtungId = queryLong(
+                "SELECT id FROM org_units WHERE traeger_id = " + traegerId + " AND type = 'EINRICHTUNG' ORDER BY id LIMIT 1");
+        long userId = queryLong("SELECT id FROM users WHERE email = 'demo@kidoc.local'");
+
+        long kindId = queryLong("""
+                INSERT INTO kinder (traeger_id, owner_einrichtung_org_unit_id, vorname, nachname, foerderbedarf, created_at, updated_at)
+                VALUES (%d, %d, 'Outbox', 'Test', false, now(), now())
+                RETURNING id
+                """.formatted(traegerId, einrichtungId));
+        long dossierId = queryLong("""
+                INSERT INTO kind_dossiers (traeger_id, einrichtung_org_unit_id, kind_id, enabled, created_at, updated_at)
+                VALUES (%d, %d, %d, true, now(), now())
+                RETURNING id
+                """.formatted(traegerId, einrichtungId, kindId));
+        fallId = queryLong("""
+                INSERT INTO falloeffnungen (dossier_id, traeger_id, einrichtung_org_unit_id, status, titel,
+                                            created_by_user_id, aktenzeichen, fall_no, opened_at, created_at, updated_at)
+                VALUES (%d, %d, %d, 'OFFEN', 'Outbox-Test', %d, 'OUTBOX-000001', 990003, now(), now(), now())
+                RETURNING id
+                """.formatted(dossierId, traegerId, einrichtungId, userId));
+    }
+
+    // ── Coalescing and debounce ───────────────────────────────────────────────
+
+    @Test
+    void repeated_requests_coalesce_into_one_row() {
+        outbox.enqueue(fallId, 2_000, 30_000);
+        outbox.enqueue(fallId, 2_000, 30_000);
+        outbox.enqueue(fallId, 2_000, 30_000);
+
+        assertThat(queryLong("SELECT count(*) FROM risk_recompute_outbox WHERE falloeffnung_id = " + fallId)).isEqualTo(1);
+        assertThat(outbox.isPending(fallId)).isTrue();
+        assertThat(outbox.stats().pending()).isEqualTo(1);
+    }
+
+    @Test
+    void debounce_is_capped_by_max_delay_since_first_request() {
+        outbox.enqueue(fallId, 10_000, 30_000);
+        assertThat(secondsUntilNextAttempt()).isCloseTo(10.0, within(0.01));
+
+        // first request 25 s ago: another 10 s debounce would exceed the 30 s cap
+        update("first_requested_at = now() - interval '25 seconds'");
+        outbox.enqueue(fallId, 10_000, 30_000);
+
+        assertThat(secondsUntilNextAttempt()).isCloseTo(5.0, within(0.01));
+    }
+
+    @Test
+    void new_request_keeps_backoff_after_a_failure() {
+        outbox.enqueue(fallId, 0, 30_000);
+        update("attempts = 2, next_attempt_at = now() + interval '10 minutes'");
+
+        outbox.enqueue(fallId, 0, 30_000);
+
+        assertThat(secondsUntilNextAttempt()).isCloseTo(600.0, within(0.01));
+        assertThat(queryLong("SELECT attempts FROM risk_recompute_outbox WHERE falloeffnung_id = " + fallId)).isEqualTo(2);
+    }
+
+    // ── Lease, completion, parking ────────────────────────────────────────────
+
+    @Test
+    void claim_leases_the_row_and_counts_the_attempt() {
+        outbox.enqueue(fallId, 0, 30_000);
+
+        RiskRecomputeOutboxRepository.Claim claim = outbox.claimNext(LEASE_MS, MAX_ATTEMPTS);
+
+        assertThat(claim.fallId()).isEqualTo(fallId);
+        assertThat(claim.attempts()).isEqualTo(1);
+        assertThat(outbox.claimNext(LEASE_MS, MAX_ATTEMPTS)).as("leased row is not claimed twice").isNull();
+        assertThat(outbox.isPending(fallId)).as("row stays until completed").isTrue();
+    }
+
+    @Test
+    void expired_lease_is_claimed_again() {
+        outbox.enqueue(fallId, 0, 30_000);
+        outbox.claimNext(LEASE_MS, MAX_ATTEMPTS);
+        update("locked_until = now() - interval '1 second'");
+
+        RiskRecomputeOutboxRepository.Claim again = outbox.claimNext(LEASE_MS, MAX_ATTEMPTS);
+
+        assertThat(again).isNotNull();
+        assertThat(again.attempts()).isEqualTo(2);
+    }
+
+    @Test
+    void complete_deletes_the_row() {
+        outbox.enqueue(fallId, 0, 30_000);
+        RiskRecomputeOutboxRepository.Claim claim = outbox.claimNext(LEASE_MS, MAX_ATTEMPTS);
+
+        outbox.complete(claim);
+
+        assertThat(outbox.isPending(fallId)).isFalse();
+    }
+
+    @Test
+    void complete_keeps_a_row_requested_again_during_the_lease() {
+        outbox.enqueue(fallId, 0, 30_000);
+        RiskRecomputeOutboxRepository.Claim claim = outbox.claimNext(LEASE_MS, MAX_ATTEMPTS);
+        update("requested_at = requested_at + interval '1 second'");
+
+        outbox.complete(claim);
+
+        assertThat(outbox.isPending(fallId)).isTrue();
+        RiskRecomputeOutboxRepository.Claim next = outbox.claimNext(LEASE_MS, MAX_ATTEMPTS);
+        assertThat(next).as("due immediately, attempts reset").isNotNull();
+        assertThat(next.attempts()).isEqualTo(1);
+    }
+
+    @Test
+    void failed_attempt_releases_the_lease_until_max_attempts_then_parks() {
+        outbox.enqueue(fallId, 0, 30_000);
+        Instant dueNow = Instant.now().minusSeconds(60);
+
+        for (int attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+            assertThat(outbox.claimNext(LEASE_MS, MAX_ATTEMPTS).attempts()).isEqualTo(attempt);
+            assertThat(outbox.markFailed(fallId, "boom", dueNow, MAX_ATTEMPTS)).isFalse();
+        }
+        assertThat(outbox.claimNext(LEASE_MS, MAX_ATTEMPTS).attempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(outbox.markFailed(fallId, "boom", dueNow, MAX_ATTEMPTS)).isTrue();
+
+        assertThat(outbox.claimNext(LEASE_MS, MAX_ATTEMPTS)).isNull();
+        RiskRecomputeOutboxRepository.Stats stats = outbox.stats();
+        assertThat(stats.pending()).isZero();
+        assertThat(stats.parked()).isEqualTo(1);
+    }
+
+    @Test
+    void parkExhausted_parks_rows_whose_last_lease_expired_without_result() {
+        outbox.enqueue(fallId, 0, 30_000);
+        update("attempts = " + MAX_ATTEMPTS + ", locked_until = now() - interval '1 second'");
+
+        assertThat(outbox.parkExhausted(MAX_ATTEMPTS)).isEqualTo(1);
+        assertThat(jdbc.queryForObject(
+                "SELECT last_error FROM risk_recompute_outbox WHERE falloeffnung_id = " + fallId, String.class))
+                .isEqualTo("lease expired");
+    }
+
+    @Test
+    void new_request_revives_a_parked_row() {
+        outbox.enqueue(fallId, 0, 30_000);
+        update("status = 'PARKED', parked_at = now(), attempts = " + MAX_ATTEMPTS);
+
+        outbox.enqueue(fallId, 0, 30_000);
+
+        RiskRecomputeOutboxRepository.Claim claim = outbox.claimNext(LEASE_MS, MAX_ATTEMPTS);
+        assertThat(claim).isNotNull();
+        assertThat(claim.attempts()).isEqualTo(1);
+        assertThat(outbox.stats().parked()).isZero();
+    }
+
+    @Test
+    void parked_row_is_not_reported_as_pending() {
+        outbox.enqueue(fallId, 0, 30_000);
+        assertThat(outbox.isPending(fallId)).isTrue();
+
+        update("status = 'PARKED', parked_at = now(), attempts = " + MAX_ATTEMPTS);
+
+        assertThat(outbox.isPending(fallId)).isFalse();
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private double secondsUntilNextAttempt() {
+        return jdbc.queryForObject(
+                "SELECT extract(epoch FROM next_attempt_at - now()) FROM risk_recompute_outbox WHERE falloeffnung_id = " + fallId,
+                Double.class);
+    }
+
+    private void update(String set) {
+        jdbc.update("UPDATE risk_recompute_outbox SET " + set + " WHERE falloeffnung_id = " + fallId);
+    }
+
+    private long queryLong(String sql) {
+        return jdbc.queryForObject(sql, Long.class);
+    }
+}
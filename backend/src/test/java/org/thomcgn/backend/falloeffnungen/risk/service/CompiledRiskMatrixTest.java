@@ -0,0 +1,235 @@
+package org.thomcgn.backend.falloeffnungen.risk.service;
+
+import org.junit.jupiter.api.Test;
+import org.thomcgn.backend.falloeffnungen.risk.service.FallRiskService.HardRule;
+import org.thomcgn.backend.falloeffnungen.risk.service.FallRiskService.Indicator;
+import org.thomcgn.backend.falloeffnungen.risk.service.FallRiskService.RiskMatrixConfig;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The compiled matrix must score exactly like the previous evaluation on the JSON model
+ * ({@link #legacyEvaluate}, kept here as the reference): same scores, traffic light, rationale
+ * texts, hard-rule hits and dimensions, for random severity maps over several configs.
+ */
+class CompiledRiskMatrixTest {
+
+    private static final int CASES = 2_000;
+
+    // ── Equivalence with the JSON-model evaluation ────────────────────────────
+
+    @Test
+    void evaluate_matches_legacy_evaluation_for_default_config() {
+        assertEquivalent(FallRiskService.defaultConfig(), 11L);
+    }
+
+    @Test
+    void evaluate_matches_legacy_evaluation_for_large_config() {
+        assertEquivalent(largeConfig(), 17L);
+    }
+
+    @Test
+    void evaluate_matches_legacy_evaluation_when_an_id_is_configured_twice() {
+        RiskMatrixConfig cfg = FallRiskService.defaultConfig();
+        Indicator dup = new Indicator();
+        dup.id = "neglect_basic";
+        dup.dimension = "kontext";
+        dup.weight = 2;
+        dup.presentAtSeverity = 3;
+        dup.hardRule = new HardRule();
+        dup.hardRule.atOrAbove = 3;
+        dup.hardRule.label = "Doppelt konfiguriert";
+        cfg.indicators.add(dup);
+
+        assertThat(CompiledRiskMatrix.compile(cfg).slotCount()).isEqualTo(11);
+        assertEquivalent(cfg, 23L);
+    }
+
+    @Test
+    void evaluate_matches_legacy_evaluation_without_support_only_hint() {
+        RiskMatrixConfig cfg = FallRiskService.defaultConfig();
+        cfg.meta.supportOnly = false;
+        cfg.protectiveCapMaxReduction = -3.0;
+
+        assertEquivalent(cfg, 29L);
+    }
+
+    // ── Row evaluation used by the simulation ─────────────────────────────────
+
+    @Test
+    void evaluateRow_matches_traffic_light_and_score_of_evaluate() {
+        RiskMatrixConfig cfg = largeConfig();
+        CompiledRiskMatrix compiled = CompiledRiskMatrix.compile(cfg);
+        Random random = new Random(31L);
+        double[] scores = new double[1];
+
+        for (int c = 0; c < CASES; c++) {
+            Map<String, Integer> severities = randomSeverities(cfg, random);
+            byte[] row = new byte[compiled.slotCount()];
+            severities.forEach((id, s) -> {
+                int slot = compiled.slotOf(id);
+                if (slot >= 0) row[slot] = (byte) Math.max(0, Math.min(3, s));
+            });
+
+            CompiledRiskMatrix.Evaluation expected = compiled.evaluate(severities);
+            int traffic = compiled.evaluateRow(row, 0, scores, 0);
+
+            assertThat(CompiledRiskMatrix.TRAFFIC_LIGHTS.get(traffic)).as("case %d", c).isEqualTo(expected.trafficLight());
+            assertThat(scores[0]).as("case %d", c).isEqualTo(expected.finalScore());
+        }
+    }
+
+    @Test
+    void unknown_ids_have_no_slot_and_are_reported_sorted() {
+        CompiledRiskMatrix compiled = CompiledRiskMatrix.compile(FallRiskService.defaultConfig());
+
+        CompiledRiskMatrix.Evaluation e = compiled.evaluate(Map.of("zz_legacy", 3, "aa_legacy", 2));
+
+        assertThat(compiled.slotOf("zz_legacy")).isEqualTo(-1);
+        assertThat(e.finalScore()).isZero();
+        assertThat(e.rationale()).last().isEqualTo(
+                "Warnung: Unbekannte Indikator-IDs in Tags (werden ignoriert): aa_legacy, zz_legacy");
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static void assertEquivalent(RiskMatrixConfig cfg, long seed) {
+        CompiledRiskMatrix compiled = CompiledRiskMatrix.compile(cfg);
+        Random random = new Random(seed);
+
+        for (int c = 0; c < CASES; c++) {
+            Map<String, Integer> severities = randomSeverities(cfg, random);
+
+            CompiledRiskMatrix.Evaluation actual = compiled.evaluate(severities);
+            CompiledRiskMatrix.Evaluation expected = legacyEvaluate(cfg, severities);
+
+            assertThat(actual).as("case %d: %s", c, severities).isEqualTo(expected);
+        }
+    }
+
+    /** A few configured IDs with severities -1..4 (clamped like the old tag aggregation) plus sometimes unknown IDs. */
+    private static Map<String, Integer> randomSeverities(RiskMatrixConfig cfg, Random random) {
+        Map<String, Integer> out = new HashMap<>();
+        int n = random.nextInt(Math.min(cfg.indicators.size(), 12) + 1);
+        for (int i = 0; i < n; i++) {
+            Indicator ind = cfg.indicators.get(random.nextInt(cfg.indicators.size()));
+            out.put(ind.id, random.nextInt(6) - 1);
+        }
+        if (random.nextInt(5) == 0) out.put("legacy_" + random.nextInt(3), random.nextInt(4));
+        return out;
+    }
+
+    private static RiskMatrixConfig largeConfig() {
+        RiskMatrixConfig c = FallRiskService.defaultConfig();
+        List<String> dims = new ArrayList<>(c.dimensionMultiplier.keySet());
+        Collections.sort(dims);
+        dims.add("ohneMultiplikator");
+        c.meta.version = "large";
+        c.multiDimensionMinForRed = 5;
+        c.volumeMinIndicatorsForYellow = 6;
+        c.greenMax = 20.0;
+        c.yellowMax = 45.5;
+        c.indicators = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Indicator ind = new Indicator();
+            ind.id = String.format("ind_%03d", i);
+            ind.title = "Indikator " + i;
+            ind.dimension = dims.get(i % dims.size());
+            ind.weight = 1.5 + i % 7;
+            ind.presentAtSeverity = 1 + i % 3;
+            if (i % 10 == 0) {
+                ind.hardRule = new HardRule();
+                ind.hardRule.atOrAbove = 3;
+                ind.hardRule.label = "Harte Regel " + i;
+            }
+            c.indicators.add(ind);
+        }
+        return c;
+    }
+
+    /**
+     * Evaluation as FallRiskService did it on the JSON model before compilation; the tag aggregation
+     * (MAX per ID, clamped to 0..3) now happens in fall_indicator_max_severity, so it takes the map.
+     */
+    private static CompiledRiskMatrix.Evaluation legacyEvaluate(RiskMatrixConfig cfg, Map<String, Integer> input) {
+        Map<String, Integer> maxSeverityByIndicator = new HashMap<>();
+        input.forEach((id, sev) -> maxSeverityByIndicator.merge(id, Math.max(0, Math.min(3, sev)), Math::max));
+
+        Set<String> dimsPresent = new HashSet<>();
+        int presentCount = 0;
+        List<Map<String, Object>> hardHits = new ArrayList<>();
+        double raw = 0.0;
+
+        for (Indicator ind : cfg.indicators) {
+            int s = maxSeverityByIndicator.getOrDefault(ind.id, 0);
+
+            if (s > 0 && s >= ind.presentAtSeverity) {
+                presentCount += 1;
+                dimsPresent.add(ind.dimension);
+            }
+
+            if (ind.hardRule != null && s >= ind.hardRule.atOrAbove) {
+                Map<String, Object> hit = new LinkedHashMap<>();
+                hit.put("indicatorId", ind.id);
+                hit.put("label", ind.hardRule.label);
+                hardHits.add(hit);
+            }
+
+            double factor = s <= 0 ? 0.0 : s == 1 ? 0.5 : s == 2 ? 1.0 : 1.5;
+            raw += ind.weight * factor * cfg.dimensionMultiplier.getOrDefault(ind.dimension, 1.0);
+        }
+
+        double reduction = Math.min(0.0, cfg.protectiveCapMaxReduction);
+        double finalScore = Math.max(0.0, CompiledRiskMatrix.round1(raw - reduction));
+
+        String traffic;
+        List<String> rationale = new ArrayList<>();
+
+        if (!hardHits.isEmpty()) {
+            traffic = "ROT";
+            rationale.add("Mindestens eine harte Regel wurde ausgelöst.");
+        } else if (dimsPresent.size() >= cfg.multiDimensionMinForRed) {
+            traffic = "ROT";
+            rationale.add("Mehrdimensionale Hinweise (" + dimsPresent.size() + ") ≥ " + cfg.multiDimensionMinForRed + ".");
+        } else {
+            if (finalScore <= cfg.greenMax) {
+                traffic = "GRUEN";
+                rationale.add("Score ≤ " + cfg.greenMax + ".");
+            } else if (finalScore <= cfg.yellowMax) {
+                traffic = "GELB";
+                rationale.add("Score zwischen " + (cfg.greenMax + 0.1) + " und " + cfg.yellowMax + ".");
+            } else {
+                traffic = "ROT";
+                rationale.add("Score > " + cfg.yellowMax + ".");
+            }
+
+            if (presentCount >= cfg.volumeMinIndicatorsForYellow && "GRUEN".equals(traffic)) {
+                traffic = "GELB";
+                rationale.add("Viele Hinweise (" + presentCount + ") ≥ " + cfg.volumeMinIndicatorsForYellow + " → mindestens GELB.");
+            }
+        }
+
+        if (cfg.meta != null && cfg.meta.supportOnly) {
+            rationale.add("Hinweis: Die Ampel ist Entscheidungsunterstützung (keine automatische Entscheidung).");
+        }
+
+        Set<String> known = new HashSet<>();
+        for (Indicator ind : cfg.indicators) known.add(ind.id);
+        List<String> unknown = maxSeverityByIndicator.keySet().stream().filter(id -> !known.contains(id)).sorted().toList();
+        if (!unknown.isEmpty()) {
+            rationale.add("Warnung: Unbekannte Indikator-IDs in Tags (werden ignoriert): " + String.join(", ", unknown));
+        }
+
+        return new CompiledRiskMatrix.Evaluation(
+                CompiledRiskMatrix.round1(raw),
+                CompiledRiskMatrix.round1(reduction),
+                finalScore,
+                traffic,
+                rationale,
+                hardHits,
+                dimsPresent.stream().sorted().toList()
+        );
+    }
+}
@@ -0,0 +1,137 @@
+package org.thomcgn.backend.falloeffnungen.risk.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.thomcgn.backend.falloeffnungen.risk.repo.RiskRecomputeOutboxRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Outbox worker: exponential backoff capped at 30 minutes, and the result of one claim
+ * (complete on success, markFailed with backoff on failure, parked after max-attempts).
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RiskRecomputeWorkerTest {
+
+    private static final long FALL_ID = 42L;
+    private static final int MAX_ATTEMPTS = 8;
+
+    @Mock RiskRecomputeOutboxRepository outbox;
+    @Mock FallRiskService riskService;
+    @Mock PlatformTransactionManager transactionManager;
+
+    SimpleMeterRegistry registry;
+    RiskRecomputeWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        worker = new RiskRecomputeWorker(outbox, riskService, transactionManager, registry, 1, 10, MAX_ATTEMPTS, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    // ── Backoff ───────────────────────────────────────────────────────────────
+
+    @Test
+    void backoff_doubles_from_ten_seconds() {
+        assertThat(RiskRecomputeWorker.backoff(1)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(RiskRecomputeWorker.backoff(2)).isEqualTo(Duration.ofSeconds(20));
+        assertThat(RiskRecomputeWorker.backoff(3)).isEqualTo(Duration.ofSeconds(40));
+        assertThat(RiskRecomputeWorker.backoff(8)).isEqualTo(Duration.ofSeconds(1280));
+    }
+
+    @Test
+    void backoff_is_capped_at_thirty_minutes() {
+        assertThat(RiskRecomputeWorker.backoff(9)).isEqualTo(Duration.ofMinutes(30));
+        assertThat(RiskRecomputeWorker.backoff(100)).isEqualTo(Duration.ofMinutes(30));
+    }
+
+    // ── One claim ─────────────────────────────────────────────────────────────
+
+    @Test
+    void processOne_returns_false_when_nothing_is_due() {
+        when(outbox.claimNext(anyLong(), anyInt())).thenReturn(null);
+
+        assertThat(worker.processOne()).isFalse();
+        verifyNoInteractions(riskService);
+    }
+
+    @Test
+    void processOne_recomputes_and_completes_the_claim() {
+        RiskRecomputeOutboxRepository.Claim claim = claim(1);
+        when(outbox.claimNext(60_000, MAX_ATTEMPTS)).thenReturn(claim);
+
+        assertThat(worker.processOne()).isTrue();
+
+        verify(riskService).recomputeQueued(FALL_ID);
+        verify(outbox).complete(claim);
+        verify(outbox, never()).markFailed(anyLong(), anyString(), any(), anyInt());
+        assertThat(processed("ok")).isEqualTo(1.0);
+        assertThat(registry.get("risk.outbox.latency").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void processOne_records_failure_with_backoff_of_the_attempt() {
+        when(outbox.claimNext(anyLong(), anyInt())).thenReturn(claim(3));
+        doThrow(new IllegalStateException("boom")).when(riskService).recomputeQueued(FALL_ID);
+        when(outbox.markFailed(eq(FALL_ID), anyString(), any(), eq(MAX_ATTEMPTS))).thenReturn(false);
+
+        Instant before = Instant.now();
+        assertThat(worker.processOne()).isTrue();
+
+        ArgumentCaptor<Instant> next = ArgumentCaptor.forClass(Instant.class);
+        verify(outbox).markFailed(eq(FALL_ID), eq("boom"), next.capture(), eq(MAX_ATTEMPTS));
+        assertThat(Duration.between(before, next.getValue()).toMillis())
+                .isCloseTo(RiskRecomputeWorker.backoff(3).toMillis(), within(1_000L));
+        verify(outbox, never()).complete(any());
+        assertThat(processed("failed")).isEqualTo(1.0);
+        assertThat(processed("parked")).isZero();
+    }
+
+    @Test
+    void processOne_counts_parked_when_the_last_attempt_fails() {
+        when(outbox.claimNext(anyLong(), anyInt())).thenReturn(claim(MAX_ATTEMPTS));
+        doThrow(new IllegalStateException("boom")).when(riskService).recomputeQueued(FALL_ID);
+        when(outbox.markFailed(eq(FALL_ID), anyString(), any(), eq(MAX_ATTEMPTS))).thenReturn(true);
+
+        assertThat(worker.processOne()).isTrue();
+
+        assertThat(processed("parked")).isEqualTo(1.0);
+        assertThat(processed("failed")).isZero();
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static RiskRecomputeOutboxRepository.Claim claim(int attempts) {
+        Instant requested = Instant.now().minusSeconds(5);
+        return new RiskRecomputeOutboxRepository.Claim(FALL_ID, requested, requested, attempts);
+    }
+
+    private double processed(String result) {
+        return registry.get("risk.outbox.processed").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,189 @@
+package org.thomcgn.backend.falloeffnungen.risk.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.thomcgn.backend.falloeffnungen.risk.repo.RiskRescoreJobRepository;
+import org.thomcgn.backend.falloeffnungen.risk.repo.RiskRescoreJobRepository.Job;
+import org.thomcgn.backend.falloeffnungen.risk.repo.RiskRescoreJobRepository.SnapshotRow;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Bulk rescore runner: chunks are keyset-paged from last_fall_id, each chunk writes progress
+ * together with its snapshots, a failed or crashed job resumes after the last written chunk,
+ * and a superseded job stops without writing further chunks.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RiskRescoreJobRunnerTest {
+
+    private static final long JOB_ID     = 5L;
+    private static final long TRAEGER_ID = 1L;
+    private static final long CONFIG_ID  = 9L;
+    private static final int CHUNK_SIZE  = 2;
+
+    @Mock RiskRescoreJobRepository jobs;
+    @Mock RiskMatrixCache matrixCache;
+    @Mock PlatformTransactionManager transactionManager;
+
+    RiskRescoreJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        runner = new RiskRescoreJobRunner(jobs, matrixCache, new ObjectMapper(), transactionManager, CHUNK_SIZE, 2);
+
+        CompiledRiskMatrix matrix = CompiledRiskMatrix.compile(FallRiskService.defaultConfig());
+        when(matrixCache.forTraeger(TRAEGER_ID)).thenReturn(new RiskMatrixCache.ActiveMatrix(CONFIG_ID, "v3", matrix));
+        when(jobs.tryClaim(eq(JOB_ID), anyLong())).thenReturn(true);
+        when(jobs.advance(eq(JOB_ID), anyLong(), anyInt())).thenReturn(true);
+        when(jobs.loadChunk(eq(TRAEGER_ID), anyLong(), eq(CHUNK_SIZE))).thenReturn(new LinkedHashMap<>());
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.shutdown();
+    }
+
+    // ── Chunking ──────────────────────────────────────────────────────────────
+
+    @Test
+    void run_pages_chunks_by_fall_id_and_finishes() {
+        job(0L);
+        chunk(0L, 11L, 12L);
+        chunk(12L, 15L);
+
+        runner.run(JOB_ID);
+
+        InOrder order = inOrder(jobs);
+        order.verify(jobs).loadChunk(TRAEGER_ID, 0L, CHUNK_SIZE);
+        order.verify(jobs).advance(JOB_ID, 12L, 2);
+        order.verify(jobs).insertSnapshots(eq(CONFIG_ID), eq("v3"), anyList());
+        order.verify(jobs).loadChunk(TRAEGER_ID, 12L, CHUNK_SIZE);
+        order.verify(jobs).advance(JOB_ID, 15L, 1);
+        order.verify(jobs).loadChunk(TRAEGER_ID, 15L, CHUNK_SIZE);
+        order.verify(jobs).finish(JOB_ID, "DONE", null);
+    }
+
+    @Test
+    void run_writes_one_snapshot_row_per_fall_of_the_chunk() {
+        job(0L);
+        LinkedHashMap<Long, Map<String, Integer>> c = new LinkedHashMap<>();
+        c.put(11L, Map.of("injury_severe", 3));
+        c.put(12L, Map.of());
+        when(jobs.loadChunk(TRAEGER_ID, 0L, CHUNK_SIZE)).thenReturn(c);
+
+        runner.run(JOB_ID);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SnapshotRow>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jobs).insertSnapshots(eq(CONFIG_ID), eq("v3"), rows.capture());
+        assertThat(rows.getValue()).extracting(SnapshotRow::fallId, SnapshotRow::trafficLight)
+                .containsExactly(tuple(11L, "ROT"), tuple(12L, "GRUEN"));
+        verify(jobs).updateListTrafficLights(rows.getValue());
+    }
+
+    // ── Resume ────────────────────────────────────────────────────────────────
+
+    @Test
+    void failed_job_resumes_after_the_last_written_chunk() {
+        job(0L);
+        chunk(0L, 11L, 12L);
+        when(jobs.loadChunk(TRAEGER_ID, 12L, CHUNK_SIZE)).thenThrow(new IllegalStateException("db gone"));
+
+        runner.run(JOB_ID);
+
+        verify(jobs).advance(JOB_ID, 12L, 2);
+        verify(jobs).finish(JOB_ID, "FAILED", "db gone");
+        verify(jobs, never()).finish(JOB_ID, "DONE", null);
+
+        // second run: the job row now carries last_fall_id = 12
+        reset(jobs);
+        when(jobs.tryClaim(eq(JOB_ID), anyLong())).thenReturn(true);
+        when(jobs.advance(eq(JOB_ID), anyLong(), anyInt())).thenReturn(true);
+        when(jobs.loadChunk(eq(TRAEGER_ID), anyLong(), eq(CHUNK_SIZE))).thenReturn(new LinkedHashMap<>());
+        job(12L);
+        chunk(12L, 15L);
+
+        runner.run(JOB_ID);
+
+        verify(jobs, never()).loadChunk(TRAEGER_ID, 0L, CHUNK_SIZE);
+        verify(jobs).advance(JOB_ID, 15L, 1);
+        verify(jobs).finish(JOB_ID, "DONE", null);
+    }
+
+    @Test
+    void job_claimed_elsewhere_is_not_run() {
+        job(0L);
+        when(jobs.tryClaim(eq(JOB_ID), anyLong())).thenReturn(false);
+
+        runner.run(JOB_ID);
+
+        verify(jobs, never()).loadChunk(anyLong(), anyLong(), anyInt());
+        verify(jobs, never()).finish(anyLong(), anyString(), any());
+    }
+
+    // ── Superseded ────────────────────────────────────────────────────────────
+
+    @Test
+    void superseded_job_stops_before_writing_the_chunk() {
+        job(0L);
+        chunk(0L, 11L, 12L);
+        when(jobs.advance(eq(JOB_ID), anyLong(), anyInt())).thenReturn(false);
+
+        runner.run(JOB_ID);
+
+        verify(jobs, never()).insertSnapshots(anyLong(), anyString(), anyList());
+        verify(jobs, never()).updateListTrafficLights(anyList());
+        verify(jobs, never()).finish(anyLong(), anyString(), any());
+    }
+
+    @Test
+    void job_for_an_inactive_config_is_marked_superseded() {
+        job(0L);
+        when(matrixCache.forTraeger(TRAEGER_ID)).thenReturn(new RiskMatrixCache.ActiveMatrix(
+                CONFIG_ID + 1, "v4", CompiledRiskMatrix.compile(FallRiskService.defaultConfig())));
+
+        runner.run(JOB_ID);
+
+        verify(jobs).finish(eq(JOB_ID), eq("SUPERSEDED"), anyString());
+        verify(jobs, never()).loadChunk(anyLong(), anyLong(), anyInt());
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private void job(long lastFallId) {
+        when(jobs.findById(JOB_ID)).thenReturn(Optional.of(new Job(
+                JOB_ID, TRAEGER_ID, CONFIG_ID, "RUNNING", 3, 0, lastFallId, null,
+                Instant.now(), Instant.now(), null)));
+    }
+
+    private void chunk(long after, Long... fallIds) {
+        LinkedHashMap<Long, Map<String, Integer>> c = new LinkedHashMap<>();
+        for (Long id : fallIds) c.put(id, Map.of("neglect_basic", 2));
+        when(jobs.loadChunk(TRAEGER_ID, after, CHUNK_SIZE)).thenReturn(c);
+    }
+}
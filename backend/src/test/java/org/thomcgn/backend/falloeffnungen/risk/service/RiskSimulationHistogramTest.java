@@ -0,0 +1,50 @@
+package org.thomcgn.backend.falloeffnungen.risk.service;
+
+import org.junit.jupiter.api.Test;
+import org.thomcgn.backend.falloeffnungen.risk.dto.RiskSimulationResponse.ScoreBucket;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Score histogram of the simulation: the bucket count is bounded no matter which weights the
+ * draft config uses; when capped, the last bucket collects every higher score.
+ */
+class RiskSimulationHistogramTest {
+
+    @Test
+    void buckets_reach_up_to_the_highest_score() {
+        List<ScoreBucket> h = RiskSimulationService.scoreHistogram(new double[]{0.0, 1.9, 2.0, 5.5}, 4);
+
+        assertThat(h).extracting(ScoreBucket::from, ScoreBucket::to, ScoreBucket::count)
+                .containsExactly(tuple(0.0, 2.0, 2), tuple(2.0, 4.0, 1), tuple(4.0, 6.0, 1));
+    }
+
+    @Test
+    void large_scores_are_capped_into_an_open_last_bucket() {
+        List<ScoreBucket> h = RiskSimulationService.scoreHistogram(new double[]{1.0, 1e12, 5_000.0}, 3);
+
+        assertThat(h).hasSize(RiskSimulationService.MAX_SCORE_BUCKETS);
+        ScoreBucket last = h.get(h.size() - 1);
+        assertThat(last.to()).isNull();
+        assertThat(last.count()).isEqualTo(2);
+        assertThat(h.get(0).count()).isEqualTo(1);
+    }
+
+    @Test
+    void non_finite_scores_do_not_break_the_histogram() {
+        List<ScoreBucket> h = RiskSimulationService.scoreHistogram(
+                new double[]{Double.POSITIVE_INFINITY, Double.NaN, Double.MAX_VALUE}, 3);
+
+        assertThat(h).hasSize(RiskSimulationService.MAX_SCORE_BUCKETS);
+        assertThat(h.stream().mapToInt(ScoreBucket::count).sum()).isEqualTo(3);
+    }
+
+    @Test
+    void empty_caseload_has_one_empty_bucket() {
+        assertThat(RiskSimulationService.scoreHistogram(new double[0], 0))
+                .extracting(ScoreBucket::count).containsExactly(0);
+    }
+}
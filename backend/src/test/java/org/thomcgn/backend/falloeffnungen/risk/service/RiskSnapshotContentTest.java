@@ -0,0 +1,233 @@
+package org.thomcgn.backend.falloeffnungen.risk.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thomcgn.backend.auth.service.AccessControlService;
+import org.thomcgn.backend.falloeffnungen.model.Falleroeffnung;
+import org.thomcgn.backend.falloeffnungen.repo.FallListEntryRepository;
+import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungRepository;
+import org.thomcgn.backend.falloeffnungen.risk.model.FallIndicatorMaxSeverity;
+import org.thomcgn.backend.falloeffnungen.risk.model.FalleroeffnungRiskSnapshot;
+import org.thomcgn.backend.falloeffnungen.risk.model.RiskSnapshotPayload;
+import org.thomcgn.backend.falloeffnungen.risk.repo.*;
+import org.thomcgn.backend.tenants.model.Traeger;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Change-only snapshot storage: contentHash covers config, score, traffic light, hard rules and
+ * dimensions (not the rationale texts), payloadHash the serialized JSON; both follow the formulas
+ * V070 uses for the backfill. An unchanged result only confirms the latest snapshot.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RiskSnapshotContentTest {
+
+    private static final long FALL_ID    = 42L;
+    private static final long TRAEGER_ID = 1L;
+    private static final char SEP = (char) 31;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock FalleroeffnungRepository fallRepo;
+    @Mock FallIndicatorMaxSeverityRepository indicatorAggRepo;
+    @Mock FalleroeffnungRiskSnapshotRepository snapshotRepo;
+    @Mock RiskSnapshotPayloadRepository payloadRepo;
+    @Mock FallListEntryRepository fallListRepo;
+    @Mock RiskMatrixCache matrixCache;
+
+    FallRiskService service;
+    RiskMatrixCache.ActiveMatrix active;
+
+    @BeforeEach
+    void setUp() {
+        service = new FallRiskService(
+                fallRepo, indicatorAggRepo, mock(TraegerRiskMatrixConfigRepository.class), snapshotRepo, payloadRepo,
+                mock(FallRiskQueryRepository.class), mock(AccessControlService.class), objectMapper, fallListRepo,
+                matrixCache, mock(RiskRecomputeOutboxRepository.class), 2000, 30000);
+
+        active = new RiskMatrixCache.ActiveMatrix(null, null, CompiledRiskMatrix.compile(FallRiskService.defaultConfig()));
+        Falleroeffnung fall = fall();
+        FallIndicatorMaxSeverity neglect = severity("neglect_basic", 2);
+        RiskSnapshotPayload payload = mock(RiskSnapshotPayload.class);
+        when(matrixCache.forTraeger(TRAEGER_ID)).thenReturn(active);
+        when(fallRepo.findByIdWithRefs(FALL_ID)).thenReturn(Optional.of(fall));
+        when(indicatorAggRepo.findAllByFallId(FALL_ID)).thenReturn(List.of(neglect));
+        when(payloadRepo.findByPayloadHash(anyString())).thenReturn(Optional.of(payload));
+        when(snapshotRepo.save(any())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    // ── Hashes ────────────────────────────────────────────────────────────────
+
+    @Test
+    void hashes_follow_the_documented_formulas() {
+        RiskSnapshotContent c = RiskSnapshotContent.of(
+                eval(12.34, "GELB", List.of("Score zwischen 10.1 und 20.0."), List.of("körperlich")), 9L, "v3", objectMapper);
+
+        assertThat(c.finalScore()).isEqualByComparingTo("12.3");
+        assertThat(c.finalScore().toPlainString()).isEqualTo("12.3");
+        assertThat(c.dimensionsJson()).isEqualTo("[\"körperlich\"]");
+        assertThat(c.payloadHash()).isEqualTo(sha256(
+                "[\"Score zwischen 10.1 und 20.0.\"]" + SEP + "[]" + SEP + "[\"körperlich\"]"));
+        assertThat(c.contentHash()).isEqualTo(sha256(
+                "9:v3" + SEP + "12.3" + SEP + "GELB" + SEP + "[]" + SEP + "[\"körperlich\"]"));
+    }
+
+    @Test
+    void default_matrix_hashes_with_default_prefix() {
+        RiskSnapshotContent c = RiskSnapshotContent.of(eval(0.0, "GRUEN", List.of(), List.of()), null, "1.0", objectMapper);
+
+        assertThat(c.contentHash()).isEqualTo(sha256(
+                "default:1.0" + SEP + "0.0" + SEP + "GRUEN" + SEP + "[]" + SEP + "[]"));
+    }
+
+    @Test
+    void equal_evaluations_produce_equal_hashes() {
+        RiskSnapshotContent a = RiskSnapshotContent.of(eval(5.0, "GRUEN", List.of("x"), List.of("kontext")), 9L, "v3", objectMapper);
+        RiskSnapshotContent b = RiskSnapshotContent.of(eval(5.0, "GRUEN", List.of("x"), List.of("kontext")), 9L, "v3", objectMapper);
+
+        assertThat(b.contentHash()).isEqualTo(a.contentHash());
+        assertThat(b.payloadHash()).isEqualTo(a.payloadHash());
+    }
+
+    @Test
+    void rationale_text_changes_payload_but_not_content() {
+        RiskSnapshotContent a = RiskSnapshotContent.of(eval(5.0, "GRUEN", List.of("alt"), List.of()), 9L, "v3", objectMapper);
+        RiskSnapshotContent b = RiskSnapshotContent.of(eval(5.0, "GRUEN", List.of("neu"), List.of()), 9L, "v3", objectMapper);
+
+        assertThat(b.contentHash()).isEqualTo(a.contentHash());
+        assertThat(b.payloadHash()).isNotEqualTo(a.payloadHash());
+    }
+
+    @Test
+    void score_below_display_precision_does_not_change_content() {
+        RiskSnapshotContent a = RiskSnapshotContent.of(eval(5.01, "GRUEN", List.of(), List.of()), 9L, "v3", objectMapper);
+        RiskSnapshotContent b = RiskSnapshotContent.of(eval(5.04, "GRUEN", List.of(), List.of()), 9L, "v3", objectMapper);
+        RiskSnapshotContent c = RiskSnapshotContent.of(eval(5.1, "GRUEN", List.of(), List.of()), 9L, "v3", objectMapper);
+
+        assertThat(b.contentHash()).isEqualTo(a.contentHash());
+        assertThat(c.contentHash()).isNotEqualTo(a.contentHash());
+        assertThat(c.payloadHash()).isEqualTo(a.payloadHash());
+    }
+
+    @Test
+    void config_id_and_version_are_part_of_the_content() {
+        RiskSnapshotContent base = RiskSnapshotContent.of(eval(5.0, "GRUEN", List.of(), List.of()), 9L, "v3", objectMapper);
+
+        assertThat(RiskSnapshotContent.of(eval(5.0, "GRUEN", List.of(), List.of()), 10L, "v3", objectMapper).contentHash())
+                .isNotEqualTo(base.contentHash());
+        assertThat(RiskSnapshotContent.of(eval(5.0, "GRUEN", List.of(), List.of()), 9L, "v4", objectMapper).contentHash())
+                .isNotEqualTo(base.contentHash());
+        assertThat(RiskSnapshotContent.of(eval(5.0, "GRUEN", List.of(), List.of()), null, "v3", objectMapper).contentHash())
+                .isNotEqualTo(base.contentHash());
+    }
+
+    // ── Confirm or insert ─────────────────────────────────────────────────────
+
+    @Test
+    void unchanged_result_only_confirms_the_latest_snapshot() {
+        RiskSnapshotContent expected = RiskSnapshotContent.of(
+                active.matrix().evaluate(Map.of("neglect_basic", 2)), null, active.snapshotVersion(), objectMapper);
+        FalleroeffnungRiskSnapshot latest = snapshot(expected.contentHash(), Instant.parse("2025-01-01T00:00:00Z"));
+        when(snapshotRepo.findLatest(FALL_ID)).thenReturn(Optional.of(latest));
+
+        service.recomputeQueued(FALL_ID);
+
+        verify(snapshotRepo, never()).save(any());
+        verify(payloadRepo, never()).insertIfAbsent(anyString(), anyString(), anyString(), anyString());
+        verify(fallListRepo, never()).refresh(anyLong());
+        assertThat(latest.getConfirmedAt()).isAfter(Instant.parse("2025-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void changed_result_inserts_a_snapshot_with_its_hashes() {
+        FalleroeffnungRiskSnapshot latest = snapshot("older", Instant.now());
+        when(snapshotRepo.findLatest(FALL_ID)).thenReturn(Optional.of(latest));
+
+        service.recomputeQueued(FALL_ID);
+
+        ArgumentCaptor<FalleroeffnungRiskSnapshot> saved = ArgumentCaptor.forClass(FalleroeffnungRiskSnapshot.class);
+        verify(snapshotRepo).save(saved.capture());
+        RiskSnapshotContent expected = RiskSnapshotContent.of(
+                active.matrix().evaluate(Map.of("neglect_basic", 2)), null, active.snapshotVersion(), objectMapper);
+        assertThat(saved.getValue().getContentHash()).isEqualTo(expected.contentHash());
+        assertThat(saved.getValue().getFinalScore()).isEqualByComparingTo(expected.finalScore());
+        assertThat(saved.getValue().getConfirmedAt()).isNotNull();
+        verify(payloadRepo).insertIfAbsent(expected.payloadHash(),
+                expected.rationaleJson(), expected.hardHitsJson(), expected.dimensionsJson());
+        verify(fallListRepo).refresh(FALL_ID);
+    }
+
+    @Test
+    void first_evaluation_inserts_a_snapshot() {
+        when(snapshotRepo.findLatest(anyLong())).thenReturn(Optional.empty());
+
+        service.recomputeQueued(FALL_ID);
+
+        verify(snapshotRepo).save(any());
+        verify(fallListRepo).refresh(FALL_ID);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static CompiledRiskMatrix.Evaluation eval(double finalScore, String trafficLight,
+                                                      List<String> rationale, List<String> dimensions) {
+        return new CompiledRiskMatrix.Evaluation(finalScore, 0.0, finalScore, trafficLight, rationale, List.of(), dimensions);
+    }
+
+    private static FalleroeffnungRiskSnapshot snapshot(String contentHash, Instant confirmedAt) {
+        FalleroeffnungRiskSnapshot s = new FalleroeffnungRiskSnapshot();
+        s.setFalleroeffnung(fall());
+        s.setPayload(mock(RiskSnapshotPayload.class));
+        s.setFinalScore(BigDecimal.ZERO);
+        s.setContentHash(contentHash);
+        s.setConfirmedAt(confirmedAt);
+        return s;
+    }
+
+    private static FallIndicatorMaxSeverity severity(String indicatorId, int maxSeverity) {
+        FallIndicatorMaxSeverity a = mock(FallIndicatorMaxSeverity.class);
+        when(a.getIndicatorId()).thenReturn(indicatorId);
+        when(a.getMaxSeverity()).thenReturn(maxSeverity);
+        return a;
+    }
+
+    private static Falleroeffnung fall() {
+        Traeger traeger = new Traeger();
+        ReflectionTestUtils.setField(traeger, "id", TRAEGER_ID);
+
+        Falleroeffnung fall = mock(Falleroeffnung.class);
+        when(fall.getId()).thenReturn(FALL_ID);
+        when(fall.getTraeger()).thenReturn(traeger);
+        return fall;
+    }
+
+    private static String sha256(String s) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
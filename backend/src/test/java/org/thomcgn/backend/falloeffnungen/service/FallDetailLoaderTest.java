@@ -0,0 +1,243 @@
+package org.thomcgn.backend.falloeffnungen.service;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.thomcgn.backend.falloeffnungen.dto.FalleroeffnungNotizResponse;
+import org.thomcgn.backend.falloeffnungen.model.Falleroeffnung;
+import org.thomcgn.backend.falloeffnungen.risk.service.FallRiskService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fall detail and notes timeline against real Postgres (Flyway schema): the number of prepared
+ * statements stays constant no matter how many notes and tags a Fall has (author via fetch join,
+ * tags of the page in one IN query). FallRiskService is mocked; its snapshot lookup is not counted.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(FallDetailLoader.class)
+@Testcontainers(disabledWithoutDocker = true)
+class FallDetailLoaderTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @MockitoBean FallRiskService riskService;
+
+    @Autowired FallDetailLoader loader;
+    @Autowired EntityManager em;
+
+    private Statistics statistics;
+    private long traegerId;
+    private long einrichtungId;
+    private long userId;
+    private long fallId;
+
+    @BeforeEach
+    void setUp() {
+        traegerId = queryLong("SELECT id FROM traeger WHERE slug = 'demo-traeger'");
+        einrichtungId = queryLong(
+                "SELECT id FROM org_units WHERE traeger_id = " + traegerId + " AND type = 'EINRICHTUNG' ORDER BY id LIMIT 1");
+        userId = queryLong("SELECT id FROM users WHERE email = 'demo@kidoc.local'");
+
+        long kindId = queryLong("""
+                INSERT INTO kinder (traeger_id, owner_einrichtung_org_unit_id, vorname, nachname, foerderbedarf, created_at, updated_at)
+                VALUES (%d, %d, 'Detail', 'Test', false, now(), now())
+                RETURNING id
+                """.formatted(traegerId, einrichtungId));
+        long dossierId = queryLong("""
+                INSERT INTO kind_dossiers (traeger_id, einrichtung_org_unit_id, kind_id, enabled, created_at, updated_at)
+                VALUES (%d, %d, %d, true, now(), now())
+                RETURNING id
+                """.formatted(traegerId, einrichtungId, kindId));
+        fallId = queryLong("""
+                INSERT INTO falloeffnungen (dossier_id, traeger_id, einrichtung_org_unit_id, status, titel,
+                                            created_by_user_id, aktenzeichen, fall_no, opened_at, created_at, updated_at)
+                VALUES (%d, %d, %d, 'OFFEN', 'Detail-Test', %d, 'DETAIL-000001', 990002, now(), now(), now())
+                RETURNING id
+                """.formatted(dossierId, traegerId, einrichtungId, userId));
+        em.createNativeQuery("""
+                INSERT INTO falloeffnung_anlaesse (falloeffnung_id, code, created_at, updated_at)
+                VALUES (%d, 'SCHULE', now(), now())
+                """.formatted(fallId)).executeUpdate();
+
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // ── Statement count does not grow with the number of notes ────────────────
+
+    @Test
+    void load_issues_constant_number_of_statements_regardless_of_note_count() {
+        insertNotes(1, 0);
+        long withOneNote = statementsForDetail();
+
+        insertNotes(300, 1);
+        long withManyNotes = statementsForDetail();
+
+        // notes page (author fetch-joined) + tags IN + anlass codes
+        assertThat(withOneNote).isEqualTo(3);
+        assertThat(withManyNotes).isEqualTo(withOneNote);
+    }
+
+    @Test
+    void load_skips_tag_query_when_fall_has_no_notes() {
+        assertThat(statementsForDetail()).isEqualTo(2);
+    }
+
+    @Test
+    void loadNotizPage_loads_tags_of_a_large_page_in_one_statement() {
+        insertNotes(300, 0);
+        prepare();
+
+        FallDetailLoader.NotizPage page = loader.loadNotizPage(
+                fallId, traegerId, einrichtungId, null, null, null, null, 100, false);
+
+        assertThat(page.items()).hasSize(100)
+                .allSatisfy(n -> assertThat(n.anlassCodes()).containsExactly("HAUSBESUCH"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    // ── Mapping and paging ────────────────────────────────────────────────────
+
+    @Test
+    void load_assigns_tags_to_their_notes() {
+        insertNotes(2, 0);
+        long newer = noteIdAt(0);
+        long older = noteIdAt(1);
+        em.createNativeQuery("UPDATE falloeffnung_notiz_tags SET anlass_code = ' SCHULE ' WHERE notiz_id = " + newer)
+                .executeUpdate();
+        em.createNativeQuery("""
+                UPDATE falloeffnung_notiz_tags SET anlass_code = NULL, indicator_id = 'neglect_basic', severity = 5
+                WHERE notiz_id = %d
+                """.formatted(older)).executeUpdate();
+        prepare();
+
+        FallDetailLoader.NotizPage page = loader.loadNotizPage(
+                fallId, traegerId, einrichtungId, null, null, null, null, 10, false);
+
+        assertThat(page.items()).extracting(FalleroeffnungNotizResponse::id).containsExactly(newer, older);
+        assertThat(page.items().get(0).anlassCodes()).containsExactly("SCHULE");
+        assertThat(page.items().get(0).indicatorLinks()).isEmpty();
+        assertThat(page.items().get(1).anlassCodes()).isEmpty();
+        assertThat(page.items().get(1).indicatorLinks()).singleElement()
+                .satisfies(l -> assertThat(l.severity()).isEqualTo(3));
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void loadNotizPage_continues_after_cursor_without_gaps() {
+        insertNotes(11, 0);
+        prepare();
+
+        FallDetailLoader.NotizPage first = loader.loadNotizPage(
+                fallId, traegerId, einrichtungId, null, null, null, null, 10, false);
+        assertThat(first.items()).hasSize(10);
+        KeysetCursor cursor = KeysetCursor.decode(first.nextCursor());
+        assertThat(cursor.id()).isEqualTo(noteIdAt(9));
+
+        FallDetailLoader.NotizPage second = loader.loadNotizPage(
+                fallId, traegerId, einrichtungId, null, null, null, cursor, 10, false);
+        assertThat(second.items()).extracting(FalleroeffnungNotizResponse::id).containsExactly(noteIdAt(10));
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void loadNotizPage_summary_skips_tags_and_shortens_text() {
+        insertNotes(1, 0);
+        em.createNativeQuery("UPDATE falloeffnung_notizen SET text = repeat('x', 1000) WHERE falloeffnung_id = " + fallId)
+                .executeUpdate();
+        prepare();
+
+        FallDetailLoader.NotizPage page = loader.loadNotizPage(
+                fallId, traegerId, einrichtungId, null, null, null, null, 10, true);
+
+        assertThat(page.items().get(0).text()).hasSize(FallDetailLoader.SUMMARY_TEXT_MAX);
+        assertThat(page.items().get(0).anlassCodes()).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void load_returns_newest_notes_in_chronological_order() {
+        insertNotes(25, 0);
+        Falleroeffnung fall = prepare();
+
+        FallDetailLoader.FallDetail detail = loader.load(fall, traegerId, einrichtungId);
+
+        assertThat(detail.notizen()).hasSize(FallDetailLoader.DETAIL_NOTIZEN);
+        assertThat(detail.notizen().get(0).id()).isEqualTo(noteIdAt(FallDetailLoader.DETAIL_NOTIZEN - 1));
+        assertThat(detail.notizen().get(FallDetailLoader.DETAIL_NOTIZEN - 1).id()).isEqualTo(noteIdAt(0));
+        assertThat(detail.notizenNextCursor()).isNotNull();
+        assertThat(detail.anlassCodes()).containsExactly("SCHULE");
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private long statementsForDetail() {
+        Falleroeffnung fall = prepare();
+
+        FallDetailLoader.FallDetail detail = loader.load(fall, traegerId, einrichtungId);
+        assertThat(detail.notizen()).hasSizeLessThanOrEqualTo(FallDetailLoader.DETAIL_NOTIZEN);
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    /** Flushes and clears the context, loads the Fall and resets the statistics. */
+    private Falleroeffnung prepare() {
+        em.flush();
+        em.clear();
+        Falleroeffnung fall = em.find(Falleroeffnung.class, fallId);
+        statistics.clear();
+        return fall;
+    }
+
+    /** Inserts count notes with one HAUSBESUCH tag each; note i is i seconds older than note 0 of this batch. */
+    private void insertNotes(int count, int offsetSeconds) {
+        em.createNativeQuery("""
+                INSERT INTO falloeffnung_notizen (falloeffnung_id, created_by_user_id, typ, text, visibility, created_at, updated_at)
+                SELECT %d, %d, 'NOTIZ', 'Notiz ' || g, 'INTERN',
+                       timestamptz '2025-01-01 00:00:00+00' - (g + %d) * interval '1 second', now()
+                  FROM generate_series(0, %d) g
+                """.formatted(fallId, userId, offsetSeconds, count - 1)).executeUpdate();
+        em.createNativeQuery("""
+                INSERT INTO falloeffnung_notiz_tags (notiz_id, anlass_code, created_at, updated_at)
+                SELECT n.id, 'HAUSBESUCH', now(), now()
+                  FROM falloeffnung_notizen n
+                 WHERE n.falloeffnung_id = %d
+                   AND NOT EXISTS (SELECT 1 FROM falloeffnung_notiz_tags t WHERE t.notiz_id = n.id)
+                """.formatted(fallId)).executeUpdate();
+    }
+
+    /** Id of the note at position index, newest first. */
+    private long noteIdAt(int index) {
+        return queryLong("""
+                SELECT id FROM falloeffnung_notizen WHERE falloeffnung_id = %d
+                ORDER BY created_at DESC, id DESC OFFSET %d LIMIT 1
+                """.formatted(fallId, index));
+    }
+
+    private long queryLong(String sql) {
+        return ((Number) em.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+}
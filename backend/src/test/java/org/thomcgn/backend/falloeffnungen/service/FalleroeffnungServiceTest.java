@@ -8,20 +8,29 @@ import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.thomcgn.backend.audit.service.AuditService;
 import org.thomcgn.backend.auth.service.AccessControlService;
 import org.thomcgn.backend.common.errors.DomainException;
 import org.thomcgn.backend.common.security.SecurityUtils;
 import org.thomcgn.backend.dossiers.repo.KindDossierRepository;
+import org.thomcgn.backend.falloeffnungen.dto.FalleroeffnungListItemResponse;
+import org.thomcgn.backend.falloeffnungen.dto.FalleroeffnungListResponse;
 import org.thomcgn.backend.falloeffnungen.dto.UpdateFalleroeffnungStatusRequest;
 import org.thomcgn.backend.falloeffnungen.meldung.model.Dringlichkeit;
 import org.thomcgn.backend.falloeffnungen.meldung.model.Meldung;
 import org.thomcgn.backend.falloeffnungen.meldung.repo.MeldungRepository;
+import org.thomcgn.backend.falloeffnungen.model.FallListEntry;
 import org.thomcgn.backend.falloeffnungen.model.Falleroeffnung;
 import org.thomcgn.backend.falloeffnungen.model.FalleroeffnungStatus;
+import org.thomcgn.backend.falloeffnungen.repo.FallListEntryRepository;
 import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungNotizRepository;
 import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungRepository;
+import org.thomcgn.backend.falloeffnungen.repo.FalleroeffnungSearchRepository;
+import org.thomcgn.backend.falloeffnungen.risk.repo.FallIndicatorMaxSeverityRepository;
 import org.thomcgn.backend.falloeffnungen.risk.repo.FalleroeffnungAnlassRepository;
 import org.thomcgn.backend.falloeffnungen.risk.repo.FalleroeffnungNotizTagRepository;
 import org.thomcgn.backend.falloeffnungen.risk.service.FallRiskService;
@@ -32,9 +41,12 @@ import org.thomcgn.backend.tenants.model.Traeger;
 import org.thomcgn.backend.tenants.repo.TraegerRepository;
 import org.thomcgn.backend.users.repo.UserRepository;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
@@ -57,6 +69,10 @@ class FalleroeffnungServiceTest {
     @Mock FalleroeffnungNotizTagRepository tagRepo;
     @Mock FallRiskService riskService;
     @Mock MeldungRepository meldungRepo;
+    @Mock FalleroeffnungSearchRepository searchRepo;
+    @Mock FallListEntryRepository listRepo;
+    @Mock FallDetailLoader detailLoader;
+    @Mock FallIndicatorMaxSeverityRepository indicatorAggRepo;
 
     @InjectMocks
     FalleroeffnungService service;
@@ -246,4 +262,100 @@ class FalleroeffnungServiceTest {
             verify(fall).setClosedAt(any());
         }
     }
+
+    // ── Cursor list: keyset paging and totals ────────────────────────────────
+
+    @Test
+    void listByCursor_returns_cursor_of_last_row_when_more_rows_exist() {
+        try (MockedStatic<SecurityUtils> sec = mockStatic(SecurityUtils.class)) {
+            stubSecurityContext(sec);
+            Instant t = Instant.parse("2025-01-14T08:45:00Z");
+            List<FallListEntry> rows = List.of(listEntry(30L, t), listEntry(20L, t), listEntry(10L, t.minusSeconds(60)));
+            when(listRepo.listScopedAfter(eq(TRAEGER_ID), eq(ORG_UNIT_ID), isNull(), any(), any(), any(Pageable.class)))
+                    .thenReturn(rows);
+            when(searchRepo.estimateScopedCount(TRAEGER_ID, ORG_UNIT_ID, null)).thenReturn(500L);
+
+            FalleroeffnungListResponse res = service.listByCursor(null, null, null, 2, false);
+
+            assertThat(res.items()).extracting(FalleroeffnungListItemResponse::id).containsExactly(30L, 20L);
+            assertThat(KeysetCursor.decode(res.nextCursor())).isEqualTo(new KeysetCursor(t, 20L));
+            assertThat(res.total()).isEqualTo(500L);
+            assertThat(res.totalEstimated()).isTrue();
+            // first page seeks from the sentinel, not from a null cursor
+            verify(listRepo).listScopedAfter(TRAEGER_ID, ORG_UNIT_ID, null,
+                    KeysetCursor.NEWEST_FIRST_START.createdAt(), Long.MAX_VALUE, PageRequest.of(0, 3));
+        }
+    }
+
+    @Test
+    void listByCursor_seeks_after_the_decoded_cursor() {
+        try (MockedStatic<SecurityUtils> sec = mockStatic(SecurityUtils.class)) {
+            stubSecurityContext(sec);
+            Instant t = Instant.parse("2025-01-14T08:45:00Z");
+            when(listRepo.listScopedAfter(anyLong(), anyLong(), any(), any(), any(), any(Pageable.class)))
+                    .thenReturn(List.of(listEntry(10L, t.minusSeconds(60))));
+            when(listRepo.countScoped(TRAEGER_ID, ORG_UNIT_ID, FalleroeffnungStatus.OFFEN)).thenReturn(3L);
+
+            FalleroeffnungListResponse res = service.listByCursor(
+                    "OFFEN", " ", new KeysetCursor(t, 20L).encode(), 2, true);
+
+            verify(listRepo).listScopedAfter(TRAEGER_ID, ORG_UNIT_ID, FalleroeffnungStatus.OFFEN, t, 20L, PageRequest.of(0, 3));
+            assertThat(res.nextCursor()).isNull();
+            assertThat(res.total()).isEqualTo(3L);
+            assertThat(res.totalEstimated()).isFalse();
+        }
+    }
+
+    @Test
+    void listByCursor_with_search_counts_exactly_with_the_escaped_pattern() {
+        try (MockedStatic<SecurityUtils> sec = mockStatic(SecurityUtils.class)) {
+            stubSecurityContext(sec);
+            Instant t = Instant.parse("2025-01-14T08:45:00Z");
+            when(listRepo.searchScopedAfter(anyLong(), anyLong(), any(), anyString(), any(), any(), any(Pageable.class)))
+                    .thenReturn(List.of(listEntry(30L, t), listEntry(20L, t)));
+            when(listRepo.countMatching(TRAEGER_ID, ORG_UNIT_ID, null, "%50\\%\\_a%")).thenReturn(7L);
+
+            FalleroeffnungListResponse res = service.listByCursor(null, " 50%_A ", null, 1, false);
+
+            verify(listRepo).searchScopedAfter(TRAEGER_ID, ORG_UNIT_ID, null, "%50\\%\\_a%",
+                    KeysetCursor.NEWEST_FIRST_START.createdAt(), Long.MAX_VALUE, PageRequest.of(0, 2));
+            verify(searchRepo, never()).estimateScopedCount(anyLong(), anyLong(), any());
+            assertThat(res.total()).isEqualTo(7L);
+            assertThat(res.totalEstimated()).isFalse();
+        }
+    }
+
+    @Test
+    void listByCursor_single_page_needs_no_count_query() {
+        try (MockedStatic<SecurityUtils> sec = mockStatic(SecurityUtils.class)) {
+            stubSecurityContext(sec);
+            when(listRepo.searchScopedAfter(anyLong(), anyLong(), any(), anyString(), any(), any(), any(Pageable.class)))
+                    .thenReturn(List.of(listEntry(30L, Instant.parse("2025-01-14T08:45:00Z"))));
+
+            FalleroeffnungListResponse res = service.listByCursor(null, "kim", null, 20, false);
+
+            assertThat(res.total()).isEqualTo(1L);
+            verify(listRepo, never()).countMatching(anyLong(), anyLong(), any(), anyString());
+        }
+    }
+
+    @Test
+    void listByCursor_rejects_malformed_cursor() {
+        try (MockedStatic<SecurityUtils> sec = mockStatic(SecurityUtils.class)) {
+            stubSecurityContext(sec);
+
+            assertThatThrownBy(() -> service.listByCursor(null, null, "not-a-cursor", 20, false))
+                    .isInstanceOf(DomainException.class)
+                    .extracting(e -> ((DomainException) e).getStatus())
+                    .isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static FallListEntry listEntry(long fallId, Instant createdAt) {
+        FallListEntry e = mock(FallListEntry.class);
+        when(e.getFallId()).thenReturn(fallId);
+        when(e.getCreatedAt()).thenReturn(createdAt);
+        when(e.getStatus()).thenReturn(FalleroeffnungStatus.OFFEN);
+        return e;
+    }
 }
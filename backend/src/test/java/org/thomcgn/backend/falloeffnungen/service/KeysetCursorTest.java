@@ -0,0 +1,53 @@
+package org.thomcgn.backend.falloeffnungen.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.thomcgn.backend.common.errors.DomainException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Opaque (createdAt, id) cursor shared by the fall list, notes timeline and risk history. */
+class KeysetCursorTest {
+
+    @Test
+    void encode_and_decode_round_trip() {
+        KeysetCursor cursor = new KeysetCursor(Instant.parse("2025-01-14T08:45:00.123456Z"), 4711L);
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(KeysetCursor.decode(encoded)).isEqualTo(cursor);
+        assertThat(KeysetCursor.decode(" " + encoded + " ")).isEqualTo(cursor);
+    }
+
+    @Test
+    void missing_cursor_means_first_page() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("")).isNull();
+        assertThat(KeysetCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void malformed_cursor_is_rejected_with_400() {
+        assertInvalid("not-a-cursor!");
+        assertInvalid(base64("2025-01-14T08:45:00Z"));
+        assertInvalid(base64("gestern|42"));
+        assertInvalid(base64("2025-01-14T08:45:00Z|x"));
+    }
+
+    private static void assertInvalid(String cursor) {
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor))
+                .isInstanceOf(DomainException.class)
+                .extracting(e -> ((DomainException) e).getStatus())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,9 +1,10 @@
 import type { FalleroeffnungResponse } from "@/lib/types";
-import type { MeldungResponse } from "@/lib/meldungApi";
+import type { MeldungChangeResponse, MeldungResponse } from "@/lib/meldungApi";
 
 type MeldungPrintDocumentProps = {
     fall: FalleroeffnungResponse | null;
     d: MeldungResponse;
+    changes: MeldungChangeResponse[];
 };
 
 function formatDateTimeDE(value: string | null | undefined) {
@@ -109,6 +110,7 @@ function PrintTable({
 export default function MeldungPrintDocument({
                                                  fall,
                                                  d,
+                                                 changes,
                                              }: MeldungPrintDocumentProps) {
     const isCorrection =
         String(d.type ?? "").toUpperCase() === "KORREKTUR" || !!d.correctsId;
@@ -384,7 +386,7 @@ export default function MeldungPrintDocument({
                         { key: "reason", label: "Grund" },
                         { key: "by", label: "Von" },
                     ]}
-                    rows={(d.changes ?? []).map((c) => ({
+                    rows={changes.map((c) => ({
                         section: c.section ?? "—",
                         field: c.fieldPath ?? "—",
                         at: formatDateTimeDE(c.changedAt),
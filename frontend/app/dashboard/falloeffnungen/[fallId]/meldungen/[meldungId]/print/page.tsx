@@ -1,7 +1,11 @@
 import { notFound } from "next/navigation";
 import { cookies } from "next/headers";
 import type { FalleroeffnungResponse } from "@/lib/types";
-import type { MeldungResponse } from "@/lib/meldungApi";
+import type {
+    MeldungChangePageResponse,
+    MeldungChangeResponse,
+    MeldungResponse,
+} from "@/lib/meldungApi";
 import MeldungPrintDocument from "./MeldungPrintDocument";
 
 type PageProps = {
@@ -90,6 +94,23 @@ async function serverApiFetch<T>(path: string): Promise<T> {
     }
 }
 
+/** Vollständiger Change-Log für das Audit-Kapitel (Backend liefert ihn seitenweise). */
+async function fetchAllChanges(fallId: number, meldungId: number): Promise<MeldungChangeResponse[]> {
+    const all: MeldungChangeResponse[] = [];
+    let cursor: string | null = null;
+
+    do {
+        const qs: string = cursor ? `&cursor=${encodeURIComponent(cursor)}` : "";
+        const page: MeldungChangePageResponse = await serverApiFetch<MeldungChangePageResponse>(
+            `/falloeffnungen/${fallId}/meldungen/${meldungId}/changes?limit=200${qs}`
+        );
+        all.push(...page.items);
+        cursor = page.nextCursor;
+    } while (cursor);
+
+    return all;
+}
+
 export default async function MeldungPrintPage({ params }: PageProps) {
     const { fallId, meldungId } = await params;
 
@@ -101,11 +122,12 @@ export default async function MeldungPrintPage({ params }: PageProps) {
     }
 
     try {
-        const [fall, meldung] = await Promise.all([
+        const [fall, meldung, changes] = await Promise.all([
             serverApiFetch<FalleroeffnungResponse>(`/falloeffnungen/${fallIdNum}`),
             serverApiFetch<MeldungResponse>(
                 `/falloeffnungen/${fallIdNum}/meldungen/${meldungIdNum}`
             ),
+            fetchAllChanges(fallIdNum, meldungIdNum),
         ]);
 
         return (
@@ -113,7 +135,7 @@ export default async function MeldungPrintPage({ params }: PageProps) {
                 <AutoPrint />
 
                 <div className="mx-auto w-full max-w-[960px] px-6 py-8 print-doc print:max-w-none print:px-0 print:py-0">
-                    <MeldungPrintDocument fall={fall} d={meldung} />
+                    <MeldungPrintDocument fall={fall} d={meldung} changes={changes} />
                 </div>
 
                 <style>{`
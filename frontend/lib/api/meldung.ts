@@ -37,6 +37,7 @@ export type MeldungResponse = {
 
     createdAt: string | null;
     updatedAt: string | null;
+    rowVersion: number;
     createdByDisplayName: string | null;
 
     supersedesId: number | null;
@@ -140,8 +141,21 @@ export type MeldungResponse = {
     freigabeAm: string | null;
     freigabeVonDisplayName: string | null;
 
-    // Changes
-    changes: MeldungChangeResponse[];
+    // Change-Log: nur Zusammenfassung, Einträge über meldungApi.changes
+    changeCount: number;
+    lastChangedAt: string | null;
+};
+
+export type MeldungChangePageResponse = {
+    items: MeldungChangeResponse[];
+    nextCursor: string | null;
+};
+
+export type MeldungChangeQuery = {
+    section?: string | null;
+    field?: string | null;
+    cursor?: string | null;
+    limit?: number | null;
 };
 
 export type MeldungCreateRequest = {
@@ -309,6 +323,19 @@ export const meldungApi = {
             body: req,
         }),
 
+    changes: (fallId: number, meldungId: number, q?: MeldungChangeQuery) => {
+        const params = new URLSearchParams();
+        if (q?.section) params.set("section", q.section);
+        if (q?.field) params.set("field", q.field);
+        if (q?.cursor) params.set("cursor", q.cursor);
+        if (q?.limit) params.set("limit", String(q.limit));
+        const qs = params.toString();
+        return apiFetch<MeldungChangePageResponse>(
+            `/falloeffnungen/${fallId}/meldungen/${meldungId}/changes${qs ? `?${qs}` : ""}`,
+            { method: "GET" }
+        );
+    },
+
     submit: (fallId: number, meldungId: number, req?: MeldungSubmitRequest | null) =>
         apiFetch<MeldungResponse>(`/falloeffnungen/${fallId}/meldungen/${meldungId}/submit`, {
             method: "POST",
@@ -38,6 +38,7 @@ export type MeldungResponse = {
 
     createdAt: string | null;
     updatedAt: string | null;
+    rowVersion: number;
     createdByDisplayName: string | null;
 
     supersedesId: number | null;
@@ -142,7 +143,14 @@ export type MeldungResponse = {
     freigabeAm: string | null;
     freigabeVonDisplayName: string | null;
 
-    changes: MeldungChangeResponse[];
+    // Change-Log: nur Zusammenfassung, Einträge über GET .../{meldungId}/changes
+    changeCount: number;
+    lastChangedAt: string | null;
+};
+
+export type MeldungChangePageResponse = {
+    items: MeldungChangeResponse[];
+    nextCursor: string | null;
 };
 
 export type MeldungCreateRequest = {